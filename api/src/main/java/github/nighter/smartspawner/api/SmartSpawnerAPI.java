@@ -109,6 +109,7 @@ public interface SmartSpawnerAPI {
     /**
      * Gets spawner data by location.
      * The returned DTO is read-only. To modify spawner properties, use {@link #getSpawnerModifier(String)}.
+     * With lazy loading, a spawner whose chunk is not loaded is read from storage first.
      *
      * @param location the location of the spawner block
      * @return the spawner data DTO, or null if no spawner exists at that location
@@ -118,6 +119,7 @@ public interface SmartSpawnerAPI {
     /**
      * Gets spawner data by unique identifier.
      * The returned DTO is read-only. To modify spawner properties, use {@link #getSpawnerModifier(String)}.
+     * With lazy loading, a spawner whose chunk is not loaded is read from storage first.
      *
      * @param spawnerId the unique ID of the spawner
      * @return the spawner data DTO, or null if spawner with that ID doesn't exist
@@ -136,6 +138,7 @@ public interface SmartSpawnerAPI {
      * Creates a modifier for the specified spawner to change its properties.
      * Use this to modify spawner values and then call {@link SpawnerDataModifier#applyChanges()}
      * to recalculate and apply the changes.
+     * Stored spawners are loaded the same way as in {@link #getSpawnerById(String)}.
      *
      * @param spawnerId the unique ID of the spawner
      * @return a spawner data modifier, or null if spawner doesn't exist
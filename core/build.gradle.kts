@@ -10,6 +10,12 @@ configurations {
     implementation.get().extendsFrom(shade)
 }
 
+// Offline benchmarks, compiled against the shaded plugin jar so they never ship inside it
+val benchmark: SourceSet by sourceSets.creating {
+    compileClasspath += files(tasks.shadowJar)
+    runtimeClasspath += files(tasks.shadowJar)
+}
+
 dependencies {
     api(project(":api"))
 
@@ -56,8 +62,53 @@ dependencies {
     annotationProcessor("org.projectlombok:lombok:1.18.46")
 
     implementation("org.bstats:bstats-bukkit:3.2.1")
+
+    testImplementation(platform("org.junit:junit-bom:5.12.2"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+    @Suppress("GradleDependency")
+    testImplementation("io.papermc.paper:paper-api:1.21.11-R0.1-SNAPSHOT")
+
+    @Suppress("GradleDependency")
+    "benchmarkImplementation"("io.papermc.paper:paper-api:1.21.11-R0.1-SNAPSHOT")
+    "benchmarkImplementation"("org.mockito:mockito-core:5.18.0")
+    "benchmarkImplementation"("ch.vorburger.mariaDB4j:mariaDB4j:3.1.0")
+    "benchmarkRuntimeOnly"("org.xerial:sqlite-jdbc:3.53.0.0")
 }
 
+tasks.test {
+    useJUnitPlatform()
+}
+
+// Offline benchmarks, options are passed as -Pbenchmark.<key>=<value>
+fun registerBenchmark(name: String, mainClass: String, description: String) =
+    tasks.register<JavaExec>(name) {
+        group = "verification"
+        this.description = description
+        classpath = benchmark.runtimeClasspath
+        this.mainClass.set(mainClass)
+        // Mockito attaches its agent at runtime to mock the plugin and the scheduler
+        jvmArgs("-XX:+EnableDynamicAgentLoading")
+        args(providers.gradlePropertiesPrefixedBy("benchmark.").get()
+                .map { (key, value) -> key.removePrefix("benchmark.") + "=" + value })
+    }
+
+// ./gradlew :core:storageBenchmark -Pbenchmark.spawners=50000 -Pbenchmark.backends=yaml,sqlite
+registerBenchmark("storageBenchmark", "github.nighter.smartspawner.benchmark.StorageBenchmark",
+        "Measures the YAML, binary, SQLite and embedded MariaDB storage on a synthetic dataset.")
+// ./gradlew :core:rangeCheckBenchmark -Pbenchmark.spawners=10000,50000,200000 -Pbenchmark.players=300
+registerBenchmark("rangeCheckBenchmark", "github.nighter.smartspawner.spawner.lootgen.RangeCheckBenchmark",
+        "Compares spatial index range activation with a linear scan over every spawner.")
+// ./gradlew :core:lootSamplerBenchmark -Pbenchmark.mobs=4,1000 -Pbenchmark.threads=8
+registerBenchmark("lootSamplerBenchmark", "github.nighter.smartspawner.spawner.lootgen.loot.LootSamplerBenchmark",
+        "Compares the compiled loot table sampler with the per-mob loot roll loop.")
+// ./gradlew :core:signatureCacheBenchmark -Pbenchmark.threads=8,16
+registerBenchmark("signatureCacheBenchmark", "github.nighter.smartspawner.benchmark.SignatureCacheBenchmark",
+        "Compares signature cache lookups under contention with the synchronized LRU it replaced.")
+// ./gradlew :core:startupBenchmark -Pbenchmark.spawners=10000,50000,200000 -Pbenchmark.backends=yaml,binary
+registerBenchmark("startupBenchmark", "github.nighter.smartspawner.benchmark.StartupBenchmark",
+        "Compares the startup load of the YAML, SQLite and binary storage at several dataset sizes.")
+
 tasks.withType<JavaCompile>().configureEach {
     options.encoding = "UTF-8"
     options.compilerArgs.addAll(listOf("-nowarn", "-Xlint:-deprecation"))
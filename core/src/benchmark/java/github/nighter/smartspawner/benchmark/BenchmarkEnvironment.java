@@ -0,0 +1,160 @@
+package github.nighter.smartspawner.benchmark;
+
+import github.nighter.smartspawner.Scheduler;
+import github.nighter.smartspawner.SmartSpawner;
+import github.nighter.smartspawner.spawner.config.ItemSpawnerSettingsConfig;
+import github.nighter.smartspawner.spawner.config.SpawnerSettingsConfig;
+import github.nighter.smartspawner.spawner.data.SpawnerManager;
+import github.nighter.smartspawner.spawner.data.storage.PendingSnapshots;
+import github.nighter.smartspawner.spawner.data.storage.SpawnerSnapshot;
+import github.nighter.smartspawner.spawner.data.storage.SpawnerStorage;
+import github.nighter.smartspawner.spawner.properties.SpawnerData;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.inventory.ItemStack;
+import org.mockito.MockedConstruction;
+import org.mockito.MockedStatic;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockConstruction;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+/**
+ * Stands in for the running plugin. The storage backends see a mocked {@link SmartSpawner}
+ * with the benchmark's config and data folder, and a {@link SpawnerManager} that hands out
+ * the snapshots marked by the benchmark. Async scheduler tasks run inline, so a flush is
+ * finished when {@link SpawnerStorage#flushChanges()} returns; timers are never started.
+ * Static mocks are per thread, everything has to run on the thread that created this,
+ * except load tasks wrapped by {@link #withServer(Callable)}.
+ */
+public final class BenchmarkEnvironment implements AutoCloseable {
+    // Must match SmartSpawner.DATA_VERSION, the mock skips the plugin's constructor
+    private static final int DATA_VERSION = 3;
+    // Spawn delay in ticks, what the default "25s" resolves to
+    private static final long SPAWN_DELAY = 500L;
+
+    private final PendingSnapshots pendingSnapshots = new PendingSnapshots();
+    private final Map<String, World> worlds = new ConcurrentHashMap<>();
+    private final SmartSpawner plugin;
+    private final MockedStatic<Scheduler> scheduler;
+
+    public BenchmarkEnvironment(File dataFolder, YamlConfiguration config, Logger logger) throws ReflectiveOperationException {
+        SpawnerManager spawnerManager = mock(SpawnerManager.class);
+        when(spawnerManager.takeSnapshot(anyString()))
+                .thenAnswer(invocation -> pendingSnapshots.take(invocation.getArgument(0)));
+        doAnswer(invocation -> {
+            pendingSnapshots.restore(invocation.getArgument(0));
+            return null;
+        }).when(spawnerManager).restoreSnapshot(any());
+
+        plugin = mock(SmartSpawner.class);
+        when(plugin.getLogger()).thenReturn(logger);
+        when(plugin.getConfig()).thenReturn(config);
+        when(plugin.getDataFolder()).thenReturn(dataFolder);
+        when(plugin.getSpawnerManager()).thenReturn(spawnerManager);
+        when(plugin.getDATA_VERSION()).thenReturn(DATA_VERSION);
+        // Building a SpawnerData reads its defaults and loot table; no loot is configured
+        when(plugin.getTimeFromConfig(anyString(), anyString())).thenReturn(SPAWN_DELAY);
+        when(plugin.getSpawnerSettingsConfig()).thenReturn(mock(SpawnerSettingsConfig.class));
+        when(plugin.getItemSpawnerSettingsConfig()).thenReturn(mock(ItemSpawnerSettingsConfig.class));
+
+        // Scheduler resolves the plugin instance once, when the class is initialized
+        setInstance(plugin);
+        scheduler = mockStatic(Scheduler.class, invocation -> {
+            if (invocation.getMethod().getName().equals("runTaskAsync")) {
+                ((Runnable) invocation.getArgument(0)).run();
+            }
+            return null;
+        });
+    }
+
+    public SmartSpawner plugin() {
+        return plugin;
+    }
+
+    /**
+     * Queues a snapshot the way {@link SpawnerManager#markSpawnerModified} does after capturing it.
+     */
+    void mark(SpawnerStorage storage, SpawnerSnapshot snapshot) {
+        pendingSnapshots.put(snapshot);
+        storage.markSpawnerModified(snapshot.spawnerId());
+    }
+
+    /**
+     * Makes the storage the plugin's active one, as {@link SpawnerManager} and the startup
+     * loader see it. Load partitions run on the loader's worker threads, so each one is
+     * wrapped to get its own server stand-ins.
+     */
+    void activate(SpawnerStorage storage) {
+        SpawnerStorage active = mock(SpawnerStorage.class, delegatesTo(storage));
+        doAnswer(invocation -> {
+            List<Callable<Map<String, SpawnerData>>> partitions = withServer(
+                    () -> storage.createLoadPartitions(invocation.getArgument(0)));
+            return partitions.stream()
+                    .map(partition -> (Callable<Map<String, SpawnerData>>) () -> withServer(partition))
+                    .toList();
+        }).when(active).createLoadPartitions(any());
+        when(plugin.getSpawnerStorage()).thenReturn(active);
+    }
+
+    /**
+     * Runs a task with what decoding full spawners needs from a server: every world is loaded
+     * and item stacks are plain mocked items. Like every static mock this only applies to the
+     * calling thread.
+     */
+    public <T> T withServer(Callable<T> task) throws Exception {
+        try (MockedStatic<Bukkit> bukkit = mockStatic(Bukkit.class);
+             MockedConstruction<ItemStack> items = mockConstruction(ItemStack.class, (item, context) -> {
+                 // The codecs only create stacks from a material
+                 if (!context.arguments().isEmpty() && context.arguments().getFirst() instanceof Material type) {
+                     stubPlainItem(item, type);
+                 }
+             })) {
+            bukkit.when(() -> Bukkit.getWorld(anyString()))
+                    .thenAnswer(invocation -> worlds.computeIfAbsent(invocation.getArgument(0), BenchmarkEnvironment::world));
+            return task.call();
+        }
+    }
+
+    /**
+     * Stubs what signatures and the inventory codecs read from a meta-less stack.
+     */
+    public static void stubPlainItem(ItemStack item, Material type) {
+        when(item.getType()).thenReturn(type);
+        when(item.getMaxStackSize()).thenReturn(64);
+        when(item.clone()).thenReturn(item);
+    }
+
+    private static World world(String name) {
+        World world = mock(World.class);
+        when(world.getName()).thenReturn(name);
+        return world;
+    }
+
+    @Override
+    public void close() throws ReflectiveOperationException {
+        scheduler.close();
+        setInstance(null);
+    }
+
+    private static void setInstance(SmartSpawner instance) throws ReflectiveOperationException {
+        Field field = SmartSpawner.class.getDeclaredField("instance");
+        field.setAccessible(true);
+        field.set(null, instance);
+    }
+}
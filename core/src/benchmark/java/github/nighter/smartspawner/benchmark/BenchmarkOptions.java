@@ -0,0 +1,52 @@
+package github.nighter.smartspawner.benchmark;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@code key=value} arguments of a benchmark, passed by the Gradle benchmark tasks
+ * from {@code -Pbenchmark.<key>=<value>}. Arguments without a {@code =} are ignored.
+ */
+public final class BenchmarkOptions {
+    private final Map<String, String> values = new HashMap<>();
+
+    private BenchmarkOptions() {
+    }
+
+    public static BenchmarkOptions parse(String[] args) {
+        BenchmarkOptions options = new BenchmarkOptions();
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (split > 0) {
+                options.values.put(arg.substring(0, split), arg.substring(split + 1));
+            }
+        }
+        return options;
+    }
+
+    public String getString(String key, String def) {
+        return values.getOrDefault(key, def);
+    }
+
+    public int getInt(String key, int def) {
+        String value = values.get(key);
+        return value != null ? Integer.parseInt(value) : def;
+    }
+
+    public long getLong(String key, long def) {
+        String value = values.get(key);
+        return value != null ? Long.parseLong(value) : def;
+    }
+
+    /**
+     * A comma separated list of sizes, e.g. {@code spawners=10000,50000}.
+     */
+    public int[] getInts(String key, int... def) {
+        String value = values.get(key);
+        if (value == null) {
+            return def;
+        }
+        return Arrays.stream(value.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+    }
+}
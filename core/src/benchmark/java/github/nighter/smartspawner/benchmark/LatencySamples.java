@@ -0,0 +1,59 @@
+package github.nighter.smartspawner.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Latencies in nanoseconds, kept in a fixed-size uniform reservoir so a long run uses constant
+ * memory. Percentiles are exact until the reservoir is full and sampled estimates afterwards,
+ * the maximum is always exact.
+ */
+public final class LatencySamples {
+    private final long[] reservoir;
+    private final Random random = new Random(0x5EEDL);
+    private long count;
+    private long max;
+
+    public LatencySamples(int capacity) {
+        this.reservoir = new long[capacity];
+    }
+
+    public void record(long nanos) {
+        max = Math.max(max, nanos);
+        if (count < reservoir.length) {
+            reservoir[(int) count] = nanos;
+        } else {
+            long slot = random.nextLong(count + 1);
+            if (slot < reservoir.length) {
+                reservoir[(int) slot] = nanos;
+            }
+        }
+        count++;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     */
+    public double percentileMillis(double percentile) {
+        int size = (int) Math.min(count, reservoir.length);
+        if (size == 0) {
+            return 0.0;
+        }
+        if (percentile >= 100.0) {
+            return max / 1_000_000.0;
+        }
+        long[] sorted = Arrays.copyOf(reservoir, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * size) - 1;
+        return sorted[Math.max(0, Math.min(size - 1, index))] / 1_000_000.0;
+    }
+
+    public String summary() {
+        return String.format("p50=%.3fms p95=%.3fms p99=%.3fms max=%.3fms",
+                percentileMillis(50), percentileMillis(95), percentileMillis(99), percentileMillis(100));
+    }
+}
@@ -0,0 +1,224 @@
+package github.nighter.smartspawner.benchmark;
+
+import github.nighter.smartspawner.spawner.properties.ItemSignatureCache;
+import github.nighter.smartspawner.spawner.properties.VirtualInventory;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Measures signature lookups from many threads at once, as loot workers, hopper ticks, sells
+ * and storage clicks do, through the {@link ItemSignatureCache} and through the synchronized
+ * access-ordered LRU it replaced. Every thread looks up its own freshly created stacks that are
+ * equal to the other threads' ones, so both caches serve hits after the first round.
+ * Each thread count runs an unmeasured round per cache before the measured one.
+ * Options are {@code key=value} arguments, see {@link #main(String[])}.
+ */
+public final class SignatureCacheBenchmark {
+    private static final Logger logger = Logger.getLogger("SignatureCacheBenchmark");
+    // Size of the replaced cache
+    private static final int LEGACY_CACHE_SIZE = 128;
+    private static final int STACKS_PER_THREAD = 4096;
+    private static final Material[] LOOT = {
+            Material.ROTTEN_FLESH, Material.BONE, Material.ARROW, Material.STRING, Material.SPIDER_EYE,
+            Material.GUNPOWDER, Material.BLAZE_ROD, Material.IRON_INGOT, Material.POPPY, Material.PORKCHOP,
+            Material.BEEF, Material.LEATHER, Material.FEATHER, Material.CHICKEN, Material.WHITE_WOOL,
+            Material.MUTTON, Material.ENDER_PEARL, Material.SLIME_BALL, Material.MAGMA_CREAM, Material.GHAST_TEAR,
+            Material.GLOWSTONE_DUST, Material.REDSTONE, Material.SUGAR, Material.GLASS_BOTTLE, Material.STICK,
+            Material.COD, Material.SALMON, Material.INK_SAC, Material.PRISMARINE_SHARD, Material.PRISMARINE_CRYSTALS,
+            Material.RABBIT_HIDE, Material.EMERALD
+    };
+
+    private final int lookups;
+    private final int amounts;
+    private final long seed;
+
+    private SignatureCacheBenchmark(int lookups, int amounts, long seed) {
+        this.lookups = lookups;
+        this.amounts = amounts;
+        this.seed = seed;
+    }
+
+    /**
+     * Options: comma separated {@code threads} counts (8,12,16), {@code lookups} per thread
+     * (2000000), distinct stack {@code amounts} per material (1) and {@code seed} (42).
+     * The replaced cache was keyed by the whole stack including its amount, so with more than
+     * one amount it sees more distinct keys than it can hold.
+     */
+    public static void main(String[] args) throws Exception {
+        BenchmarkOptions options = BenchmarkOptions.parse(args);
+        SignatureCacheBenchmark benchmark = new SignatureCacheBenchmark(
+                options.getInt("lookups", 2_000_000),
+                Math.max(1, options.getInt("amounts", 1)),
+                options.getLong("seed", 42));
+
+        for (int threads : options.getInts("threads", 8, 12, 16)) {
+            benchmark.run(threads);
+        }
+    }
+
+    private void run(int threads) throws Exception {
+        List<PlainItem[]> stacks = new ArrayList<>(threads);
+        Random random = new Random(seed);
+        for (int t = 0; t < threads; t++) {
+            PlainItem[] own = new PlainItem[STACKS_PER_THREAD];
+            for (int i = 0; i < own.length; i++) {
+                own[i] = new PlainItem(LOOT[random.nextInt(LOOT.length)], 1 + random.nextInt(amounts));
+            }
+            stacks.add(own);
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        try {
+            Map<ItemStack, VirtualInventory.ItemSignature> legacyCache = legacyCache();
+            Function<ItemStack, VirtualInventory.ItemSignature> legacy = item -> legacyGet(legacyCache, item);
+            ItemSignatureCache signatureCache = new ItemSignatureCache(ItemSignatureCache.DEFAULT_MAX_SIZE);
+
+            measure(workers, stacks, legacy);
+            long legacyNanos = measure(workers, stacks, legacy);
+            measure(workers, stacks, signatureCache::get);
+            long cacheNanos = measure(workers, stacks, signatureCache::get);
+
+            long total = (long) lookups * threads;
+            logger.info(String.format("[%d threads] synchronized LRU: %.1fM lookups/s, signature cache: %.1fM lookups/s, %.1fx",
+                    threads, total * 1_000.0 / legacyNanos, total * 1_000.0 / cacheNanos,
+                    (double) legacyNanos / cacheNanos));
+            logger.info(String.format("[%d threads] signature cache hit rate %.4f, %d entries",
+                    threads, signatureCache.getHitRate(), signatureCache.size()));
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Starts every thread's lookups at the same moment.
+     *
+     * @return wall time until the last thread finished
+     */
+    private long measure(ExecutorService workers, List<PlainItem[]> stacks,
+                         Function<ItemStack, VirtualInventory.ItemSignature> cache) throws Exception {
+        CountDownLatch ready = new CountDownLatch(stacks.size());
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>(stacks.size());
+        for (PlainItem[] own : stacks) {
+            results.add(workers.submit(() -> {
+                ready.countDown();
+                go.await();
+                int sink = 0;
+                for (int i = 0; i < lookups; i++) {
+                    sink += cache.apply(own[i & (STACKS_PER_THREAD - 1)]).getMaxStackSize();
+                }
+                return sink;
+            }));
+        }
+
+        ready.await();
+        long start = System.nanoTime();
+        go.countDown();
+        long sink = 0;
+        for (Future<Integer> result : results) {
+            sink += result.get();
+        }
+        long nanos = System.nanoTime() - start;
+        if (sink == Long.MIN_VALUE) {
+            // Keeps the lookups from being optimized away
+            logger.fine("sink " + sink);
+        }
+        return nanos;
+    }
+
+    /**
+     * The cache before {@link ItemSignatureCache}: an LRU keyed by the stack, behind one monitor.
+     */
+    private static Map<ItemStack, VirtualInventory.ItemSignature> legacyCache() {
+        return Collections.synchronizedMap(new LinkedHashMap<ItemStack, VirtualInventory.ItemSignature>(LEGACY_CACHE_SIZE, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ItemStack, VirtualInventory.ItemSignature> eldest) {
+                return size() > LEGACY_CACHE_SIZE;
+            }
+        });
+    }
+
+    private static VirtualInventory.ItemSignature legacyGet(Map<ItemStack, VirtualInventory.ItemSignature> cache, ItemStack item) {
+        VirtualInventory.ItemSignature cachedSig = cache.get(item);
+        if (cachedSig != null) {
+            return cachedSig;
+        }
+
+        VirtualInventory.ItemSignature newSig = new VirtualInventory.ItemSignature(item);
+        cache.put(item.clone(), newSig);
+        return newSig;
+    }
+
+    /**
+     * A meta-less stack that needs no server. Equal and hashed by type and amount like a real
+     * plain stack, and, unlike a mock, free of locks of its own that would skew the contention.
+     */
+    private static final class PlainItem extends ItemStack {
+        private final Material type;
+        private int amount;
+
+        PlainItem(Material type, int amount) {
+            this.type = type;
+            this.amount = amount;
+        }
+
+        @Override
+        public Material getType() {
+            return type;
+        }
+
+        @Override
+        public int getAmount() {
+            return amount;
+        }
+
+        @Override
+        public void setAmount(int amount) {
+            this.amount = amount;
+        }
+
+        @Override
+        public int getMaxStackSize() {
+            return 64;
+        }
+
+        @Override
+        public boolean hasItemMeta() {
+            return false;
+        }
+
+        @Override
+        public ItemMeta getItemMeta() {
+            return null;
+        }
+
+        @Override
+        public PlainItem clone() {
+            return new PlainItem(type, amount);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof PlainItem other && type == other.type && amount == other.amount;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + amount;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package github.nighter.smartspawner.benchmark;
+
+import github.nighter.smartspawner.spawner.data.storage.StorageMode;
+
+import java.util.logging.Logger;
+
+/**
+ * Compares how long a server takes to start on the same data stored as YAML, in SQLite and
+ * in the binary snapshot. For every size each backend gets the dataset of the
+ * {@link StorageBenchmark} written to a fresh data folder, and is then timed opening it and
+ * loading every spawner through the startup loader. Backends are reported against YAML,
+ * the default storage.
+ * Options are {@code key=value} arguments, see {@link #main(String[])}.
+ */
+public final class StartupBenchmark {
+    private static final Logger logger = Logger.getLogger("StartupBenchmark");
+
+    private StartupBenchmark() {
+    }
+
+    /**
+     * Options: comma separated {@code spawners} counts (10000,50000,200000), {@code seed} (42)
+     * and {@code backends}, a comma separated subset of yaml, sqlite and binary (all three).
+     */
+    public static void main(String[] args) throws Exception {
+        BenchmarkOptions options = BenchmarkOptions.parse(args);
+        long seed = options.getLong("seed", 42);
+        String[] backends = options.getString("backends", "yaml,sqlite,binary").split(",");
+
+        for (int spawners : options.getInts("spawners", 10_000, 50_000, 200_000)) {
+            StorageBenchmark dataset = new StorageBenchmark(spawners, 0, 0, 0, seed);
+            StorageBenchmark.StartupTimes baseline = null;
+            for (String backend : backends) {
+                StorageMode mode = switch (backend.trim()) {
+                    case "yaml" -> StorageMode.YAML;
+                    case "sqlite" -> StorageMode.SQLITE;
+                    case "binary" -> StorageMode.BINARY;
+                    default -> null;
+                };
+                if (mode == null) {
+                    logger.warning("Unknown backend " + backend);
+                    continue;
+                }
+
+                StorageBenchmark.StartupTimes times = dataset.startup(backend.trim(), mode);
+                if (times.loaded() != spawners) {
+                    logger.severe("[" + spawners + "] " + backend.trim() + " loaded " + times.loaded()
+                            + " of " + spawners + " spawners");
+                }
+                if (mode == StorageMode.YAML) {
+                    baseline = times;
+                }
+                logger.info(String.format("[%d] %s: open %.1fms, startup load %.1fms, total %.1fms, data %.1fKB%s",
+                        spawners, backend.trim(), times.openNanos() / 1_000_000.0, times.loadNanos() / 1_000_000.0,
+                        times.totalNanos() / 1_000_000.0, times.dataBytes() / 1024.0,
+                        baseline != null && baseline != times
+                                ? String.format(", %.1fx faster than yaml", (double) baseline.totalNanos() / times.totalNanos())
+                                : ""));
+            }
+        }
+    }
+}
@@ -0,0 +1,400 @@
+package github.nighter.smartspawner.benchmark;
+
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import github.nighter.smartspawner.spawner.data.SpawnerFileHandler;
+import github.nighter.smartspawner.spawner.data.SpawnerStartupLoader;
+import github.nighter.smartspawner.spawner.data.SpawnerStub;
+import github.nighter.smartspawner.spawner.data.binary.SpawnerBinaryHandler;
+import github.nighter.smartspawner.spawner.data.database.DatabaseManager;
+import github.nighter.smartspawner.spawner.data.database.SpawnerDatabaseHandler;
+import github.nighter.smartspawner.spawner.data.storage.SpawnerSnapshot;
+import github.nighter.smartspawner.spawner.data.storage.SpawnerStorage;
+import github.nighter.smartspawner.spawner.data.storage.StorageMode;
+import github.nighter.smartspawner.spawner.properties.SpawnerData;
+import github.nighter.smartspawner.spawner.properties.VirtualInventory;
+import org.bukkit.Material;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.EntityType;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Measures every {@link SpawnerStorage} backend on the same synthetic dataset, outside a server.
+ * Each backend gets a fresh data folder and runs these phases:
+ * <ol>
+ *     <li>initial write: every spawner marked and flushed once</li>
+ *     <li>stub load: the storage reopened and every stub read back, as lazy loading starts</li>
+ *     <li>startup load: every spawner decoded and indexed by the {@link SpawnerStartupLoader}</li>
+ *     <li>hydration: single spawners loaded by id, as lazy loading hydrates chunks</li>
+ *     <li>steady state: rounds of randomly marked spawners, each followed by a flush,
+ *     recording mark and flush latency</li>
+ *     <li>shutdown flush: every spawner marked again and written by {@link SpawnerStorage#shutdown()}</li>
+ * </ol>
+ * The written data is read back once more at the end to check nothing was lost.
+ * Options are {@code key=value} arguments, see {@link #main(String[])}.
+ */
+public final class StorageBenchmark {
+    private static final Logger logger = Logger.getLogger("StorageBenchmark");
+    private static final int SAMPLE_CAPACITY = 65_536;
+    private static final String[] WORLDS = {"world", "world_nether", "world_the_end"};
+    private static final EntityType[] ENTITY_TYPES = {
+            EntityType.ZOMBIE, EntityType.SKELETON, EntityType.SPIDER, EntityType.CREEPER,
+            EntityType.BLAZE, EntityType.IRON_GOLEM, EntityType.PIG, EntityType.COW
+    };
+    private static final Material[] LOOT = {
+            Material.ROTTEN_FLESH, Material.BONE, Material.ARROW, Material.STRING, Material.SPIDER_EYE,
+            Material.GUNPOWDER, Material.BLAZE_ROD, Material.IRON_INGOT, Material.POPPY,
+            Material.PORKCHOP, Material.BEEF, Material.LEATHER
+    };
+
+    private final int spawners;
+    private final int dirtyPerRound;
+    private final int rounds;
+    private final int hydrations;
+    private final long seed;
+    private final Map<Material, VirtualInventory.ItemSignature> signatures = new HashMap<>();
+    private Random random;
+
+    StorageBenchmark(int spawners, int dirtyPerRound, int rounds, int hydrations, long seed) {
+        this.spawners = spawners;
+        this.dirtyPerRound = Math.min(dirtyPerRound, spawners);
+        this.rounds = rounds;
+        this.hydrations = hydrations;
+        this.seed = seed;
+    }
+
+    /**
+     * Options: {@code spawners} (10000), {@code dirty} spawners per steady state round (500),
+     * {@code rounds} (20), single spawner {@code hydrations} (1000), {@code seed} (42) and
+     * {@code backends}, a comma separated subset of yaml, binary, sqlite and mariadb (all four).
+     */
+    public static void main(String[] args) throws Exception {
+        BenchmarkOptions options = BenchmarkOptions.parse(args);
+        StorageBenchmark benchmark = new StorageBenchmark(
+                options.getInt("spawners", 10000),
+                options.getInt("dirty", 500),
+                options.getInt("rounds", 20),
+                options.getInt("hydrations", 1000),
+                options.getLong("seed", 42));
+
+        for (String backend : options.getString("backends", "yaml,binary,sqlite,mariadb").split(",")) {
+            switch (backend.trim()) {
+                case "yaml" -> benchmark.run("yaml", StorageMode.YAML, null);
+                case "binary" -> benchmark.run("binary", StorageMode.BINARY, null);
+                case "sqlite" -> benchmark.run("sqlite", StorageMode.SQLITE, null);
+                case "mariadb" -> benchmark.runMariaDb();
+                default -> logger.warning("Unknown backend " + backend);
+            }
+        }
+    }
+
+    private void runMariaDb() throws Exception {
+        DBConfigurationBuilder dbConfig = DBConfigurationBuilder.newBuilder();
+        dbConfig.setPort(0);
+        DB db = DB.newEmbeddedDB(dbConfig.build());
+        db.start();
+        try {
+            db.createDB("smartspawner");
+            run("mariadb", StorageMode.MYSQL, db.getConfiguration().getPort());
+        } finally {
+            db.stop();
+        }
+    }
+
+    private void run(String name, StorageMode mode, Integer sqlPort) throws Exception {
+        random = new Random(seed);
+        Path dataFolder = Files.createTempDirectory("smartspawner-benchmark-" + name);
+        logger.info("[" + name + "] " + spawners + " spawners, " + dirtyPerRound + " marks per round, "
+                + rounds + " rounds");
+
+        try (BenchmarkEnvironment env = new BenchmarkEnvironment(dataFolder.toFile(), config(sqlPort), logger)) {
+            // Initial write
+            long start = System.nanoTime();
+            writeAll(env, mode);
+            report(name, "initial write", spawners, System.nanoTime() - start);
+
+            // Stub load
+            start = System.nanoTime();
+            OpenStorage open = open(env, mode);
+            List<SpawnerStub> stubs = open.storage().loadAllStubs();
+            report(name, "stub load", stubs.size(), System.nanoTime() - start);
+
+            // Startup load, through the same loader and worker pool as the plugin
+            env.activate(open.storage());
+            start = System.nanoTime();
+            int loaded = startupLoad(env);
+            report(name, "startup load", loaded, System.nanoTime() - start);
+            if (loaded != spawners) {
+                logger.severe("[" + name + "] expected " + spawners + " loaded spawners, found " + loaded);
+            }
+
+            // Hydration
+            LatencySamples hydrationLatency = new LatencySamples(SAMPLE_CAPACITY);
+            SpawnerStorage storage = open.storage();
+            start = System.nanoTime();
+            env.withServer(() -> {
+                for (int i = 0; i < hydrations; i++) {
+                    String spawnerId = stubs.get(random.nextInt(stubs.size())).spawnerId();
+                    long hydrationStart = System.nanoTime();
+                    if (storage.loadSpecificSpawner(spawnerId) == null) {
+                        logger.severe("[" + name + "] could not hydrate spawner " + spawnerId);
+                    }
+                    hydrationLatency.record(System.nanoTime() - hydrationStart);
+                }
+                return null;
+            });
+            report(name, "hydration", hydrations, System.nanoTime() - start);
+            logger.info("[" + name + "] hydration latency " + hydrationLatency.summary());
+
+            // Steady state
+            LatencySamples markLatency = new LatencySamples(SAMPLE_CAPACITY);
+            LatencySamples flushLatency = new LatencySamples(SAMPLE_CAPACITY);
+            long flushNanos = 0;
+            for (int round = 0; round < rounds; round++) {
+                for (int i = 0; i < dirtyPerRound; i++) {
+                    SpawnerSnapshot snapshot = snapshot(random.nextInt(spawners), steadyStateFields());
+                    long markStart = System.nanoTime();
+                    env.mark(open.storage(), snapshot);
+                    markLatency.record(System.nanoTime() - markStart);
+                }
+                long flushStart = System.nanoTime();
+                open.storage().flushChanges();
+                long nanos = System.nanoTime() - flushStart;
+                flushLatency.record(nanos);
+                flushNanos += nanos;
+            }
+            report(name, "steady state", rounds * dirtyPerRound, flushNanos);
+            logger.info("[" + name + "] mark latency " + markLatency.summary());
+            logger.info("[" + name + "] flush latency " + flushLatency.summary());
+            if (open.storage() instanceof SpawnerDatabaseHandler dbHandler) {
+                logger.info("[" + name + "] database flush metrics: " + dbHandler.getFlushMetrics().summary());
+            }
+
+            // Shutdown flush with the whole dataset queued
+            for (int i = 0; i < spawners; i++) {
+                env.mark(open.storage(), snapshot(i, SpawnerData.DIRTY_ALL));
+            }
+            start = System.nanoTime();
+            open.close();
+            report(name, "shutdown flush", spawners, System.nanoTime() - start);
+
+            open = open(env, mode);
+            int stored = open.storage().loadAllStubs().size();
+            open.close();
+            if (stored != spawners) {
+                logger.severe("[" + name + "] expected " + spawners + " stored spawners, found " + stored);
+            }
+            logger.info("[" + name + "] data files: " + fileSizes(dataFolder));
+        } finally {
+            deleteRecursively(dataFolder);
+        }
+    }
+
+    /**
+     * Writes the dataset, then times a cold start on it: the storage opened on the written
+     * files and every spawner decoded and indexed by the {@link SpawnerStartupLoader}.
+     */
+    StartupTimes startup(String name, StorageMode mode) throws Exception {
+        random = new Random(seed);
+        Path dataFolder = Files.createTempDirectory("smartspawner-benchmark-startup-" + name);
+        try (BenchmarkEnvironment env = new BenchmarkEnvironment(dataFolder.toFile(), config(null), logger)) {
+            writeAll(env, mode);
+
+            long start = System.nanoTime();
+            OpenStorage open = open(env, mode);
+            long openNanos = System.nanoTime() - start;
+            try {
+                env.activate(open.storage());
+                start = System.nanoTime();
+                int loaded = startupLoad(env);
+                long loadNanos = System.nanoTime() - start;
+                return new StartupTimes(openNanos, loadNanos, loaded, dataBytes(dataFolder));
+            } finally {
+                open.close();
+            }
+        } finally {
+            deleteRecursively(dataFolder);
+        }
+    }
+
+    /**
+     * Cold start timings of one backend.
+     *
+     * @param openNanos time to initialize the storage on existing data
+     * @param loadNanos time of the startup load after it
+     * @param loaded    spawners the startup load returned
+     * @param dataBytes size of the files in the data folder
+     */
+    record StartupTimes(long openNanos, long loadNanos, int loaded, long dataBytes) {
+        long totalNanos() {
+            return openNanos + loadNanos;
+        }
+    }
+
+    private void writeAll(BenchmarkEnvironment env, StorageMode mode) {
+        OpenStorage open = open(env, mode);
+        for (int i = 0; i < spawners; i++) {
+            env.mark(open.storage(), snapshot(i, SpawnerData.DIRTY_ALL));
+        }
+        open.storage().flushChanges();
+        open.close();
+    }
+
+    /**
+     * Loads every spawner of the active storage through the same loader and worker pool as the plugin.
+     *
+     * @return the number of spawners loaded
+     */
+    private static int startupLoad(BenchmarkEnvironment env) {
+        List<SpawnerData> loaded = new ArrayList<>();
+        new SpawnerStartupLoader(env.plugin()).load(batch -> {
+            List<SpawnerData> indexed = batch.values().stream().filter(Objects::nonNull).toList();
+            loaded.addAll(indexed);
+            return indexed;
+        });
+        return loaded.size();
+    }
+
+    /**
+     * A storage and, for the SQL backends, the connection pool it owns.
+     */
+    private record OpenStorage(SpawnerStorage storage, DatabaseManager databaseManager) {
+        void close() {
+            storage.shutdown();
+            if (databaseManager != null) {
+                databaseManager.shutdown();
+            }
+        }
+    }
+
+    private static OpenStorage open(BenchmarkEnvironment env, StorageMode mode) {
+        DatabaseManager databaseManager = null;
+        SpawnerStorage storage = switch (mode) {
+            case YAML -> new SpawnerFileHandler(env.plugin());
+            case BINARY -> new SpawnerBinaryHandler(env.plugin());
+            case SQLITE, MYSQL -> {
+                databaseManager = new DatabaseManager(env.plugin(), mode);
+                if (!databaseManager.initialize()) {
+                    throw new IllegalStateException("Could not connect to the " + mode + " database");
+                }
+                yield new SpawnerDatabaseHandler(env.plugin(), databaseManager);
+            }
+        };
+        if (!storage.initialize()) {
+            throw new IllegalStateException("Could not initialize " + storage.getClass().getSimpleName());
+        }
+        return new OpenStorage(storage, databaseManager);
+    }
+
+    private static YamlConfiguration config(Integer sqlPort) {
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("database.server_name", "benchmark");
+        config.set("database.database", "smartspawner");
+        config.set("database.migrate_from_local", false);
+        // Backpressure flushes would run inline inside a mark and be counted as mark latency
+        config.set("database.flush.backlog_threshold", 0);
+        if (sqlPort != null) {
+            config.set("database.sql.host", "localhost");
+            config.set("database.sql.port", sqlPort);
+            config.set("database.sql.username", "root");
+            config.set("database.sql.password", "");
+        }
+        return config;
+    }
+
+    /**
+     * Most steady state changes are loot, as on a live server; a few are stack or settings changes.
+     */
+    private int steadyStateFields() {
+        int roll = random.nextInt(100);
+        if (roll < 80) return SpawnerData.DIRTY_LOOT;
+        if (roll < 95) return SpawnerData.DIRTY_STACK | SpawnerData.DIRTY_LOOT;
+        return SpawnerData.DIRTY_SETTINGS;
+    }
+
+    /**
+     * The location and type of a spawner follow from its index, everything else is random.
+     */
+    private SpawnerSnapshot snapshot(int index, int dirtyFields) {
+        EntityType entityType = ENTITY_TYPES[index % ENTITY_TYPES.length];
+        Map<VirtualInventory.ItemSignature, Long> items = new HashMap<>();
+        for (int i = 1 + random.nextInt(4); i > 0; i--) {
+            items.merge(signature(LOOT[random.nextInt(LOOT.length)]), 1L + random.nextInt(100_000), Long::sum);
+        }
+        Set<Material> filtered = random.nextInt(10) == 0 ? Set.of(LOOT[random.nextInt(LOOT.length)]) : Set.of();
+
+        return new SpawnerSnapshot(
+                spawnerId(index),
+                WORLDS[index % WORLDS.length], (index / 64) * 16, 64, (index % 64) * 16,
+                entityType, null,
+                random.nextInt(50_000), true, 16, false, 500L, 45, 50_000L, 1, 4,
+                1 + random.nextInt(1000), 1000, System.currentTimeMillis() - random.nextInt(600_000),
+                random.nextInt(20) == 0, "player" + random.nextInt(100), null,
+                filtered, Map.copyOf(items), dirtyFields);
+    }
+
+    /**
+     * Eight hex digits like real spawner ids, spread over the whole range so the database
+     * handler's id range partitions are all used.
+     */
+    private static String spawnerId(int index) {
+        return String.format("%08x", Integer.reverse(index));
+    }
+
+    /**
+     * Items are plain, meta-less stacks. Real stacks need a server's item factory, so they are
+     * mocked with just what signatures and the inventory encoders read.
+     */
+    private VirtualInventory.ItemSignature signature(Material material) {
+        return signatures.computeIfAbsent(material, type -> {
+            ItemStack item = mock(ItemStack.class);
+            BenchmarkEnvironment.stubPlainItem(item, type);
+            return new VirtualInventory.ItemSignature(item).intern();
+        });
+    }
+
+    private static void report(String name, String phase, int count, long nanos) {
+        logger.info(String.format("[%s] %s: %d spawners in %.1fms (%.0f/s)", name, phase, count,
+                nanos / 1_000_000.0, nanos == 0 ? count : count * 1_000_000_000.0 / nanos));
+    }
+
+    private static String fileSizes(Path dataFolder) throws IOException {
+        try (Stream<Path> files = Files.list(dataFolder)) {
+            List<String> sizes = files.filter(Files::isRegularFile)
+                    .sorted()
+                    .map(file -> String.format("%s=%.1fKB", file.getFileName(), file.toFile().length() / 1024.0))
+                    .toList();
+            return sizes.isEmpty() ? "none on disk" : String.join(", ", sizes);
+        }
+    }
+
+    private static long dataBytes(Path dataFolder) throws IOException {
+        try (Stream<Path> files = Files.walk(dataFolder)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+        }
+    }
+
+    private static void deleteRecursively(Path dataFolder) throws IOException {
+        try (Stream<Path> files = Files.walk(dataFolder)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
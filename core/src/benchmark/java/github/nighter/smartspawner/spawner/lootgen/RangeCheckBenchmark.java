@@ -0,0 +1,182 @@
+package github.nighter.smartspawner.spawner.lootgen;
+
+import github.nighter.smartspawner.benchmark.BenchmarkEnvironment;
+import github.nighter.smartspawner.benchmark.BenchmarkOptions;
+import github.nighter.smartspawner.benchmark.LatencySamples;
+import github.nighter.smartspawner.spawner.data.SpawnerSpatialIndex;
+import github.nighter.smartspawner.spawner.properties.SpawnerData;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.EntityType;
+
+import java.lang.ref.Reference;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Compares range activation through the {@link SpawnerSpatialIndex} with the linear scan it
+ * replaced, which checked every spawner against every player on each pass. Spawners and
+ * players are spread at random over a square area of one world. Every size gets a fresh
+ * index and runs warmup passes before the measured ones, and both scans have to agree on
+ * the number of active spawners.
+ * Lives in the range checker's package to drive {@link RangeMath} directly.
+ * Options are {@code key=value} arguments, see {@link #main(String[])}.
+ */
+public final class RangeCheckBenchmark {
+    private static final Logger logger = Logger.getLogger("RangeCheckBenchmark");
+
+    private final int players;
+    private final int area;
+    private final int warmup;
+    private final int passes;
+    private final long seed;
+
+    private RangeCheckBenchmark(int players, int area, int warmup, int passes, long seed) {
+        this.players = players;
+        this.area = area;
+        this.warmup = warmup;
+        this.passes = passes;
+        this.seed = seed;
+    }
+
+    /**
+     * Options: comma separated {@code spawners} counts (10000,50000,200000), online
+     * {@code players} (300), side of the square {@code area} in blocks (10000), {@code warmup}
+     * passes (5), measured {@code passes} (20) and {@code seed} (42).
+     */
+    public static void main(String[] args) throws Exception {
+        BenchmarkOptions options = BenchmarkOptions.parse(args);
+        RangeCheckBenchmark benchmark = new RangeCheckBenchmark(
+                options.getInt("players", 300),
+                options.getInt("area", 10000),
+                options.getInt("warmup", 5),
+                options.getInt("passes", 20),
+                options.getLong("seed", 42));
+
+        Path dataFolder = Files.createTempDirectory("smartspawner-benchmark-range");
+        try (BenchmarkEnvironment env = new BenchmarkEnvironment(dataFolder.toFile(), new YamlConfiguration(), logger)) {
+            for (int spawners : options.getInts("spawners", 10_000, 50_000, 200_000)) {
+                benchmark.run(env, spawners);
+            }
+        } finally {
+            Files.deleteIfExists(dataFolder);
+        }
+    }
+
+    private void run(BenchmarkEnvironment env, int spawnerCount) throws Exception {
+        Random random = new Random(seed);
+        UUID worldUID = new UUID(seed, spawnerCount);
+        World world = world("world", worldUID);
+
+        List<SpawnerData> spawners = env.withServer(() -> {
+            List<SpawnerData> created = new ArrayList<>(spawnerCount);
+            for (int i = 0; i < spawnerCount; i++) {
+                Location location = new Location(world, random.nextInt(area), 1 + random.nextInt(120), random.nextInt(area));
+                created.add(new SpawnerData(String.format("%08x", i), location, EntityType.ZOMBIE, env.plugin()));
+            }
+            return created;
+        });
+        SpawnerSpatialIndex spatialIndex = new SpawnerSpatialIndex();
+        spawners.forEach(spatialIndex::add);
+
+        PlayerRangeWrapper[] rangePlayers = new PlayerRangeWrapper[players];
+        for (int i = 0; i < players; i++) {
+            rangePlayers[i] = new PlayerRangeWrapper(new UUID(0L, i), worldUID,
+                    random.nextDouble() * area, 64.0, random.nextDouble() * area, true);
+        }
+
+        LatencySamples linearLatency = new LatencySamples(passes);
+        LatencySamples indexedLatency = new LatencySamples(passes);
+        int active = 0;
+        for (int pass = 0; pass < warmup + passes; pass++) {
+            long start = System.nanoTime();
+            int linearActive = countActive(linearScan(rangePlayers, spawners));
+            long linearNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            Set<SpawnerData> indexedActive = new RangeMath(rangePlayers, spatialIndex).getActiveSpawners();
+            long indexedNanos = System.nanoTime() - start;
+
+            if (linearActive != indexedActive.size()) {
+                logger.severe("[" + spawnerCount + "] linear scan found " + linearActive
+                        + " active spawners, spatial index " + indexedActive.size());
+            }
+            if (pass >= warmup) {
+                linearLatency.record(linearNanos);
+                indexedLatency.record(indexedNanos);
+            }
+            active = linearActive;
+        }
+
+        logger.info("[" + spawnerCount + "] " + players + " players, " + active + " active spawners");
+        logger.info("[" + spawnerCount + "] linear scan " + linearLatency.summary());
+        logger.info("[" + spawnerCount + "] spatial index " + indexedLatency.summary());
+        logger.info(String.format("[%d] speedup at p50: %.1fx", spawnerCount,
+                linearLatency.percentileMillis(50) / Math.max(indexedLatency.percentileMillis(50), 1e-6)));
+        // Locations only hold their world weakly
+        Reference.reachabilityFence(world);
+    }
+
+    /**
+     * The activation pass before the spatial index: every spawner against every player.
+     */
+    private static boolean[] linearScan(PlayerRangeWrapper[] rangePlayers, List<SpawnerData> spawners) {
+        final boolean[] activeSpawners = new boolean[spawners.size()];
+
+        for (int i = 0; i < spawners.size(); i++) {
+            SpawnerData s = spawners.get(i);
+            final Location spawnerLoc = s.getSpawnerLocation();
+            if (spawnerLoc == null) continue;
+
+            final World locWorld = spawnerLoc.getWorld();
+            if (locWorld == null) continue;
+
+            final UUID worldUID = locWorld.getUID();
+            final double rangeSq = s.getSpawnerRange() * s.getSpawnerRange();
+
+            for (PlayerRangeWrapper p : rangePlayers) {
+                if (!p.spawnConditions()) continue;
+                if (!worldUID.equals(p.worldUID())) continue;
+
+                if (p.distanceSquared(spawnerLoc) <= rangeSq) {
+                    activeSpawners[i] = true;
+                    break;
+                }
+            }
+        }
+
+        return activeSpawners;
+    }
+
+    private static int countActive(boolean[] activeSpawners) {
+        int count = 0;
+        for (boolean active : activeSpawners) {
+            if (active) count++;
+        }
+        return count;
+    }
+
+    /**
+     * A proxy rather than a mock: the linear scan resolves the world of every spawner on every
+     * pass, and a mock's invocation bookkeeping would dominate its timing.
+     */
+    private static World world(String name, UUID uid) {
+        return (World) Proxy.newProxyInstance(World.class.getClassLoader(), new Class<?>[]{World.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getUID" -> uid;
+                    case "getName" -> name;
+                    case "hashCode" -> uid.hashCode();
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "World{" + name + "}";
+                    default -> null;
+                });
+    }
+}
@@ -0,0 +1,152 @@
+package github.nighter.smartspawner.spawner.lootgen.loot;
+
+import github.nighter.smartspawner.benchmark.BenchmarkOptions;
+import github.nighter.smartspawner.spawner.properties.VirtualInventory;
+import org.bukkit.Material;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Logger;
+
+/**
+ * Compares the throughput of {@link CompiledLootTable#sample} with the per-mob loop the loot
+ * generator used before: one chance roll per mob and item, one amount roll per drop, all on
+ * a single {@link Random} shared by every worker. The old loop also built a prototype stack
+ * and merged stacks per item; that part is left out, so its numbers are an upper bound.
+ * Each mob count is measured with the given number of worker threads, every worker drawing
+ * the same number of times, after one unmeasured warmup round.
+ * Lives in the loot package to build a table without a server, like its tests.
+ * Options are {@code key=value} arguments, see {@link #main(String[])}.
+ */
+public final class LootSamplerBenchmark {
+    private static final Logger logger = Logger.getLogger("LootSamplerBenchmark");
+
+    // A common mob table: a guaranteed drop, a frequent one and two rare ones
+    private static final Material[] MATERIALS = {
+            Material.ROTTEN_FLESH, Material.BONE, Material.IRON_INGOT, Material.CARROT, Material.POTATO
+    };
+    private static final double[] CHANCES = {1.0, 0.5, 0.025, 0.01, 0.01};
+    private static final int[] MIN_AMOUNTS = {0, 0, 1, 1, 1};
+    private static final int[] MAX_AMOUNTS = {2, 2, 1, 1, 1};
+
+    private final int draws;
+    private final int threads;
+    private final CompiledLootTable table = table();
+    // The old generator's single Random, shared by every async worker
+    private final Random sharedRandom = new Random(42);
+
+    private LootSamplerBenchmark(int draws, int threads) {
+        this.draws = draws;
+        this.threads = threads;
+    }
+
+    /**
+     * Options: comma separated {@code mobs} per draw (4,64,1000,10000), {@code draws} per
+     * worker (20000) and worker {@code threads} (1).
+     */
+    public static void main(String[] args) throws Exception {
+        BenchmarkOptions options = BenchmarkOptions.parse(args);
+        LootSamplerBenchmark benchmark = new LootSamplerBenchmark(
+                options.getInt("draws", 20_000),
+                options.getInt("threads", 1));
+
+        ExecutorService workers = Executors.newFixedThreadPool(benchmark.threads);
+        try {
+            for (int mobCount : options.getInts("mobs", 4, 64, 1_000, 10_000)) {
+                benchmark.run(workers, mobCount);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private void run(ExecutorService workers, int mobCount) throws Exception {
+        // Fewer draws for huge batches, the loop's cost grows with the mob count
+        int perWorker = (int) Math.max(100, Math.min(draws, 20_000_000L / mobCount));
+
+        measure(workers, perWorker, () -> legacyDraw(mobCount));
+        measure(workers, perWorker, () -> sampledDraw(mobCount));
+        long legacyNanos = measure(workers, perWorker, () -> legacyDraw(mobCount));
+        long sampledNanos = measure(workers, perWorker, () -> sampledDraw(mobCount));
+
+        long total = (long) perWorker * threads;
+        logger.info(String.format("[%d mobs] per-mob loop: %.0f draws/s, sampler: %.0f draws/s, %.1fx (%d threads)",
+                mobCount, total * 1_000_000_000.0 / legacyNanos, total * 1_000_000_000.0 / sampledNanos,
+                (double) legacyNanos / sampledNanos, threads));
+    }
+
+    /**
+     * Runs {@code perWorker} draws on every worker at once.
+     *
+     * @return wall time until the last worker finished
+     */
+    private long measure(ExecutorService workers, int perWorker, Draw draw) throws Exception {
+        List<Future<Long>> results = new ArrayList<>(threads);
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            results.add(workers.submit(() -> {
+                long sink = 0;
+                for (int i = 0; i < perWorker; i++) {
+                    sink += draw.run();
+                }
+                return sink;
+            }));
+        }
+        long sink = 0;
+        for (Future<Long> result : results) {
+            sink += result.get();
+        }
+        long nanos = System.nanoTime() - start;
+        if (sink == Long.MIN_VALUE) {
+            // Keeps the draws from being optimized away
+            logger.fine("sink " + sink);
+        }
+        return nanos;
+    }
+
+    @FunctionalInterface
+    private interface Draw {
+        long run();
+    }
+
+    private long legacyDraw(int mobCount) {
+        long total = 0;
+        for (int item = 0; item < MATERIALS.length; item++) {
+            double chance = CHANCES[item] * 100;
+            int successfulDrops = 0;
+            for (int i = 0; i < mobCount; i++) {
+                if (sharedRandom.nextDouble() * 100 <= chance) {
+                    successfulDrops++;
+                }
+            }
+            for (int i = 0; i < successfulDrops; i++) {
+                total += sharedRandom.nextInt(MAX_AMOUNTS[item] - MIN_AMOUNTS[item] + 1) + MIN_AMOUNTS[item];
+            }
+        }
+        return total;
+    }
+
+    private long sampledDraw(int mobCount) {
+        CompiledLootTable.LootDraw draw = table.sample(ThreadLocalRandom.current(), mobCount, Set.of());
+        long total = 0;
+        for (int i = 0; i < draw.size(); i++) {
+            total += draw.amounts()[i];
+        }
+        return total;
+    }
+
+    private static CompiledLootTable table() {
+        int[] variantOffsets = new int[MATERIALS.length + 1];
+        for (int i = 0; i <= MATERIALS.length; i++) {
+            variantOffsets[i] = i;
+        }
+        return new CompiledLootTable(MATERIALS, CHANCES, MIN_AMOUNTS, MAX_AMOUNTS, variantOffsets,
+                new VirtualInventory.ItemSignature[MATERIALS.length]);
+    }
+}
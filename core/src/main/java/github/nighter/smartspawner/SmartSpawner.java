@@ -50,6 +50,8 @@ import github.nighter.smartspawner.spawner.lootgen.SpawnerRangeChecker;
 import github.nighter.smartspawner.spawner.data.SpawnerManager;
 import github.nighter.smartspawner.spawner.sell.SpawnerSellManager;
 import github.nighter.smartspawner.spawner.data.SpawnerFileHandler;
+import github.nighter.smartspawner.spawner.data.binary.BinarySnapshotMigration;
+import github.nighter.smartspawner.spawner.data.binary.SpawnerBinaryHandler;
 import github.nighter.smartspawner.spawner.data.storage.SpawnerStorage;
 import github.nighter.smartspawner.spawner.data.storage.StorageMode;
 import github.nighter.smartspawner.spawner.data.database.DatabaseManager;
@@ -59,6 +61,8 @@ import github.nighter.smartspawner.spawner.data.database.YamlToDatabaseMigration
 import github.nighter.smartspawner.spawner.config.SpawnerMobHeadTexture;
 import github.nighter.smartspawner.spawner.lootgen.SpawnerLootGenerator;
 import github.nighter.smartspawner.spawner.data.WorldEventHandler;
+import github.nighter.smartspawner.spawner.properties.ItemSignatureCache;
+import github.nighter.smartspawner.spawner.properties.VirtualInventory;
 import github.nighter.smartspawner.language.LanguageManager;
 import github.nighter.smartspawner.updates.ConfigUpdater;
 import github.nighter.smartspawner.nms.VersionInitializer;
@@ -75,6 +79,7 @@ import org.bukkit.event.HandlerList;
 import org.bukkit.plugin.PluginManager;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.IOException;
 import java.util.logging.Level;
 
 @Getter
@@ -236,6 +241,7 @@ public class SmartSpawner extends JavaPlugin implements SmartSpawnerPlugin {
         this.timeFormatter = new TimeFormatter(this);
         this.configUpdater = new ConfigUpdater(this);
         configUpdater.checkAndUpdateConfig();
+        configureSignatureCache();
         this.languageManager = new LanguageManager(this);
         this.languageUpdater = new LanguageUpdater(this);
         new LanguageChangelogUpdater(this).update();
@@ -329,6 +335,21 @@ public class SmartSpawner extends JavaPlugin implements SmartSpawnerPlugin {
                             }
                         }
 
+                        // Check for a binary snapshot left over from BINARY mode
+                        BinarySnapshotMigration binaryMigration = new BinarySnapshotMigration(this);
+                        if (binaryMigration.hasSnapshot()) {
+                            getLogger().info("Binary snapshot detected, starting migration to " + dbType + "...");
+                            try {
+                                if (yamlMigration.migrate(binaryMigration.loadAsYaml(), binaryMigration::retireSnapshot)) {
+                                    getLogger().info("Binary snapshot migration completed successfully!");
+                                } else {
+                                    getLogger().warning("Binary snapshot migration completed with some errors. Check logs for details.");
+                                }
+                            } catch (IOException e) {
+                                getLogger().severe("Failed to read binary snapshot: " + e.getMessage());
+                            }
+                        }
+
                         // Check for SQLite to MySQL migration (only when mode is MYSQL)
                         if (mode == StorageMode.MYSQL) {
                             SqliteToMySqlMigration sqliteMigration = new SqliteToMySqlMigration(this, databaseManager);
@@ -357,12 +378,31 @@ public class SmartSpawner extends JavaPlugin implements SmartSpawnerPlugin {
                 databaseManager = null;
                 initializeYamlStorage();
             }
+        } else if (mode == StorageMode.BINARY) {
+            getLogger().info("Initializing binary snapshot storage mode...");
+            SpawnerBinaryHandler binaryHandler = new SpawnerBinaryHandler(this);
+            if (binaryHandler.initialize()) {
+                this.spawnerStorage = binaryHandler;
+                getLogger().info("Binary snapshot storage initialized successfully.");
+            } else {
+                getLogger().severe("Failed to initialize binary snapshot storage, falling back to YAML");
+                initializeYamlStorage();
+            }
         } else {
             initializeYamlStorage();
         }
     }
 
     private void initializeYamlStorage() {
+        BinarySnapshotMigration binaryMigration = new BinarySnapshotMigration(this);
+        if (binaryMigration.hasSnapshot() && getConfig().getBoolean("database.migrate_from_local", true)) {
+            try {
+                binaryMigration.exportToYaml();
+            } catch (IOException e) {
+                getLogger().severe("Failed to convert binary snapshot to YAML: " + e.getMessage());
+            }
+        }
+
         this.spawnerFileHandler = new SpawnerFileHandler(this);
         this.spawnerStorage = spawnerFileHandler;
         getLogger().info("Using YAML file storage mode.");
@@ -490,6 +530,14 @@ public class SmartSpawner extends JavaPlugin implements SmartSpawnerPlugin {
         );
     }
 
+    private void configureSignatureCache() {
+        ItemSignatureCache cache = VirtualInventory.getSignatureCache();
+        cache.setMaxSize(getConfig().getInt("performance.signature_cache.max_size", ItemSignatureCache.DEFAULT_MAX_SIZE));
+        debug("Item signature cache: " + cache.size() + "/" + cache.getMaxSize() + " entries, "
+                + cache.getHits() + " hits, " + cache.getMisses() + " misses ("
+                + String.format("%.1f", cache.getHitRate() * 100) + "% hit rate)");
+    }
+
     public void reload() {
         // reload gui components
         guiLayoutConfig.reloadLayouts();
@@ -514,6 +562,13 @@ public class SmartSpawner extends JavaPlugin implements SmartSpawnerPlugin {
         // reload services
         integrationManager.reload();
         spawnerMenuAction.reload();
+        if (rangeChecker != null) {
+            rangeChecker.loadConfig();
+        }
+        if (spawnerLootGenerator != null) {
+            spawnerLootGenerator.loadConfig();
+        }
+        configureSignatureCache();
         if (spawnerBreakListener != null) {
             spawnerBreakListener.loadConfig();
         }
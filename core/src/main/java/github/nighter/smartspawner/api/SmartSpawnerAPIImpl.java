@@ -5,6 +5,7 @@ import github.nighter.smartspawner.api.data.SpawnerDataDTO;
 import github.nighter.smartspawner.api.data.SpawnerDataModifier;
 import github.nighter.smartspawner.api.impl.SpawnerDataModifierImpl;
 import github.nighter.smartspawner.spawner.item.SpawnerItemFactory;
+import github.nighter.smartspawner.spawner.data.SpawnerManager;
 import github.nighter.smartspawner.spawner.properties.SpawnerData;
 import org.bukkit.Location;
 import org.bukkit.Material;
@@ -186,8 +187,9 @@ public class SmartSpawnerAPIImpl implements SmartSpawnerAPI {
             return null;
         }
 
-        SpawnerData spawnerData = plugin.getSpawnerManager().getSpawnerById(spawnerId);
-        return spawnerData != null ? new SpawnerDataModifierImpl(spawnerData) : null;
+        SpawnerManager spawnerManager = plugin.getSpawnerManager();
+        SpawnerData spawnerData = spawnerManager.getSpawnerById(spawnerId);
+        return spawnerData != null ? new SpawnerDataModifierImpl(spawnerManager, spawnerData) : null;
     }
 
     /**
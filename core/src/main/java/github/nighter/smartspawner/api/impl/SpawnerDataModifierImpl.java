@@ -1,6 +1,7 @@
 package github.nighter.smartspawner.api.impl;
 
 import github.nighter.smartspawner.api.data.SpawnerDataModifier;
+import github.nighter.smartspawner.spawner.data.SpawnerManager;
 import github.nighter.smartspawner.spawner.properties.SpawnerData;
 
 /**
@@ -8,6 +9,7 @@ import github.nighter.smartspawner.spawner.properties.SpawnerData;
  */
 public class SpawnerDataModifierImpl implements SpawnerDataModifier {
 
+    private final SpawnerManager spawnerManager;
     private final SpawnerData spawnerData;
     private int pendingMaxStackSize;
     private int pendingBaseMaxStoragePages;
@@ -23,7 +25,8 @@ public class SpawnerDataModifierImpl implements SpawnerDataModifier {
     private boolean baseMaxStoredExpChanged = false;
     private boolean baseSpawnerDelayChanged = false;
 
-    public SpawnerDataModifierImpl(SpawnerData spawnerData) {
+    public SpawnerDataModifierImpl(SpawnerManager spawnerManager, SpawnerData spawnerData) {
+        this.spawnerManager = spawnerManager;
         this.spawnerData = spawnerData;
         this.pendingMaxStackSize = spawnerData.getMaxStackSize();
         this.pendingBaseMaxStoragePages = spawnerData.getBaseMaxStoragePages();
@@ -129,10 +132,13 @@ public class SpawnerDataModifierImpl implements SpawnerDataModifier {
         }
         if (baseSpawnerDelayChanged) {
             spawnerData.setSpawnDelay(pendingBaseSpawnerDelay);
+            spawnerManager.rescheduleLootCycle(spawnerData);
         }
 
         // Recalculate values after API modifications
         spawnerData.recalculateAfterAPIModification();
+        // Stack limits and base values live in the stack columns, the delay in the settings ones
+        spawnerManager.markSpawnerModified(spawnerData, SpawnerData.DIRTY_SETTINGS | SpawnerData.DIRTY_STACK);
     }
 }
 
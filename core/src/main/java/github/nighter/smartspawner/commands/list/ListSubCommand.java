@@ -1,6 +1,7 @@
 package github.nighter.smartspawner.commands.list;
 
 import com.mojang.brigadier.context.CommandContext;
+import github.nighter.smartspawner.Scheduler;
 import github.nighter.smartspawner.SmartSpawner;
 import github.nighter.smartspawner.nms.VersionInitializer;
 import github.nighter.smartspawner.commands.BaseSubCommand;
@@ -18,6 +19,7 @@ import github.nighter.smartspawner.spawner.data.database.SpawnerDatabaseHandler;
 import github.nighter.smartspawner.spawner.data.storage.StorageMode;
 import github.nighter.smartspawner.spawner.properties.SpawnerData;
 import github.nighter.smartspawner.spawner.data.SpawnerManager;
+import github.nighter.smartspawner.spawner.data.SpawnerStub;
 import github.nighter.smartspawner.spawner.config.SpawnerMobHeadTexture;
 import io.papermc.paper.command.brigadier.CommandSourceStack;
 import org.bukkit.*;
@@ -29,6 +31,7 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 public class ListSubCommand extends BaseSubCommand {
@@ -124,7 +127,7 @@ public class ListSubCommand extends BaseSubCommand {
         player.playSound(player.getLocation(), Sound.UI_BUTTON_CLICK, 1.0f, 1.0f);
 
         // Async query for server names
-        dbHandler.getDistinctServerNamesAsync(servers -> {
+        dbHandler.getCrossServerQueries().getDistinctServerNamesAsync(servers -> {
             if (servers.isEmpty()) {
                 messageService.sendMessage(player, "no_spawners_found");
                 return;
@@ -208,7 +211,7 @@ public class ListSubCommand extends BaseSubCommand {
 
         player.playSound(player.getLocation(), Sound.UI_BUTTON_CLICK, 1.0f, 1.0f);
 
-        dbHandler.getWorldsForServerAsync(targetServer, worldCounts -> {
+        dbHandler.getCrossServerQueries().getWorldsForServerAsync(targetServer, worldCounts -> {
             if (worldCounts.isEmpty()) {
                 messageService.sendMessage(player, "no_spawners_found");
                 return;
@@ -513,27 +516,35 @@ public class ListSubCommand extends BaseSubCommand {
         }
         player.playSound(player.getLocation(), Sound.UI_BUTTON_CLICK, 1.0f, 1.0f);
 
-        // Get all spawners in the world
-        List<SpawnerData> worldSpawners = spawnerManager.getAllSpawners().stream()
-                .filter(spawner -> spawner.getSpawnerLocation().getWorld().getName().equals(worldName))
-                .collect(Collectors.toList());
+        // Get all spawners in the world, loaded ones and those only stored as stubs
+        List<ListEntry> worldSpawners = new ArrayList<>();
+        for (SpawnerData spawner : spawnerManager.getAllSpawners()) {
+            if (spawner.getSpawnerLocation().getWorld().getName().equals(worldName)) {
+                worldSpawners.add(new ListEntry(spawner.getSpawnerId(), spawner.getStackSize(), spawner.getSpawnerStop().get()));
+            }
+        }
+        for (SpawnerStub stub : spawnerManager.getStubsInWorld(worldName)) {
+            // A spawner in an unloaded chunk has no player in range, so it is not running
+            worldSpawners.add(new ListEntry(stub.spawnerId(), stub.stackSize(), true));
+        }
 
         // Apply filtering
         if (filter == FilterOption.ACTIVE) {
             worldSpawners = worldSpawners.stream()
-                    .filter(spawner -> !spawner.getSpawnerStop().get())
+                    .filter(entry -> !entry.stopped())
                     .collect(Collectors.toList());
         } else if (filter == FilterOption.INACTIVE) {
             worldSpawners = worldSpawners.stream()
-                    .filter(spawner -> spawner.getSpawnerStop().get())
+                    .filter(ListEntry::stopped)
                     .collect(Collectors.toList());
         }
 
-        // Apply sorting
+        // Apply sorting, by ID first so pages stay stable across both sources
+        worldSpawners.sort(Comparator.comparing(ListEntry::spawnerId));
         switch (sortType) {
-            case STACK_SIZE_ASC -> worldSpawners.sort(Comparator.comparingInt(SpawnerData::getStackSize));
-            case STACK_SIZE_DESC -> worldSpawners.sort(Comparator.comparingInt(SpawnerData::getStackSize).reversed());
-            default -> {} // Default sorting (by ID) - no additional sorting needed
+            case STACK_SIZE_ASC -> worldSpawners.sort(Comparator.comparingInt(ListEntry::stackSize));
+            case STACK_SIZE_DESC -> worldSpawners.sort(Comparator.comparingInt(ListEntry::stackSize).reversed());
+            default -> {} // Default sorting (by ID)
         }
 
         int totalPages = (int) Math.ceil((double) worldSpawners.size() / SPAWNERS_PER_PAGE);
@@ -565,12 +576,6 @@ public class ListSubCommand extends BaseSubCommand {
         int startIndex = (page - 1) * SPAWNERS_PER_PAGE;
         int endIndex = Math.min(startIndex + SPAWNERS_PER_PAGE, worldSpawners.size());
 
-        // Populate inventory with spawners
-        for (int i = startIndex; i < endIndex; i++) {
-            SpawnerData spawner = worldSpawners.get(i);
-            inv.addItem(createSpawnerInfoItem(spawner));
-        }
-
         // Add filter and sort controls
         addControlButtons(inv, filter, sortType);
 
@@ -586,7 +591,28 @@ public class ListSubCommand extends BaseSubCommand {
             inv.setItem(53, createNavigationButton(Material.SPECTRAL_ARROW, "navigation.next_page"));
         }
 
-        player.openInventory(inv);
+        // Load the spawners of this page only; stored ones are read off the server thread
+        List<CompletableFuture<SpawnerData>> pageSpawners = new ArrayList<>();
+        for (int i = startIndex; i < endIndex; i++) {
+            pageSpawners.add(spawnerManager.hydrateAsync(worldSpawners.get(i).spawnerId()));
+        }
+
+        CompletableFuture.allOf(pageSpawners.toArray(new CompletableFuture[0])).whenComplete((ignored, error) ->
+                Scheduler.runEntityTask(player, () -> {
+                    if (!player.isOnline()) return;
+
+                    // Populate inventory with spawners
+                    for (CompletableFuture<SpawnerData> future : pageSpawners) {
+                        SpawnerData spawner = future.isCompletedExceptionally() ? null : future.join();
+                        if (spawner != null) {
+                            inv.addItem(createSpawnerInfoItem(spawner));
+                        }
+                    }
+                    player.openInventory(inv);
+                }));
+    }
+
+    private record ListEntry(String spawnerId, int stackSize, boolean stopped) {
     }
 
     // Create the new consolidated filter and sort buttons
@@ -765,7 +791,7 @@ public class ListSubCommand extends BaseSubCommand {
         final int requestedPage = page;
         final FilterOption finalFilter = filter;
         final SortOption finalSort = sort;
-        dbHandler.getCrossServerSpawnersAsync(targetServer, worldName, filter.name(), sort.name(), spawners -> {
+        dbHandler.getCrossServerQueries().getCrossServerSpawnersAsync(targetServer, worldName, filter.name(), sort.name(), spawners -> {
             if (spawners.isEmpty()) {
                 messageService.sendMessage(player, "no_spawners_found");
                 return;
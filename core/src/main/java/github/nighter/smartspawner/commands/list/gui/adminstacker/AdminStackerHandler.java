@@ -112,7 +112,7 @@ public class AdminStackerHandler implements Listener {
         spawner.setStackSize(newStackSize);
 
         // Mark spawner as modified for database save
-        spawnerManager.markSpawnerModified(spawner.getSpawnerId());
+        spawnerManager.markSpawnerModified(spawner, SpawnerData.DIRTY_STACK | SpawnerData.DIRTY_LOOT);
 
         // Track interaction
         spawner.updateLastInteractedPlayer(player.getName());
@@ -200,7 +200,7 @@ public class AdminStackerHandler implements Listener {
         if (newStackSize != originalSize) {
             player.sendMessage("§eSaving stack size changes...");
 
-            dbHandler.updateRemoteSpawnerStackSizeAsync(targetServer, spawnerId, newStackSize, success -> {
+            dbHandler.getCrossServerQueries().updateRemoteSpawnerStackSizeAsync(targetServer, spawnerId, newStackSize, success -> {
                 if (success) {
                     player.sendMessage("§aStack size updated from " + originalSize + " to " + newStackSize);
                     player.sendMessage("§e[Note] Changes will sync to " + targetServer + " on next refresh.");
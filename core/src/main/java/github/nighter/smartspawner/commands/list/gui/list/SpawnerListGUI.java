@@ -7,7 +7,6 @@ import github.nighter.smartspawner.commands.list.gui.list.enums.SortOption;
 import github.nighter.smartspawner.commands.list.gui.worldselection.WorldSelectionHolder;
 import github.nighter.smartspawner.language.LanguageManager;
 import github.nighter.smartspawner.language.MessageService;
-import github.nighter.smartspawner.spawner.properties.SpawnerData;
 import github.nighter.smartspawner.spawner.data.SpawnerManager;
 import org.bukkit.*;
 import org.bukkit.entity.Player;
@@ -279,10 +278,8 @@ public class SpawnerListGUI implements Listener {
                 listSubCommand.openSpawnerManagementGUI(player, spawnerId,
                     holder.getWorldName(), holder.getCurrentPage(), targetServer);
             } else {
-                // Local server - verify spawner exists
-                SpawnerData spawner = spawnerManager.getSpawnerById(spawnerId);
-
-                if (spawner != null) {
+                // Local server - verify spawner exists, loaded or not
+                if (spawnerManager.containsSpawner(spawnerId)) {
                     // Open the management GUI
                     listSubCommand.openSpawnerManagementGUI(player, spawnerId,
                         holder.getWorldName(), holder.getCurrentPage(), null);
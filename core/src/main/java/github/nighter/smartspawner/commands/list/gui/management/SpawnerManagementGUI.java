@@ -4,7 +4,6 @@ import github.nighter.smartspawner.SmartSpawner;
 import github.nighter.smartspawner.nms.VersionInitializer;
 import github.nighter.smartspawner.language.LanguageManager;
 import github.nighter.smartspawner.language.MessageService;
-import github.nighter.smartspawner.spawner.properties.SpawnerData;
 import github.nighter.smartspawner.spawner.data.SpawnerManager;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
@@ -53,13 +52,10 @@ public class SpawnerManagementGUI {
     public void openManagementMenu(Player player, String spawnerId, String worldName, int listPage, String targetServer) {
         boolean isRemote = targetServer != null && !targetServer.equals(getCurrentServerName());
 
-        // For local spawners, verify it exists
-        if (!isRemote) {
-            SpawnerData spawner = spawnerManager.getSpawnerById(spawnerId);
-            if (spawner == null) {
-                messageService.sendMessage(player, "spawner_not_found");
-                return;
-            }
+        // For local spawners, verify it exists, loaded or not
+        if (!isRemote && !spawnerManager.containsSpawner(spawnerId)) {
+            messageService.sendMessage(player, "spawner_not_found");
+            return;
         }
 
         String title = languageManager.getGuiTitle("spawner_management.title");
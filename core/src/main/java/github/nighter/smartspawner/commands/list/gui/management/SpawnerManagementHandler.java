@@ -1,5 +1,6 @@
 package github.nighter.smartspawner.commands.list.gui.management;
 
+import github.nighter.smartspawner.Scheduler;
 import github.nighter.smartspawner.SmartSpawner;
 import github.nighter.smartspawner.commands.list.gui.CrossServerSpawnerData;
 import github.nighter.smartspawner.commands.list.gui.adminstacker.AdminStackerUI;
@@ -80,19 +81,20 @@ public class SpawnerManagementHandler implements Listener {
             return;
         }
 
-        // Local spawner actions
-        SpawnerData spawner = spawnerManager.getSpawnerById(spawnerId);
-        if (spawner == null) {
-            messageService.sendMessage(player, "spawner_not_found");
-            return;
-        }
+        // Local spawner actions, a spawner in an unloaded chunk is loaded from storage first
+        spawnerManager.hydrateAsync(spawnerId).thenAccept(spawner -> Scheduler.runEntityTask(player, () -> {
+            if (spawner == null) {
+                messageService.sendMessage(player, "spawner_not_found");
+                return;
+            }
 
-        switch (slot) {
-            case 10 -> handleTeleport(player, spawner);
-            case 12 -> handleOpenSpawner(player, spawner);
-            case 14 -> handleStackManagement(player, spawner, worldName, listPage);
-            case 16 -> handleRemoveSpawner(player, spawner, worldName, listPage);
-        }
+            switch (slot) {
+                case 10 -> handleTeleport(player, spawner);
+                case 12 -> handleOpenSpawner(player, spawner);
+                case 14 -> handleStackManagement(player, spawner, worldName, listPage);
+                case 16 -> handleRemoveSpawner(player, spawner, worldName, listPage);
+            }
+        }));
     }
 
     private void handleTeleport(Player player, SpawnerData spawner) {
@@ -203,7 +205,7 @@ public class SpawnerManagementHandler implements Listener {
 
         player.playSound(player.getLocation(), Sound.UI_BUTTON_CLICK, 1.0f, 1.0f);
 
-        dbHandler.getRemoteSpawnerByIdAsync(targetServer, spawnerId, spawnerData -> {
+        dbHandler.getCrossServerQueries().getRemoteSpawnerByIdAsync(targetServer, spawnerId, spawnerData -> {
             if (spawnerData == null) {
                 messageService.sendMessage(player, "spawner_not_found");
                 return;
@@ -243,7 +245,7 @@ public class SpawnerManagementHandler implements Listener {
         player.playSound(player.getLocation(), Sound.UI_BUTTON_CLICK, 1.0f, 1.0f);
 
         // Fetch current stack size and open editor
-        dbHandler.getRemoteSpawnerByIdAsync(targetServer, spawnerId, spawnerData -> {
+        dbHandler.getCrossServerQueries().getRemoteSpawnerByIdAsync(targetServer, spawnerId, spawnerData -> {
             if (spawnerData == null) {
                 messageService.sendMessage(player, "spawner_not_found");
                 return;
@@ -263,7 +265,7 @@ public class SpawnerManagementHandler implements Listener {
         }
 
         // Delete from database
-        dbHandler.deleteRemoteSpawnerAsync(targetServer, spawnerId, success -> {
+        dbHandler.getCrossServerQueries().deleteRemoteSpawnerAsync(targetServer, spawnerId, success -> {
             if (success) {
                 Map<String, String> placeholders = new HashMap<>();
                 placeholders.put("id", spawnerId);
@@ -1,5 +1,6 @@
 package github.nighter.smartspawner.commands.near;
 
+import github.nighter.smartspawner.Scheduler;
 import github.nighter.smartspawner.SmartSpawner;
 import github.nighter.smartspawner.commands.list.gui.management.SpawnerManagementGUI;
 import github.nighter.smartspawner.language.LanguageManager;
@@ -158,14 +159,15 @@ public class NearResultGUI implements Listener {
         if (!matcher.find()) return;
 
         String spawnerId = matcher.group(1);
-        SpawnerData spawner = plugin.getSpawnerManager().getSpawnerById(spawnerId);
-        if (spawner == null) {
-            plugin.getMessageService().sendMessage(player, "spawner_not_found");
-            return;
-        }
-
-        String worldName = spawner.getSpawnerLocation().getWorld().getName();
-        spawnerManagementGUI.openManagementMenu(player, spawnerId, worldName, 1);
+        plugin.getSpawnerManager().hydrateAsync(spawnerId).thenAccept(spawner -> Scheduler.runEntityTask(player, () -> {
+            if (spawner == null) {
+                plugin.getMessageService().sendMessage(player, "spawner_not_found");
+                return;
+            }
+
+            String worldName = spawner.getSpawnerLocation().getWorld().getName();
+            spawnerManagementGUI.openManagementMenu(player, spawnerId, worldName, 1);
+        }));
     }
 
     private boolean isSpawnerItem(ItemStack item) {
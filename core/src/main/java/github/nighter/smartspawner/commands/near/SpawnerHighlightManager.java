@@ -2,6 +2,8 @@ package github.nighter.smartspawner.commands.near;
 
 import github.nighter.smartspawner.SmartSpawner;
 import github.nighter.smartspawner.Scheduler;
+import github.nighter.smartspawner.spawner.data.SpawnerManager;
+import github.nighter.smartspawner.spawner.data.SpawnerStub;
 import github.nighter.smartspawner.spawner.properties.SpawnerData;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.bossbar.BossBar;
@@ -117,9 +119,12 @@ public class SpawnerHighlightManager implements Listener {
         Scheduler.runTaskAsync(() -> {
             if (session.cancelled.get()) return;
 
-            Set<SpawnerData> worldSpawners = plugin.getSpawnerManager().getSpawnersInWorld(worldName);
+            SpawnerManager spawnerManager = plugin.getSpawnerManager();
+            Set<SpawnerData> worldSpawners = spawnerManager.getSpawnersInWorld(worldName);
+            // Spawners in chunks nobody loaded yet are only stored as stubs
+            List<SpawnerStub> worldStubs = spawnerManager.getStubsInWorld(worldName);
 
-            if (worldSpawners == null || worldSpawners.isEmpty()) {
+            if ((worldSpawners == null || worldSpawners.isEmpty()) && worldStubs.isEmpty()) {
                 Scheduler.runTask(() -> {
                     if (!session.cancelled.get())
                         finalizeScan(player, session, Collections.emptyList(), finalRadius);
@@ -128,23 +133,36 @@ public class SpawnerHighlightManager implements Listener {
             }
 
             // Snapshot to avoid ConcurrentModificationException
-            List<SpawnerData> snapshot = new ArrayList<>(worldSpawners);
-            int total = snapshot.size();
+            List<SpawnerData> snapshot = worldSpawners != null ? new ArrayList<>(worldSpawners) : new ArrayList<>();
+            int loaded = snapshot.size();
+            int total = loaded + worldStubs.size();
             List<SpawnerData> nearby = new ArrayList<>();
+            List<String> nearbyStubs = new ArrayList<>();
 
             for (int i = 0; i < total; i++) {
                 if (session.cancelled.get()) return;
 
-                SpawnerData spawner = snapshot.get(i);
-                Location loc = spawner.getSpawnerLocation();
-                if (loc == null || loc.getWorld() == null) continue;
+                double dx, dy, dz;
+                if (i < loaded) {
+                    Location loc = snapshot.get(i).getSpawnerLocation();
+                    if (loc == null || loc.getWorld() == null) continue;
+                    dx = loc.getX() - playerLoc.getX();
+                    dy = loc.getY() - playerLoc.getY();
+                    dz = loc.getZ() - playerLoc.getZ();
+                } else {
+                    SpawnerStub stub = worldStubs.get(i - loaded);
+                    dx = stub.x() - playerLoc.getX();
+                    dy = stub.y() - playerLoc.getY();
+                    dz = stub.z() - playerLoc.getZ();
+                }
 
-                double dx = loc.getX() - playerLoc.getX();
-                double dy = loc.getY() - playerLoc.getY();
-                double dz = loc.getZ() - playerLoc.getZ();
                 if (dx * dx + dy * dy + dz * dz <= radiusSq) {
-                    nearby.add(spawner);
-                    if (nearby.size() >= MAX_HIGHLIGHTS) break;
+                    if (i < loaded) {
+                        nearby.add(snapshot.get(i));
+                    } else {
+                        nearbyStubs.add(worldStubs.get(i - loaded).spawnerId());
+                    }
+                    if (nearby.size() + nearbyStubs.size() >= MAX_HIGHLIGHTS) break;
                 }
 
                 // Update bossbar every 50 spawners to minimise overhead
@@ -158,6 +176,15 @@ public class SpawnerHighlightManager implements Listener {
                 }
             }
 
+            // Load only the stored spawners that will be shown; this is an async thread
+            for (String spawnerId : nearbyStubs) {
+                if (session.cancelled.get()) return;
+                SpawnerData spawner = spawnerManager.getSpawnerById(spawnerId);
+                if (spawner != null) {
+                    nearby.add(spawner);
+                }
+            }
+
             if (session.cancelled.get()) return;
 
             final List<SpawnerData> result = nearby;
@@ -9,6 +9,8 @@ public class HopperConfig {
     private final boolean hopperEnabled;
     @Getter
     private final int stackPerTransfer;
+    @Getter
+    private final double tickBudgetMillis;
 
     public HopperConfig(SmartSpawner plugin) {
         this.hopperEnabled = plugin.getConfig().getBoolean("hopper.enabled", false);
@@ -18,5 +20,6 @@ public class HopperConfig {
             amount = 5;
         }
         this.stackPerTransfer = amount;
+        this.tickBudgetMillis = plugin.getConfig().getDouble("hopper.tick_budget_ms", 2.0);
     }
 }
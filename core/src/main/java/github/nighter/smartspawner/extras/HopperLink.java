@@ -0,0 +1,52 @@
+package github.nighter.smartspawner.extras;
+
+import github.nighter.smartspawner.spawner.properties.SpawnerData;
+import github.nighter.smartspawner.utils.BlockPos;
+import lombok.Getter;
+import org.bukkit.block.Hopper;
+
+/**
+ * A registered hopper and, once resolved, the spawner above it and a live handle to the
+ * hopper block. Resolved links are drained without any world or spawner lookup; block and
+ * spawner changes invalidate the link so the next drain resolves it again.
+ */
+public final class HopperLink {
+
+    @Getter
+    private final BlockPos pos;
+    // Written on the hopper's region thread, cleared from any thread
+    private volatile SpawnerData spawner;
+    private volatile Hopper hopper;
+
+    HopperLink(BlockPos pos) {
+        this.pos = pos;
+    }
+
+    /**
+     * @return the spawner above the hopper, or null if the link must be resolved first
+     */
+    SpawnerData getSpawner() {
+        return spawner;
+    }
+
+    /**
+     * @return a live (non-snapshot) state of the hopper, or null if the link must be resolved first
+     */
+    Hopper getHopper() {
+        return hopper;
+    }
+
+    boolean isResolved() {
+        return spawner != null && hopper != null;
+    }
+
+    void resolve(SpawnerData spawner, Hopper hopper) {
+        this.hopper = hopper;
+        this.spawner = spawner;
+    }
+
+    void invalidate() {
+        this.spawner = null;
+        this.hopper = null;
+    }
+}
@@ -6,50 +6,169 @@ import org.bukkit.World;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.BiConsumer;
-
+import java.util.function.Consumer;
+
+/**
+ * Hoppers sitting below a spawner, grouped by world and chunk.
+ * <p>
+ * A registered hopper is either armed or parked. Only armed hoppers are visited by the
+ * drain tick; a hopper is parked once its spawner is empty or the hopper is full, and armed
+ * again when loot is added to the spawner or the hopper frees space.
+ * <p>
+ * Chunks with armed hoppers are also kept in a fixed number of buckets by a stable hash of
+ * their key, so the drain can visit a slice of them without walking every armed chunk.
+ */
 public final class HopperRegistry {
 
-    private final Map<UUID, Map<Long, Set<BlockPos>>> data = new ConcurrentHashMap<>();
+    private final Map<UUID, Map<Long, Map<BlockPos, HopperLink>>> data = new ConcurrentHashMap<>();
+    // Links have identity equality, armed sets never hash a position
+    private final Map<UUID, Map<Long, Set<HopperLink>>> armed = new ConcurrentHashMap<>();
+    // Chunks of the armed map by bucket, updated inside the compute that creates or drops their set
+    private final Set<ChunkRef>[] buckets;
 
-    public void add(BlockPos pos) {
-        UUID worldId = pos.worldId();
-        long chunkKey = ChunkUtil.getChunkKey(pos.getChunkX(), pos.getChunkZ());
+    record ChunkRef(UUID worldId, long chunkKey) {
+    }
+
+    @SuppressWarnings("unchecked")
+    public HopperRegistry(int bucketCount) {
+        this.buckets = new Set[Math.max(1, bucketCount)];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = ConcurrentHashMap.newKeySet();
+        }
+    }
 
-        data.computeIfAbsent(worldId, w -> new ConcurrentHashMap<>())
-                .computeIfAbsent(chunkKey, c -> ConcurrentHashMap.newKeySet())
-                .add(pos);
+    public int getBucketCount() {
+        return buckets.length;
+    }
+
+    /**
+     * Registers a hopper and arms it, its spawner may already hold loot.
+     * A hopper that is already registered is resolved again.
+     */
+    public void add(BlockPos pos) {
+        HopperLink[] added = new HopperLink[1];
+        // Chunk maps are created and dropped inside compute, so an add never lands in a map
+        // that a concurrent remove is dropping. World maps stay until the world is removed.
+        data.computeIfAbsent(pos.worldId(), w -> new ConcurrentHashMap<>())
+                .compute(pos.getChunkKey(), (key, chunk) -> {
+                    if (chunk == null) chunk = new ConcurrentHashMap<>();
+                    added[0] = chunk.computeIfAbsent(pos, HopperLink::new);
+                    return chunk;
+                });
+        added[0].invalidate();
+        arm(added[0]);
     }
 
     public void remove(BlockPos pos) {
-        UUID worldId = pos.worldId();
-        Map<Long, Set<BlockPos>> worldMap = data.get(worldId);
+        Map<Long, Map<BlockPos, HopperLink>> worldMap = data.get(pos.worldId());
         if (worldMap == null) return;
 
-        long chunkKey = ChunkUtil.getChunkKey(pos.getChunkX(), pos.getChunkZ());
-        Set<BlockPos> set = worldMap.get(chunkKey);
-        if (set == null) return;
-
-        set.remove(pos);
+        HopperLink[] removed = new HopperLink[1];
+        worldMap.computeIfPresent(pos.getChunkKey(), (key, chunk) -> {
+            removed[0] = chunk.remove(pos);
+            return chunk.isEmpty() ? null : chunk;
+        });
 
-        if (set.isEmpty()) {
-            worldMap.remove(chunkKey);
+        if (removed[0] != null) {
+            removed[0].invalidate();
+            disarm(removed[0]);
         }
+    }
 
-        if (worldMap.isEmpty()) {
-            data.remove(worldId);
-        }
+    public HopperLink get(BlockPos pos) {
+        Map<Long, Map<BlockPos, HopperLink>> worldMap = data.get(pos.worldId());
+        if (worldMap == null) return null;
+
+        Map<BlockPos, HopperLink> chunk = worldMap.get(pos.getChunkKey());
+        return chunk != null ? chunk.get(pos) : null;
     }
 
-    public void removeChunk(UUID worldId, int chunkX, int chunkZ) {
-        Map<Long, Set<BlockPos>> worldMap = data.get(worldId);
+    public boolean contains(BlockPos pos) {
+        return get(pos) != null;
+    }
+
+    /**
+     * Arms a registered hopper so the next tick drains into it. Unknown positions are ignored.
+     *
+     * @return true if the hopper is registered
+     */
+    public boolean arm(BlockPos pos) {
+        HopperLink link = get(pos);
+        if (link == null) return false;
+
+        arm(link);
+        return true;
+    }
+
+    /**
+     * Drops the resolved spawner and hopper of a registered hopper after a block or spawner
+     * change, and arms it so the next tick resolves it again. Unknown positions are ignored.
+     */
+    public void invalidate(BlockPos pos) {
+        HopperLink link = get(pos);
+        if (link == null) return;
+
+        link.invalidate();
+        arm(link);
+    }
+
+    /**
+     * Parks a hopper until it is armed again.
+     */
+    public void disarm(HopperLink link) {
+        BlockPos pos = link.getPos();
+        Map<Long, Set<HopperLink>> worldMap = armed.get(pos.worldId());
         if (worldMap == null) return;
 
+        // Remove and drop-if-empty in one step, a concurrent arm either runs before and keeps
+        // the set or after and creates a new one
+        worldMap.computeIfPresent(pos.getChunkKey(), (key, set) -> {
+            set.remove(link);
+            if (!set.isEmpty()) return set;
+
+            bucketOf(pos.worldId(), key).remove(new ChunkRef(pos.worldId(), key));
+            return null;
+        });
+    }
+
+    private void arm(HopperLink link) {
+        BlockPos pos = link.getPos();
+        armed.computeIfAbsent(pos.worldId(), w -> new ConcurrentHashMap<>())
+                .compute(pos.getChunkKey(), (key, set) -> {
+                    if (set == null) {
+                        set = ConcurrentHashMap.newKeySet();
+                        bucketOf(pos.worldId(), key).add(new ChunkRef(pos.worldId(), key));
+                    }
+                    set.add(link);
+                    return set;
+                });
+    }
+
+    /**
+     * Stable bucket of a chunk, mixing the key so neighbouring chunks land in different buckets.
+     */
+    private Set<ChunkRef> bucketOf(UUID worldId, long chunkKey) {
+        int hash = (int) ((chunkKey * 0x9E3779B97F4A7C15L) >>> 32) ^ worldId.hashCode();
+        return buckets[Math.floorMod(hash, buckets.length)];
+    }
+
+    public void removeChunk(UUID worldId, int chunkX, int chunkZ) {
         long key = ChunkUtil.getChunkKey(chunkX, chunkZ);
-        worldMap.remove(key);
 
-        if (worldMap.isEmpty()) {
-            data.remove(worldId);
+        Map<Long, Map<BlockPos, HopperLink>> worldMap = data.get(worldId);
+        if (worldMap != null) {
+            Map<BlockPos, HopperLink> chunk = worldMap.remove(key);
+            if (chunk != null) {
+                chunk.values().forEach(HopperLink::invalidate);
+            }
+        }
+
+        Map<Long, Set<HopperLink>> armedWorld = armed.get(worldId);
+        if (armedWorld != null) {
+            armedWorld.computeIfPresent(key, (k, set) -> {
+                bucketOf(worldId, k).remove(new ChunkRef(worldId, k));
+                return null;
+            });
         }
     }
 
@@ -58,28 +177,31 @@ public final class HopperRegistry {
     }
 
     public void removeWorld(UUID worldId) {
-        data.remove(worldId);
+        Map<Long, Map<BlockPos, HopperLink>> worldMap = data.remove(worldId);
+        if (worldMap != null) {
+            worldMap.values().forEach(chunk -> chunk.values().forEach(HopperLink::invalidate));
+        }
+        Map<Long, Set<HopperLink>> armedWorld = armed.remove(worldId);
+        if (armedWorld != null) {
+            armedWorld.keySet().forEach(key -> bucketOf(worldId, key).remove(new ChunkRef(worldId, key)));
+        }
     }
 
     /**
-     * Iterates all active chunks.
-     * Does NOT touch blocks (safe for global thread).
+     * Iterates chunks holding at least one armed hopper in buckets {@code first},
+     * {@code first + step}, ... Does NOT touch blocks (safe for global thread).
      */
-    public void forEachChunk(BiConsumer<UUID, Long> consumer) {
-        for (var worldEntry : data.entrySet()) {
-            UUID worldId = worldEntry.getKey();
-
-            for (Long chunkKey : worldEntry.getValue().keySet()) {
-                consumer.accept(worldId, chunkKey);
-            }
+    void forEachArmedChunk(int first, int step, Consumer<ChunkRef> consumer) {
+        for (int bucket = first; bucket < buckets.length; bucket += step) {
+            buckets[bucket].forEach(consumer);
         }
     }
 
     /**
      * Must be called inside region thread.
      */
-    public Set<BlockPos> getChunkHoppers(UUID worldId, long chunkKey) {
-        Map<Long, Set<BlockPos>> worldMap = data.get(worldId);
+    public Set<HopperLink> getArmedHoppers(UUID worldId, long chunkKey) {
+        Map<Long, Set<HopperLink>> worldMap = armed.get(worldId);
         if (worldMap == null) return Collections.emptySet();
 
         return worldMap.getOrDefault(chunkKey, Collections.emptySet());
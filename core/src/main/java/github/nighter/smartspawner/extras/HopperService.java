@@ -3,53 +3,199 @@ package github.nighter.smartspawner.extras;
 
 import github.nighter.smartspawner.Scheduler;
 import github.nighter.smartspawner.SmartSpawner;
+import github.nighter.smartspawner.extras.HopperRegistry.ChunkRef;
 import github.nighter.smartspawner.utils.BlockPos;
 import github.nighter.smartspawner.utils.ChunkUtil;
 import lombok.Getter;
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
 import org.bukkit.World;
 
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains armed hoppers. Chunks are spread over one slice per tick of the check delay by the
+ * registry's buckets, so every chunk is still visited once per check delay but each tick only
+ * walks its own buckets. A slice stops scheduling hoppers once it used up
+ * {@code hopper.tick_budget_ms}; the remaining chunks move to the next tick, each at most once
+ * and a bounded number per tick. Rotations that overrun the budget add a slice, quiet ones
+ * give it back, never going below the check delay.
+ */
 public class HopperService {
 
+    // Shards may grow to this multiple of the check delay under sustained overload
+    private static final int MAX_SHARD_FACTOR = 4;
+    private static final long SUMMARY_INTERVAL_TICKS = 1200L;
+    // Slice s walks buckets s, s + shardCount, ..., so every shard count up to this is exact
+    private static final int MAX_BUCKETS = 1024;
+    // Deferred chunks scheduled per tick, the rest wait for a later tick
+    private static final int MAX_DEFERRED_PER_TICK = 256;
+
     private final SmartSpawner plugin;
     @Getter
     private final HopperRegistry registry;
     private final HopperTransfer transfer;
     @Getter
     private final HopperTracker tracker;
+    @Getter
+    private final HopperTickMetrics metrics = new HopperTickMetrics();
     private final Scheduler.Task task;
 
+    private final int baseShards;
+    private final long budgetNanos;
+    private final Queue<ChunkRef> deferredChunks = new ConcurrentLinkedQueue<>();
+    // Chunks waiting in deferredChunks, a chunk is queued at most once
+    private final Set<ChunkRef> deferredSet = ConcurrentHashMap.newKeySet();
+
+    // Only touched by the timer task
+    private int shardCount;
+    private int shard;
+    private long ticks;
+    private Slice previousSlice;
+    private Slice olderSlice;
+    private boolean rotationDeferred;
+    private long rotationPeakNanos;
+
     public HopperService(SmartSpawner plugin) {
         this.plugin = plugin;
-        this.registry = new HopperRegistry();
-        this.transfer = new HopperTransfer(plugin);
+        long delay = plugin.getTimeFromConfig("hopper.check_delay", "3s");
+        this.baseShards = (int) Math.max(1L, Math.min(delay, Integer.MAX_VALUE / MAX_SHARD_FACTOR));
+        this.shardCount = baseShards;
+
+        this.registry = new HopperRegistry(Math.min(baseShards * MAX_SHARD_FACTOR, MAX_BUCKETS));
+        this.transfer = new HopperTransfer(plugin, registry);
         this.tracker = new HopperTracker(plugin, registry);
         this.tracker.scanLoadedWorlds();
 
-        long delay = plugin.getTimeFromConfig("hopper.check_delay", "3s");
+        this.budgetNanos = (long) (plugin.getHopperConfig().getTickBudgetMillis() * 1_000_000L);
+        metrics.setShardCount(shardCount);
 
-        this.task = Scheduler.runTaskTimer(this::tick, 40L, delay);
+        this.task = Scheduler.runTaskTimer(this::tick, 40L, 1L);
+    }
+
+    /**
+     * Work scheduled by one tick. Chunk tasks may run on several region threads.
+     */
+    private static final class Slice {
+        final AtomicLong nanos = new AtomicLong();
+        final AtomicInteger chunks = new AtomicInteger();
+        final AtomicInteger hoppers = new AtomicInteger();
+        final AtomicInteger deferred = new AtomicInteger();
     }
 
+    /**
+     * Visits only armed hoppers of this tick's shard; parked ones cost nothing until they are armed again.
+     */
     private void tick() {
         if (!plugin.getHopperConfig().isHopperEnabled()) return;
 
-        registry.forEachChunk((worldId, chunkKey) -> {
+        // Chunk tasks run after the tick that scheduled them, the slice before last is complete
+        recordSlice(olderSlice);
+        olderSlice = previousSlice;
+        Slice slice = new Slice();
+        previousSlice = slice;
+
+        // Chunks pushed out of an earlier slice by the budget go first
+        for (int i = Math.min(deferredChunks.size(), MAX_DEFERRED_PER_TICK); i > 0; i--) {
+            ChunkRef ref = deferredChunks.poll();
+            if (ref == null) break;
+            deferredSet.remove(ref);
+            schedule(ref, slice);
+        }
+
+        // Still deferred chunks of this slice are drained when their turn in the queue comes
+        registry.forEachArmedChunk(shard, shardCount, ref -> {
+            if (!deferredSet.contains(ref)) {
+                schedule(ref, slice);
+            }
+        });
+
+        if (++shard >= shardCount) {
+            shard = 0;
+            adaptShards();
+        }
+
+        if (++ticks % SUMMARY_INTERVAL_TICKS == 0) {
+            plugin.debug("Hopper drain: " + metrics.summary());
+        }
+    }
 
-            World world = Bukkit.getWorld(worldId);
-            if (world == null) return;
+    private void schedule(ChunkRef ref, Slice slice) {
+        World world = Bukkit.getWorld(ref.worldId());
+        if (world == null) return;
 
-            int chunkX = ChunkUtil.getChunkX(chunkKey);
-            int chunkZ = ChunkUtil.getChunkZ(chunkKey);
+        int chunkX = ChunkUtil.getChunkX(ref.chunkKey());
+        int chunkZ = ChunkUtil.getChunkZ(ref.chunkKey());
 
-            Scheduler.runChunkTask(world, chunkX, chunkZ, () -> {
-                for (BlockPos pos : registry.getChunkHoppers(worldId, chunkKey)) {
-                    transfer.process(pos);
+        Scheduler.runChunkTask(world, chunkX, chunkZ, () -> {
+            if (budgetNanos > 0 && slice.nanos.get() >= budgetNanos) {
+                if (deferredSet.add(ref)) {
+                    deferredChunks.add(ref);
                 }
-            });
+                slice.deferred.incrementAndGet();
+                return;
+            }
+
+            long start = System.nanoTime();
+            int drained = 0;
+            for (HopperLink link : registry.getArmedHoppers(ref.worldId(), ref.chunkKey())) {
+                transfer.process(link);
+                drained++;
+            }
+            slice.nanos.addAndGet(System.nanoTime() - start);
+            slice.chunks.incrementAndGet();
+            slice.hoppers.addAndGet(drained);
         });
     }
 
+    private void recordSlice(Slice slice) {
+        if (slice == null) return;
+
+        long nanos = slice.nanos.get();
+        int deferred = slice.deferred.get();
+        metrics.recordSlice(nanos, slice.chunks.get(), slice.hoppers.get(), deferred);
+        rotationDeferred |= deferred > 0;
+        rotationPeakNanos = Math.max(rotationPeakNanos, nanos);
+    }
+
+    /**
+     * Called after every full rotation. Overruns spread the chunks thinner, a rotation that
+     * stayed well within the budget moves back towards one rotation per check delay.
+     */
+    private void adaptShards() {
+        if (budgetNanos > 0) {
+            if (rotationDeferred && shardCount < baseShards * MAX_SHARD_FACTOR) {
+                shardCount++;
+            } else if (!rotationDeferred && shardCount > baseShards && rotationPeakNanos < budgetNanos / 2) {
+                shardCount--;
+            }
+        }
+        metrics.setShardCount(shardCount);
+        rotationDeferred = false;
+        rotationPeakNanos = 0;
+    }
+
+    /**
+     * Arms the hopper below a spawner that just received loot, if one is registered.
+     * Safe to call from any thread.
+     */
+    public void wake(Location spawnerLocation) {
+        registry.arm(new BlockPos(spawnerLocation).below());
+    }
+
+    /**
+     * Drops the resolved link of the hopper below a spawner that was added, removed or
+     * unloaded, so the next drain looks the spawner up again. Safe to call from any thread.
+     */
+    public void invalidate(Location spawnerLocation) {
+        registry.invalidate(new BlockPos(spawnerLocation).below());
+    }
+
     /**
      * Must be called in plugin onDisable()
      */
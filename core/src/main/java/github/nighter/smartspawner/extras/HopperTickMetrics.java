@@ -0,0 +1,88 @@
+package github.nighter.smartspawner.extras;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cost of the sharded hopper drain: time spent per tick slice over the last minute of
+ * ticks, chunks and hoppers drained, chunks pushed to the next slice by the time budget,
+ * and the current number of shards.
+ */
+public class HopperTickMetrics {
+    private static final int SLICE_SAMPLES = 1200;
+
+    private final AtomicLong slices = new AtomicLong();
+    private final AtomicLong chunks = new AtomicLong();
+    private final AtomicLong hoppers = new AtomicLong();
+    private final AtomicLong deferred = new AtomicLong();
+
+    // Ring buffer of the latest slice costs in nanoseconds
+    private final long[] sliceCosts = new long[SLICE_SAMPLES];
+    private int sliceCount;
+    private int sliceIndex;
+
+    private volatile int shardCount;
+
+    void recordSlice(long nanos, int sliceChunks, int sliceHoppers, int sliceDeferred) {
+        slices.incrementAndGet();
+        chunks.addAndGet(sliceChunks);
+        hoppers.addAndGet(sliceHoppers);
+        deferred.addAndGet(sliceDeferred);
+        synchronized (sliceCosts) {
+            sliceCosts[sliceIndex] = nanos;
+            sliceIndex = (sliceIndex + 1) % SLICE_SAMPLES;
+            sliceCount = Math.min(sliceCount + 1, SLICE_SAMPLES);
+        }
+    }
+
+    void setShardCount(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    /**
+     * @return number of slices the registered chunks are spread over, one slice per tick
+     */
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public long getTotalSlices() {
+        return slices.get();
+    }
+
+    public long getTotalChunks() {
+        return chunks.get();
+    }
+
+    public long getTotalHoppers() {
+        return hoppers.get();
+    }
+
+    public long getTotalDeferred() {
+        return deferred.get();
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return time spent draining in one tick, in milliseconds, at the given percentile of the recent ticks
+     */
+    public double getSliceCostMillis(double percentile) {
+        long[] samples;
+        synchronized (sliceCosts) {
+            samples = Arrays.copyOf(sliceCosts, sliceCount);
+        }
+        if (samples.length == 0) {
+            return 0.0;
+        }
+        Arrays.sort(samples);
+        int index = (int) Math.ceil(percentile / 100.0 * samples.length) - 1;
+        return samples[Math.max(0, Math.min(samples.length - 1, index))] / 1_000_000.0;
+    }
+
+    public String summary() {
+        return String.format("shards=%d, slice p50=%.2fms p99=%.2fms max=%.2fms, "
+                        + "chunks=%d, hoppers=%d, deferred chunks=%d",
+                getShardCount(), getSliceCostMillis(50), getSliceCostMillis(99), getSliceCostMillis(100),
+                getTotalChunks(), getTotalHoppers(), getTotalDeferred());
+    }
+}
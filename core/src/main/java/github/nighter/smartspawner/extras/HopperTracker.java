@@ -4,20 +4,32 @@ import github.nighter.smartspawner.SmartSpawner;
 import github.nighter.smartspawner.utils.BlockPos;
 import github.nighter.smartspawner.Scheduler;
 import org.bukkit.Chunk;
+import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.block.BlockState;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryMoveItemEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
 import org.bukkit.event.world.ChunkLoadEvent;
 import org.bukkit.event.world.ChunkUnloadEvent;
 import org.bukkit.event.world.WorldLoadEvent;
 import org.bukkit.event.world.WorldUnloadEvent;
 
+import java.util.List;
+
 public class HopperTracker implements Listener {
 
     private final SmartSpawner plugin;
@@ -102,8 +114,12 @@ public class HopperTracker implements Listener {
     public void onPlace(BlockPlaceEvent e) {
         if (!plugin.getHopperConfig().isHopperEnabled()) return;
 
-        if (e.getBlockPlaced().getType() == Material.HOPPER) {
-            tryAdd(e.getBlockPlaced());
+        Block placed = e.getBlockPlaced();
+        if (placed.getType() == Material.HOPPER) {
+            tryAdd(placed);
+        } else {
+            // The block above a registered hopper may now be a different spawner
+            registry.invalidate(new BlockPos(placed.getLocation()).below());
         }
     }
 
@@ -113,6 +129,83 @@ public class HopperTracker implements Listener {
 
         if (e.getBlock().getType() == Material.HOPPER) {
             registry.remove(new BlockPos(e.getBlock().getLocation()));
+        } else {
+            registry.invalidate(new BlockPos(e.getBlock().getLocation()).below());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonExtend(BlockPistonExtendEvent e) {
+        if (!plugin.getHopperConfig().isHopperEnabled()) return;
+
+        invalidateMoved(e.getBlocks(), e.getDirection());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonRetract(BlockPistonRetractEvent e) {
+        if (!plugin.getHopperConfig().isHopperEnabled()) return;
+
+        invalidateMoved(e.getBlocks(), e.getDirection());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent e) {
+        if (!plugin.getHopperConfig().isHopperEnabled()) return;
+
+        removeExploded(e.blockList());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent e) {
+        if (!plugin.getHopperConfig().isHopperEnabled()) return;
+
+        removeExploded(e.blockList());
+    }
+
+    /**
+     * Invalidates links whose hopper or spawner position is left or entered by a moved block.
+     */
+    private void invalidateMoved(List<Block> blocks, BlockFace direction) {
+        for (Block block : blocks) {
+            BlockPos from = new BlockPos(block.getLocation());
+            BlockPos to = new BlockPos(block.getRelative(direction).getLocation());
+            for (BlockPos pos : new BlockPos[]{from, from.below(), to, to.below()}) {
+                registry.invalidate(pos);
+            }
         }
     }
+
+    private void removeExploded(List<Block> blocks) {
+        for (Block block : blocks) {
+            if (block.getType() == Material.HOPPER) {
+                registry.remove(new BlockPos(block.getLocation()));
+            } else if (block.getType() == Material.SPAWNER) {
+                registry.invalidate(new BlockPos(block.getLocation()).below());
+            }
+        }
+    }
+
+    /**
+     * A hopper parked because it was full is armed again once items leave it,
+     * either pulled by another container or taken by a player.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemMove(InventoryMoveItemEvent e) {
+        armIfHopper(e.getSource());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryClose(InventoryCloseEvent e) {
+        armIfHopper(e.getInventory());
+    }
+
+    private void armIfHopper(Inventory inventory) {
+        if (inventory.getType() != InventoryType.HOPPER) return;
+        if (!plugin.getHopperConfig().isHopperEnabled()) return;
+
+        Location location = inventory.getLocation();
+        if (location == null || location.getWorld() == null) return;
+
+        registry.arm(new BlockPos(location));
+    }
 }
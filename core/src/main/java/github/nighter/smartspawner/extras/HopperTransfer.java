@@ -14,9 +14,7 @@ import org.bukkit.block.Hopper;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
@@ -27,83 +25,180 @@ public class HopperTransfer {
     private final SmartSpawner plugin;
     private final SpawnerManager spawnerManager;
     private final SpawnerGuiViewManager guiManager;
+    private final HopperRegistry registry;
 
-    public HopperTransfer(SmartSpawner plugin) {
+    public HopperTransfer(SmartSpawner plugin, HopperRegistry registry) {
         this.plugin = plugin;
+        this.registry = registry;
         this.spawnerManager = plugin.getSpawnerManager();
         this.guiManager = plugin.getSpawnerGuiViewManager();
     }
 
-    public void process(BlockPos hopperPos) {
+    /**
+     * Drains the spawner above an armed hopper. The hopper is parked when the spawner is empty,
+     * the hopper is full, or either block is gone. Resolved links are invalidated by the tracker
+     * when a block changes; one cheap check per drain catches changes the tracker missed.
+     */
+    public void process(HopperLink link) {
+        if (link.isResolved() && !isStillValid(link)) {
+            link.invalidate();
+        }
+        if (!link.isResolved() && !resolve(link)) {
+            registry.disarm(link);
+            return;
+        }
 
+        transferItems(link, link.getSpawner(), link.getHopper());
+    }
+
+    /**
+     * The hopper block is still a hopper and its spawner is still the registered one,
+     * without resolving the link again.
+     */
+    private boolean isStillValid(HopperLink link) {
+        Hopper hopper = link.getHopper();
+        SpawnerData spawner = link.getSpawner();
+        if (hopper == null || spawner == null) return false;
+
+        return hopper.getBlock().getType() == Material.HOPPER
+                && spawnerManager.getLoadedSpawnerById(spawner.getSpawnerId()) == spawner;
+    }
+
+    private boolean resolve(HopperLink link) {
+        BlockPos hopperPos = link.getPos();
         Location hopperLoc = hopperPos.toLocation();
-        if (hopperLoc == null) return; // This should never happen, world was unloaded but not yet removed from the Tracker
+        if (hopperLoc == null) return false; // This should never happen, world was unloaded but not yet removed from the Tracker
 
         Block hopperBlock = hopperLoc.getBlock();
-
-        if (hopperBlock.getType() != Material.HOPPER) return;
+        if (hopperBlock.getType() != Material.HOPPER) return false;
 
         Block spawnerBlock = hopperBlock.getRelative(BlockFace.UP);
-        if (spawnerBlock.getType() != Material.SPAWNER) return;
+        if (spawnerBlock.getType() != Material.SPAWNER) return false;
 
-        transferItems(hopperLoc, spawnerBlock.getLocation());
-    }
+        SpawnerData spawner = spawnerManager.getLoadedSpawnerByLocation(spawnerBlock.getLocation());
+        if (spawner == null) return false;
 
-    private void transferItems(Location hopperLoc, Location spawnerLoc) {
+        if (!(hopperBlock.getState(false) instanceof Hopper hopper)) return false;
 
-        SpawnerData spawner = spawnerManager.getSpawnerByLocation(spawnerLoc);
-        if (spawner == null) return;
+        link.resolve(spawner, hopper);
+        return true;
+    }
 
+    private void transferItems(HopperLink link, SpawnerData spawner, Hopper hopper) {
+        // Invalidated concurrently, resolve again on the next tick
+        if (spawner == null || hopper == null) return;
+
+        // Busy spawners are retried on the next tick
         ReentrantLock lock = spawner.getInventoryLock();
         if (!lock.tryLock()) return;
 
         try {
+            // Parked under the inventory lock: loot added concurrently re-arms the hopper
+            // only after the lock is released, so the arm can't be lost to this disarm
             VirtualInventory virtualInv = spawner.getVirtualInventory();
-            if (virtualInv == null) return;
-
-            var state = hopperLoc.getBlock().getState(false);
-            if (!(state instanceof Hopper hopper)) return;
-
-            Map<Integer, ItemStack> displayItems = virtualInv.getDisplayInventory();
-            if (displayItems == null || displayItems.isEmpty()) return;
+            if (virtualInv == null || virtualInv.getUsedSlots() == 0) {
+                registry.disarm(link);
+                return;
+            }
 
             Inventory hopperInv = hopper.getInventory();
 
-            int transferred = 0;
+            // Only the first stacks can be moved this tick, don't build the rest of the storage
+            int stackPerTransfer = plugin.getHopperConfig().getStackPerTransfer();
+            Map<VirtualInventory.ItemSignature, Long> offered = virtualInv.getLeadingAmounts(stackPerTransfer);
+            if (offered.isEmpty()) return;
+
+            ItemStack[] slots = hopperInv.getStorageContents();
+            Map<VirtualInventory.ItemSignature, Long> moved = planTransfer(offered, slots);
+            if (moved.isEmpty()) {
+                // Nothing fits, wait until the hopper frees space
+                registry.disarm(link);
+                return;
+            }
 
-            List<ItemStack> removed = new ArrayList<>();
+            if (!spawner.removeAmountsAndUpdateSellValue(moved)) return;
 
-            for (ItemStack item : displayItems.values()) {
-                if (transferred >= plugin.getHopperConfig().getStackPerTransfer()) break;
-                if (item == null || item.getType() == Material.AIR) continue;
+            // Only slots whose stack changed are written back
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i] != null) {
+                    hopperInv.setItem(i, slots[i]);
+                }
+            }
 
-                ItemStack clone = item.clone();
-                int originalAmount = clone.getAmount();
+            guiManager.updateSpawnerMenuViewers(spawner);
+            spawnerManager.markSpawnerModified(spawner, SpawnerData.DIRTY_LOOT);
+            if (virtualInv.getUsedSlots() == 0) {
+                registry.disarm(link);
+            }
+        } catch (Exception ex) {
+            plugin.getLogger().log(Level.WARNING, "Error transferring items from spawner to hopper at " + link.getPos(), ex);
+        } finally {
+            lock.unlock();
+        }
+    }
 
-                HashMap<Integer, ItemStack> leftovers = hopperInv.addItem(clone);
+    /**
+     * Fits the offered amounts into the hopper slots, topping up matching stacks before
+     * filling empty slots. On return {@code slots} holds the new stack for every slot that
+     * changes and null for the others. The hopper's own stacks are never modified, so nothing
+     * changes in the world until the stacks are written back.
+     *
+     * @return amounts that fit, per signature
+     */
+    private static Map<VirtualInventory.ItemSignature, Long> planTransfer(
+            Map<VirtualInventory.ItemSignature, Long> offered, ItemStack[] slots) {
+        int[] fill = new int[slots.length];
+        boolean[] changed = new boolean[slots.length];
+        boolean[] created = new boolean[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            ItemStack current = slots[i];
+            if (current == null || current.getType() == Material.AIR) {
+                slots[i] = null;
+            } else {
+                fill[i] = current.getAmount();
+            }
+        }
 
-                int insertedAmount = originalAmount;
+        Map<VirtualInventory.ItemSignature, Long> moved = new HashMap<>();
+        for (Map.Entry<VirtualInventory.ItemSignature, Long> entry : offered.entrySet()) {
+            VirtualInventory.ItemSignature sig = entry.getKey();
+            int maxStackSize = sig.getMaxStackSize();
+            long remaining = entry.getValue();
 
-                if (!leftovers.isEmpty()) {
-                    insertedAmount -= leftovers.values().iterator().next().getAmount();
-                }
+            // Same order as Inventory#addItem: partial stacks first, then empty slots
+            for (int i = 0; i < slots.length && remaining > 0; i++) {
+                if (slots[i] == null || fill[i] >= maxStackSize || !sig.matches(slots[i])) continue;
 
-                if (insertedAmount > 0) {
-                    ItemStack toRemove = item.clone();
-                    toRemove.setAmount(insertedAmount);
-                    removed.add(toRemove);
-                    transferred++;
-                }
+                int add = (int) Math.min(maxStackSize - fill[i], remaining);
+                fill[i] += add;
+                remaining -= add;
+                changed[i] = true;
+            }
+            for (int i = 0; i < slots.length && remaining > 0; i++) {
+                if (slots[i] != null) continue;
+
+                slots[i] = sig.getTemplate();
+                created[i] = true;
+                fill[i] = (int) Math.min(maxStackSize, remaining);
+                remaining -= fill[i];
+                changed[i] = true;
             }
 
-            if (!removed.isEmpty()) {
-                spawner.removeItemsAndUpdateSellValue(removed);
-                guiManager.updateSpawnerMenuViewers(spawner);
+            if (remaining < entry.getValue()) {
+                moved.put(sig, entry.getValue() - remaining);
+            }
+        }
+
+        for (int i = 0; i < slots.length; i++) {
+            if (changed[i]) {
+                // Stacks from getStorageContents() can mirror the live inventory
+                ItemStack stack = created[i] ? slots[i] : slots[i].clone();
+                stack.setAmount(fill[i]);
+                slots[i] = stack;
+            } else {
+                slots[i] = null;
             }
-        } catch (Exception ex) {
-            plugin.getLogger().log(Level.WARNING, "Error transferring items from spawner to hopper at " + hopperLoc, ex);
-        } finally {
-            lock.unlock();
         }
+        return moved;
     }
 }
@@ -3,6 +3,7 @@ package github.nighter.smartspawner.hooks.economy;
 import github.nighter.smartspawner.SmartSpawner;
 import github.nighter.smartspawner.hooks.economy.currency.CurrencyManager;
 import github.nighter.smartspawner.hooks.economy.shops.ShopIntegrationManager;
+import github.nighter.smartspawner.spawner.properties.SellPriceTable;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.bukkit.Material;
@@ -192,6 +193,7 @@ public class ItemPriceManager {
 
         itemPrices.put(material.name(), price);
         priceConfig.set(material.name(), price);
+        SellPriceTable.invalidateAll();
         saveConfig();
     }
 
@@ -241,6 +243,9 @@ public class ItemPriceManager {
             itemPrices.clear();
             plugin.getLogger().info("Custom economy disabled - all sell integration cleaned up.");
         }
+
+        // Spawner sell values are rebuilt from the new prices on their next update
+        SellPriceTable.invalidateAll();
     }
 
     public void reloadShopIntegration() {
@@ -252,6 +257,7 @@ public class ItemPriceManager {
         } else {
             shopIntegrationManager = null;
         }
+        SellPriceTable.invalidateAll();
     }
 
     public boolean hasSellIntegration() {
@@ -302,6 +308,7 @@ public class ItemPriceManager {
 
         itemPrices.remove(material.name());
         priceConfig.set(material.name(), null);
+        SellPriceTable.invalidateAll();
         saveConfig();
     }
 
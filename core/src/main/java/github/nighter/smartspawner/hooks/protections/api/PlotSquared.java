@@ -6,7 +6,6 @@ import com.plotsquared.core.events.Result;
 import com.plotsquared.core.plot.Plot;
 import github.nighter.smartspawner.SmartSpawner;
 import github.nighter.smartspawner.api.events.SpawnerPlaceEvent;
-import github.nighter.smartspawner.spawner.properties.SpawnerData;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -37,9 +36,9 @@ public class PlotSquared implements Listener {
         if(!spawnersData.containsKey(plot)) return;
         for(Location loc : spawnersData.get(plot)) {
             if(loc == null) return;
-            SpawnerData spawner = SmartSpawner.getInstance().getSpawnerManager().getSpawnerByLocation(loc);
-            if (spawner == null) continue;
-            SmartSpawner.getInstance().getSpawnerManager().removeGhostSpawner(spawner.getSpawnerId());
+            String spawnerId = SmartSpawner.getInstance().getSpawnerManager().getSpawnerIdAt(loc);
+            if (spawnerId == null) continue;
+            SmartSpawner.getInstance().getSpawnerManager().removeGhostSpawner(spawnerId);
         }
     }
 
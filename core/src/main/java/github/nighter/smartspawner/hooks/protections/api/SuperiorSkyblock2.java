@@ -8,7 +8,6 @@ import com.bgsoftware.superiorskyblock.api.island.IslandPrivilege;
 
 import com.bgsoftware.superiorskyblock.api.world.Dimension;
 import github.nighter.smartspawner.SmartSpawner;
-import github.nighter.smartspawner.spawner.properties.SpawnerData;
 import org.bukkit.*;
 import org.bukkit.block.BlockState;
 import org.bukkit.entity.Player;
@@ -76,9 +75,9 @@ public class SuperiorSkyblock2 implements Listener {
             try {
                 island.getAllChunksAsync(dimension, IslandChunkFlags.ONLY_PROTECTED | IslandChunkFlags.NO_EMPTY_CHUNKS, chunk -> {
                     for (BlockState state : chunk.getTileEntities(block -> block.getType() == Material.SPAWNER, false)) {
-                        SpawnerData spawner = SmartSpawner.getInstance().getSpawnerManager().getSpawnerByLocation(state.getBlock().getLocation());
-                        if (spawner == null) continue;
-                        SmartSpawner.getInstance().getSpawnerManager().removeGhostSpawner(spawner.getSpawnerId());
+                        String spawnerId = SmartSpawner.getInstance().getSpawnerManager().getSpawnerIdAt(state.getBlock().getLocation());
+                        if (spawnerId == null) continue;
+                        SmartSpawner.getInstance().getSpawnerManager().removeGhostSpawner(spawnerId);
                     }
                 });
             } catch(NullPointerException ignored) {}
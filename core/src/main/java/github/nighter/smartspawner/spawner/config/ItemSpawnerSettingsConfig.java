@@ -2,6 +2,7 @@ package github.nighter.smartspawner.spawner.config;
 
 import github.nighter.smartspawner.SmartSpawner;
 import github.nighter.smartspawner.hooks.economy.ItemPriceManager;
+import github.nighter.smartspawner.spawner.lootgen.loot.CompiledLootTable;
 import github.nighter.smartspawner.spawner.lootgen.loot.EntityLootConfig;
 import github.nighter.smartspawner.spawner.lootgen.loot.LootItem;
 import org.bukkit.Material;
@@ -187,7 +188,7 @@ public class ItemSpawnerSettingsConfig {
         }
         
         // Create and store EntityLootConfig
-        EntityLootConfig lootConfig = new EntityLootConfig(experience, items);
+        EntityLootConfig lootConfig = new EntityLootConfig(experience, items, CompiledLootTable.compile(items));
         itemLootConfigs.put(material, lootConfig);
     }
     
@@ -2,6 +2,7 @@ package github.nighter.smartspawner.spawner.config;
 
 import github.nighter.smartspawner.SmartSpawner;
 import github.nighter.smartspawner.hooks.economy.ItemPriceManager;
+import github.nighter.smartspawner.spawner.lootgen.loot.CompiledLootTable;
 import github.nighter.smartspawner.spawner.lootgen.loot.EntityLootConfig;
 import github.nighter.smartspawner.spawner.lootgen.loot.LootItem;
 import github.nighter.smartspawner.updates.Version;
@@ -375,7 +376,7 @@ public class SpawnerSettingsConfig {
             }
         }
         
-        entityLootConfigs.put(entityName.toLowerCase(), new EntityLootConfig(experience, items));
+        entityLootConfigs.put(entityName.toLowerCase(), new EntityLootConfig(experience, items, CompiledLootTable.compile(items)));
     }
     
     // ===== Mob Head Methods =====
@@ -1,6 +1,8 @@
 package github.nighter.smartspawner.spawner.data;
 
 import github.nighter.smartspawner.SmartSpawner;
+import github.nighter.smartspawner.spawner.data.storage.SpawnerLoadTimings;
+import github.nighter.smartspawner.spawner.data.storage.SpawnerSnapshot;
 import github.nighter.smartspawner.spawner.data.storage.SpawnerStorage;
 import github.nighter.smartspawner.spawner.properties.SpawnerData;
 import github.nighter.smartspawner.spawner.properties.VirtualInventory;
@@ -17,7 +19,12 @@ import org.bukkit.inventory.ItemStack;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -29,6 +36,10 @@ public class SpawnerFileHandler implements SpawnerStorage {
     private FileConfiguration spawnerData;
 
     private static final String DATA_VERSION_KEY = "data_version";
+    public static final String JOURNAL_FILE_NAME = "spawners_data.journal";
+    private static final int LOAD_PARTITION_SIZE = 2000;
+    // Batches this large are serialized on the common pool before the file lock is taken
+    private static final int PARALLEL_SERIALIZE_THRESHOLD = 500;
     private final int CURRENT_VERSION;
 
     private final Set<String> dirtySpawners = ConcurrentHashMap.newKeySet();
@@ -37,11 +48,23 @@ public class SpawnerFileHandler implements SpawnerStorage {
     private volatile boolean isSaving = false;
     private Scheduler.Task saveTask = null;
 
+    // Guards spawnerData writes and journal appends
+    private final Object fileLock = new Object();
+    // Serializes compactions, which write the snapshot outside fileLock
+    private final Object compactLock = new Object();
+    private SpawnerJournal journal;
+    private long compactThresholdBytes;
+    private long compactIntervalMillis;
+    private long lastCompaction = System.currentTimeMillis();
+    // Time spent reading and parsing spawners_data.yml, reported with the startup load
+    private long readNanos;
+
     public SpawnerFileHandler(SmartSpawner plugin) {
         this.plugin = plugin;
         this.logger = plugin.getLogger();
         this.CURRENT_VERSION = plugin.getDATA_VERSION();
         setupSpawnerDataFile();
+        setupJournal();
         startSaveTask();
     }
 
@@ -58,7 +81,9 @@ public class SpawnerFileHandler implements SpawnerStorage {
             plugin.saveResource("spawners_data.yml", false);
         }
 
+        long start = System.nanoTime();
         spawnerData = YamlConfiguration.loadConfiguration(spawnerDataFile);
+        readNanos = System.nanoTime() - start;
 
         int version = spawnerData.getInt(DATA_VERSION_KEY, 1);
         if (version < CURRENT_VERSION) {
@@ -67,6 +92,51 @@ public class SpawnerFileHandler implements SpawnerStorage {
         }
     }
 
+    private void setupJournal() {
+        File journalFile = new File(plugin.getDataFolder(), JOURNAL_FILE_NAME);
+        if (!plugin.getConfig().getBoolean("performance.yaml_journal.enabled", true)) {
+            // Changes still sitting in a journal from an earlier run must not be lost
+            if (journalFile.exists()) {
+                try {
+                    int replayed = new SpawnerJournal(journalFile, CURRENT_VERSION, logger).replay(spawnerData, DATA_VERSION_KEY);
+                    if (replayed > 0) {
+                        compact();
+                    }
+                    Files.deleteIfExists(journalFile.toPath());
+                } catch (IOException e) {
+                    logger.severe("Failed to apply leftover spawner journal: " + e.getMessage());
+                }
+            }
+            return;
+        }
+
+        compactThresholdBytes = Math.max(1L, plugin.getConfig().getLong("performance.yaml_journal.compact_threshold_mb", 8L)) * 1024L * 1024L;
+        compactIntervalMillis = Math.max(0L, plugin.getConfig().getLong("performance.yaml_journal.compact_interval", 30L)) * 60_000L;
+
+        try {
+            SpawnerJournal opened = new SpawnerJournal(journalFile, CURRENT_VERSION, logger);
+            int replayed = opened.replay(spawnerData, DATA_VERSION_KEY);
+            opened.open();
+            journal = opened;
+            if (replayed > 0) {
+                logger.info("Recovered " + replayed + " spawner changes from " + JOURNAL_FILE_NAME);
+            }
+        } catch (IOException e) {
+            logger.severe("Could not open spawner journal, falling back to full YAML saves: " + e.getMessage());
+            e.printStackTrace();
+            return;
+        }
+
+        if (journal.size() > 0) {
+            try {
+                compact();
+            } catch (IOException e) {
+                // The journal stays valid, compaction is retried on the next threshold or shutdown
+                logger.warning("Could not compact spawner journal: " + e.getMessage());
+            }
+        }
+    }
+
     private void startSaveTask() {
         // Hardcoded 5-minute interval (5 * 60 * 20 = 6000 ticks)
         long intervalTicks = 6000L;
@@ -98,6 +168,11 @@ public class SpawnerFileHandler implements SpawnerStorage {
         }
     }
 
+    @Override
+    public boolean hasPendingChanges(String spawnerId) {
+        return isSaving || dirtySpawners.contains(spawnerId);
+    }
+
     @Override
     public void flushChanges() {
         if (dirtySpawners.isEmpty() && deletedSpawners.isEmpty()) {
@@ -114,48 +189,30 @@ public class SpawnerFileHandler implements SpawnerStorage {
         plugin.debug("Flushing " + dirtySpawners.size() + " modified and " + deletedSpawners.size() + " deleted spawners");
 
         Scheduler.runTaskAsync(() -> {
-            try {
-                if (!dirtySpawners.isEmpty()) {
-                    Set<String> toUpdate = new HashSet<>(dirtySpawners);
-                    dirtySpawners.removeAll(toUpdate);
-
-                    Map<String, SpawnerData> batch = new HashMap<>();
-                    for (String id : toUpdate) {
-                        SpawnerData spawner = plugin.getSpawnerManager().getSpawnerById(id);
-                        if (spawner != null) {
-                            batch.put(id, spawner);
-                        }
-                    }
-
-                    if (!batch.isEmpty()) {
-                        saveSpawnerBatch(batch);
-                    }
-                }
-
-                if (!deletedSpawners.isEmpty()) {
-                    Set<String> toDelete = new HashSet<>(deletedSpawners);
-                    deletedSpawners.removeAll(toDelete);
-
-                    for (String id : toDelete) {
-                        String path = "spawners." + id;
-                        spawnerData.set(path, null);
-                    }
-
-                    if (!toDelete.isEmpty()) {
-                        spawnerData.save(spawnerDataFile);
-                    }
-                }
+            Set<String> toUpdate = new HashSet<>(dirtySpawners);
+            dirtySpawners.removeAll(toUpdate);
+            Set<String> toDelete = new HashSet<>(deletedSpawners);
+            deletedSpawners.removeAll(toDelete);
 
+            List<SpawnerSnapshot> snapshots = collectSnapshots(toUpdate);
+            try {
+                persistChanges(snapshots, toDelete);
                 // Automatic ghost spawner check removed - use /ss clear ghost_spawners command instead
             } catch (Exception e) {
                 plugin.getLogger().severe("Error during flush: " + e.getMessage());
                 e.printStackTrace();
 
-                for (String id : dirtySpawners) {
-                    dirtySpawners.add(id);
+                // Re-queue everything that was not persisted, unless it changed state meanwhile
+                for (SpawnerSnapshot snapshot : snapshots) {
+                    if (!deletedSpawners.contains(snapshot.spawnerId())) {
+                        plugin.getSpawnerManager().restoreSnapshot(snapshot);
+                        dirtySpawners.add(snapshot.spawnerId());
+                    }
                 }
-                for (String id : deletedSpawners) {
-                    deletedSpawners.add(id);
+                for (String id : toDelete) {
+                    if (!dirtySpawners.contains(id)) {
+                        deletedSpawners.add(id);
+                    }
                 }
             } finally {
                 isSaving = false;
@@ -163,85 +220,149 @@ public class SpawnerFileHandler implements SpawnerStorage {
         });
     }
 
-    private boolean saveSpawnerBatch(Map<String, SpawnerData> spawners) {
-        if (spawners.isEmpty()) return true;
-
-        try {
-            ConfigurationSection spawnersSection = spawnerData.getConfigurationSection("spawners");
-            if (spawnersSection == null) {
-                spawnersSection = spawnerData.createSection("spawners");
+    private List<SpawnerSnapshot> collectSnapshots(Set<String> spawnerIds) {
+        List<SpawnerSnapshot> batch = new ArrayList<>(spawnerIds.size());
+        for (String id : spawnerIds) {
+            SpawnerSnapshot snapshot = plugin.getSpawnerManager().takeSnapshot(id);
+            if (snapshot != null) {
+                batch.add(snapshot);
             }
+        }
+        return batch;
+    }
+
+    /**
+     * Applies a batch to the in-memory snapshot and makes it durable, either by appending
+     * it to the journal or, with the journal disabled, by rewriting the YAML file.
+     */
+    private void persistChanges(List<SpawnerSnapshot> updated, Set<String> deleted) throws IOException {
+        if (updated.isEmpty() && deleted.isEmpty()) {
+            return;
+        }
 
+        // Snapshots are immutable, so large batches can be serialized in parallel outside the lock
+        Map<String, Map<String, Object>> records = (updated.size() >= PARALLEL_SERIALIZE_THRESHOLD
+                ? updated.parallelStream() : updated.stream())
+                .collect(Collectors.toMap(SpawnerSnapshot::spawnerId, this::serializeSpawner,
+                        (first, second) -> second, LinkedHashMap::new));
+
+        boolean compactNow;
+        synchronized (fileLock) {
+            for (Map.Entry<String, Map<String, Object>> entry : records.entrySet()) {
+                String path = "spawners." + entry.getKey();
+                for (Map.Entry<String, Object> field : entry.getValue().entrySet()) {
+                    spawnerData.set(path + "." + field.getKey(), field.getValue());
+                }
+            }
+            for (String id : deleted) {
+                spawnerData.set("spawners." + id, null);
+            }
             spawnerData.set(DATA_VERSION_KEY, CURRENT_VERSION);
 
-            for (Map.Entry<String, SpawnerData> entry : spawners.entrySet()) {
-                String spawnerId = entry.getKey();
-                SpawnerData spawner = entry.getValue();
-                String path = "spawners." + spawnerId;
-                Location loc = spawner.getSpawnerLocation();
+            if (journal == null) {
+                spawnerData.save(spawnerDataFile);
+                return;
+            }
 
-                spawnerData.set(path + ".location", String.format("%s,%d,%d,%d",
-                        loc.getWorld().getName(), loc.getBlockX(), loc.getBlockY(), loc.getBlockZ()));
+            long bytes = journal.append(records, deleted);
+            plugin.debug("Journaled " + records.size() + " updates and " + deleted.size() + " deletions (" + bytes + " bytes)");
 
-                spawnerData.set(path + ".entityType", spawner.getEntityType() != null ?
-                        spawner.getEntityType().name() : null);
+            boolean overSize = journal.size() >= compactThresholdBytes;
+            boolean overdue = compactIntervalMillis > 0
+                    && System.currentTimeMillis() - lastCompaction >= compactIntervalMillis;
+            compactNow = overSize || overdue;
+        }
 
-                // Save item spawner material if this is an item spawner
-                if (spawner.isItemSpawner()) {
-                    spawnerData.set(path + ".itemSpawnerMaterial", spawner.getSpawnedItemMaterial().name());
-                } else {
-                    spawnerData.set(path + ".itemSpawnerMaterial", null);
-                }
+        if (compactNow) {
+            compact();
+        }
+    }
 
-                String settings = String.format("%d,%b,%d,%b,%d,%d,%d,%d,%d,%d,%d,%d,%b",
-                        Math.max(0, spawner.getSpawnerExp()),
-                        spawner.getSpawnerActive(),
-                        spawner.getSpawnerRange(),
-                        spawner.getSpawnerStop().get(),
-                        spawner.getSpawnDelay(),
-                        spawner.getMaxSpawnerLootSlots(),
-                        spawner.getMaxStoredExp(),
-                        spawner.getMinMobs(),
-                        spawner.getMaxMobs(),
-                        spawner.getStackSize(),
-                        spawner.getMaxStackSize(),
-                        spawner.getLastSpawnTime(),
-                        spawner.getIsAtCapacity());
-
-                spawnerData.set(path + ".settings", settings);
-                
-                // Save last interacted player separately
-                spawnerData.set(path + ".lastInteractedPlayer", spawner.getLastInteractedPlayer());
-
-                // Save preferred sort item
-                spawnerData.set(path + ".preferredSortItem", spawner.getPreferredSortItem() != null ?
-                        spawner.getPreferredSortItem().name() : null);
-
-                Set<Material> filteredItems = spawner.getFilteredItems();
-                if (filteredItems != null && !filteredItems.isEmpty()) {
-                    List<String> materials = filteredItems.stream()
-                            .map(Material::name)
-                            .collect(Collectors.toList());
-                    spawnerData.set(path + ".filteredItems", String.join(",", materials));
-                } else {
-                    spawnerData.set(path + ".filteredItems", null);
-                }
+    /**
+     * Folds the journal into the YAML snapshot. Only taking the snapshot holds the file lock;
+     * it is written to a temporary file and moved over the old one while flushes keep
+     * journaling. Records appended meanwhile stay in the journal. A crash leaves either the
+     * old snapshot plus the journal or the new snapshot plus a journal whose replay is
+     * idempotent, never a half-written file.
+     */
+    private void compact() throws IOException {
+        synchronized (compactLock) {
+            long start = System.currentTimeMillis();
+            String yaml;
+            long mark;
+            synchronized (fileLock) {
+                yaml = spawnerData.saveToString();
+                mark = journal != null ? journal.end() : 0L;
+            }
+
+            File tempFile = new File(spawnerDataFile.getParentFile(), spawnerDataFile.getName() + ".tmp");
+            Files.writeString(tempFile.toPath(), yaml, StandardCharsets.UTF_8);
+            try {
+                Files.move(tempFile.toPath(), spawnerDataFile.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), spawnerDataFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
 
-                VirtualInventory virtualInv = spawner.getVirtualInventory();
-                if (virtualInv != null) {
-                    Map<VirtualInventory.ItemSignature, Long> items = virtualInv.getConsolidatedItems();
-                    List<String> serializedItems = ItemStackSerializer.serializeInventory(items);
-                    spawnerData.set(path + ".inventory", serializedItems);
+            synchronized (fileLock) {
+                if (journal != null) {
+                    journal.discardUpTo(mark);
                 }
+                lastCompaction = System.currentTimeMillis();
             }
+            plugin.debug("Compacted spawner journal in " + (lastCompaction - start) + "ms");
+        }
+    }
 
-            spawnerData.save(spawnerDataFile);
-            return true;
-        } catch (IOException e) {
-            plugin.getLogger().severe("Could not save spawner batch to file!");
-            e.printStackTrace();
-            return false;
+    private Map<String, Object> serializeSpawner(SpawnerSnapshot spawner) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+
+        fields.put("location", spawner.locationString());
+
+        fields.put("entityType", spawner.entityType() != null ?
+                spawner.entityType().name() : null);
+
+        // Save item spawner material if this is an item spawner
+        fields.put("itemSpawnerMaterial", spawner.itemSpawnerMaterial() != null ?
+                spawner.itemSpawnerMaterial().name() : null);
+
+        String settings = String.format("%d,%b,%d,%b,%d,%d,%d,%d,%d,%d,%d,%d,%b",
+                spawner.spawnerExp(),
+                spawner.active(),
+                spawner.range(),
+                spawner.stopped(),
+                spawner.spawnDelay(),
+                spawner.maxSpawnerLootSlots(),
+                spawner.maxStoredExp(),
+                spawner.minMobs(),
+                spawner.maxMobs(),
+                spawner.stackSize(),
+                spawner.maxStackSize(),
+                spawner.lastSpawnTime(),
+                spawner.atCapacity());
+
+        fields.put("settings", settings);
+
+        // Save last interacted player separately
+        fields.put("lastInteractedPlayer", spawner.lastInteractedPlayer());
+
+        // Save preferred sort item
+        fields.put("preferredSortItem", spawner.preferredSortItem() != null ?
+                spawner.preferredSortItem().name() : null);
+
+        Set<Material> filteredItems = spawner.filteredItems();
+        if (!filteredItems.isEmpty()) {
+            List<String> materials = filteredItems.stream()
+                    .map(Material::name)
+                    .collect(Collectors.toList());
+            fields.put("filteredItems", String.join(",", materials));
+        } else {
+            fields.put("filteredItems", null);
         }
+
+        fields.put("inventory", ItemStackSerializer.serializeInventory(spawner.items()));
+
+        return fields;
     }
 
     @Override
@@ -267,8 +388,75 @@ public class SpawnerFileHandler implements SpawnerStorage {
         return loadedSpawners;
     }
 
+    @Override
+    public List<Callable<Map<String, SpawnerData>>> createLoadPartitions(SpawnerLoadTimings timings) {
+        timings.addIo(readNanos);
+
+        ConfigurationSection spawnersSection = spawnerData.getConfigurationSection("spawners");
+        if (spawnersSection == null) return List.of();
+
+        Map<String, List<String>> idsByWorld = new HashMap<>();
+        for (String spawnerId : spawnersSection.getKeys(false)) {
+            String location = spawnerData.getString("spawners." + spawnerId + ".location", "");
+            int comma = location.indexOf(',');
+            String worldName = comma >= 0 ? location.substring(0, comma) : location;
+            idsByWorld.computeIfAbsent(worldName, k -> new ArrayList<>()).add(spawnerId);
+        }
+
+        // The parsed YAML tree is only read here, so partitions can decode concurrently
+        List<Callable<Map<String, SpawnerData>>> tasks = new ArrayList<>();
+        for (List<String> ids : SpawnerStorage.partitionByWorld(idsByWorld, LOAD_PARTITION_SIZE)) {
+            tasks.add(() -> {
+                long start = System.nanoTime();
+                Map<String, SpawnerData> loaded = new HashMap<>();
+                for (String spawnerId : ids) {
+                    try {
+                        loaded.put(spawnerId, loadSpawnerFromConfig(spawnerId, false, false));
+                    } catch (Exception e) {
+                        plugin.debug("Error loading spawner " + spawnerId + ": " + e.getMessage());
+                        loaded.put(spawnerId, null);
+                    }
+                }
+                timings.addDecode(System.nanoTime() - start, ids.size());
+                return loaded;
+            });
+        }
+        return tasks;
+    }
+
+    @Override
+    public List<SpawnerStub> loadAllStubs() {
+        List<SpawnerStub> stubs = new ArrayList<>();
+        ConfigurationSection spawnersSection = spawnerData.getConfigurationSection("spawners");
+        if (spawnersSection == null) return stubs;
+
+        for (String spawnerId : spawnersSection.getKeys(false)) {
+            String path = "spawners." + spawnerId;
+            try {
+                EntityType entityType = EntityType.valueOf(spawnerData.getString(path + ".entityType", ""));
+                String[] settings = spawnerData.getString(path + ".settings", "").split(",");
+                int stackSize = settings.length > 9 ? parseClampedInt(settings[9], 1, Integer.MAX_VALUE) : 1;
+
+                SpawnerStub stub = SpawnerStub.parse(spawnerId, spawnerData.getString(path + ".location"), entityType, stackSize);
+                if (stub != null) {
+                    stubs.add(stub);
+                }
+            } catch (IllegalArgumentException e) {
+                plugin.debug("Skipping stub for spawner " + spawnerId + ": " + e.getMessage());
+            }
+        }
+        return stubs;
+    }
+
     @Override
     public SpawnerData loadSpecificSpawner(String spawnerId) {
+        // Lazy loading hydrates from async threads while flushes write to the same tree
+        synchronized (fileLock) {
+            return loadSpecificSpawnerUnlocked(spawnerId);
+        }
+    }
+
+    private SpawnerData loadSpecificSpawnerUnlocked(String spawnerId) {
         try {
             return loadSpawnerFromConfig(spawnerId, false);
         } catch (Exception e) {
@@ -431,20 +619,16 @@ public class SpawnerFileHandler implements SpawnerStorage {
         if (inventoryData != null && !inventoryData.isEmpty()) {
             try {
                 Map<ItemStack, Integer> items = ItemStackSerializer.deserializeInventory(inventoryData);
+                // One bulk insert of the consolidated amounts instead of one call per max-size stack
+                Map<VirtualInventory.ItemSignature, Long> amounts = new HashMap<>(items.size() * 2);
                 for (Map.Entry<ItemStack, Integer> entry : items.entrySet()) {
                     ItemStack item = entry.getKey();
                     int amount = entry.getValue();
-
                     if (item != null && amount > 0) {
-                        while (amount > 0) {
-                            int batchSize = Math.min(amount, item.getMaxStackSize());
-                            ItemStack batch = item.clone();
-                            batch.setAmount(batchSize);
-                            virtualInv.addItems(Collections.singletonList(batch));
-                            amount -= batchSize;
-                        }
+                        amounts.merge(VirtualInventory.getSignatureCache().get(item), (long) amount, Long::sum);
                     }
                 }
+                virtualInv.addItems(amounts);
             } catch (Exception e) {
                 logger.warning("Error loading inventory for spawner " + spawnerId);
                 e.printStackTrace();
@@ -502,40 +686,26 @@ public class SpawnerFileHandler implements SpawnerStorage {
             saveTask = null;
         }
 
-        if (!dirtySpawners.isEmpty() || !deletedSpawners.isEmpty()) {
-            try {
-                isSaving = true;
-
-                if (!dirtySpawners.isEmpty()) {
-                    Map<String, SpawnerData> batch = new HashMap<>();
-                    for (String id : dirtySpawners) {
-                        SpawnerData spawner = plugin.getSpawnerManager().getSpawnerById(id);
-                        if (spawner != null) {
-                            batch.put(id, spawner);
-                        }
-                    }
-
-                    if (!batch.isEmpty()) {
-                        saveSpawnerBatch(batch);
-                    }
-                }
-
-                if (!deletedSpawners.isEmpty()) {
-                    for (String id : deletedSpawners) {
-                        String path = "spawners." + id;
-                        spawnerData.set(path, null);
-                    }
-
-                    spawnerData.save(spawnerDataFile);
-                }
+        try {
+            isSaving = true;
 
+            if (!dirtySpawners.isEmpty() || !deletedSpawners.isEmpty()) {
+                persistChanges(collectSnapshots(dirtySpawners), new HashSet<>(deletedSpawners));
                 dirtySpawners.clear();
                 deletedSpawners.clear();
-            } catch (Exception e) {
-                logger.severe("Error during shutdown flush: " + e.getMessage());
-                e.printStackTrace();
-            } finally {
-                isSaving = false;
+            }
+
+            // Leave a clean snapshot behind so the next start has nothing to replay
+            if (journal != null && journal.size() > 0) {
+                compact();
+            }
+        } catch (Exception e) {
+            logger.severe("Error during shutdown flush: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            isSaving = false;
+            if (journal != null) {
+                journal.close();
             }
         }
     }
@@ -0,0 +1,364 @@
+package github.nighter.smartspawner.spawner.data;
+
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead journal for the YAML storage backend.
+ * <p>
+ * Instead of rewriting all of {@code spawners_data.yml} on every save, each flush appends one
+ * record per changed or deleted spawner and forces the file once for the whole batch. Records
+ * carry the complete field set of a spawner, so replaying them on top of the YAML snapshot is
+ * idempotent and the journal can be reset as soon as the snapshot has been rewritten.
+ * <p>
+ * File layout: a header ({@code MAGIC}, data version) followed by records framed as
+ * {@code [payload length][CRC32][payload]}. A torn or corrupt tail from a crash is detected by
+ * its frame and cut off during replay.
+ */
+public class SpawnerJournal {
+    private static final int MAGIC = 0x53534A31; // "SSJ1"
+    private static final int HEADER_SIZE = 8;
+    private static final int FRAME_HEADER_SIZE = 8;
+
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+
+    private static final byte FIELD_NULL = 0;
+    private static final byte FIELD_STRING = 1;
+    private static final byte FIELD_LIST = 2;
+
+    private final File file;
+    private final int dataVersion;
+    private final Logger logger;
+    private FileChannel channel;
+
+    public SpawnerJournal(File file, int dataVersion, Logger logger) {
+        this.file = file;
+        this.dataVersion = dataVersion;
+        this.logger = logger;
+    }
+
+    /**
+     * Loads a YAML snapshot together with the changes still held in its journal, for code
+     * that reads {@code spawners_data.yml} without going through the storage handler.
+     */
+    public static FileConfiguration loadWithJournal(File yamlFile, File journalFile, int dataVersion, Logger logger) {
+        FileConfiguration data = YamlConfiguration.loadConfiguration(yamlFile);
+        if (journalFile.exists()) {
+            try {
+                int replayed = new SpawnerJournal(journalFile, dataVersion, logger).replay(data, "data_version");
+                if (replayed > 0) {
+                    logger.info("Applied " + replayed + " journaled changes from " + journalFile.getName());
+                }
+            } catch (IOException e) {
+                logger.warning("Failed to read " + journalFile.getName() + ": " + e.getMessage());
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Opens the journal for appending, creating it if needed. Call {@link #replay} first
+     * so a damaged tail is cut off before new records are written behind it.
+     */
+    public synchronized void open() throws IOException {
+        channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() < HEADER_SIZE) {
+            writeHeader();
+        }
+        channel.position(channel.size());
+    }
+
+    public synchronized boolean isOpen() {
+        return channel != null && channel.isOpen();
+    }
+
+    /**
+     * Applies every intact record of a journal file to the loaded YAML snapshot.
+     * The file is truncated after the last intact record.
+     *
+     * @return number of records applied
+     */
+    public synchronized int replay(FileConfiguration data, String dataVersionKey) throws IOException {
+        if (!file.exists() || file.length() < HEADER_SIZE) {
+            return 0;
+        }
+
+        try (FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(in, header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                logger.warning("Ignoring " + file.getName() + ": not a spawner journal");
+                return 0;
+            }
+            int journalVersion = header.getInt();
+
+            long position = HEADER_SIZE;
+            long fileSize = in.size();
+            int applied = 0;
+            ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_SIZE);
+
+            while (position + FRAME_HEADER_SIZE <= fileSize) {
+                frame.clear();
+                readFully(in, frame, position);
+                frame.flip();
+                int length = frame.getInt();
+                int checksum = frame.getInt();
+                if (length <= 0 || position + FRAME_HEADER_SIZE + length > fileSize) {
+                    break;
+                }
+
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                readFully(in, payload, position + FRAME_HEADER_SIZE);
+                CRC32 crc = new CRC32();
+                crc.update(payload.array(), 0, length);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+
+                applyRecord(data, payload.array());
+                applied++;
+                position += FRAME_HEADER_SIZE + length;
+            }
+
+            if (position < fileSize) {
+                logger.warning("Discarding " + (fileSize - position) + " bytes of incomplete journal data in " + file.getName());
+                in.truncate(position);
+            }
+            if (applied > 0) {
+                data.set(dataVersionKey, journalVersion);
+            }
+            return applied;
+        }
+    }
+
+    /**
+     * Appends one batch of changes and forces it to disk with a single fsync.
+     *
+     * @param updated full field sets of changed spawners, keyed by spawner ID
+     * @param deleted IDs of removed spawners
+     * @return number of bytes appended
+     */
+    public synchronized long append(Map<String, Map<String, Object>> updated, Collection<String> deleted) throws IOException {
+        if (updated.isEmpty() && deleted.isEmpty()) {
+            return 0;
+        }
+
+        List<byte[]> payloads = new ArrayList<>(updated.size() + deleted.size());
+        for (Map.Entry<String, Map<String, Object>> entry : updated.entrySet()) {
+            payloads.add(encodePut(entry.getKey(), entry.getValue()));
+        }
+        for (String spawnerId : deleted) {
+            payloads.add(encodeDelete(spawnerId));
+        }
+
+        int total = 0;
+        for (byte[] payload : payloads) {
+            total += FRAME_HEADER_SIZE + payload.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        CRC32 crc = new CRC32();
+        for (byte[] payload : payloads) {
+            crc.reset();
+            crc.update(payload);
+            buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+        }
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        // Group commit: one fsync covers every record of the batch
+        channel.force(false);
+        return total;
+    }
+
+    /**
+     * @return position after the last appended record, see {@link #discardUpTo(long)}
+     */
+    public synchronized long end() throws IOException {
+        return channel.size();
+    }
+
+    /**
+     * Drops the records before {@code mark} once a YAML snapshot taken at that point is on
+     * disk, keeping the records appended while it was written. The kept records go to a new
+     * file that replaces this one, so a crash leaves either journal intact.
+     */
+    public synchronized void discardUpTo(long mark) throws IOException {
+        long end = channel.size();
+        if (mark >= end) {
+            reset();
+            return;
+        }
+
+        ByteBuffer tail = ByteBuffer.allocate((int) (end - mark));
+        readFully(channel, tail, mark);
+        tail.flip();
+
+        File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tempFile.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(dataVersion);
+            header.flip();
+            while (header.hasRemaining()) {
+                out.write(header);
+            }
+            while (tail.hasRemaining()) {
+                out.write(tail);
+            }
+            out.force(true);
+        }
+
+        channel.close();
+        try {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        open();
+    }
+
+    /**
+     * Drops all records once their changes are contained in a new YAML snapshot.
+     */
+    public synchronized void reset() throws IOException {
+        channel.truncate(0);
+        writeHeader();
+        channel.force(true);
+    }
+
+    public synchronized long size() throws IOException {
+        return channel != null ? channel.size() - HEADER_SIZE : 0;
+    }
+
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warning("Error closing spawner journal: " + e.getMessage());
+        }
+        channel = null;
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(dataVersion);
+        header.flip();
+        channel.position(0);
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+    }
+
+    private static void readFully(FileChannel in, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = in.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of journal");
+            }
+        }
+    }
+
+    private static byte[] encodePut(String spawnerId, Map<String, Object> fields) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(OP_PUT);
+            out.writeUTF(spawnerId);
+            out.writeShort(fields.size());
+            for (Map.Entry<String, Object> field : fields.entrySet()) {
+                out.writeUTF(field.getKey());
+                Object value = field.getValue();
+                if (value == null) {
+                    out.writeByte(FIELD_NULL);
+                } else if (value instanceof List<?> list) {
+                    out.writeByte(FIELD_LIST);
+                    out.writeInt(list.size());
+                    for (Object element : list) {
+                        writeLongUTF(out, String.valueOf(element));
+                    }
+                } else {
+                    out.writeByte(FIELD_STRING);
+                    writeLongUTF(out, value.toString());
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encodeDelete(String spawnerId) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(OP_DELETE);
+            out.writeUTF(spawnerId);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void applyRecord(FileConfiguration data, byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            byte op = in.readByte();
+            String path = "spawners." + in.readUTF();
+            if (op == OP_DELETE) {
+                data.set(path, null);
+                return;
+            }
+
+            int fieldCount = in.readUnsignedShort();
+            for (int i = 0; i < fieldCount; i++) {
+                String key = path + "." + in.readUTF();
+                byte type = in.readByte();
+                switch (type) {
+                    case FIELD_STRING -> data.set(key, readLongUTF(in));
+                    case FIELD_LIST -> {
+                        int size = in.readInt();
+                        List<String> list = new ArrayList<>(size);
+                        for (int j = 0; j < size; j++) {
+                            list.add(readLongUTF(in));
+                        }
+                        data.set(key, list);
+                    }
+                    default -> data.set(key, null);
+                }
+            }
+        }
+    }
+
+    // writeUTF is limited to 64 KB, serialized items with heavy meta can exceed that
+    private static void writeLongUTF(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readLongUTF(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -2,26 +2,55 @@ package github.nighter.smartspawner.spawner.data;
 
 import github.nighter.smartspawner.SmartSpawner;
 import github.nighter.smartspawner.Scheduler;
+import github.nighter.smartspawner.extras.HopperService;
+import github.nighter.smartspawner.spawner.data.storage.PendingSnapshots;
+import github.nighter.smartspawner.spawner.data.storage.SpawnerSnapshot;
 import github.nighter.smartspawner.spawner.data.storage.SpawnerStorage;
+import github.nighter.smartspawner.spawner.lootgen.SpawnerLootGenerator;
 import github.nighter.smartspawner.spawner.properties.SpawnerData;
+import github.nighter.smartspawner.utils.ChunkUtil;
 import org.bukkit.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class SpawnerManager {
     private final SmartSpawner plugin;
     private final Map<String, SpawnerData> spawners = new ConcurrentHashMap<>();
-    private final Map<LocationKey, SpawnerData> locationIndex = new HashMap<>();
-    private final Map<String, Set<SpawnerData>> worldIndex = new HashMap<>();
+    // Concurrent because lazy loading indexes hydrated spawners from async threads
+    private final Map<LocationKey, SpawnerData> locationIndex = new ConcurrentHashMap<>();
+    private final Map<String, Set<SpawnerData>> worldIndex = new ConcurrentHashMap<>();
+    // Chunk-bucketed positions used by the range checker
+    private final SpawnerSpatialIndex spatialIndex = new SpawnerSpatialIndex();
     private final SpawnerStorage spawnerStorage;
     // Set to keep track of confirmed ghost spawners to avoid repeated checks
     private final Set<String> confirmedGhostSpawners = ConcurrentHashMap.newKeySet();
+    // Latest state of every modified spawner, captured when it was marked and consumed by the storage writer
+    private final PendingSnapshots pendingSnapshots = new PendingSnapshots();
+
+    // Lazy loading: spawners in unloaded chunks are only kept as stubs
+    private final boolean lazyLoading;
+    private final Map<String, SpawnerStub> stubs = new ConcurrentHashMap<>();
+    private final Map<LocationKey, String> stubLocations = new ConcurrentHashMap<>();
+    // world -> chunkKey -> stub ids in that chunk
+    private final Map<String, Map<Long, Set<String>>> stubChunks = new ConcurrentHashMap<>();
+    // Evicted spawners stay reachable for the storage flush until their last changes are written
+    private final Map<String, SpawnerData> evicted = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<SpawnerData>> hydrations = new ConcurrentHashMap<>();
 
     public SpawnerManager(SmartSpawner plugin) {
         this.plugin = plugin;
         this.spawnerStorage = plugin.getSpawnerStorage();
+        this.lazyLoading = plugin.getConfig().getBoolean("performance.lazy_loading.enabled", false);
         // Initialize without loading spawners - let WorldEventHandler manage loading
         initializeWithoutLoading();
+
+        if (lazyLoading) {
+            // Drop evicted spawners once the storage has written them
+            Scheduler.runTaskTimerAsync(this::releaseEvictedSpawners, 600L, 600L);
+            // Evict spawners loaded for a GUI, command or API call while their chunk stayed unloaded
+            Scheduler.runTaskTimerAsync(this::evictUnloadedSpawners, 600L, 600L);
+        }
     }
 
     private static class LocationKey {
@@ -29,10 +58,14 @@ public class SpawnerManager {
         private final int x, y, z;
 
         public LocationKey(Location location) {
-            this.world = location.getWorld().getName();
-            this.x = location.getBlockX();
-            this.y = location.getBlockY();
-            this.z = location.getBlockZ();
+            this(location.getWorld().getName(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
+        }
+
+        public LocationKey(String world, int x, int y, int z) {
+            this.world = world;
+            this.x = x;
+            this.y = y;
+            this.z = z;
         }
 
         @Override
@@ -70,6 +103,8 @@ public class SpawnerManager {
             try {
                 spawner.loadConfigurationValues();
                 spawner.recalculateAfterConfigReload();
+                spatialIndex.updateRange(spawner);
+                rescheduleLootCycle(spawner);
             } catch (Exception e) {
                 plugin.getLogger().warning("Failed to reload config for spawner " +
                         spawner.getSpawnerId() + ": " + e.getMessage());
@@ -83,9 +118,13 @@ public class SpawnerManager {
 
         // Add to world index
         String worldName = spawner.getSpawnerLocation().getWorld().getName();
-        worldIndex.computeIfAbsent(worldName, k -> new HashSet<>()).add(spawner);
+        worldIndex.computeIfAbsent(worldName, k -> ConcurrentHashMap.newKeySet()).add(spawner);
+        spatialIndex.add(spawner);
+        invalidateHopperLink(spawner);
 
-        // Queue for saving
+        // Queue for saving, a new spawner is written in full
+        spawner.markFieldsDirty(SpawnerData.DIRTY_ALL);
+        capture(spawner);
         spawnerStorage.queueSpawnerForSaving(id);
     }
 
@@ -107,33 +146,177 @@ public class SpawnerManager {
                     worldIndex.remove(worldName);
                 }
             }
+            spatialIndex.remove(spawner);
+            invalidateHopperLink(spawner);
+            cancelLootCycle(spawner);
 
             spawners.remove(id);
         }
+
+        if (lazyLoading) {
+            removeStub(id);
+            evicted.remove(id);
+        }
     }
 
     public int countSpawnersInWorld(String worldName) {
         Set<SpawnerData> worldSpawners = worldIndex.get(worldName);
-        return worldSpawners != null ? worldSpawners.size() : 0;
+        int count = worldSpawners != null ? worldSpawners.size() : 0;
+
+        Map<Long, Set<String>> chunks = stubChunks.get(worldName);
+        if (chunks != null) {
+            for (Set<String> ids : chunks.values()) {
+                count += ids.size();
+            }
+        }
+        return count;
     }
 
     public int countTotalSpawnersWithStacks(String worldName) {
         Set<SpawnerData> worldSpawners = worldIndex.get(worldName);
-        if (worldSpawners == null) return 0;
-
-        return worldSpawners.stream()
+        int total = worldSpawners == null ? 0 : worldSpawners.stream()
                 .mapToInt(SpawnerData::getStackSize)
                 .sum();
+
+        for (SpawnerStub stub : getStubsInWorld(worldName)) {
+            total += stub.stackSize();
+        }
+        return total;
     }
 
+    /**
+     * Gets the spawner at a location. With lazy loading, a spawner that is only stored as a stub
+     * is loaded from storage first, which blocks on storage I/O. Server thread callers that must
+     * not wait use {@link #getLoadedSpawnerByLocation(Location)} and {@link #hydrateAsync(Location)}.
+     *
+     * @return the spawner, or null if there is none
+     */
     public SpawnerData getSpawnerByLocation(Location location) {
-        return locationIndex.get(new LocationKey(location));
+        LocationKey key = new LocationKey(location);
+        SpawnerData spawner = locationIndex.get(key);
+        if (spawner != null || !lazyLoading) {
+            return spawner;
+        }
+
+        String stubId = stubLocations.get(key);
+        return stubId != null ? hydrate(stubId) : null;
     }
 
+    /**
+     * Gets a spawner by ID. With lazy loading, a spawner that is only stored as a stub is loaded
+     * from storage first, which blocks on storage I/O. Server thread callers that must not wait
+     * use {@link #getLoadedSpawnerById(String)} and {@link #hydrateAsync(String)}.
+     *
+     * @return the spawner, or null if there is none
+     */
     public SpawnerData getSpawnerById(String id) {
+        SpawnerData spawner = spawners.get(id);
+        if (spawner != null || !lazyLoading || !stubs.containsKey(id)) {
+            return spawner;
+        }
+        return hydrate(id);
+    }
+
+    /**
+     * Looks up the spawner at a location that is loaded, without hydrating it from storage.
+     *
+     * @return the loaded spawner, or null
+     */
+    public SpawnerData getLoadedSpawnerByLocation(Location location) {
+        return locationIndex.get(new LocationKey(location));
+    }
+
+    /**
+     * Looks up a spawner that is loaded, without hydrating it from storage.
+     *
+     * @param id spawner ID
+     * @return the loaded spawner, or null
+     */
+    public SpawnerData getLoadedSpawnerById(String id) {
         return spawners.get(id);
     }
 
+    /**
+     * Gets a spawner, loading it from storage on an async thread if it is only stored as a stub.
+     * The future completes on the loading thread, or right away for a loaded spawner.
+     *
+     * @return future of the spawner, completing with null if there is no such spawner
+     */
+    public CompletableFuture<SpawnerData> hydrateAsync(String id) {
+        SpawnerData spawner = spawners.get(id);
+        if (spawner != null || !lazyLoading || !stubs.containsKey(id)) {
+            return CompletableFuture.completedFuture(spawner);
+        }
+        return startHydration(id);
+    }
+
+    /**
+     * Like {@link #hydrateAsync(String)}, for the spawner at a location.
+     */
+    public CompletableFuture<SpawnerData> hydrateAsync(Location location) {
+        LocationKey key = new LocationKey(location);
+        SpawnerData spawner = locationIndex.get(key);
+        if (spawner != null || !lazyLoading) {
+            return CompletableFuture.completedFuture(spawner);
+        }
+
+        String stubId = stubLocations.get(key);
+        return stubId != null ? startHydration(stubId) : CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Checks whether the spawner at a location is still in storage. Server thread callers that
+     * got null from {@link #getLoadedSpawnerByLocation(Location)} should treat the block as a smart
+     * spawner that is busy, e.g. cancel the event, until {@link #hydrateAsync(Location)} completes.
+     */
+    public boolean isSpawnerLoading(Location location) {
+        return lazyLoading && stubLocations.containsKey(new LocationKey(location));
+    }
+
+    /**
+     * Gets the ID of the spawner at a location, loaded or not, without loading it.
+     *
+     * @return the spawner ID, or null
+     */
+    public String getSpawnerIdAt(Location location) {
+        LocationKey key = new LocationKey(location);
+        SpawnerData spawner = locationIndex.get(key);
+        if (spawner != null) {
+            return spawner.getSpawnerId();
+        }
+        return lazyLoading ? stubLocations.get(key) : null;
+    }
+
+    /**
+     * Checks whether a spawner exists at a location, loaded or not, without loading it.
+     */
+    public boolean hasSpawnerAt(Location location) {
+        LocationKey key = new LocationKey(location);
+        return locationIndex.containsKey(key) || (lazyLoading && stubLocations.containsKey(key));
+    }
+
+    /**
+     * Checks whether a spawner exists, loaded or not, without loading it.
+     */
+    public boolean containsSpawner(String id) {
+        return spawners.containsKey(id) || (lazyLoading && stubs.containsKey(id));
+    }
+
+    /**
+     * Looks up the spawner a storage flush should write. With lazy loading this also returns
+     * evicted spawners whose changes are not written yet.
+     *
+     * @param id spawner ID
+     * @return the in-memory spawner, or null
+     */
+    public SpawnerData getSpawnerForSave(String id) {
+        SpawnerData spawner = spawners.get(id);
+        if (spawner == null && lazyLoading) {
+            spawner = evicted.get(id);
+        }
+        return spawner;
+    }
+
     public List<SpawnerData> getAllSpawners() {
         return new ArrayList<>(spawners.values());
     }
@@ -144,13 +327,39 @@ public class SpawnerManager {
 
         // Add to world index
         String worldName = spawner.getSpawnerLocation().getWorld().getName();
-        worldIndex.computeIfAbsent(worldName, k -> new HashSet<>()).add(spawner);
+        worldIndex.computeIfAbsent(worldName, k -> ConcurrentHashMap.newKeySet()).add(spawner);
+        spatialIndex.add(spawner);
     }
 
     public Set<SpawnerData> getSpawnersInWorld(String worldName) {
         return worldIndex.get(worldName);
     }
 
+    /**
+     * Gets the spawners of a world that are only stored as stubs, without loading them.
+     */
+    public List<SpawnerStub> getStubsInWorld(String worldName) {
+        Map<Long, Set<String>> chunks = stubChunks.get(worldName);
+        if (chunks == null) {
+            return Collections.emptyList();
+        }
+
+        List<SpawnerStub> worldStubs = new ArrayList<>();
+        for (Set<String> ids : chunks.values()) {
+            for (String id : ids) {
+                SpawnerStub stub = stubs.get(id);
+                if (stub != null) {
+                    worldStubs.add(stub);
+                }
+            }
+        }
+        return worldStubs;
+    }
+
+    public SpawnerSpatialIndex getSpatialIndex() {
+        return spatialIndex;
+    }
+
     /**
      * Removes all spawners belonging to a world from in-memory indexes.
      * Used when a world unloads so runtime memory only contains active worlds.
@@ -172,6 +381,8 @@ public class SpawnerManager {
             removedSpawnerIds.add(spawner.getSpawnerId());
             spawners.remove(spawner.getSpawnerId());
             locationIndex.entrySet().removeIf(entry -> entry.getValue() == spawner);
+            spatialIndex.remove(spawner);
+            cancelLootCycle(spawner);
         }
 
         worldIndex.remove(worldName);
@@ -183,7 +394,9 @@ public class SpawnerManager {
         spawners.clear();
         locationIndex.clear();
         worldIndex.clear();
+        spatialIndex.clear();
         confirmedGhostSpawners.clear();
+        clearStubs();
 
         // Don't load spawners - let WorldEventHandler handle it
     }
@@ -212,6 +425,14 @@ public class SpawnerManager {
 
     public void removeGhostSpawner(String spawnerId) {
         SpawnerData spawner = spawners.get(spawnerId);
+        if (spawner == null && lazyLoading && stubs.containsKey(spawnerId)) {
+            // Still in storage, there is nothing loaded to clean up
+            confirmedGhostSpawners.add(spawnerId);
+            removeSpawner(spawnerId);
+            markSpawnerDeleted(spawnerId);
+            plugin.debug("Removed stored ghost spawner " + spawnerId);
+            return;
+        }
         if (spawner != null) {
             Location loc = spawner.getSpawnerLocation();
 
@@ -224,7 +445,7 @@ public class SpawnerManager {
 
                 Scheduler.runTask(() -> {
                     removeSpawner(spawnerId);
-                    spawnerStorage.markSpawnerDeleted(spawnerId);
+                    markSpawnerDeleted(spawnerId);
                     plugin.debug("Removed ghost spawner " + spawnerId);
                 });
             });
@@ -237,10 +458,81 @@ public class SpawnerManager {
      * @param spawnerId The ID of the modified spawner
      */
     public void markSpawnerModified(String spawnerId) {
+        captureAll(spawnerId);
         spawnerStorage.markSpawnerModified(spawnerId);
     }
 
+    /**
+     * Marks a spawner as modified, naming the column groups that changed so the
+     * database flush can skip the others
+     *
+     * @param spawner The modified spawner
+     * @param fields  {@link SpawnerData#DIRTY_LOOT}, {@link SpawnerData#DIRTY_STACK} and/or {@link SpawnerData#DIRTY_SETTINGS}
+     */
+    public void markSpawnerModified(SpawnerData spawner, int fields) {
+        spawner.markFieldsDirty(fields);
+        capture(spawner);
+        spawnerStorage.markSpawnerModified(spawner.getSpawnerId());
+    }
+
+    private void captureAll(String spawnerId) {
+        SpawnerData spawner = getSpawnerForSave(spawnerId);
+        if (spawner != null) {
+            spawner.markFieldsDirty(SpawnerData.DIRTY_ALL);
+            capture(spawner);
+        }
+    }
+
+    /**
+     * Replaces the pending snapshot of a spawner with its current state. Marks that arrive
+     * before the next flush coalesce into one snapshot carrying all their dirty fields.
+     * Capture and queueing happen under the spawner's snapshot lock, so of two concurrent
+     * marks the one that read the later state is always queued last. The data lock can't be
+     * used here: hoppers mark while holding the inventory lock, which stack changes take
+     * inside the data lock.
+     */
+    private void capture(SpawnerData spawner) {
+        spawner.getSnapshotLock().lock();
+        try {
+            pendingSnapshots.put(SpawnerSnapshot.capture(spawner));
+        } finally {
+            spawner.getSnapshotLock().unlock();
+        }
+    }
+
+    /**
+     * Takes the pending snapshot of a spawner for writing. Spawners queued without one, for
+     * example directly through the storage, are captured now.
+     *
+     * @return the snapshot, or null if the spawner no longer exists
+     */
+    public SpawnerSnapshot takeSnapshot(String spawnerId) {
+        SpawnerSnapshot snapshot = pendingSnapshots.take(spawnerId);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        SpawnerData spawner = getSpawnerForSave(spawnerId);
+        if (spawner == null) {
+            return null;
+        }
+        spawner.getSnapshotLock().lock();
+        try {
+            return SpawnerSnapshot.capture(spawner);
+        } finally {
+            spawner.getSnapshotLock().unlock();
+        }
+    }
+
+    /**
+     * Hands back a snapshot whose write failed. A newer snapshot captured meanwhile wins,
+     * but keeps the dirty fields of the failed one.
+     */
+    public void restoreSnapshot(SpawnerSnapshot snapshot) {
+        pendingSnapshots.restore(snapshot);
+    }
+
     public void markSpawnerDeleted(String spawnerId) {
+        pendingSnapshots.remove(spawnerId);
         spawnerStorage.markSpawnerDeleted(spawnerId);
     }
 
@@ -250,6 +542,7 @@ public class SpawnerManager {
      * @param spawnerId The ID of the spawner to save
      */
     public void queueSpawnerForSaving(String spawnerId) {
+        captureAll(spawnerId);
         spawnerStorage.queueSpawnerForSaving(spawnerId);
     }
 
@@ -277,10 +570,286 @@ public class SpawnerManager {
         spawners.clear();
         locationIndex.clear();
         worldIndex.clear();
+        spatialIndex.clear();
         confirmedGhostSpawners.clear();
+        clearStubs();
     }
 
     public int getTotalSpawners() {
-        return this.spawners.size();
+        return this.spawners.size() + this.stubs.size();
+    }
+
+    // ===============================================================
+    //                    Lazy Loading
+    // ===============================================================
+
+    public boolean isLazyLoading() {
+        return lazyLoading;
+    }
+
+    /**
+     * Registers a spawner that stays in storage until its chunk loads or it is accessed.
+     */
+    public void registerStub(SpawnerStub stub) {
+        stubs.put(stub.spawnerId(), stub);
+        stubLocations.put(new LocationKey(stub.worldName(), stub.x(), stub.y(), stub.z()), stub.spawnerId());
+        stubChunks.computeIfAbsent(stub.worldName(), k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(ChunkUtil.getChunkKey(stub.chunkX(), stub.chunkZ()), k -> ConcurrentHashMap.newKeySet())
+                .add(stub.spawnerId());
+    }
+
+    private void removeStub(String id) {
+        SpawnerStub stub = stubs.remove(id);
+        if (stub == null) return;
+
+        stubLocations.remove(new LocationKey(stub.worldName(), stub.x(), stub.y(), stub.z()), id);
+        Map<Long, Set<String>> chunks = stubChunks.get(stub.worldName());
+        if (chunks != null) {
+            chunks.computeIfPresent(ChunkUtil.getChunkKey(stub.chunkX(), stub.chunkZ()), (k, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private void clearStubs() {
+        stubs.clear();
+        stubLocations.clear();
+        stubChunks.clear();
+        evicted.clear();
+    }
+
+    /**
+     * Hydrates the stubs of a chunk that just loaded. Storage reads run off the calling thread.
+     */
+    public void hydrateChunk(World world, int chunkX, int chunkZ) {
+        Map<Long, Set<String>> chunks = stubChunks.get(world.getName());
+        if (chunks == null) return;
+
+        Set<String> ids = chunks.get(ChunkUtil.getChunkKey(chunkX, chunkZ));
+        if (ids == null || ids.isEmpty()) return;
+
+        List<String> toHydrate = new ArrayList<>(ids);
+        Scheduler.runTaskAsync(() -> toHydrate.forEach(this::hydrate));
+    }
+
+    /**
+     * Hydrates the stubs of every chunk of a world that is already loaded,
+     * for spawners registered after their chunk's load event.
+     */
+    public void hydrateLoadedChunks(World world) {
+        Map<Long, Set<String>> chunks = stubChunks.get(world.getName());
+        if (chunks == null) return;
+
+        List<String> toHydrate = new ArrayList<>();
+        for (Set<String> ids : chunks.values()) {
+            for (String id : ids) {
+                SpawnerStub stub = stubs.get(id);
+                if (stub != null && world.isChunkLoaded(stub.chunkX(), stub.chunkZ())) {
+                    toHydrate.add(id);
+                }
+            }
+        }
+
+        if (!toHydrate.isEmpty()) {
+            plugin.debug("Hydrating " + toHydrate.size() + " spawners in loaded chunks of " + world.getName());
+            Scheduler.runTaskAsync(() -> toHydrate.forEach(this::hydrate));
+        }
+    }
+
+    /**
+     * Starts loading the full spawner for a stub on an async thread. Concurrent calls for the
+     * same spawner share one load.
+     *
+     * @return future of the hydrated spawner, completing with null if it can't be loaded
+     */
+    private CompletableFuture<SpawnerData> startHydration(String id) {
+        CompletableFuture<SpawnerData> created = new CompletableFuture<>();
+        CompletableFuture<SpawnerData> running = hydrations.putIfAbsent(id, created);
+        if (running != null) {
+            return running;
+        }
+
+        Scheduler.runTaskAsync(() -> completeHydration(id, created));
+        return created;
+    }
+
+    /**
+     * Loads the full spawner for a stub and indexes it on the calling thread, blocking on storage.
+     * Concurrent calls for the same spawner share one load.
+     *
+     * @return the hydrated spawner, or null if it can't be loaded (e.g. world not loaded)
+     */
+    private SpawnerData hydrate(String id) {
+        CompletableFuture<SpawnerData> created = new CompletableFuture<>();
+        CompletableFuture<SpawnerData> running = hydrations.putIfAbsent(id, created);
+        if (running != null) {
+            return running.join();
+        }
+
+        completeHydration(id, created);
+        return created.join();
+    }
+
+    private void completeHydration(String id, CompletableFuture<SpawnerData> future) {
+        try {
+            future.complete(loadAndIndex(id));
+        } catch (RuntimeException e) {
+            plugin.getLogger().warning("Failed to hydrate spawner " + id + ": " + e.getMessage());
+            future.complete(null);
+        } finally {
+            hydrations.remove(id, future);
+        }
+    }
+
+    private SpawnerData loadAndIndex(String id) {
+        SpawnerData resident = spawners.get(id);
+        if (resident != null) {
+            return resident;
+        }
+
+        // Evicted but not written yet, the in-memory copy is the newest state
+        SpawnerData spawner = evicted.remove(id);
+        if (spawner == null) {
+            SpawnerStub stub = stubs.get(id);
+            if (stub == null || Bukkit.getWorld(stub.worldName()) == null) {
+                return null;
+            }
+
+            // Holograms must be spawned on the region thread, not here
+            SpawnerData.setDeferHologramCreation(true);
+            try {
+                spawner = spawnerStorage.loadSpecificSpawner(id);
+            } finally {
+                SpawnerData.setDeferHologramCreation(false);
+            }
+            if (spawner == null) {
+                return null;
+            }
+        }
+
+        // Index before dropping the stub, so lookups never see neither
+        addSpawnerToIndexes(id, spawner);
+        removeStub(id);
+        // A hopper registered before the spawner was hydrated may have been parked
+        invalidateHopperLink(spawner);
+        if (plugin.getConfig().getBoolean("hologram.enabled", false)) {
+            Scheduler.runLocationTask(spawner.getSpawnerLocation(), spawner::refreshHologram);
+        }
+        plugin.debug("Hydrated spawner " + id);
+        return spawner;
+    }
+
+    /**
+     * Evicts the spawners of an unloading chunk back to stubs.
+     * Must run on the chunk's region thread.
+     */
+    public void evictChunk(World world, int chunkX, int chunkZ) {
+        Set<SpawnerData> chunkSpawners = spatialIndex.getSpawnersInChunk(world.getUID(), chunkX, chunkZ);
+        if (chunkSpawners.isEmpty()) return;
+
+        for (SpawnerData spawner : new ArrayList<>(chunkSpawners)) {
+            evict(spawner);
+        }
+    }
+
+    /**
+     * Evicts every spawner of an unloading world back to stubs.
+     *
+     * @return number of evicted spawners
+     */
+    public int evictWorld(String worldName) {
+        Set<SpawnerData> worldSpawners = worldIndex.get(worldName);
+        if (worldSpawners == null) return 0;
+
+        int count = 0;
+        for (SpawnerData spawner : new ArrayList<>(worldSpawners)) {
+            if (evict(spawner)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean evict(SpawnerData spawner) {
+        // Spawners in use stay resident until their chunk unloads again
+        if (spawner.isSelling() || plugin.getSpawnerGuiViewManager().hasViewers(spawner)) {
+            return false;
+        }
+
+        String id = spawner.getSpawnerId();
+        plugin.getRangeChecker().deactivateSpawner(spawner);
+        spawner.removeHologram();
+
+        // Keep it reachable for the storage flush before it leaves the indexes
+        evicted.put(id, spawner);
+        registerStub(SpawnerStub.of(spawner));
+
+        spawners.remove(id);
+        locationIndex.remove(new LocationKey(spawner.getSpawnerLocation()), spawner);
+        String worldName = spawner.getSpawnerLocation().getWorld().getName();
+        worldIndex.computeIfPresent(worldName, (k, worldSpawners) -> {
+            worldSpawners.remove(spawner);
+            return worldSpawners.isEmpty() ? null : worldSpawners;
+        });
+        spatialIndex.remove(spawner);
+        invalidateHopperLink(spawner);
+        return true;
+    }
+
+    /**
+     * Makes the hopper below a spawner look the spawner up again, its resolved link
+     * may point at a spawner that is no longer indexed.
+     */
+    private void invalidateHopperLink(SpawnerData spawner) {
+        HopperService hopperService = plugin.getHopperService();
+        if (hopperService != null) {
+            hopperService.invalidate(spawner.getSpawnerLocation());
+        }
+    }
+
+    /**
+     * Moves an armed loot cycle to the spawner's current delay, after the delay changed.
+     */
+    public void rescheduleLootCycle(SpawnerData spawner) {
+        SpawnerLootGenerator lootGenerator = plugin.getSpawnerLootGenerator();
+        if (lootGenerator != null) {
+            lootGenerator.getLootScheduler().reschedule(spawner);
+        }
+    }
+
+    /**
+     * Disarms the loot cycle of a spawner that leaves the indexes.
+     */
+    private void cancelLootCycle(SpawnerData spawner) {
+        SpawnerLootGenerator lootGenerator = plugin.getSpawnerLootGenerator();
+        if (lootGenerator != null) {
+            lootGenerator.getLootScheduler().cancel(spawner);
+        }
+    }
+
+    /**
+     * Only chunk unloads evict spawners, so one hydrated by ID while its chunk was not loaded
+     * would stay in memory for good. Checked again on its region thread before evicting.
+     */
+    private void evictUnloadedSpawners() {
+        for (SpawnerData spawner : spawners.values()) {
+            Location loc = spawner.getSpawnerLocation();
+            World world = loc.getWorld();
+            if (world == null || world.isChunkLoaded(loc.getBlockX() >> 4, loc.getBlockZ() >> 4)) {
+                continue;
+            }
+
+            Scheduler.runLocationTask(loc, () -> {
+                if (spawners.get(spawner.getSpawnerId()) == spawner
+                        && !world.isChunkLoaded(loc.getBlockX() >> 4, loc.getBlockZ() >> 4)) {
+                    evict(spawner);
+                }
+            });
+        }
+    }
+
+    private void releaseEvictedSpawners() {
+        evicted.keySet().removeIf(id -> !spawnerStorage.hasPendingChanges(id));
     }
 }
\ No newline at end of file
@@ -0,0 +1,145 @@
+package github.nighter.smartspawner.spawner.data;
+
+import github.nighter.smartspawner.spawner.properties.SpawnerData;
+import github.nighter.smartspawner.utils.ChunkUtil;
+import org.bukkit.Location;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Per-world spatial index of spawner positions, bucketed by chunk.
+ * <p>
+ * Kept in sync by {@link SpawnerManager} so range checks only need to visit the
+ * chunks around each player instead of every loaded spawner. Mutations happen on
+ * server/region threads while lookups run on the range check thread, so every
+ * level of the index is a concurrent collection.
+ */
+public class SpawnerSpatialIndex {
+    // worldUID -> chunkKey -> spawners in that chunk
+    private final Map<UUID, Map<Long, Set<SpawnerData>>> worlds = new ConcurrentHashMap<>();
+
+    // Range each spawner was indexed with, and how many indexed spawners use each range.
+    // The largest key is the widest activation range, used to size chunk lookups.
+    private final Map<SpawnerData, Integer> indexedRanges = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Integer, Integer> rangeCounts = new ConcurrentSkipListMap<>();
+
+    // Chunks whose contents changed since the range checker last drained them
+    private final Queue<ChunkRef> dirtyChunks = new ConcurrentLinkedQueue<>();
+
+    public record ChunkRef(UUID worldUID, long chunkKey) {
+    }
+
+    public void add(SpawnerData spawner) {
+        Location loc = spawner.getSpawnerLocation();
+        if (loc == null || loc.getWorld() == null) return;
+
+        long chunkKey = ChunkUtil.getChunkKey(loc.getBlockX() >> 4, loc.getBlockZ() >> 4);
+        worlds.computeIfAbsent(loc.getWorld().getUID(), k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(chunkKey, k -> ConcurrentHashMap.newKeySet())
+                .add(spawner);
+        dirtyChunks.add(new ChunkRef(loc.getWorld().getUID(), chunkKey));
+
+        Integer range = spawner.getSpawnerRange();
+        Integer previous = range != null ? indexedRanges.put(spawner, range) : indexedRanges.remove(spawner);
+        if (previous != null) {
+            decrementRange(previous);
+        }
+        if (range != null) {
+            rangeCounts.merge(range, 1, Integer::sum);
+        }
+    }
+
+    public void remove(SpawnerData spawner) {
+        Integer range = indexedRanges.remove(spawner);
+        if (range != null) {
+            decrementRange(range);
+        }
+
+        Location loc = spawner.getSpawnerLocation();
+        if (loc == null || loc.getWorld() == null) return;
+
+        Map<Long, Set<SpawnerData>> chunks = worlds.get(loc.getWorld().getUID());
+        if (chunks == null) return;
+
+        long chunkKey = ChunkUtil.getChunkKey(loc.getBlockX() >> 4, loc.getBlockZ() >> 4);
+        chunks.computeIfPresent(chunkKey, (k, bucket) -> {
+            bucket.remove(spawner);
+            return bucket.isEmpty() ? null : bucket;
+        });
+        dirtyChunks.add(new ChunkRef(loc.getWorld().getUID(), chunkKey));
+    }
+
+    /**
+     * Picks up a changed activation range of an indexed spawner, so the lookup radius
+     * shrinks again once no spawner uses the widest range any more.
+     */
+    public void updateRange(SpawnerData spawner) {
+        Integer range = spawner.getSpawnerRange();
+        indexedRanges.computeIfPresent(spawner, (s, previous) -> {
+            if (!previous.equals(range)) {
+                decrementRange(previous);
+                if (range != null) {
+                    rangeCounts.merge(range, 1, Integer::sum);
+                }
+            }
+            return range;
+        });
+    }
+
+    private void decrementRange(int range) {
+        rangeCounts.computeIfPresent(range, (r, count) -> count > 1 ? count - 1 : null);
+    }
+
+    public void clear() {
+        worlds.clear();
+        dirtyChunks.clear();
+        indexedRanges.clear();
+        rangeCounts.clear();
+    }
+
+    /**
+     * Removes and returns the next chunk that had spawners added or removed.
+     *
+     * @return the changed chunk, or null when nothing changed
+     */
+    public ChunkRef pollDirtyChunk() {
+        return dirtyChunks.poll();
+    }
+
+    /**
+     * Returns the spawners stored in a single chunk cell.
+     *
+     * @param worldUID world the chunk belongs to
+     * @param chunkX chunk x coordinate
+     * @param chunkZ chunk z coordinate
+     * @return live view of the chunk bucket, or an empty set
+     */
+    public Set<SpawnerData> getSpawnersInChunk(UUID worldUID, int chunkX, int chunkZ) {
+        return getSpawnersInChunk(worldUID, ChunkUtil.getChunkKey(chunkX, chunkZ));
+    }
+
+    public Set<SpawnerData> getSpawnersInChunk(UUID worldUID, long chunkKey) {
+        Map<Long, Set<SpawnerData>> chunks = worlds.get(worldUID);
+        if (chunks == null) return Collections.emptySet();
+
+        Set<SpawnerData> bucket = chunks.get(chunkKey);
+        return bucket != null ? bucket : Collections.emptySet();
+    }
+
+    public boolean hasWorld(UUID worldUID) {
+        Map<Long, Set<SpawnerData>> chunks = worlds.get(worldUID);
+        return chunks != null && !chunks.isEmpty();
+    }
+
+    public int getMaxRange() {
+        Map.Entry<Integer, Integer> widest = rangeCounts.lastEntry();
+        return widest != null ? widest.getKey() : 0;
+    }
+}
@@ -0,0 +1,101 @@
+package github.nighter.smartspawner.spawner.data;
+
+import github.nighter.smartspawner.Scheduler;
+import github.nighter.smartspawner.SmartSpawner;
+import github.nighter.smartspawner.spawner.data.storage.SpawnerLoadTimings;
+import github.nighter.smartspawner.spawner.properties.SpawnerData;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Loads all spawners at startup on a bounded worker pool.
+ * <p>
+ * The storage splits the load into partitions (per world, large worlds in slices). Workers read
+ * and decode partitions into {@link SpawnerData} while the calling thread indexes every partition
+ * as soon as it completes, so indexing overlaps decoding. Holograms are created in a final phase,
+ * which keeps entity spawning off the worker threads.
+ */
+public class SpawnerStartupLoader {
+    private final SmartSpawner plugin;
+
+    public SpawnerStartupLoader(SmartSpawner plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * @param indexBatch indexes one finished partition on the calling thread and returns the
+     *                   spawners it indexed, which then get their holograms
+     */
+    public void load(Function<Map<String, SpawnerData>, Collection<SpawnerData>> indexBatch) {
+        long start = System.nanoTime();
+        SpawnerLoadTimings timings = new SpawnerLoadTimings();
+        List<Callable<Map<String, SpawnerData>>> partitions = plugin.getSpawnerStorage().createLoadPartitions(timings);
+        int threads = Math.max(1, Math.min(resolveThreadCount(), partitions.size()));
+
+        AtomicInteger threadId = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(() -> {
+                SpawnerData.setDeferHologramCreation(true);
+                runnable.run();
+            }, "SmartSpawner-Loader-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        List<SpawnerData> indexed = new ArrayList<>();
+        try {
+            ExecutorCompletionService<Map<String, SpawnerData>> completion = new ExecutorCompletionService<>(workers);
+            for (Callable<Map<String, SpawnerData>> partition : partitions) {
+                completion.submit(partition);
+            }
+
+            for (int i = 0; i < partitions.size(); i++) {
+                Map<String, SpawnerData> batch;
+                try {
+                    batch = completion.take().get();
+                } catch (ExecutionException e) {
+                    plugin.getLogger().severe("Failed to load a spawner partition: " + e.getCause());
+                    continue;
+                }
+
+                long indexStart = System.nanoTime();
+                indexed.addAll(indexBatch.apply(batch));
+                timings.addIndex(System.nanoTime() - indexStart);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            plugin.getLogger().severe("Interrupted while loading spawners");
+        } finally {
+            workers.shutdownNow();
+        }
+
+        if (plugin.getConfig().getBoolean("hologram.enabled", false)) {
+            long hologramStart = System.nanoTime();
+            for (SpawnerData spawner : indexed) {
+                Scheduler.runLocationTask(spawner.getSpawnerLocation(), spawner::refreshHologram);
+            }
+            timings.addHolograms(System.nanoTime() - hologramStart);
+        }
+
+        plugin.getLogger().info("Spawner load timings: " + timings.summary(System.nanoTime() - start, threads));
+    }
+
+    private int resolveThreadCount() {
+        int configured = plugin.getConfig().getInt("performance.startup_loading.threads", 0);
+        if (configured > 0) {
+            return configured;
+        }
+        // Leave a core for the server itself
+        return Math.max(1, Math.min(8, Runtime.getRuntime().availableProcessors() - 1));
+    }
+}
@@ -0,0 +1,46 @@
+package github.nighter.smartspawner.spawner.data;
+
+import github.nighter.smartspawner.spawner.properties.SpawnerData;
+import org.bukkit.Location;
+import org.bukkit.entity.EntityType;
+
+/**
+ * Lightweight placeholder for a spawner whose full {@link SpawnerData} is not in memory.
+ * Used by lazy loading to keep lookups and per-world counts working while the chunk is unloaded.
+ */
+public record SpawnerStub(String spawnerId, String worldName, int x, int y, int z,
+                          EntityType entityType, int stackSize) {
+
+    public int chunkX() {
+        return x >> 4;
+    }
+
+    public int chunkZ() {
+        return z >> 4;
+    }
+
+    public static SpawnerStub of(SpawnerData spawner) {
+        Location loc = spawner.getSpawnerLocation();
+        return new SpawnerStub(spawner.getSpawnerId(), loc.getWorld().getName(),
+                loc.getBlockX(), loc.getBlockY(), loc.getBlockZ(),
+                spawner.getEntityType(), spawner.getStackSize());
+    }
+
+    /**
+     * Parses a stub from a "world,x,y,z" location string as stored by the YAML and binary backends.
+     *
+     * @return the stub, or null if the location is malformed
+     */
+    public static SpawnerStub parse(String spawnerId, String locationString, EntityType entityType, int stackSize) {
+        if (locationString == null) return null;
+        String[] parts = locationString.split(",");
+        if (parts.length != 4) return null;
+        try {
+            return new SpawnerStub(spawnerId, parts[0],
+                    Integer.parseInt(parts[1].trim()), Integer.parseInt(parts[2].trim()), Integer.parseInt(parts[3].trim()),
+                    entityType, Math.max(1, stackSize));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -8,11 +8,15 @@ import org.bukkit.World;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
 import org.bukkit.event.world.WorldInitEvent;
 import org.bukkit.event.world.WorldLoadEvent;
 import org.bukkit.event.world.WorldSaveEvent;
 import org.bukkit.event.world.WorldUnloadEvent;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.HashSet;
@@ -62,8 +66,13 @@ public class WorldEventHandler implements Listener {
         // Mark world as processed
         processedWorlds.add(worldName);
 
-        // Try to load any pending spawners for this world
-        loadPendingSpawnersForWorld(worldName);
+        if (plugin.getSpawnerManager().isLazyLoading()) {
+            // Chunks that loaded with the world get no further load event
+            plugin.getSpawnerManager().hydrateLoadedChunks(world);
+        } else {
+            // Try to load any pending spawners for this world
+            loadPendingSpawnersForWorld(worldName);
+        }
 
         // If this is during server startup, also attempt initial load
         if (!initialLoadAttempted) {
@@ -102,7 +111,36 @@ public class WorldEventHandler implements Listener {
         plugin.getSpawnerStorage().flushChanges();
 
         // Unload spawners from this world
-        unloadSpawnersFromWorld(worldName);
+        if (plugin.getSpawnerManager().isLazyLoading()) {
+            int evicted = plugin.getSpawnerManager().evictWorld(worldName);
+            if (evicted > 0) {
+                logger.info("Unloaded " + evicted + " spawners from world: " + worldName);
+            }
+        } else {
+            unloadSpawnersFromWorld(worldName);
+        }
+    }
+
+    /**
+     * Lazy loading: hydrates the spawners of a chunk as it loads
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        if (!initialLoadAttempted || !plugin.getSpawnerManager().isLazyLoading()) {
+            return;
+        }
+        plugin.getSpawnerManager().hydrateChunk(event.getWorld(), event.getChunk().getX(), event.getChunk().getZ());
+    }
+
+    /**
+     * Lazy loading: evicts the spawners of a chunk back to stubs as it unloads
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        if (!initialLoadAttempted || !plugin.getSpawnerManager().isLazyLoading()) {
+            return;
+        }
+        plugin.getSpawnerManager().evictChunk(event.getWorld(), event.getChunk().getX(), event.getChunk().getZ());
     }
 
     /**
@@ -116,41 +154,43 @@ public class WorldEventHandler implements Listener {
         initialLoadAttempted = true;
         plugin.debug("Attempting initial spawner load...");
 
-        // Load spawner data from file
-        Map<String, SpawnerData> allSpawnerData = plugin.getSpawnerStorage().loadAllSpawnersRaw();
-
-        int loadedCount = 0;
-        int pendingCount = 0;
+        if (plugin.getSpawnerManager().isLazyLoading()) {
+            registerSpawnerStubs();
+            return;
+        }
 
-        for (Map.Entry<String, SpawnerData> entry : allSpawnerData.entrySet()) {
-            String spawnerId = entry.getKey();
-            SpawnerData spawner = entry.getValue();
+        // Load, decode and index spawners partition by partition
+        int[] counts = new int[2];
+        new SpawnerStartupLoader(plugin).load(batch -> {
+            List<SpawnerData> indexed = new ArrayList<>(batch.size());
+            for (Map.Entry<String, SpawnerData> entry : batch.entrySet()) {
+                String spawnerId = entry.getKey();
+                SpawnerData spawner = entry.getValue();
 
-            if (spawner != null) {
-                String worldName = spawner.getSpawnerLocation() != null && spawner.getSpawnerLocation().getWorld() != null
+                String worldName = spawner != null && spawner.getSpawnerLocation() != null
+                        && spawner.getSpawnerLocation().getWorld() != null
                         ? spawner.getSpawnerLocation().getWorld().getName()
                         : null;
 
                 if (worldName != null && Bukkit.getWorld(worldName) != null) {
                     plugin.getSpawnerManager().addSpawnerToIndexes(spawnerId, spawner);
-                    loadedCount++;
+                    indexed.add(spawner);
+                    counts[0]++;
                 } else {
+                    // Spawner couldn't be loaded, likely due to missing world
+                    // Store as pending for later loading
                     PendingSpawnerData pending = loadPendingSpawnerFromFile(spawnerId);
                     if (pending != null) {
                         pendingSpawners.put(spawnerId, pending);
-                        pendingCount++;
+                        counts[1]++;
                     }
                 }
-            } else {
-                // Spawner couldn't be loaded, likely due to missing world
-                // Store as pending for later loading
-                PendingSpawnerData pending = loadPendingSpawnerFromFile(spawnerId);
-                if (pending != null) {
-                    pendingSpawners.put(spawnerId, pending);
-                    pendingCount++;
-                }
             }
-        }
+            return indexed;
+        });
+
+        int loadedCount = counts[0];
+        int pendingCount = counts[1];
 
         logger.info("Initial spawner load complete. Loaded: " + loadedCount +
                    ", Pending (missing worlds): " + pendingCount);
@@ -160,6 +200,25 @@ public class WorldEventHandler implements Listener {
         }
     }
 
+    /**
+     * Lazy loading: registers every stored spawner as a stub, then hydrates the ones
+     * in chunks that are already loaded
+     */
+    private void registerSpawnerStubs() {
+        long start = System.nanoTime();
+        List<SpawnerStub> stubs = plugin.getSpawnerStorage().loadAllStubs();
+        for (SpawnerStub stub : stubs) {
+            plugin.getSpawnerManager().registerStub(stub);
+        }
+
+        for (World world : Bukkit.getWorlds()) {
+            plugin.getSpawnerManager().hydrateLoadedChunks(world);
+        }
+
+        logger.info("Registered " + stubs.size() + " spawners for lazy loading in "
+                + (System.nanoTime() - start) / 1_000_000 + "ms");
+    }
+
     /**
      * Load pending spawners for a specific world that just became available
      */
@@ -0,0 +1,189 @@
+package github.nighter.smartspawner.spawner.data.binary;
+
+import github.nighter.smartspawner.SmartSpawner;
+import github.nighter.smartspawner.spawner.data.SpawnerFileHandler;
+import github.nighter.smartspawner.spawner.data.SpawnerJournal;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Converts spawner data between the binary snapshot and the YAML layout, and writes
+ * spawners converted from the database into the snapshot. Like the database migrations, a converted source file is renamed with a
+ * {@code .migrated} suffix so it is not picked up again.
+ */
+public class BinarySnapshotMigration {
+    private static final String YAML_FILE_NAME = "spawners_data.yml";
+    private static final String MIGRATED_FILE_SUFFIX = ".migrated";
+
+    private final SmartSpawner plugin;
+    private final Logger logger;
+    private final File yamlFile;
+    private final File snapshotFile;
+
+    public BinarySnapshotMigration(SmartSpawner plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.yamlFile = new File(plugin.getDataFolder(), YAML_FILE_NAME);
+        this.snapshotFile = new File(plugin.getDataFolder(), SpawnerBinaryHandler.SNAPSHOT_FILE_NAME);
+    }
+
+    /**
+     * Scans for a non-empty top-level {@code spawners} key instead of parsing the whole file,
+     * which can be large.
+     *
+     * @return true if spawners_data.yml holds spawners that can be converted to the binary snapshot
+     */
+    public boolean needsYamlImport() {
+        if (!yamlFile.exists() || yamlFile.length() == 0) {
+            return false;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(yamlFile.toPath(), StandardCharsets.UTF_8)) {
+            boolean inSpawners = false;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.stripLeading().startsWith("#")) {
+                    continue;
+                }
+                if (inSpawners) {
+                    // The first line after the key is a spawner if it is indented
+                    return Character.isWhitespace(line.charAt(0));
+                }
+                if (line.startsWith("spawners:")) {
+                    String value = line.substring("spawners:".length()).trim();
+                    if (!value.isEmpty() && !value.startsWith("#")) {
+                        // Inline value, only an empty flow map like {} is possible here
+                        return !value.startsWith("{}");
+                    }
+                    inSpawners = true;
+                }
+            }
+        } catch (IOException e) {
+            logger.warning("Failed to check " + YAML_FILE_NAME + " for spawners: " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Converts spawners_data.yml (and its journal) into a binary snapshot.
+     */
+    public void importFromYaml() throws IOException {
+        File journalFile = new File(plugin.getDataFolder(), SpawnerFileHandler.JOURNAL_FILE_NAME);
+        FileConfiguration yamlData = SpawnerJournal.loadWithJournal(yamlFile, journalFile, plugin.getDATA_VERSION(), logger);
+        ConfigurationSection spawners = yamlData.getConfigurationSection("spawners");
+        int dataVersion = yamlData.getInt("data_version", 1);
+
+        List<SpawnerRecord> records = new ArrayList<>();
+        int failed = 0;
+        if (spawners != null) {
+            for (String spawnerId : spawners.getKeys(false)) {
+                SpawnerRecord record = SpawnerRecord.fromYaml(yamlData, spawnerId, dataVersion);
+                if (record != null) {
+                    records.add(record);
+                } else {
+                    logger.warning("Skipping spawner " + spawnerId + " with invalid YAML data.");
+                    failed++;
+                }
+            }
+        }
+
+        SpawnerSnapshotFile.write(snapshotFile, plugin.getDATA_VERSION(), records);
+        logger.info("Converted " + records.size() + " spawners to " + SpawnerBinaryHandler.SNAPSHOT_FILE_NAME
+                + (failed > 0 ? " (" + failed + " skipped)" : ""));
+
+        retire(yamlFile);
+        if (journalFile.exists()) {
+            retire(journalFile);
+        }
+    }
+
+    /**
+     * Adds spawners converted from another storage to the binary snapshot. A spawner that is
+     * already in the snapshot is replaced by the converted one.
+     *
+     * @param imported converted spawners
+     * @param source   name of the converted file, for the log
+     */
+    public void importRecords(List<SpawnerRecord> imported, String source) throws IOException {
+        Map<String, SpawnerRecord> merged = new LinkedHashMap<>();
+        if (snapshotFile.exists()) {
+            for (SpawnerRecord record : SpawnerSnapshotFile.read(snapshotFile).records()) {
+                merged.put(record.id(), record);
+            }
+        }
+        for (SpawnerRecord record : imported) {
+            merged.put(record.id(), record);
+        }
+
+        SpawnerSnapshotFile.write(snapshotFile, plugin.getDATA_VERSION(), merged.values());
+        logger.info("Converted " + imported.size() + " spawners from " + source + " to "
+                + SpawnerBinaryHandler.SNAPSHOT_FILE_NAME);
+    }
+
+    /**
+     * @return true if a binary snapshot is left over from running in BINARY mode
+     */
+    public boolean hasSnapshot() {
+        return snapshotFile.exists();
+    }
+
+    /**
+     * Reads the binary snapshot into the spawners_data.yml layout, for the YAML to database migration.
+     */
+    public FileConfiguration loadAsYaml() throws IOException {
+        SpawnerSnapshotFile.Snapshot snapshot = SpawnerSnapshotFile.read(snapshotFile);
+        FileConfiguration data = new YamlConfiguration();
+        applySnapshot(data, snapshot);
+        return data;
+    }
+
+    /**
+     * Writes the binary snapshot into spawners_data.yml, keeping spawners that exist only in the YAML file.
+     */
+    public void exportToYaml() throws IOException {
+        SpawnerSnapshotFile.Snapshot snapshot = SpawnerSnapshotFile.read(snapshotFile);
+        FileConfiguration yamlData = yamlFile.exists() ? YamlConfiguration.loadConfiguration(yamlFile) : new YamlConfiguration();
+        applySnapshot(yamlData, snapshot);
+        yamlData.save(yamlFile);
+        logger.info("Converted " + snapshot.records().size() + " spawners from "
+                + SpawnerBinaryHandler.SNAPSHOT_FILE_NAME + " to " + YAML_FILE_NAME);
+
+        retireSnapshot();
+    }
+
+    private static void applySnapshot(FileConfiguration data, SpawnerSnapshotFile.Snapshot snapshot) {
+        data.set("data_version", snapshot.dataVersion());
+        for (SpawnerRecord record : snapshot.records()) {
+            String path = "spawners." + record.id();
+            for (Map.Entry<String, Object> field : record.toYamlFields().entrySet()) {
+                data.set(path + "." + field.getKey(), field.getValue());
+            }
+        }
+    }
+
+    public void retireSnapshot() {
+        retire(snapshotFile);
+    }
+
+    private void retire(File file) {
+        try {
+            Files.move(file.toPath(), new File(file.getParentFile(), file.getName() + MIGRATED_FILE_SUFFIX).toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+            logger.info(file.getName() + " renamed to " + file.getName() + MIGRATED_FILE_SUFFIX);
+        } catch (IOException e) {
+            logger.warning("Failed to rename " + file.getName() + ". Manual cleanup may be required.");
+        }
+    }
+}
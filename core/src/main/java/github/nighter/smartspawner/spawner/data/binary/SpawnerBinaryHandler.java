@@ -0,0 +1,367 @@
+package github.nighter.smartspawner.spawner.data.binary;
+
+import github.nighter.smartspawner.Scheduler;
+import github.nighter.smartspawner.SmartSpawner;
+import github.nighter.smartspawner.spawner.data.SpawnerStub;
+import github.nighter.smartspawner.spawner.data.database.SqliteToBinaryMigration;
+import github.nighter.smartspawner.spawner.data.storage.SpawnerLoadTimings;
+import github.nighter.smartspawner.spawner.data.storage.SpawnerSnapshot;
+import github.nighter.smartspawner.spawner.data.storage.SpawnerStorage;
+import github.nighter.smartspawner.spawner.properties.SpawnerData;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.CreatureSpawner;
+import org.bukkit.entity.EntityType;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Spawner storage backed by the binary snapshot file {@code spawners_data.bin}.
+ * <p>
+ * All records are held in memory. A flush refreshes the records of modified spawners and
+ * appends them, with the deleted IDs, as one segment to the snapshot, so its cost follows
+ * the number of changes rather than the number of spawners. Once the appended segments
+ * outgrow the base records the snapshot is compacted by rewriting it in full.
+ */
+public class SpawnerBinaryHandler implements SpawnerStorage {
+    public static final String SNAPSHOT_FILE_NAME = "spawners_data.bin";
+    private static final int LOAD_PARTITION_SIZE = 2000;
+    private static final int PARALLEL_CONVERT_THRESHOLD = 500;
+    // Segments are compacted once they take more than the base records and at least this much
+    private static final long COMPACT_MIN_BYTES = 1L << 20;
+
+    private final SmartSpawner plugin;
+    private final Logger logger;
+    private final File snapshotFile;
+
+    private final Map<String, SpawnerRecord> records = new ConcurrentHashMap<>();
+    private final Set<String> dirtySpawners = ConcurrentHashMap.newKeySet();
+    private final Set<String> deletedSpawners = ConcurrentHashMap.newKeySet();
+
+    // Guards the record map against concurrent snapshot writes
+    private final Object writeLock = new Object();
+    private volatile boolean isSaving = false;
+    private Scheduler.Task saveTask = null;
+    // Time spent reading the snapshot, reported with the startup load
+    private long readNanos;
+    // Size of the base records and end of the last appended segment, guarded by writeLock
+    private long baseLength;
+    private long validLength;
+
+    public SpawnerBinaryHandler(SmartSpawner plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.snapshotFile = new File(plugin.getDataFolder(), SNAPSHOT_FILE_NAME);
+    }
+
+    @Override
+    public boolean initialize() {
+        try {
+            BinarySnapshotMigration migration = new BinarySnapshotMigration(plugin);
+            boolean migrateFromLocal = plugin.getConfig().getBoolean("database.migrate_from_local", true);
+            if (!snapshotFile.exists() && migrateFromLocal) {
+                if (migration.needsYamlImport()) {
+                    logger.info("YAML data detected, converting to binary snapshot...");
+                    migration.importFromYaml();
+                }
+
+                // Left over from running in SQLITE mode, merged with the YAML spawners if both exist
+                SqliteToBinaryMigration sqliteMigration = new SqliteToBinaryMigration(plugin);
+                if (sqliteMigration.needsMigration()) {
+                    logger.info("SQLite data detected, converting to binary snapshot...");
+                    if (!sqliteMigration.migrate(migration)) {
+                        logger.warning("SQLite migration completed with some errors. Check logs for details.");
+                    }
+                }
+            }
+
+            if (snapshotFile.exists()) {
+                long start = System.nanoTime();
+                SpawnerSnapshotFile.Snapshot snapshot = SpawnerSnapshotFile.read(snapshotFile);
+                for (SpawnerRecord record : snapshot.records()) {
+                    records.put(record.id(), record);
+                }
+                baseLength = snapshot.baseLength();
+                validLength = snapshot.validLength();
+                long leftover = snapshotFile.length() - validLength;
+                if (leftover > 0) {
+                    logger.warning("Ignoring " + leftover + " bytes of an interrupted write at the end of "
+                            + SNAPSHOT_FILE_NAME);
+                }
+                readNanos = System.nanoTime() - start;
+                logger.info("Read " + records.size() + " spawner records from " + SNAPSHOT_FILE_NAME
+                        + " in " + readNanos / 1_000_000 + "ms");
+            }
+        } catch (IOException e) {
+            logger.severe("Failed to load " + SNAPSHOT_FILE_NAME + ": " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+
+        startSaveTask();
+        return true;
+    }
+
+    private void startSaveTask() {
+        // Same 5-minute interval as the YAML storage
+        long intervalTicks = 6000L;
+
+        if (saveTask != null) {
+            saveTask.cancel();
+        }
+
+        saveTask = Scheduler.runTaskTimerAsync(() -> {
+            plugin.debug("Running scheduled save task");
+            flushChanges();
+        }, intervalTicks, intervalTicks);
+    }
+
+    @Override
+    public Map<String, SpawnerData> loadAllSpawnersRaw() {
+        Map<String, SpawnerData> loadedSpawners = new HashMap<>();
+        for (SpawnerRecord record : records.values()) {
+            try {
+                loadedSpawners.put(record.id(), createSpawner(record, false));
+            } catch (Exception e) {
+                plugin.debug("Error loading spawner " + record.id() + ": " + e.getMessage());
+                loadedSpawners.put(record.id(), null);
+            }
+        }
+        return loadedSpawners;
+    }
+
+    @Override
+    public List<Callable<Map<String, SpawnerData>>> createLoadPartitions(SpawnerLoadTimings timings) {
+        timings.addIo(readNanos);
+
+        Map<String, List<SpawnerRecord>> recordsByWorld = new HashMap<>();
+        for (SpawnerRecord record : records.values()) {
+            recordsByWorld.computeIfAbsent(record.world(), k -> new ArrayList<>()).add(record);
+        }
+
+        List<Callable<Map<String, SpawnerData>>> tasks = new ArrayList<>();
+        for (List<SpawnerRecord> partition : SpawnerStorage.partitionByWorld(recordsByWorld, LOAD_PARTITION_SIZE)) {
+            tasks.add(() -> {
+                long start = System.nanoTime();
+                Map<String, SpawnerData> loaded = new HashMap<>();
+                for (SpawnerRecord record : partition) {
+                    try {
+                        loaded.put(record.id(), createSpawner(record, false));
+                    } catch (Exception e) {
+                        plugin.debug("Error loading spawner " + record.id() + ": " + e.getMessage());
+                        loaded.put(record.id(), null);
+                    }
+                }
+                timings.addDecode(System.nanoTime() - start, partition.size());
+                return loaded;
+            });
+        }
+        return tasks;
+    }
+
+    @Override
+    public List<SpawnerStub> loadAllStubs() {
+        List<SpawnerStub> stubs = new ArrayList<>(records.size());
+        for (SpawnerRecord record : records.values()) {
+            try {
+                stubs.add(new SpawnerStub(record.id(), record.world(), record.x(), record.y(), record.z(),
+                        EntityType.valueOf(record.entityType()), Math.max(1, record.stackSize())));
+            } catch (IllegalArgumentException e) {
+                plugin.debug("Skipping stub for spawner " + record.id() + ": " + e.getMessage());
+            }
+        }
+        return stubs;
+    }
+
+    @Override
+    public SpawnerData loadSpecificSpawner(String spawnerId) {
+        SpawnerRecord record = records.get(spawnerId);
+        if (record == null) {
+            return null;
+        }
+        try {
+            return createSpawner(record, true);
+        } catch (Exception e) {
+            plugin.debug("Error loading spawner " + spawnerId + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private SpawnerData createSpawner(SpawnerRecord record, boolean restartHopper) {
+        SpawnerData spawner = record.toSpawnerData(plugin, restartHopper);
+        if (spawner == null) {
+            plugin.debug("World not yet loaded or invalid entity for spawner " + record.id());
+            return null;
+        }
+
+        // Restore the physical spawner block state for item spawners
+        if (spawner.isItemSpawner()) {
+            Location location = spawner.getSpawnerLocation();
+            Scheduler.runLocationTask(location, () -> {
+                Block block = location.getBlock();
+                if (block.getType() == Material.SPAWNER) {
+                    BlockState state = block.getState(false);
+                    if (state instanceof CreatureSpawner cs) {
+                        cs.setSpawnedType(EntityType.ITEM);
+                        cs.setSpawnedItem(new ItemStack(spawner.getSpawnedItemMaterial(), 1));
+                        cs.update(true, false);
+                    }
+                }
+            });
+        }
+        return spawner;
+    }
+
+    @Override
+    public String getRawLocationString(String spawnerId) {
+        SpawnerRecord record = records.get(spawnerId);
+        return record != null ? record.locationString() : null;
+    }
+
+    @Override
+    public void markSpawnerModified(String spawnerId) {
+        if (spawnerId != null) {
+            dirtySpawners.add(spawnerId);
+            deletedSpawners.remove(spawnerId);
+        }
+    }
+
+    @Override
+    public void markSpawnerDeleted(String spawnerId) {
+        if (spawnerId != null) {
+            deletedSpawners.add(spawnerId);
+            dirtySpawners.remove(spawnerId);
+        }
+    }
+
+    @Override
+    public void queueSpawnerForSaving(String spawnerId) {
+        markSpawnerModified(spawnerId);
+    }
+
+    @Override
+    public boolean hasPendingChanges(String spawnerId) {
+        return isSaving || dirtySpawners.contains(spawnerId);
+    }
+
+    @Override
+    public void flushChanges() {
+        if (dirtySpawners.isEmpty() && deletedSpawners.isEmpty()) {
+            plugin.debug("No changes to flush");
+            return;
+        }
+
+        if (isSaving) {
+            plugin.debug("Flush operation already in progress");
+            return;
+        }
+
+        isSaving = true;
+        Scheduler.runTaskAsync(() -> {
+            Set<String> toUpdate = new HashSet<>(dirtySpawners);
+            dirtySpawners.removeAll(toUpdate);
+            Set<String> toDelete = new HashSet<>(deletedSpawners);
+            deletedSpawners.removeAll(toDelete);
+
+            List<SpawnerSnapshot> snapshots = collectSnapshots(toUpdate);
+            try {
+                writeChanges(snapshots, toDelete);
+            } catch (Exception e) {
+                logger.severe("Error during flush: " + e.getMessage());
+                e.printStackTrace();
+
+                for (SpawnerSnapshot snapshot : snapshots) {
+                    if (!deletedSpawners.contains(snapshot.spawnerId())) {
+                        plugin.getSpawnerManager().restoreSnapshot(snapshot);
+                        dirtySpawners.add(snapshot.spawnerId());
+                    }
+                }
+                for (String id : toDelete) {
+                    if (!dirtySpawners.contains(id)) {
+                        deletedSpawners.add(id);
+                    }
+                }
+            } finally {
+                isSaving = false;
+            }
+        });
+    }
+
+    private List<SpawnerSnapshot> collectSnapshots(Set<String> spawnerIds) {
+        List<SpawnerSnapshot> batch = new ArrayList<>(spawnerIds.size());
+        for (String id : spawnerIds) {
+            SpawnerSnapshot snapshot = plugin.getSpawnerManager().takeSnapshot(id);
+            if (snapshot != null) {
+                batch.add(snapshot);
+            }
+        }
+        return batch;
+    }
+
+    private void writeChanges(List<SpawnerSnapshot> updated, Set<String> toDelete) throws IOException {
+        // Snapshots are immutable, so large batches are converted in parallel before the lock is taken
+        List<SpawnerRecord> converted = (updated.size() >= PARALLEL_CONVERT_THRESHOLD
+                ? updated.parallelStream() : updated.stream())
+                .map(SpawnerRecord::fromSnapshot)
+                .toList();
+
+        synchronized (writeLock) {
+            for (SpawnerRecord record : converted) {
+                records.put(record.id(), record);
+            }
+            for (String id : toDelete) {
+                records.remove(id);
+            }
+
+            long start = System.nanoTime();
+            if (!snapshotFile.exists() || validLength - baseLength > Math.max(baseLength, COMPACT_MIN_BYTES)) {
+                validLength = SpawnerSnapshotFile.write(snapshotFile, plugin.getDATA_VERSION(), records.values());
+                baseLength = validLength;
+                plugin.debug("Compacted " + records.size() + " spawner records into " + SNAPSHOT_FILE_NAME
+                        + " in " + (System.nanoTime() - start) / 1_000_000 + "ms");
+            } else {
+                validLength = SpawnerSnapshotFile.append(snapshotFile, validLength, converted, toDelete);
+                plugin.debug("Appended " + converted.size() + " changed and " + toDelete.size()
+                        + " deleted spawner records to " + SNAPSHOT_FILE_NAME
+                        + " in " + (System.nanoTime() - start) / 1_000_000 + "ms");
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        if (saveTask != null) {
+            saveTask.cancel();
+            saveTask = null;
+        }
+
+        if (dirtySpawners.isEmpty() && deletedSpawners.isEmpty()) {
+            return;
+        }
+
+        try {
+            isSaving = true;
+            writeChanges(collectSnapshots(dirtySpawners), new HashSet<>(deletedSpawners));
+            dirtySpawners.clear();
+            deletedSpawners.clear();
+        } catch (Exception e) {
+            logger.severe("Error during shutdown flush: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            isSaving = false;
+        }
+    }
+}
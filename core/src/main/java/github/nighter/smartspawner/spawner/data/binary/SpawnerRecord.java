@@ -0,0 +1,326 @@
+package github.nighter.smartspawner.spawner.data.binary;
+
+import github.nighter.smartspawner.SmartSpawner;
+import github.nighter.smartspawner.spawner.data.storage.SpawnerSnapshot;
+import github.nighter.smartspawner.spawner.properties.SpawnerData;
+import github.nighter.smartspawner.spawner.properties.VirtualInventory;
+import github.nighter.smartspawner.spawner.utils.ItemStackSerializer;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.EntityType;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.Damageable;
+import org.bukkit.inventory.meta.PotionMeta;
+import org.bukkit.potion.PotionType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Storage-neutral copy of everything persisted for one spawner.
+ * Used by the binary snapshot format and by the conversions between it and YAML or the database.
+ */
+public record SpawnerRecord(
+        String id,
+        String world, int x, int y, int z,
+        String entityType,
+        String itemSpawnerMaterial,
+        long spawnerExp,
+        boolean active,
+        int range,
+        boolean stopped,
+        long spawnDelay,
+        int maxSpawnerLootSlots,
+        long maxStoredExp,
+        int minMobs,
+        int maxMobs,
+        int stackSize,
+        int maxStackSize,
+        long lastSpawnTime,
+        boolean atCapacity,
+        String lastInteractedPlayer,
+        String preferredSortItem,
+        List<String> filteredItems,
+        List<ItemEntry> inventory) {
+
+    /**
+     * One stored item variant. Items are either plain, damaged ({@code damage > 0}) or tipped
+     * arrows ({@code potionType != null}), mirroring what {@link ItemStackSerializer} keeps.
+     */
+    public record ItemEntry(String material, int damage, String potionType, long amount) {
+
+        public ItemStack createItemStack() {
+            Material type = Material.valueOf(material);
+            ItemStack item = new ItemStack(type);
+            if (potionType != null && item.getItemMeta() instanceof PotionMeta meta) {
+                try {
+                    meta.setBasePotionType(PotionType.valueOf(potionType));
+                } catch (IllegalArgumentException e) {
+                    meta.setBasePotionType(PotionType.WATER);
+                }
+                item.setItemMeta(meta);
+            } else if (damage > 0 && item.getItemMeta() instanceof Damageable damageable) {
+                damageable.setDamage(damage);
+                item.setItemMeta(damageable);
+            }
+            return item;
+        }
+
+        public static ItemEntry of(ItemStack item, long amount) {
+            Material type = item.getType();
+            if (type == Material.TIPPED_ARROW) {
+                PotionType potion = item.getItemMeta() instanceof PotionMeta meta && meta.getBasePotionType() != null
+                        ? meta.getBasePotionType() : PotionType.WATER;
+                return new ItemEntry(type.name(), 0, potion.name(), amount);
+            }
+            int damage = ItemStackSerializer.isDestructibleItem(type) && item.getItemMeta() instanceof Damageable damageable
+                    ? damageable.getDamage() : 0;
+            return new ItemEntry(type.name(), damage, null, amount);
+        }
+    }
+
+    public String locationString() {
+        return world + "," + x + "," + y + "," + z;
+    }
+
+    /**
+     * Converts a snapshot taken when the spawner was marked as modified.
+     */
+    public static SpawnerRecord fromSnapshot(SpawnerSnapshot snapshot) {
+        List<String> filtered = new ArrayList<>(snapshot.filteredItems().size());
+        for (Material material : snapshot.filteredItems()) {
+            filtered.add(material.name());
+        }
+
+        List<ItemEntry> items = new ArrayList<>(snapshot.items().size());
+        for (Map.Entry<VirtualInventory.ItemSignature, Long> entry : snapshot.items().entrySet()) {
+            items.add(ItemEntry.of(entry.getKey().getTemplateRef(), entry.getValue()));
+        }
+
+        return new SpawnerRecord(
+                snapshot.spawnerId(),
+                snapshot.worldName(), snapshot.x(), snapshot.y(), snapshot.z(),
+                snapshot.entityType() != null ? snapshot.entityType().name() : null,
+                snapshot.itemSpawnerMaterial() != null ? snapshot.itemSpawnerMaterial().name() : null,
+                snapshot.spawnerExp(),
+                snapshot.active(),
+                snapshot.range(),
+                snapshot.stopped(),
+                snapshot.spawnDelay(),
+                snapshot.maxSpawnerLootSlots(),
+                snapshot.maxStoredExp(),
+                snapshot.minMobs(),
+                snapshot.maxMobs(),
+                snapshot.stackSize(),
+                snapshot.maxStackSize(),
+                snapshot.lastSpawnTime(),
+                snapshot.atCapacity(),
+                snapshot.lastInteractedPlayer(),
+                snapshot.preferredSortItem() != null ? snapshot.preferredSortItem().name() : null,
+                filtered,
+                items);
+    }
+
+    /**
+     * Reads a spawner from a {@code spawners_data.yml} layout.
+     *
+     * @param data        root of the YAML data
+     * @param spawnerId   spawner to read
+     * @param dataVersion value of {@code data_version} in the file
+     * @return the record, or null if location, entity type or settings are malformed
+     */
+    public static SpawnerRecord fromYaml(ConfigurationSection data, String spawnerId, int dataVersion) {
+        String path = "spawners." + spawnerId;
+
+        String locationString = data.getString(path + ".location");
+        String entityType = data.getString(path + ".entityType");
+        String settingsString = data.getString(path + ".settings");
+        if (locationString == null || entityType == null || settingsString == null) {
+            return null;
+        }
+
+        String[] loc = locationString.split(",");
+        String[] settings = settingsString.split(",");
+        if (loc.length != 4 || settings.length < (dataVersion >= 3 ? 13 : 11)) {
+            return null;
+        }
+
+        List<String> filtered = new ArrayList<>();
+        String filteredItemsStr = data.getString(path + ".filteredItems");
+        if (filteredItemsStr != null && !filteredItemsStr.isEmpty()) {
+            for (String materialName : filteredItemsStr.split(",")) {
+                filtered.add(materialName.trim());
+            }
+        }
+
+        List<ItemEntry> items = new ArrayList<>();
+        List<String> inventoryData = data.getStringList(path + ".inventory");
+        if (!inventoryData.isEmpty()) {
+            for (Map.Entry<ItemStack, Integer> entry : ItemStackSerializer.deserializeInventory(inventoryData).entrySet()) {
+                if (entry.getKey() != null && entry.getValue() > 0) {
+                    items.add(ItemEntry.of(entry.getKey(), entry.getValue()));
+                }
+            }
+        }
+
+        try {
+            boolean current = dataVersion >= 3;
+            return new SpawnerRecord(
+                    spawnerId,
+                    loc[0], Integer.parseInt(loc[1]), Integer.parseInt(loc[2]), Integer.parseInt(loc[3]),
+                    entityType,
+                    data.getString(path + ".itemSpawnerMaterial"),
+                    Math.max(0L, Long.parseLong(settings[0])),
+                    Boolean.parseBoolean(settings[1]),
+                    Integer.parseInt(settings[2]),
+                    Boolean.parseBoolean(settings[3]),
+                    Long.parseLong(settings[4]),
+                    Integer.parseInt(settings[5]),
+                    Long.parseLong(settings[6]),
+                    Integer.parseInt(settings[7]),
+                    Integer.parseInt(settings[8]),
+                    Integer.parseInt(settings[9]),
+                    current ? Integer.parseInt(settings[10]) : 0,
+                    Long.parseLong(settings[current ? 11 : 10]),
+                    current && Boolean.parseBoolean(settings[12]),
+                    data.getString(path + ".lastInteractedPlayer"),
+                    data.getString(path + ".preferredSortItem"),
+                    filtered,
+                    items);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Fields in the {@code spawners.<id>} layout of {@code spawners_data.yml}.
+     */
+    public Map<String, Object> toYamlFields() {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("location", locationString());
+        fields.put("entityType", entityType);
+        fields.put("itemSpawnerMaterial", itemSpawnerMaterial);
+        fields.put("settings", spawnerExp + "," + active + "," + range + "," + stopped + "," + spawnDelay + ","
+                + maxSpawnerLootSlots + "," + maxStoredExp + "," + minMobs + "," + maxMobs + ","
+                + stackSize + "," + maxStackSize + "," + lastSpawnTime + "," + atCapacity);
+        fields.put("lastInteractedPlayer", lastInteractedPlayer);
+        fields.put("preferredSortItem", preferredSortItem);
+        fields.put("filteredItems", filteredItems.isEmpty() ? null : String.join(",", filteredItems));
+        fields.put("inventory", serializeInventory());
+        return fields;
+    }
+
+    private List<String> serializeInventory() {
+        // Same grouping as ItemStackSerializer: one line per material
+        Map<String, StringBuilder> lines = new LinkedHashMap<>();
+        Map<String, Long> plainTotals = new LinkedHashMap<>();
+        for (ItemEntry entry : inventory) {
+            if (entry.potionType() != null) {
+                StringBuilder sb = lines.computeIfAbsent(entry.material(), m -> new StringBuilder("TIPPED_ARROW#"));
+                if (sb.length() > "TIPPED_ARROW#".length()) {
+                    sb.append(',');
+                }
+                sb.append(entry.potionType()).append(':').append(entry.amount());
+            } else if (ItemStackSerializer.isDestructibleItem(Material.matchMaterial(entry.material()))) {
+                StringBuilder sb = lines.computeIfAbsent(entry.material(), m -> new StringBuilder(m).append(';'));
+                if (sb.charAt(sb.length() - 1) != ';') {
+                    sb.append(',');
+                }
+                sb.append(entry.damage()).append(':').append(entry.amount());
+            } else {
+                plainTotals.merge(entry.material(), entry.amount(), Long::sum);
+            }
+        }
+
+        List<String> serialized = new ArrayList<>(lines.size() + plainTotals.size());
+        for (StringBuilder sb : lines.values()) {
+            serialized.add(sb.toString());
+        }
+        for (Map.Entry<String, Long> entry : plainTotals.entrySet()) {
+            serialized.add(entry.getKey() + ":" + entry.getValue());
+        }
+        return serialized;
+    }
+
+    /**
+     * Builds the live spawner. Returns null if its world is not loaded or the
+     * stored entity type no longer exists.
+     */
+    public SpawnerData toSpawnerData(SmartSpawner plugin, boolean restartHopper) {
+        World bukkitWorld = Bukkit.getWorld(world);
+        if (bukkitWorld == null) {
+            return null;
+        }
+
+        EntityType type;
+        try {
+            type = EntityType.valueOf(entityType);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        Location location = new Location(bukkitWorld, x, y, z);
+        SpawnerData spawner;
+        Material itemMaterial = itemSpawnerMaterial != null ? Material.matchMaterial(itemSpawnerMaterial) : null;
+        if (type == EntityType.ITEM && itemMaterial != null) {
+            spawner = new SpawnerData(id, location, itemMaterial, plugin);
+        } else {
+            spawner = new SpawnerData(id, location, type, plugin);
+        }
+
+        spawner.setSpawnerExpData(spawnerExp);
+        spawner.setSpawnerActive(active);
+        spawner.setSpawnerRange(range);
+        spawner.getSpawnerStop().set(stopped);
+        spawner.setSpawnDelayFromConfig();
+        spawner.setMaxSpawnerLootSlots(maxSpawnerLootSlots);
+        spawner.setMaxStoredExp(maxStoredExp);
+        spawner.setMinMobs(minMobs);
+        spawner.setMaxMobs(maxMobs);
+        // Restore the saved limit before the stack size so it is validated against it
+        if (maxStackSize > 0) {
+            spawner.setMaxStackSize(maxStackSize);
+        }
+        spawner.setStackSize(Math.max(1, stackSize), restartHopper);
+        spawner.setLastSpawnTime(lastSpawnTime);
+        spawner.setIsAtCapacity(atCapacity);
+
+        for (String materialName : filteredItems) {
+            Material material = Material.matchMaterial(materialName);
+            if (material != null) {
+                spawner.getFilteredItems().add(material);
+            }
+        }
+
+        VirtualInventory virtualInv = new VirtualInventory(maxSpawnerLootSlots);
+        if (!inventory.isEmpty()) {
+            Map<VirtualInventory.ItemSignature, Long> items = new HashMap<>(inventory.size() * 2);
+            for (ItemEntry entry : inventory) {
+                if (entry.amount() <= 0 || Material.matchMaterial(entry.material()) == null) {
+                    continue;
+                }
+                items.merge(VirtualInventory.getSignatureCache().get(entry.createItemStack()), entry.amount(), Long::sum);
+            }
+            virtualInv.addItems(items);
+        }
+        spawner.setVirtualInventory(virtualInv);
+        spawner.markSellValueDirty();
+
+        spawner.setLastInteractedPlayer(lastInteractedPlayer);
+        if (preferredSortItem != null) {
+            Material sortItem = Material.matchMaterial(preferredSortItem);
+            if (sortItem != null) {
+                spawner.setPreferredSortItem(sortItem);
+                virtualInv.sortItems(sortItem);
+            }
+        }
+
+        return spawner;
+    }
+}
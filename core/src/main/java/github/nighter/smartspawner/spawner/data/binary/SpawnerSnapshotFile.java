@@ -0,0 +1,469 @@
+package github.nighter.smartspawner.spawner.data.binary;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Reader and writer for the binary spawner snapshot ({@code spawners_data.bin}).
+ * <p>
+ * Layout, big-endian:
+ * <pre>
+ * header   int magic, int format version, int data version, int record count
+ * strings  varint count, then per string: varint byte length, UTF-8 bytes
+ * records  fixed-width head ({@value #RECORD_HEAD_SIZE} bytes) followed by a variable tail
+ * segments zero or more appended change sets
+ * </pre>
+ * Worlds, entity types, materials, player names and spawner IDs are stored once in the
+ * string table and referenced by index (-1 for null). The tail holds the filtered materials
+ * and the inventory as varint entries, and its length is stored in the head so a reader
+ * can skip it.
+ * <p>
+ * A flush appends one segment with the records that changed and the IDs that were deleted
+ * instead of rewriting the file: int segment magic, int payload length, int CRC32 of the
+ * payload, then a payload with its own string table, the records and the deleted IDs.
+ * Segments are applied in order on read; a torn or corrupt trailing segment ends the file.
+ * A full {@link #write} compacts the segments back into the base records.
+ */
+public final class SpawnerSnapshotFile {
+    private static final int MAGIC = 0x53534231; // "SSB1"
+    private static final int FORMAT_VERSION = 1;
+    private static final int SEGMENT_MAGIC = 0x53534753; // "SSGS"
+    private static final int SEGMENT_HEADER_SIZE = 12;
+
+    static final int RECORD_HEAD_SIZE = 97;
+
+    private static final int FLAG_ACTIVE = 1;
+    private static final int FLAG_STOPPED = 1 << 1;
+    private static final int FLAG_AT_CAPACITY = 1 << 2;
+
+    private static final byte ITEM_PLAIN = 0;
+    private static final byte ITEM_DAMAGED = 1;
+    private static final byte ITEM_POTION = 2;
+
+    private SpawnerSnapshotFile() {
+    }
+
+    /**
+     * Contents of a snapshot file, with the appended segments applied.
+     *
+     * @param baseLength  bytes taken by the header and the base records
+     * @param validLength bytes up to the end of the last intact segment; anything after it
+     *                    is left over from an interrupted append
+     */
+    public record Snapshot(int dataVersion, List<SpawnerRecord> records, long baseLength, long validLength) {
+    }
+
+    public static Snapshot read(File file) throws IOException {
+        ByteBuffer buffer = readFully(file);
+        try {
+            if (buffer.remaining() < 16 || buffer.getInt() != MAGIC) {
+                throw new IOException(file.getName() + " is not a spawner snapshot");
+            }
+            int formatVersion = buffer.getInt();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot format version " + formatVersion);
+            }
+            int dataVersion = buffer.getInt();
+            int recordCount = buffer.getInt();
+
+            String[] strings = readStrings(buffer);
+            Map<String, SpawnerRecord> records = new LinkedHashMap<>(Math.max(16, recordCount * 4 / 3 + 1));
+            for (int i = 0; i < recordCount; i++) {
+                SpawnerRecord record = readRecord(buffer, strings);
+                records.put(record.id(), record);
+            }
+            long baseLength = buffer.position();
+
+            long validLength = baseLength;
+            while (buffer.remaining() >= SEGMENT_HEADER_SIZE) {
+                if (buffer.getInt() != SEGMENT_MAGIC) break;
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length < 0 || length > buffer.remaining()) break;
+
+                ByteBuffer payload = buffer.slice(buffer.position(), length);
+                CRC32 crc = new CRC32();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum) break;
+
+                applySegment(payload, records);
+                buffer.position(buffer.position() + length);
+                validLength = buffer.position();
+            }
+            return new Snapshot(dataVersion, new ArrayList<>(records.values()), baseLength, validLength);
+        } catch (RuntimeException e) {
+            // Buffer underflows and bad string indexes mean a truncated or corrupt file
+            throw new IOException("Corrupt spawner snapshot " + file.getName() + ": " + e, e);
+        }
+    }
+
+    /**
+     * Reads the whole file into a heap buffer; a mapping would pin the file until it is garbage collected.
+     */
+    private static ByteBuffer readFully(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(file.getName() + " is too large (" + size + " bytes)");
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) break;
+            }
+            return buffer.flip();
+        }
+    }
+
+    private static String[] readStrings(ByteBuffer buffer) {
+        String[] strings = new String[readVarInt(buffer)];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[readVarInt(buffer)];
+            buffer.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return strings;
+    }
+
+    private static void applySegment(ByteBuffer payload, Map<String, SpawnerRecord> records) {
+        String[] strings = readStrings(payload);
+        int updated = readVarInt(payload);
+        for (int i = 0; i < updated; i++) {
+            SpawnerRecord record = readRecord(payload, strings);
+            records.put(record.id(), record);
+        }
+        int deleted = readVarInt(payload);
+        for (int i = 0; i < deleted; i++) {
+            records.remove(strings[readVarInt(payload)]);
+        }
+    }
+
+    private static SpawnerRecord readRecord(ByteBuffer buffer, String[] strings) {
+        String id = string(strings, buffer.getInt());
+        String world = string(strings, buffer.getInt());
+        int x = buffer.getInt();
+        int y = buffer.getInt();
+        int z = buffer.getInt();
+        String entityType = string(strings, buffer.getInt());
+        String itemMaterial = string(strings, buffer.getInt());
+        long exp = buffer.getLong();
+        byte flags = buffer.get();
+        int range = buffer.getInt();
+        long spawnDelay = buffer.getLong();
+        int maxLootSlots = buffer.getInt();
+        long maxStoredExp = buffer.getLong();
+        int minMobs = buffer.getInt();
+        int maxMobs = buffer.getInt();
+        int stackSize = buffer.getInt();
+        int maxStackSize = buffer.getInt();
+        long lastSpawnTime = buffer.getLong();
+        String lastPlayer = string(strings, buffer.getInt());
+        String sortItem = string(strings, buffer.getInt());
+        int tailLength = buffer.getInt();
+
+        int tailEnd = buffer.position() + tailLength;
+        int filteredCount = readVarInt(buffer);
+        List<String> filtered = new ArrayList<>(filteredCount);
+        for (int i = 0; i < filteredCount; i++) {
+            filtered.add(strings[readVarInt(buffer)]);
+        }
+
+        int itemCount = readVarInt(buffer);
+        List<SpawnerRecord.ItemEntry> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            String material = strings[readVarInt(buffer)];
+            byte kind = buffer.get();
+            int key = readVarInt(buffer);
+            long amount = readVarLong(buffer);
+            items.add(switch (kind) {
+                case ITEM_DAMAGED -> new SpawnerRecord.ItemEntry(material, key, null, amount);
+                case ITEM_POTION -> new SpawnerRecord.ItemEntry(material, 0, strings[key], amount);
+                default -> new SpawnerRecord.ItemEntry(material, 0, null, amount);
+            });
+        }
+        buffer.position(tailEnd);
+
+        return new SpawnerRecord(id, world, x, y, z, entityType, itemMaterial, exp,
+                (flags & FLAG_ACTIVE) != 0, range, (flags & FLAG_STOPPED) != 0, spawnDelay,
+                maxLootSlots, maxStoredExp, minMobs, maxMobs, stackSize, maxStackSize, lastSpawnTime,
+                (flags & FLAG_AT_CAPACITY) != 0, lastPlayer, sortItem, filtered, items);
+    }
+
+    /**
+     * Writes a complete snapshot without segments. The data goes to a temporary file first,
+     * is forced to disk and then moved over the target, so readers only ever see a complete file.
+     *
+     * @return length of the written file
+     */
+    public static long write(File file, int dataVersion, Collection<SpawnerRecord> records) throws IOException {
+        StringTable strings = new StringTable();
+        Output body = new Output(Math.max(1024, records.size() * (RECORD_HEAD_SIZE + 32)));
+        for (SpawnerRecord record : records) {
+            writeRecord(body, record, strings);
+        }
+
+        Output head = new Output(16 + strings.byteSize());
+        head.putInt(MAGIC);
+        head.putInt(FORMAT_VERSION);
+        head.putInt(dataVersion);
+        head.putInt(records.size());
+        writeStrings(head, strings);
+
+        File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        long total;
+        try (FileChannel channel = FileChannel.open(tempFile.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            total = writeAll(channel, head.toBuffer(), body.toBuffer());
+            channel.force(true);
+        }
+
+        try {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return total;
+    }
+
+    /**
+     * Appends one segment with changed records and deleted IDs. Bytes after {@code validLength},
+     * left over from an interrupted append, are dropped first.
+     *
+     * @param validLength end of the last intact segment, see {@link Snapshot#validLength()}
+     * @return the new valid length of the file
+     */
+    public static long append(File file, long validLength, Collection<SpawnerRecord> updated,
+                              Collection<String> deleted) throws IOException {
+        StringTable strings = new StringTable();
+        Output body = new Output(Math.max(256, updated.size() * (RECORD_HEAD_SIZE + 32) + deleted.size() * 5 + 10));
+        body.putVarInt(updated.size());
+        for (SpawnerRecord record : updated) {
+            writeRecord(body, record, strings);
+        }
+        body.putVarInt(deleted.size());
+        for (String id : deleted) {
+            body.putVarInt(strings.indexOf(id));
+        }
+
+        Output payload = new Output(strings.byteSize() + body.size);
+        writeStrings(payload, strings);
+        payload.put(body.bytes, body.size);
+
+        CRC32 crc = new CRC32();
+        crc.update(payload.bytes, 0, payload.size);
+        Output head = new Output(SEGMENT_HEADER_SIZE);
+        head.putInt(SEGMENT_MAGIC);
+        head.putInt(payload.size);
+        head.putInt((int) crc.getValue());
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            if (channel.size() > validLength) {
+                channel.truncate(validLength);
+            }
+            channel.position(validLength);
+            long total = writeAll(channel, head.toBuffer(), payload.toBuffer());
+            channel.force(false);
+            return validLength + total;
+        }
+    }
+
+    private static long writeAll(FileChannel channel, ByteBuffer... buffers) throws IOException {
+        long total = 0;
+        for (ByteBuffer buffer : buffers) {
+            total += buffer.remaining();
+        }
+        long written = 0;
+        while (written < total) {
+            written += channel.write(buffers);
+        }
+        return total;
+    }
+
+    private static void writeStrings(Output out, StringTable strings) {
+        out.putVarInt(strings.values.size());
+        for (String value : strings.values) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.putVarInt(bytes.length);
+            out.put(bytes, bytes.length);
+        }
+    }
+
+    private static void writeRecord(Output out, SpawnerRecord record, StringTable strings) {
+        out.putInt(strings.indexOf(record.id()));
+        out.putInt(strings.indexOf(record.world()));
+        out.putInt(record.x());
+        out.putInt(record.y());
+        out.putInt(record.z());
+        out.putInt(strings.indexOf(record.entityType()));
+        out.putInt(strings.indexOf(record.itemSpawnerMaterial()));
+        out.putLong(record.spawnerExp());
+        int flags = (record.active() ? FLAG_ACTIVE : 0)
+                | (record.stopped() ? FLAG_STOPPED : 0)
+                | (record.atCapacity() ? FLAG_AT_CAPACITY : 0);
+        out.put((byte) flags);
+        out.putInt(record.range());
+        out.putLong(record.spawnDelay());
+        out.putInt(record.maxSpawnerLootSlots());
+        out.putLong(record.maxStoredExp());
+        out.putInt(record.minMobs());
+        out.putInt(record.maxMobs());
+        out.putInt(record.stackSize());
+        out.putInt(record.maxStackSize());
+        out.putLong(record.lastSpawnTime());
+        out.putInt(strings.indexOf(record.lastInteractedPlayer()));
+        out.putInt(strings.indexOf(record.preferredSortItem()));
+
+        // Tail length is patched in once the tail has been written
+        int lengthPosition = out.size;
+        out.putInt(0);
+        int tailStart = out.size;
+
+        out.putVarInt(record.filteredItems().size());
+        for (String material : record.filteredItems()) {
+            out.putVarInt(strings.indexOf(material));
+        }
+
+        out.putVarInt(record.inventory().size());
+        for (SpawnerRecord.ItemEntry entry : record.inventory()) {
+            out.putVarInt(strings.indexOf(entry.material()));
+            if (entry.potionType() != null) {
+                out.put(ITEM_POTION);
+                out.putVarInt(strings.indexOf(entry.potionType()));
+            } else if (entry.damage() > 0) {
+                out.put(ITEM_DAMAGED);
+                out.putVarInt(entry.damage());
+            } else {
+                out.put(ITEM_PLAIN);
+                out.putVarInt(0);
+            }
+            out.putVarLong(entry.amount());
+        }
+
+        out.patchInt(lengthPosition, out.size - tailStart);
+    }
+
+    private static String string(String[] strings, int index) {
+        return index < 0 ? null : strings[index];
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        return (int) readVarLong(buffer);
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift > 63) {
+                throw new IllegalStateException("Malformed varint");
+            }
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static final class StringTable {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private int byteSize;
+
+        int indexOf(String value) {
+            if (value == null) {
+                return -1;
+            }
+            Integer index = indexes.get(value);
+            if (index == null) {
+                index = values.size();
+                indexes.put(value, index);
+                values.add(value);
+                byteSize += 5 + value.length() * 3;
+            }
+            return index;
+        }
+
+        int byteSize() {
+            return byteSize + 5;
+        }
+    }
+
+    /**
+     * Growable big-endian byte buffer.
+     */
+    private static final class Output {
+        private byte[] bytes;
+        private int size;
+
+        Output(int initialCapacity) {
+            this.bytes = new byte[initialCapacity];
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+
+        void put(byte value) {
+            ensure(1);
+            bytes[size++] = value;
+        }
+
+        void put(byte[] value, int length) {
+            ensure(length);
+            System.arraycopy(value, 0, bytes, size, length);
+            size += length;
+        }
+
+        void putInt(int value) {
+            ensure(4);
+            patchInt(size, value);
+            size += 4;
+        }
+
+        void patchInt(int position, int value) {
+            bytes[position] = (byte) (value >>> 24);
+            bytes[position + 1] = (byte) (value >>> 16);
+            bytes[position + 2] = (byte) (value >>> 8);
+            bytes[position + 3] = (byte) value;
+        }
+
+        void putLong(long value) {
+            putInt((int) (value >>> 32));
+            putInt((int) value);
+        }
+
+        void putVarInt(int value) {
+            putVarLong(value & 0xFFFFFFFFL);
+        }
+
+        void putVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        ByteBuffer toBuffer() {
+            return ByteBuffer.wrap(bytes, 0, size);
+        }
+    }
+}
@@ -0,0 +1,411 @@
+package github.nighter.smartspawner.spawner.data.database;
+
+import github.nighter.smartspawner.Scheduler;
+import github.nighter.smartspawner.SmartSpawner;
+import github.nighter.smartspawner.commands.list.gui.CrossServerSpawnerData;
+import org.bukkit.entity.EntityType;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Read side of the cross-server spawner list.
+ * <p>
+ * Per-world spawner counts and stack totals come from {@code smart_spawners_summary}, which every
+ * server rebuilds for its own rows after a flush, so navigating the list never aggregates the
+ * spawner table. Servers without summary rows yet fall back to a live aggregate. Results are
+ * cached for a few seconds and the cache is cleared whenever this server writes spawner rows.
+ * All SQL is constant so the driver's prepared statement cache is hit on every call.
+ */
+public class CrossServerQueryService {
+    private static final String SELECT_SERVERS_SQL =
+            "SELECT DISTINCT server_name FROM smart_spawners ORDER BY server_name";
+
+    private static final String SELECT_WORLD_SUMMARY_SQL = """
+            SELECT world_name, spawner_count, total_stacks FROM smart_spawners_summary
+            WHERE server_name = ? ORDER BY world_name
+            """;
+
+    private static final String AGGREGATE_WORLDS_SQL = """
+            SELECT world_name, COUNT(*) AS spawner_count, COALESCE(SUM(stack_size), 0) AS total_stacks
+            FROM smart_spawners WHERE server_name = ? GROUP BY world_name ORDER BY world_name
+            """;
+
+    private static final String DELETE_SUMMARY_SQL = "DELETE FROM smart_spawners_summary WHERE server_name = ?";
+
+    private static final String REBUILD_SUMMARY_SQL = """
+            INSERT INTO smart_spawners_summary (server_name, world_name, spawner_count, total_stacks)
+            SELECT server_name, world_name, COUNT(*), COALESCE(SUM(stack_size), 0)
+            FROM smart_spawners WHERE server_name = ? GROUP BY server_name, world_name
+            """;
+
+    private static final String SPAWNER_COLUMNS = """
+            SELECT spawner_id, server_name, world_name, loc_x, loc_y, loc_z,
+                   entity_type, stack_size, spawner_stop, last_interacted_player,
+                   spawner_exp, total_items
+            FROM smart_spawners
+            """;
+
+    private static final String SELECT_SPAWNER_SQL = SPAWNER_COLUMNS + "WHERE server_name = ? AND spawner_id = ?";
+
+    private static final String UPDATE_STACK_SIZE_SQL =
+            "UPDATE smart_spawners SET stack_size = ?, updated_at = CURRENT_TIMESTAMP WHERE server_name = ? AND spawner_id = ?";
+
+    private static final String DELETE_SPAWNER_SQL = "DELETE FROM smart_spawners WHERE server_name = ? AND spawner_id = ?";
+
+    private final SmartSpawner plugin;
+    private final Logger logger;
+    private final DatabaseManager databaseManager;
+    private final long cacheTtlMillis;
+    private final Map<String, CachedResult> cache = new ConcurrentHashMap<>();
+
+    private record CachedResult(Object value, long expiresAt) {
+    }
+
+    @FunctionalInterface
+    private interface Query<T> {
+        T run(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Per-world figures of one server.
+     */
+    private record WorldSummary(int spawnerCount, int totalStacks) {
+    }
+
+    CrossServerQueryService(SmartSpawner plugin, DatabaseManager databaseManager) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.databaseManager = databaseManager;
+        this.cacheTtlMillis = Math.max(0, plugin.getConfig().getLong("database.cross_server_cache_seconds", 5)) * 1000;
+    }
+
+    /**
+     * Drops all cached results. Called after spawner rows were written.
+     */
+    public void invalidate() {
+        cache.clear();
+    }
+
+    /**
+     * Rebuilds the summary rows of a server from its spawner rows in one transaction.
+     * Must not run on the main thread.
+     */
+    void refreshSummary(String server) {
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement delete = conn.prepareStatement(DELETE_SUMMARY_SQL);
+             PreparedStatement rebuild = conn.prepareStatement(REBUILD_SUMMARY_SQL)) {
+
+            conn.setAutoCommit(false);
+            delete.setString(1, server);
+            delete.executeUpdate();
+            rebuild.setString(1, server);
+            rebuild.executeUpdate();
+            conn.commit();
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Error refreshing spawner summary for " + server, e);
+        }
+        invalidate();
+    }
+
+    /**
+     * Asynchronously get all distinct server names from the database.
+     * @param callback Consumer to receive the list of server names on the main thread
+     */
+    public void getDistinctServerNamesAsync(Consumer<List<String>> callback) {
+        query("servers", conn -> {
+            List<String> servers = new ArrayList<>();
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(SELECT_SERVERS_SQL)) {
+                while (rs.next()) {
+                    servers.add(rs.getString("server_name"));
+                }
+            }
+            return List.copyOf(servers);
+        }, List.of(), "Error fetching server names from database", callback);
+    }
+
+    /**
+     * Asynchronously get world names with spawner counts for a specific server.
+     * @param targetServer The server name to query
+     * @param callback Consumer to receive map of world name -> spawner count
+     */
+    public void getWorldsForServerAsync(String targetServer, Consumer<Map<String, Integer>> callback) {
+        getWorldSummaries(targetServer, summaries -> {
+            Map<String, Integer> worlds = new LinkedHashMap<>();
+            summaries.forEach((world, summary) -> worlds.put(world, summary.spawnerCount()));
+            callback.accept(worlds);
+        });
+    }
+
+    /**
+     * Asynchronously get total stacked spawner count for a server/world.
+     * @param targetServer The server name
+     * @param worldName The world name
+     * @param callback Consumer to receive total stack count
+     */
+    public void getTotalStacksForWorldAsync(String targetServer, String worldName, Consumer<Integer> callback) {
+        getWorldSummaries(targetServer, summaries -> {
+            WorldSummary summary = summaries.get(worldName);
+            callback.accept(summary != null ? summary.totalStacks() : 0);
+        });
+    }
+
+    /**
+     * Get spawner count for a specific server.
+     * @param targetServer The server name
+     * @param callback Consumer to receive the count
+     */
+    public void getSpawnerCountForServerAsync(String targetServer, Consumer<Integer> callback) {
+        getWorldSummaries(targetServer, summaries ->
+                callback.accept(summaries.values().stream().mapToInt(WorldSummary::spawnerCount).sum()));
+    }
+
+    private void getWorldSummaries(String targetServer, Consumer<Map<String, WorldSummary>> callback) {
+        query("worlds:" + targetServer, conn -> {
+            Map<String, WorldSummary> summaries = readWorldSummaries(conn, SELECT_WORLD_SUMMARY_SQL, targetServer);
+            if (summaries.isEmpty()) {
+                // Server has not flushed since the summary table was introduced
+                summaries = readWorldSummaries(conn, AGGREGATE_WORLDS_SQL, targetServer);
+            }
+            return summaries;
+        }, Map.of(), "Error fetching worlds for server " + targetServer, callback);
+    }
+
+    private Map<String, WorldSummary> readWorldSummaries(Connection conn, String sql, String server) throws SQLException {
+        Map<String, WorldSummary> summaries = new LinkedHashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, server);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    summaries.put(rs.getString("world_name"),
+                            new WorldSummary(rs.getInt("spawner_count"), rs.getInt("total_stacks")));
+                }
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * Asynchronously get spawner data for a specific server and world.
+     * Returns CrossServerSpawnerData objects that don't require Bukkit Location objects.
+     * @param targetServer The server name to query
+     * @param worldName The world name to query
+     * @param callback Consumer to receive list of spawner data
+     */
+    public void getCrossServerSpawnersAsync(String targetServer, String worldName, Consumer<List<CrossServerSpawnerData>> callback) {
+        getCrossServerSpawnersAsync(targetServer, worldName, "ALL", "STACK_SIZE_DESC", callback);
+    }
+
+    /**
+     * Asynchronously get spawner data for a specific server and world with filter and sort.
+     * @param targetServer The server name to query
+     * @param worldName The world name to query
+     * @param filter Filter option (ALL, ACTIVE, INACTIVE)
+     * @param sort Sort option (DEFAULT, STACK_SIZE_DESC, STACK_SIZE_ASC)
+     * @param callback Consumer to receive list of spawner data
+     */
+    public void getCrossServerSpawnersAsync(String targetServer, String worldName,
+                                            String filter, String sort,
+                                            Consumer<List<CrossServerSpawnerData>> callback) {
+        String sql = spawnerListSql(filter, sort);
+        query("spawners:" + targetServer + ":" + worldName + ":" + filter + ":" + sort, conn -> {
+            List<CrossServerSpawnerData> spawners = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, targetServer);
+                stmt.setString(2, worldName);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        spawners.add(readSpawner(rs));
+                    }
+                }
+            }
+            return List.copyOf(spawners);
+        }, List.of(), "Error fetching spawners for " + targetServer + "/" + worldName, callback);
+    }
+
+    /**
+     * Asynchronously get a single spawner's data from a remote server.
+     * Not cached, management actions need the current row.
+     * @param targetServer The server name
+     * @param spawnerId The spawner ID
+     * @param callback Consumer to receive the spawner data (null if not found)
+     */
+    public void getRemoteSpawnerByIdAsync(String targetServer, String spawnerId,
+                                          Consumer<CrossServerSpawnerData> callback) {
+        Scheduler.runTaskAsync(() -> {
+            CrossServerSpawnerData spawnerData = null;
+
+            try (Connection conn = databaseManager.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(SELECT_SPAWNER_SQL)) {
+
+                stmt.setString(1, targetServer);
+                stmt.setString(2, spawnerId);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        spawnerData = readSpawner(rs);
+                    }
+                }
+
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error fetching remote spawner " + spawnerId + " from " + targetServer, e);
+            }
+
+            final CrossServerSpawnerData result = spawnerData;
+            Scheduler.runTask(() -> callback.accept(result));
+        });
+    }
+
+    /**
+     * Asynchronously update stack size for a remote spawner.
+     * @param targetServer The server name
+     * @param spawnerId The spawner ID
+     * @param newStackSize The new stack size
+     * @param callback Consumer to receive success status
+     */
+    public void updateRemoteSpawnerStackSizeAsync(String targetServer, String spawnerId,
+                                                   int newStackSize, Consumer<Boolean> callback) {
+        Scheduler.runTaskAsync(() -> {
+            boolean success = false;
+
+            try (Connection conn = databaseManager.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(UPDATE_STACK_SIZE_SQL)) {
+
+                stmt.setInt(1, newStackSize);
+                stmt.setString(2, targetServer);
+                stmt.setString(3, spawnerId);
+
+                int affected = stmt.executeUpdate();
+                success = affected > 0;
+
+                if (success) {
+                    plugin.debug("Updated remote spawner " + spawnerId + " on " + targetServer + " to stack size " + newStackSize);
+                }
+
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error updating remote spawner stack size", e);
+            }
+
+            if (success) {
+                refreshSummary(targetServer);
+            }
+
+            final boolean result = success;
+            Scheduler.runTask(() -> callback.accept(result));
+        });
+    }
+
+    /**
+     * Asynchronously delete a remote spawner from the database.
+     * Note: This only removes the database record. The physical block on the target server
+     * will remain until that server refreshes its cache.
+     * @param targetServer The server name
+     * @param spawnerId The spawner ID
+     * @param callback Consumer to receive success status
+     */
+    public void deleteRemoteSpawnerAsync(String targetServer, String spawnerId,
+                                          Consumer<Boolean> callback) {
+        Scheduler.runTaskAsync(() -> {
+            boolean success = false;
+
+            try (Connection conn = databaseManager.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(DELETE_SPAWNER_SQL)) {
+
+                stmt.setString(1, targetServer);
+                stmt.setString(2, spawnerId);
+
+                int affected = stmt.executeUpdate();
+                success = affected > 0;
+
+                if (success) {
+                    logger.info("Deleted remote spawner " + spawnerId + " from " + targetServer + " database record");
+                }
+
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error deleting remote spawner", e);
+            }
+
+            if (success) {
+                refreshSummary(targetServer);
+            }
+
+            final boolean result = success;
+            Scheduler.runTask(() -> callback.accept(result));
+        });
+    }
+
+    /**
+     * Delivers a cached result on the calling thread, or runs the query asynchronously,
+     * caches it and delivers it on the main thread.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> void query(String key, Query<T> query, T fallback, String errorMessage, Consumer<T> callback) {
+        CachedResult cached = cache.get(key);
+        if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+            callback.accept((T) cached.value());
+            return;
+        }
+
+        Scheduler.runTaskAsync(() -> {
+            T result = fallback;
+            try (Connection conn = databaseManager.getConnection()) {
+                result = query.run(conn);
+                if (cacheTtlMillis > 0) {
+                    cache.put(key, new CachedResult(result, System.currentTimeMillis() + cacheTtlMillis));
+                }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, errorMessage, e);
+            }
+
+            final T finalResult = result;
+            Scheduler.runTask(() -> callback.accept(finalResult));
+        });
+    }
+
+    private static String spawnerListSql(String filter, String sort) {
+        String sql = SPAWNER_COLUMNS + "WHERE server_name = ? AND world_name = ?";
+
+        if ("ACTIVE".equalsIgnoreCase(filter)) {
+            sql += " AND spawner_stop = FALSE";
+        } else if ("INACTIVE".equalsIgnoreCase(filter)) {
+            sql += " AND spawner_stop = TRUE";
+        }
+
+        if ("STACK_SIZE_ASC".equalsIgnoreCase(sort)) {
+            sql += " ORDER BY stack_size ASC";
+        } else if ("STACK_SIZE_DESC".equalsIgnoreCase(sort)) {
+            sql += " ORDER BY stack_size DESC";
+        } else {
+            sql += " ORDER BY spawner_id ASC"; // DEFAULT sort
+        }
+        return sql;
+    }
+
+    private static CrossServerSpawnerData readSpawner(ResultSet rs) throws SQLException {
+        EntityType entityType;
+        try {
+            entityType = EntityType.valueOf(rs.getString("entity_type"));
+        } catch (IllegalArgumentException e) {
+            entityType = EntityType.PIG; // Fallback
+        }
+
+        return new CrossServerSpawnerData(
+                rs.getString("spawner_id"), rs.getString("server_name"), rs.getString("world_name"),
+                rs.getInt("loc_x"), rs.getInt("loc_y"), rs.getInt("loc_z"),
+                entityType, rs.getInt("stack_size"), !rs.getBoolean("spawner_stop"),
+                rs.getString("last_interacted_player"), rs.getLong("spawner_exp"), rs.getLong("total_items")
+        );
+    }
+}
@@ -0,0 +1,107 @@
+package github.nighter.smartspawner.spawner.data.database;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * Counters for the chunked database flush: queue depth, throughput, commit latency
+ * percentiles over the most recent commits, retries and spawners that failed to save.
+ */
+public class DatabaseFlushMetrics {
+    private static final int LATENCY_SAMPLES = 1024;
+
+    private final IntSupplier queueDepth;
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    // Ring buffer of the latest commit latencies in nanoseconds
+    private final long[] commitLatencies = new long[LATENCY_SAMPLES];
+    private int latencyCount;
+    private int latencyIndex;
+
+    private volatile int lastFlushRows;
+    private volatile long lastFlushMillis;
+
+    DatabaseFlushMetrics(IntSupplier queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    void recordCommit(int rows, long nanos) {
+        rowsWritten.addAndGet(rows);
+        commits.incrementAndGet();
+        synchronized (commitLatencies) {
+            commitLatencies[latencyIndex] = nanos;
+            latencyIndex = (latencyIndex + 1) % LATENCY_SAMPLES;
+            latencyCount = Math.min(latencyCount + 1, LATENCY_SAMPLES);
+        }
+    }
+
+    void recordRetry() {
+        retries.incrementAndGet();
+    }
+
+    void recordFailures(int spawners) {
+        failures.addAndGet(spawners);
+    }
+
+    void recordFlush(int rows, long nanos) {
+        this.lastFlushRows = rows;
+        this.lastFlushMillis = nanos / 1_000_000;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth.getAsInt();
+    }
+
+    public long getTotalRowsWritten() {
+        return rowsWritten.get();
+    }
+
+    public long getTotalCommits() {
+        return commits.get();
+    }
+
+    public long getTotalRetries() {
+        return retries.get();
+    }
+
+    public long getTotalFailures() {
+        return failures.get();
+    }
+
+    /**
+     * @return rows per second of the last completed flush
+     */
+    public double getLastRowsPerSecond() {
+        long millis = lastFlushMillis;
+        return millis == 0 ? lastFlushRows : lastFlushRows * 1000.0 / millis;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return commit latency in milliseconds at the given percentile of the recent commits
+     */
+    public double getCommitLatencyMillis(double percentile) {
+        long[] samples;
+        synchronized (commitLatencies) {
+            samples = Arrays.copyOf(commitLatencies, latencyCount);
+        }
+        if (samples.length == 0) {
+            return 0.0;
+        }
+        Arrays.sort(samples);
+        int index = (int) Math.ceil(percentile / 100.0 * samples.length) - 1;
+        return samples[Math.max(0, Math.min(samples.length - 1, index))] / 1_000_000.0;
+    }
+
+    public String summary() {
+        return String.format("queue=%d, last flush %d rows at %.0f rows/s, commit p50=%.1fms p99=%.1fms, "
+                        + "commits=%d, retries=%d, failed spawners=%d",
+                getQueueDepth(), lastFlushRows, getLastRowsPerSecond(),
+                getCommitLatencyMillis(50), getCommitLatencyMillis(99),
+                getTotalCommits(), getTotalRetries(), getTotalFailures());
+    }
+}
@@ -81,8 +81,9 @@ public class DatabaseManager {
                 preferred_sort_item VARCHAR(64) DEFAULT NULL,
                 filtered_items TEXT DEFAULT NULL,
 
-                -- Inventory (JSON blob)
-                inventory_data MEDIUMTEXT DEFAULT NULL,
+                -- Inventory (binary, see InventoryCodec)
+                inventory_data MEDIUMBLOB DEFAULT NULL,
+                total_items BIGINT NOT NULL DEFAULT 0,
 
                 -- Timestamps
                 created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
@@ -133,8 +134,9 @@ public class DatabaseManager {
                 preferred_sort_item VARCHAR(64) DEFAULT NULL,
                 filtered_items TEXT DEFAULT NULL,
 
-                -- Inventory (JSON blob)
-                inventory_data TEXT DEFAULT NULL,
+                -- Inventory (binary, see InventoryCodec)
+                inventory_data BLOB DEFAULT NULL,
+                total_items BIGINT NOT NULL DEFAULT 0,
 
                 -- Timestamps
                 created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
@@ -146,6 +148,27 @@ public class DatabaseManager {
             )
             """;
 
+    // Per-server/per-world totals for the cross-server list, see CrossServerQueryService
+    private static final String CREATE_SUMMARY_TABLE_MYSQL = """
+            CREATE TABLE IF NOT EXISTS smart_spawners_summary (
+                server_name VARCHAR(64) NOT NULL,
+                world_name VARCHAR(128) NOT NULL,
+                spawner_count INT NOT NULL DEFAULT 0,
+                total_stacks BIGINT NOT NULL DEFAULT 0,
+                PRIMARY KEY (server_name, world_name)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4
+            """;
+
+    private static final String CREATE_SUMMARY_TABLE_SQLITE = """
+            CREATE TABLE IF NOT EXISTS smart_spawners_summary (
+                server_name VARCHAR(64) NOT NULL,
+                world_name VARCHAR(128) NOT NULL,
+                spawner_count INT NOT NULL DEFAULT 0,
+                total_stacks BIGINT NOT NULL DEFAULT 0,
+                PRIMARY KEY (server_name, world_name)
+            )
+            """;
+
     // SQLite index creation (separate statements)
     private static final String CREATE_INDEX_SERVER_SQLITE =
             "CREATE INDEX IF NOT EXISTS idx_server ON smart_spawners (server_name)";
@@ -155,7 +178,7 @@ public class DatabaseManager {
     private static final String SCHEMA_META_TABLE = "smartspawner_meta";
     private static final String SCHEMA_VERSION_KEY = "schema_version";
     private static final int LEGACY_SCHEMA_VERSION = 1;
-    private static final int CURRENT_SCHEMA_VERSION = 2;
+    private static final int CURRENT_SCHEMA_VERSION = 4;
 
     private static final String CREATE_META_TABLE_MYSQL = """
             CREATE TABLE IF NOT EXISTS smartspawner_meta (
@@ -297,8 +320,10 @@ public class DatabaseManager {
                 stmt.execute(CREATE_TABLE_SQLITE);
                 stmt.execute(CREATE_INDEX_SERVER_SQLITE);
                 stmt.execute(CREATE_INDEX_WORLD_SQLITE);
+                stmt.execute(CREATE_SUMMARY_TABLE_SQLITE);
             } else {
                 stmt.execute(CREATE_TABLE_MYSQL);
+                stmt.execute(CREATE_SUMMARY_TABLE_MYSQL);
             }
 
             plugin.debug("Database tables created/verified successfully.");
@@ -357,7 +382,13 @@ public class DatabaseManager {
     }
 
     private int detectInitialSchemaVersion() throws SQLException {
-        return xpColumnsRequireMigration() ? LEGACY_SCHEMA_VERSION : CURRENT_SCHEMA_VERSION;
+        if (xpColumnsRequireMigration()) {
+            return LEGACY_SCHEMA_VERSION;
+        }
+        if (inventoryColumnRequiresMigration()) {
+            return 2;
+        }
+        return totalItemsColumnMissing() ? 3 : CURRENT_SCHEMA_VERSION;
     }
 
     private void setSchemaVersion(int version) throws SQLException {
@@ -378,6 +409,14 @@ public class DatabaseManager {
             migrateXpColumnsToBigIntIfNeeded();
             return;
         }
+        if (targetVersion == 3) {
+            migrateInventoryColumnToBlobIfNeeded();
+            return;
+        }
+        if (targetVersion == 4) {
+            addTotalItemsColumnIfNeeded();
+            return;
+        }
         throw new SQLException("No database migration handler found for schema version: " + targetVersion);
     }
 
@@ -458,6 +497,114 @@ public class DatabaseManager {
         return !(spawnerExpBigInt && maxStoredExpBigInt);
     }
 
+    private void migrateInventoryColumnToBlobIfNeeded() throws SQLException {
+        if (!inventoryColumnRequiresMigration()) {
+            return;
+        }
+
+        String backupName = createPreMigrationBackup();
+        logger.info("Created database backup before inventory BLOB migration: " + backupName);
+
+        // Existing text keeps its bytes and is still read as the legacy format
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE smart_spawners MODIFY COLUMN inventory_data MEDIUMBLOB DEFAULT NULL");
+        }
+
+        logger.info("Successfully migrated the inventory column to MEDIUMBLOB.");
+    }
+
+    /**
+     * SQLite stores blobs in a TEXT column unchanged, so only MySQL needs the column converted.
+     */
+    private boolean inventoryColumnRequiresMigration() throws SQLException {
+        if (storageMode == StorageMode.SQLITE) {
+            return false;
+        }
+
+        String sql = """
+                SELECT data_type
+                FROM information_schema.columns
+                WHERE table_schema = ?
+                  AND table_name = 'smart_spawners'
+                  AND column_name = 'inventory_data'
+                """;
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, database);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && !"mediumblob".equalsIgnoreCase(rs.getString("data_type"));
+            }
+        }
+    }
+
+    private void addTotalItemsColumnIfNeeded() throws SQLException {
+        if (!totalItemsColumnMissing()) {
+            return;
+        }
+
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE smart_spawners ADD COLUMN total_items BIGINT NOT NULL DEFAULT 0");
+        }
+
+        // Backfill from the stored inventories, decoded here once instead of on every list query
+        String selectSql = "SELECT id, inventory_data FROM smart_spawners WHERE inventory_data IS NOT NULL";
+        String updateSql = "UPDATE smart_spawners SET total_items = ? WHERE id = ?";
+        int updated = 0;
+        try (Connection conn = getConnection();
+             PreparedStatement select = conn.prepareStatement(selectSql);
+             PreparedStatement update = conn.prepareStatement(updateSql);
+             ResultSet rs = select.executeQuery()) {
+
+            conn.setAutoCommit(false);
+            while (rs.next()) {
+                update.setLong(1, InventoryCodec.countItems(rs.getBytes("inventory_data")));
+                update.setLong(2, rs.getLong("id"));
+                update.addBatch();
+                if (++updated % 500 == 0) {
+                    update.executeBatch();
+                }
+            }
+            update.executeBatch();
+            conn.commit();
+        }
+
+        logger.info("Added total_items column and backfilled " + updated + " spawners.");
+    }
+
+    private boolean totalItemsColumnMissing() throws SQLException {
+        if (storageMode == StorageMode.SQLITE) {
+            try (Connection conn = getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("PRAGMA table_info(smart_spawners)")) {
+                while (rs.next()) {
+                    if ("total_items".equalsIgnoreCase(rs.getString("name"))) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        String sql = """
+                SELECT 1
+                FROM information_schema.columns
+                WHERE table_schema = ?
+                  AND table_name = 'smart_spawners'
+                  AND column_name = 'total_items'
+                """;
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, database);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return !rs.next();
+            }
+        }
+    }
+
     private String createPreMigrationBackup() throws SQLException {
         String backupTableName = "smart_spawners_backup_" +
                 LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
@@ -0,0 +1,275 @@
+package github.nighter.smartspawner.spawner.data.database;
+
+import github.nighter.smartspawner.spawner.data.binary.SpawnerRecord;
+import github.nighter.smartspawner.spawner.properties.VirtualInventory;
+import github.nighter.smartspawner.spawner.utils.ItemStackSerializer;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary encoding of a spawner inventory for the {@code inventory_data} column.
+ * <p>
+ * Layout:
+ * <pre>
+ * byte     format version
+ * names    varint count, then per name: varint byte length, UTF-8 bytes
+ * entries  varint count, then per entry: varint material index, byte kind,
+ *          varint damage or potion name index, varint amount
+ * </pre>
+ * Materials and potion types are stored once per row in the name table, so an entry costs a
+ * few bytes regardless of the name length. Names are used instead of {@code Material} ordinals
+ * because ordinals change between server versions.
+ * <p>
+ * Rows written by older versions hold the quoted list {@code ["DIAMOND:5","BOW;3:1",...]} as
+ * text. They start with {@code '['} and are decoded transparently; the next save rewrites them.
+ */
+final class InventoryCodec {
+    private static final byte FORMAT_VERSION = 1;
+    private static final byte LEGACY_PREFIX = '[';
+
+    private static final byte ITEM_PLAIN = 0;
+    private static final byte ITEM_DAMAGED = 1;
+    private static final byte ITEM_POTION = 2;
+
+    private InventoryCodec() {
+    }
+
+    /**
+     * @return the encoded inventory, or null if it is empty
+     */
+    static byte[] encode(Map<VirtualInventory.ItemSignature, Long> items) {
+        if (items.isEmpty()) {
+            return null;
+        }
+
+        Map<String, Integer> names = new LinkedHashMap<>();
+        ByteArrayOutputStream entries = new ByteArrayOutputStream(items.size() * 6);
+        writeVarLong(entries, items.size());
+        for (Map.Entry<VirtualInventory.ItemSignature, Long> item : items.entrySet()) {
+            SpawnerRecord.ItemEntry entry = SpawnerRecord.ItemEntry.of(item.getKey().getTemplateRef(), item.getValue());
+            writeVarLong(entries, nameIndex(names, entry.material()));
+            if (entry.potionType() != null) {
+                entries.write(ITEM_POTION);
+                writeVarLong(entries, nameIndex(names, entry.potionType()));
+            } else if (entry.damage() > 0) {
+                entries.write(ITEM_DAMAGED);
+                writeVarLong(entries, entry.damage());
+            } else {
+                entries.write(ITEM_PLAIN);
+                writeVarLong(entries, 0);
+            }
+            writeVarLong(entries, entry.amount());
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(entries.size() + names.size() * 16 + 8);
+        out.write(FORMAT_VERSION);
+        writeVarLong(out, names.size());
+        for (String name : names.keySet()) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(out, bytes.length);
+            out.writeBytes(bytes);
+        }
+        entries.writeTo(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes either format into consolidated amounts, ready for
+     * {@link VirtualInventory#addItems(Map)} in a single call.
+     *
+     * @throws IllegalArgumentException if the data is malformed
+     */
+    static Map<VirtualInventory.ItemSignature, Long> decode(byte[] data) {
+        if (data == null || data.length == 0) {
+            return Map.of();
+        }
+        if (data[0] == LEGACY_PREFIX) {
+            return decodeLegacy(new String(data, StandardCharsets.UTF_8));
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        String[] names = readNames(buffer);
+        int count = (int) readVarLong(buffer);
+        Map<VirtualInventory.ItemSignature, Long> items = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            String material = names[(int) readVarLong(buffer)];
+            byte kind = buffer.get();
+            int key = (int) readVarLong(buffer);
+            long amount = readVarLong(buffer);
+
+            SpawnerRecord.ItemEntry entry = switch (kind) {
+                case ITEM_DAMAGED -> new SpawnerRecord.ItemEntry(material, key, null, amount);
+                case ITEM_POTION -> new SpawnerRecord.ItemEntry(material, 0, names[key], amount);
+                default -> new SpawnerRecord.ItemEntry(material, 0, null, amount);
+            };
+            try {
+                items.merge(VirtualInventory.getSignature(entry.createItemStack()), amount, Long::sum);
+            } catch (IllegalArgumentException e) {
+                // Material unknown to this server version, skip it rather than the whole inventory
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Sums the stored amounts without building any items.
+     *
+     * @return total item count, 0 if the data is missing or malformed
+     */
+    static long countItems(byte[] data) {
+        if (data == null || data.length == 0) {
+            return 0;
+        }
+        if (data[0] == LEGACY_PREFIX) {
+            return countLegacyItems(new String(data, StandardCharsets.UTF_8));
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            readNames(buffer);
+            long count = readVarLong(buffer);
+            long total = 0;
+            for (long i = 0; i < count; i++) {
+                readVarLong(buffer);
+                buffer.get();
+                readVarLong(buffer);
+                total += readVarLong(buffer);
+            }
+            return total;
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+
+    private static int nameIndex(Map<String, Integer> names, String name) {
+        Integer index = names.get(name);
+        if (index == null) {
+            index = names.size();
+            names.put(name, index);
+        }
+        return index;
+    }
+
+    private static String[] readNames(ByteBuffer buffer) {
+        byte version = buffer.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported inventory data version: " + version);
+        }
+        String[] names = new String[(int) readVarLong(buffer)];
+        for (int i = 0; i < names.length; i++) {
+            int length = (int) readVarLong(buffer);
+            names[i] = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        }
+        return names;
+    }
+
+    private static Map<VirtualInventory.ItemSignature, Long> decodeLegacy(String data) {
+        // Format: ["item1:count","item2;damage:count:count",...]
+        if (!data.endsWith("]")) {
+            throw new IllegalArgumentException("Invalid inventory JSON format: " + data);
+        }
+
+        List<String> entries = splitLegacy(data.substring(1, data.length() - 1));
+        Map<VirtualInventory.ItemSignature, Long> items = new HashMap<>();
+        if (entries.isEmpty()) {
+            return items;
+        }
+
+        for (Map.Entry<ItemStack, Integer> entry : ItemStackSerializer.deserializeInventory(entries).entrySet()) {
+            if (entry.getKey() != null && entry.getValue() > 0) {
+                items.merge(VirtualInventory.getSignature(entry.getKey()), (long) entry.getValue(), Long::sum);
+            }
+        }
+        return items;
+    }
+
+    private static List<String> splitLegacy(String content) {
+        List<String> items = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inQuotes = false;
+        boolean escaped = false;
+
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (escaped) {
+                current.append(c);
+                escaped = false;
+                continue;
+            }
+
+            if (c == '\\') {
+                escaped = true;
+                continue;
+            }
+
+            if (c == '"') {
+                inQuotes = !inQuotes;
+                continue;
+            }
+
+            if (c == ',' && !inQuotes) {
+                if (current.length() > 0) {
+                    items.add(current.toString());
+                    current.setLength(0);
+                }
+                continue;
+            }
+
+            current.append(c);
+        }
+
+        if (current.length() > 0) {
+            items.add(current.toString());
+        }
+        return items;
+    }
+
+    private static long countLegacyItems(String data) {
+        long total = 0;
+        // Numbers after colons are the item counts
+        try {
+            String[] parts = data.split(":");
+            for (int i = 1; i < parts.length; i++) {
+                String numPart = parts[i].replaceAll("[^0-9]", " ").trim().split(" ")[0];
+                if (!numPart.isEmpty()) {
+                    total += Long.parseLong(numPart);
+                }
+            }
+        } catch (Exception e) {
+            // Ignore parsing errors
+        }
+        return total;
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift > 63) {
+                throw new IllegalArgumentException("Malformed varint");
+            }
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -2,12 +2,13 @@ package github.nighter.smartspawner.spawner.data.database;
 
 import github.nighter.smartspawner.SmartSpawner;
 import github.nighter.smartspawner.Scheduler;
-import github.nighter.smartspawner.commands.list.gui.CrossServerSpawnerData;
+import github.nighter.smartspawner.spawner.data.SpawnerStub;
+import github.nighter.smartspawner.spawner.data.storage.SpawnerLoadTimings;
+import github.nighter.smartspawner.spawner.data.storage.SpawnerSnapshot;
 import github.nighter.smartspawner.spawner.data.storage.SpawnerStorage;
 import github.nighter.smartspawner.spawner.data.storage.StorageMode;
 import github.nighter.smartspawner.spawner.properties.SpawnerData;
 import github.nighter.smartspawner.spawner.properties.VirtualInventory;
-import github.nighter.smartspawner.spawner.utils.ItemStackSerializer;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
@@ -16,7 +17,9 @@ import org.bukkit.inventory.ItemStack;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.function.Consumer;
@@ -36,9 +39,19 @@ public class SpawnerDatabaseHandler implements SpawnerStorage {
     private final Set<String> dirtySpawners = ConcurrentHashMap.newKeySet();
     private final Set<String> deletedSpawners = ConcurrentHashMap.newKeySet();
 
-    private volatile boolean isSaving = false;
+    // Claimed with compareAndSet: backlog flushes start from whichever thread marks a spawner
+    private final AtomicBoolean isSaving = new AtomicBoolean(false);
     private Scheduler.Task saveTask = null;
 
+    // Flush pipeline: rows per transaction, retries per chunk and the backlog that triggers an early flush
+    private final int flushChunkSize;
+    private final int flushMaxRetries;
+    private final long flushRetryBackoffMillis;
+    private final long shutdownTimeoutMillis;
+    private final int flushBacklogThreshold;
+    private final DatabaseFlushMetrics flushMetrics;
+    private final CrossServerQueryService crossServerQueries;
+
     // Cache for raw location strings (used by WorldEventHandler)
     private final Map<String, String> locationCache = new ConcurrentHashMap<>();
 
@@ -52,6 +65,24 @@ public class SpawnerDatabaseHandler implements SpawnerStorage {
             FROM smart_spawners WHERE server_name = ?
             """;
 
+    private static final String COUNT_BY_WORLD_SQL = """
+            SELECT world_name, COUNT(*) AS spawner_count FROM smart_spawners
+            WHERE server_name = ? GROUP BY world_name
+            """;
+
+    private static final String SELECT_ID_RANGE_SQL = """
+            SELECT spawner_id, world_name, loc_x, loc_y, loc_z, entity_type, item_spawner_material,
+                   spawner_exp, spawner_active, spawner_range, spawner_stop, spawn_delay,
+                   max_spawner_loot_slots, max_stored_exp, min_mobs, max_mobs, stack_size,
+                   max_stack_size, last_spawn_time, is_at_capacity, last_interacted_player,
+                   preferred_sort_item, filtered_items, inventory_data
+            FROM smart_spawners WHERE server_name = ? AND world_name = ? AND spawner_id >= ?""";
+
+    // Startup load partitioning: spawners per task and the spawner_id range split points
+    private static final int LOAD_PARTITION_SIZE = 2000;
+    private static final String[] ID_RANGE_BOUNDS = {
+            "0", "1", "2", "3", "4", "5", "6", "7", "8", "9", "a", "b", "c", "d", "e", "f"};
+
     private static final String SELECT_ONE_SQL = """
             SELECT spawner_id, world_name, loc_x, loc_y, loc_z, entity_type, item_spawner_material,
                    spawner_exp, spawner_active, spawner_range, spawner_stop, spawn_delay,
@@ -61,6 +92,11 @@ public class SpawnerDatabaseHandler implements SpawnerStorage {
             FROM smart_spawners WHERE server_name = ? AND spawner_id = ?
             """;
 
+    private static final String SELECT_STUBS_SQL = """
+            SELECT spawner_id, world_name, loc_x, loc_y, loc_z, entity_type, stack_size
+            FROM smart_spawners WHERE server_name = ?
+            """;
+
     private static final String SELECT_LOCATION_SQL = """
             SELECT world_name, loc_x, loc_y, loc_z FROM smart_spawners
             WHERE server_name = ? AND spawner_id = ?
@@ -74,8 +110,8 @@ public class SpawnerDatabaseHandler implements SpawnerStorage {
                 spawner_range, spawner_stop, spawn_delay, max_spawner_loot_slots,
                 max_stored_exp, min_mobs, max_mobs, stack_size, max_stack_size,
                 last_spawn_time, is_at_capacity, last_interacted_player,
-                preferred_sort_item, filtered_items, inventory_data
-            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                preferred_sort_item, filtered_items, inventory_data, total_items
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
             ON DUPLICATE KEY UPDATE
                 world_name = VALUES(world_name),
                 loc_x = VALUES(loc_x),
@@ -99,7 +135,8 @@ public class SpawnerDatabaseHandler implements SpawnerStorage {
                 last_interacted_player = VALUES(last_interacted_player),
                 preferred_sort_item = VALUES(preferred_sort_item),
                 filtered_items = VALUES(filtered_items),
-                inventory_data = VALUES(inventory_data)
+                inventory_data = VALUES(inventory_data),
+                total_items = VALUES(total_items)
             """;
 
     // SQLite upsert syntax (ON CONFLICT)
@@ -110,8 +147,8 @@ public class SpawnerDatabaseHandler implements SpawnerStorage {
                 spawner_range, spawner_stop, spawn_delay, max_spawner_loot_slots,
                 max_stored_exp, min_mobs, max_mobs, stack_size, max_stack_size,
                 last_spawn_time, is_at_capacity, last_interacted_player,
-                preferred_sort_item, filtered_items, inventory_data
-            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                preferred_sort_item, filtered_items, inventory_data, total_items
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
             ON CONFLICT(server_name, spawner_id) DO UPDATE SET
                 world_name = excluded.world_name,
                 loc_x = excluded.loc_x,
@@ -135,7 +172,28 @@ public class SpawnerDatabaseHandler implements SpawnerStorage {
                 last_interacted_player = excluded.last_interacted_player,
                 preferred_sort_item = excluded.preferred_sort_item,
                 filtered_items = excluded.filtered_items,
-                inventory_data = excluded.inventory_data
+                inventory_data = excluded.inventory_data,
+                total_items = excluded.total_items
+            """;
+
+    // Narrow updates for spawners that only changed some column groups, see SpawnerData.DIRTY_*
+    private static final String UPDATE_LOOT_SQL = """
+            UPDATE smart_spawners SET spawner_exp = ?, last_spawn_time = ?, is_at_capacity = ?, inventory_data = ?,
+                   total_items = ?
+            WHERE server_name = ? AND spawner_id = ?
+            """;
+
+    private static final String UPDATE_STACK_SQL = """
+            UPDATE smart_spawners SET stack_size = ?, max_stack_size = ?, max_spawner_loot_slots = ?,
+                   max_stored_exp = ?, min_mobs = ?, max_mobs = ?
+            WHERE server_name = ? AND spawner_id = ?
+            """;
+
+    private static final String UPDATE_SETTINGS_SQL = """
+            UPDATE smart_spawners SET entity_type = ?, item_spawner_material = ?, spawner_active = ?,
+                   spawner_range = ?, spawner_stop = ?, spawn_delay = ?, last_interacted_player = ?,
+                   preferred_sort_item = ?, filtered_items = ?
+            WHERE server_name = ? AND spawner_id = ?
             """;
 
     private static final String DELETE_SQL = """
@@ -147,6 +205,13 @@ public class SpawnerDatabaseHandler implements SpawnerStorage {
         this.logger = plugin.getLogger();
         this.databaseManager = databaseManager;
         this.serverName = databaseManager.getServerName();
+        this.flushChunkSize = Math.max(1, plugin.getConfig().getInt("database.flush.chunk_size", 500));
+        this.flushMaxRetries = Math.max(0, plugin.getConfig().getInt("database.flush.max_retries", 3));
+        this.flushRetryBackoffMillis = Math.max(0L, plugin.getConfig().getLong("database.flush.retry_backoff_ms", 200L));
+        this.shutdownTimeoutMillis = Math.max(0L, plugin.getConfig().getLong("database.flush.shutdown_timeout_ms", 10000L));
+        this.flushBacklogThreshold = plugin.getConfig().getInt("database.flush.backlog_threshold", 5000);
+        this.flushMetrics = new DatabaseFlushMetrics(() -> dirtySpawners.size() + deletedSpawners.size());
+        this.crossServerQueries = new CrossServerQueryService(plugin, databaseManager);
     }
 
     @Override
@@ -158,6 +223,9 @@ public class SpawnerDatabaseHandler implements SpawnerStorage {
 
         // Start the periodic save task
         startSaveTask();
+
+        // Make this server's rows visible to the cross-server list before the first flush
+        Scheduler.runTaskAsync(() -> crossServerQueries.refreshSummary(serverName));
         return true;
     }
 
@@ -181,6 +249,11 @@ public class SpawnerDatabaseHandler implements SpawnerStorage {
         if (spawnerId != null) {
             dirtySpawners.add(spawnerId);
             deletedSpawners.remove(spawnerId);
+
+            // Backpressure: don't let a mass update pile up until the next save interval
+            if (flushBacklogThreshold > 0 && !isSaving.get() && dirtySpawners.size() >= flushBacklogThreshold) {
+                flushChanges();
+            }
         }
     }
 
@@ -198,6 +271,11 @@ public class SpawnerDatabaseHandler implements SpawnerStorage {
         markSpawnerModified(spawnerId);
     }
 
+    @Override
+    public boolean hasPendingChanges(String spawnerId) {
+        return isSaving.get() || dirtySpawners.contains(spawnerId);
+    }
+
     @Override
     public void flushChanges() {
         if (dirtySpawners.isEmpty() && deletedSpawners.isEmpty()) {
@@ -205,75 +283,299 @@ public class SpawnerDatabaseHandler implements SpawnerStorage {
             return;
         }
 
-        if (isSaving) {
+        if (!isSaving.compareAndSet(false, true)) {
             plugin.debug("Database flush operation already in progress");
             return;
         }
 
-        isSaving = true;
         plugin.debug("Flushing " + dirtySpawners.size() + " modified and " + deletedSpawners.size() + " deleted spawners to database");
 
         Scheduler.runTaskAsync(() -> {
             try {
-                // Handle updates
-                if (!dirtySpawners.isEmpty()) {
-                    Set<String> toUpdate = new HashSet<>(dirtySpawners);
-                    dirtySpawners.removeAll(toUpdate);
+                runFlushPipeline(new FlushRun(false, 0L));
+            } catch (Exception e) {
+                logger.log(Level.SEVERE, "Error during database flush", e);
+            } finally {
+                isSaving.set(false);
+            }
+        });
+    }
 
-                    saveSpawnerBatch(toUpdate);
+    /**
+     * State of one flush. A shutdown flush has a total deadline and never sleeps between retries.
+     */
+    private static final class FlushRun {
+        final boolean shutdown;
+        final long deadlineNanos;
+        boolean aborted;
+        // Set once a written chunk could have changed spawner counts or stack sizes
+        boolean summaryChanged;
+
+        FlushRun(boolean shutdown, long timeoutMillis) {
+            this.shutdown = shutdown;
+            this.deadlineNanos = System.nanoTime() + timeoutMillis * 1_000_000L;
+        }
+
+        boolean pastDeadline() {
+            return shutdown && System.nanoTime() - deadlineNanos >= 0;
+        }
+    }
+
+    /**
+     * Drains the queued changes and writes them in chunks of {@code flushChunkSize} rows,
+     * one transaction per chunk, so a large backlog never becomes one huge transaction.
+     * A failing chunk is retried with exponential backoff, then its spawners are written
+     * one by one so a single bad row only holds back itself. A lost connection fails every
+     * row alike, so it aborts the flush and requeues everything that was not written yet.
+     */
+    private void runFlushPipeline(FlushRun run) {
+        long start = System.nanoTime();
+        int rows = 0;
+
+        if (!dirtySpawners.isEmpty()) {
+            List<String> toUpdate = new ArrayList<>(dirtySpawners);
+            dirtySpawners.removeAll(toUpdate);
+            rows += writeInChunks(toUpdate, this::saveSpawnerChunk, id -> {
+                if (!deletedSpawners.contains(id)) {
+                    dirtySpawners.add(id);
                 }
+            }, run);
+        }
 
-                // Handle deletes
-                if (!deletedSpawners.isEmpty()) {
-                    Set<String> toDelete = new HashSet<>(deletedSpawners);
-                    deletedSpawners.removeAll(toDelete);
+        // Deletes stay queued if the updates already lost the connection
+        if (!run.aborted && !deletedSpawners.isEmpty()) {
+            List<String> toDelete = new ArrayList<>(deletedSpawners);
+            deletedSpawners.removeAll(toDelete);
+            rows += writeInChunks(toDelete, this::deleteSpawnerChunk, id -> {
+                if (!dirtySpawners.contains(id)) {
+                    deletedSpawners.add(id);
+                }
+            }, run);
+        }
+
+        flushMetrics.recordFlush(rows, System.nanoTime() - start);
+        plugin.debug("Database flush finished: " + flushMetrics.summary());
+
+        // Loot and settings updates leave the per-world counts and stack totals as they were
+        if (run.summaryChanged) {
+            crossServerQueries.refreshSummary(serverName);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        /**
+         * @return true if the written rows can have changed the cross-server summary,
+         * i.e. rows were inserted, deleted or had their stack size updated
+         */
+        boolean write(List<String> spawnerIds) throws SQLException;
+    }
+
+    /**
+     * @param requeue puts a spawner that could not be written back into its queue
+     * @return number of spawners written
+     */
+    private int writeInChunks(List<String> spawnerIds, ChunkWriter writer, Consumer<String> requeue, FlushRun run) {
+        int written = 0;
+        for (int from = 0; from < spawnerIds.size(); from += flushChunkSize) {
+            List<String> chunk = spawnerIds.subList(from, Math.min(spawnerIds.size(), from + flushChunkSize));
+            if (!run.aborted && run.pastDeadline()) {
+                logger.warning("Database shutdown flush ran out of time, " + (spawnerIds.size() - from)
+                        + " spawner changes were not written");
+                run.aborted = true;
+            }
+            if (run.aborted) {
+                requeueAll(spawnerIds.subList(from, spawnerIds.size()), requeue);
+                break;
+            }
+
+            if (writeWithRetry(chunk, writer, run)) {
+                written += chunk.size();
+                continue;
+            }
+            if (run.aborted) {
+                requeueAll(spawnerIds.subList(from, spawnerIds.size()), requeue);
+                break;
+            }
 
-                    deleteSpawnerBatch(toDelete);
+            // Isolate the failure to the spawners that really can't be written
+            for (String spawnerId : chunk) {
+                if (run.pastDeadline()) {
+                    requeue.accept(spawnerId);
+                    continue;
+                }
+                try {
+                    run.summaryChanged |= writer.write(List.of(spawnerId));
+                    written++;
+                } catch (SQLException e) {
+                    logger.log(Level.WARNING, "Failed to save spawner " + spawnerId + " to database, will retry on next flush", e);
+                    flushMetrics.recordFailures(1);
+                    requeue.accept(spawnerId);
                 }
-            } catch (Exception e) {
-                logger.log(Level.SEVERE, "Error during database flush", e);
-                // Re-add failed items back to dirty lists
-                // Note: In production, might want more sophisticated retry logic
-            } finally {
-                isSaving = false;
             }
-        });
+        }
+        return written;
+    }
+
+    private void requeueAll(List<String> spawnerIds, Consumer<String> requeue) {
+        flushMetrics.recordFailures(spawnerIds.size());
+        spawnerIds.forEach(requeue);
+    }
+
+    /**
+     * @return true if the chunk was written; false if it failed, with {@link FlushRun#aborted}
+     * set when the connection was lost or the shutdown deadline passed
+     */
+    private boolean writeWithRetry(List<String> chunk, ChunkWriter writer, FlushRun run) {
+        long backoff = flushRetryBackoffMillis;
+        for (int attempt = 0; ; attempt++) {
+            try {
+                run.summaryChanged |= writer.write(chunk);
+                return true;
+            } catch (SQLException e) {
+                if (isConnectionFailure(e)) {
+                    logger.log(Level.WARNING, "Lost the database connection while writing " + chunk.size()
+                            + " spawners, requeueing the rest of the flush", e);
+                    run.aborted = true;
+                    return false;
+                }
+                if (attempt >= flushMaxRetries || run.pastDeadline()) {
+                    logger.log(Level.WARNING, "Database write of " + chunk.size() + " spawners failed after "
+                            + (attempt + 1) + " attempts, saving them individually", e);
+                    return false;
+                }
+                plugin.debug("Database write of " + chunk.size() + " spawners failed (" + e.getMessage()
+                        + ")" + (run.shutdown ? ", retrying" : ", retrying in " + backoff + "ms"));
+            }
+
+            flushMetrics.recordRetry();
+            if (run.shutdown) {
+                continue;
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            backoff *= 2;
+        }
+    }
+
+    /**
+     * Connection errors, including drivers that only report SQLState class 08.
+     */
+    private static boolean isConnectionFailure(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLTransientConnectionException || t instanceof SQLNonTransientConnectionException) {
+                return true;
+            }
+            if (t instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith("08")) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private void saveSpawnerBatch(Set<String> spawnerIds) {
-        if (spawnerIds.isEmpty()) return;
+    private boolean saveSpawnerChunk(List<String> spawnerIds) throws SQLException {
+        if (spawnerIds.isEmpty()) return false;
 
         // Select appropriate SQL based on storage mode
         String upsertSql = databaseManager.getStorageMode() == StorageMode.SQLITE
                 ? UPSERT_SQL_SQLITE
                 : UPSERT_SQL_MYSQL;
 
+        // Snapshots taken for this chunk, handed back if the write fails
+        List<SpawnerSnapshot> written = new ArrayList<>(spawnerIds.size());
+
         try (Connection conn = databaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(upsertSql)) {
+             PreparedStatement upsertStmt = conn.prepareStatement(upsertSql);
+             PreparedStatement lootStmt = conn.prepareStatement(UPDATE_LOOT_SQL);
+             PreparedStatement stackStmt = conn.prepareStatement(UPDATE_STACK_SQL);
+             PreparedStatement settingsStmt = conn.prepareStatement(UPDATE_SETTINGS_SQL)) {
 
             conn.setAutoCommit(false);
 
+            List<SpawnerSnapshot> lootBatch = new ArrayList<>();
+            List<SpawnerSnapshot> stackBatch = new ArrayList<>();
+            List<SpawnerSnapshot> settingsBatch = new ArrayList<>();
+            int upserts = 0;
+
             for (String spawnerId : spawnerIds) {
-                SpawnerData spawner = plugin.getSpawnerManager().getSpawnerById(spawnerId);
+                SpawnerSnapshot spawner = plugin.getSpawnerManager().takeSnapshot(spawnerId);
                 if (spawner == null) continue;
 
-                setSpawnerParameters(stmt, spawner);
-                stmt.addBatch();
+                int fields = spawner.dirtyFields();
+                written.add(spawner);
+
+                // Queued without naming the changed columns, write the whole row
+                if (fields == 0 || fields == SpawnerData.DIRTY_ALL) {
+                    setSpawnerParameters(upsertStmt, spawner);
+                    upsertStmt.addBatch();
+                    upserts++;
+                    continue;
+                }
+
+                if ((fields & SpawnerData.DIRTY_LOOT) != 0) {
+                    setLootParameters(lootStmt, spawner);
+                    lootStmt.addBatch();
+                    lootBatch.add(spawner);
+                }
+                if ((fields & SpawnerData.DIRTY_STACK) != 0) {
+                    setStackParameters(stackStmt, spawner);
+                    stackStmt.addBatch();
+                    stackBatch.add(spawner);
+                }
+                if ((fields & SpawnerData.DIRTY_SETTINGS) != 0) {
+                    setSettingsParameters(settingsStmt, spawner);
+                    settingsStmt.addBatch();
+                    settingsBatch.add(spawner);
+                }
             }
 
-            stmt.executeBatch();
+            // A narrow update that matched no row means the row doesn't exist yet, upsert it instead
+            Set<SpawnerSnapshot> missingRows = Collections.newSetFromMap(new IdentityHashMap<>());
+            collectMissingRows(lootStmt, lootBatch, missingRows);
+            collectMissingRows(stackStmt, stackBatch, missingRows);
+            collectMissingRows(settingsStmt, settingsBatch, missingRows);
+            for (SpawnerSnapshot spawner : missingRows) {
+                setSpawnerParameters(upsertStmt, spawner);
+                upsertStmt.addBatch();
+            }
+            if (upserts + missingRows.size() > 0) {
+                upsertStmt.executeBatch();
+            }
+
+            long commitStart = System.nanoTime();
             conn.commit();
-            plugin.debug("Saved " + spawnerIds.size() + " spawners to database");
+            flushMetrics.recordCommit(written.size(), System.nanoTime() - commitStart);
+            plugin.debug("Saved " + written.size() + " spawners to database (" + (upserts + missingRows.size())
+                    + " full, " + lootBatch.size() + " loot, " + stackBatch.size() + " stack, "
+                    + settingsBatch.size() + " settings updates)");
+            return upserts + missingRows.size() > 0 || !stackBatch.isEmpty();
 
         } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error saving spawner batch to database", e);
-            // Re-add to dirty list for retry
-            dirtySpawners.addAll(spawnerIds);
+            // Hand the snapshots back for the retry
+            written.forEach(plugin.getSpawnerManager()::restoreSnapshot);
+            throw e;
         }
     }
 
-    private void deleteSpawnerBatch(Set<String> spawnerIds) {
-        if (spawnerIds.isEmpty()) return;
+    private void collectMissingRows(PreparedStatement stmt, List<SpawnerSnapshot> batch, Set<SpawnerSnapshot> missingRows)
+            throws SQLException {
+        if (batch.isEmpty()) return;
+
+        int[] counts = stmt.executeBatch();
+        // Rewritten batches may only report SUCCESS_NO_INFO, then rows are assumed to exist
+        for (int i = 0; i < counts.length && i < batch.size(); i++) {
+            if (counts[i] == 0) {
+                missingRows.add(batch.get(i));
+            }
+        }
+    }
+
+    private boolean deleteSpawnerChunk(List<String> spawnerIds) throws SQLException {
+        if (spawnerIds.isEmpty()) return false;
 
         try (Connection conn = databaseManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(DELETE_SQL)) {
@@ -287,44 +589,85 @@ public class SpawnerDatabaseHandler implements SpawnerStorage {
             }
 
             stmt.executeBatch();
+            long commitStart = System.nanoTime();
             conn.commit();
+            flushMetrics.recordCommit(spawnerIds.size(), System.nanoTime() - commitStart);
             plugin.debug("Deleted " + spawnerIds.size() + " spawners from database");
+            return true;
+        }
+    }
 
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error deleting spawner batch from database", e);
-            // Re-add to deleted list for retry
-            deletedSpawners.addAll(spawnerIds);
+    private void setSpawnerParameters(PreparedStatement stmt, SpawnerSnapshot spawner) throws SQLException {
+        stmt.setString(1, spawner.spawnerId());
+        stmt.setString(2, serverName);
+        stmt.setString(3, spawner.worldName());
+        stmt.setInt(4, spawner.x());
+        stmt.setInt(5, spawner.y());
+        stmt.setInt(6, spawner.z());
+        stmt.setString(7, spawner.entityType().name());
+        stmt.setString(8, spawner.itemSpawnerMaterial() != null ? spawner.itemSpawnerMaterial().name() : null);
+        stmt.setLong(9, spawner.spawnerExp());
+        stmt.setBoolean(10, spawner.active());
+        stmt.setInt(11, spawner.range());
+        stmt.setBoolean(12, spawner.stopped());
+        stmt.setLong(13, spawner.spawnDelay());
+        stmt.setInt(14, spawner.maxSpawnerLootSlots());
+        stmt.setLong(15, spawner.maxStoredExp());
+        stmt.setInt(16, spawner.minMobs());
+        stmt.setInt(17, spawner.maxMobs());
+        stmt.setInt(18, spawner.stackSize());
+        stmt.setInt(19, spawner.maxStackSize());
+        stmt.setLong(20, spawner.lastSpawnTime());
+        stmt.setBoolean(21, spawner.atCapacity());
+        stmt.setString(22, spawner.lastInteractedPlayer());
+        stmt.setString(23, spawner.preferredSortItem() != null ? spawner.preferredSortItem().name() : null);
+        stmt.setString(24, serializeFilteredItems(spawner.filteredItems()));
+        stmt.setBytes(25, InventoryCodec.encode(spawner.items()));
+        stmt.setLong(26, totalItems(spawner));
+    }
+
+    private void setLootParameters(PreparedStatement stmt, SpawnerSnapshot spawner) throws SQLException {
+        stmt.setLong(1, spawner.spawnerExp());
+        stmt.setLong(2, spawner.lastSpawnTime());
+        stmt.setBoolean(3, spawner.atCapacity());
+        stmt.setBytes(4, InventoryCodec.encode(spawner.items()));
+        stmt.setLong(5, totalItems(spawner));
+        stmt.setString(6, serverName);
+        stmt.setString(7, spawner.spawnerId());
+    }
+
+    // Stored next to the inventory so the cross-server list never has to read inventories
+    private long totalItems(SpawnerSnapshot spawner) {
+        long total = 0;
+        for (long amount : spawner.items().values()) {
+            total += amount;
         }
+        return total;
     }
 
-    private void setSpawnerParameters(PreparedStatement stmt, SpawnerData spawner) throws SQLException {
-        Location loc = spawner.getSpawnerLocation();
+    private void setStackParameters(PreparedStatement stmt, SpawnerSnapshot spawner) throws SQLException {
+        stmt.setInt(1, spawner.stackSize());
+        stmt.setInt(2, spawner.maxStackSize());
+        stmt.setInt(3, spawner.maxSpawnerLootSlots());
+        stmt.setLong(4, spawner.maxStoredExp());
+        stmt.setInt(5, spawner.minMobs());
+        stmt.setInt(6, spawner.maxMobs());
+        stmt.setString(7, serverName);
+        stmt.setString(8, spawner.spawnerId());
+    }
 
-        stmt.setString(1, spawner.getSpawnerId());
-        stmt.setString(2, serverName);
-        stmt.setString(3, loc.getWorld().getName());
-        stmt.setInt(4, loc.getBlockX());
-        stmt.setInt(5, loc.getBlockY());
-        stmt.setInt(6, loc.getBlockZ());
-        stmt.setString(7, spawner.getEntityType().name());
-        stmt.setString(8, spawner.isItemSpawner() ? spawner.getSpawnedItemMaterial().name() : null);
-        stmt.setLong(9, Math.max(0L, spawner.getSpawnerExp()));
-        stmt.setBoolean(10, spawner.getSpawnerActive());
-        stmt.setInt(11, spawner.getSpawnerRange());
-        stmt.setBoolean(12, spawner.getSpawnerStop().get());
-        stmt.setLong(13, spawner.getSpawnDelay());
-        stmt.setInt(14, spawner.getMaxSpawnerLootSlots());
-        stmt.setLong(15, spawner.getMaxStoredExp());
-        stmt.setInt(16, spawner.getMinMobs());
-        stmt.setInt(17, spawner.getMaxMobs());
-        stmt.setInt(18, spawner.getStackSize());
-        stmt.setInt(19, spawner.getMaxStackSize());
-        stmt.setLong(20, spawner.getLastSpawnTime());
-        stmt.setBoolean(21, spawner.getIsAtCapacity());
-        stmt.setString(22, spawner.getLastInteractedPlayer());
-        stmt.setString(23, spawner.getPreferredSortItem() != null ? spawner.getPreferredSortItem().name() : null);
-        stmt.setString(24, serializeFilteredItems(spawner.getFilteredItems()));
-        stmt.setString(25, serializeInventory(spawner.getVirtualInventory()));
+    private void setSettingsParameters(PreparedStatement stmt, SpawnerSnapshot spawner) throws SQLException {
+        stmt.setString(1, spawner.entityType().name());
+        stmt.setString(2, spawner.itemSpawnerMaterial() != null ? spawner.itemSpawnerMaterial().name() : null);
+        stmt.setBoolean(3, spawner.active());
+        stmt.setInt(4, spawner.range());
+        stmt.setBoolean(5, spawner.stopped());
+        stmt.setLong(6, spawner.spawnDelay());
+        stmt.setString(7, spawner.lastInteractedPlayer());
+        stmt.setString(8, spawner.preferredSortItem() != null ? spawner.preferredSortItem().name() : null);
+        stmt.setString(9, serializeFilteredItems(spawner.filteredItems()));
+        stmt.setString(10, serverName);
+        stmt.setString(11, spawner.spawnerId());
     }
 
     @Override
@@ -336,33 +679,129 @@ public class SpawnerDatabaseHandler implements SpawnerStorage {
 
             stmt.setString(1, serverName);
 
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    loadRow(rs, loadedSpawners);
+                }
+            }
+
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error loading spawners from database", e);
+        }
+
+        return loadedSpawners;
+    }
+
+    private void loadRow(ResultSet rs, Map<String, SpawnerData> loadedSpawners) throws SQLException {
+        String spawnerId = rs.getString("spawner_id");
+        try {
+            SpawnerData spawner = loadSpawnerFromResultSet(rs);
+            loadedSpawners.put(spawnerId, spawner);
+
+            // Cache location for WorldEventHandler
+            if (spawner == null) {
+                String worldName = rs.getString("world_name");
+                int x = rs.getInt("loc_x");
+                int y = rs.getInt("loc_y");
+                int z = rs.getInt("loc_z");
+                locationCache.put(spawnerId, String.format("%s,%d,%d,%d", worldName, x, y, z));
+            }
+        } catch (Exception e) {
+            plugin.debug("Error loading spawner " + spawnerId + ": " + e.getMessage());
+            loadedSpawners.put(spawnerId, null);
+        }
+    }
+
+    @Override
+    public List<Callable<Map<String, SpawnerData>>> createLoadPartitions(SpawnerLoadTimings timings) {
+        Map<String, Integer> worldCounts = new LinkedHashMap<>();
+        long start = System.nanoTime();
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(COUNT_BY_WORLD_SQL)) {
+            stmt.setString(1, serverName);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    worldCounts.put(rs.getString("world_name"), rs.getInt("spawner_count"));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Could not partition spawner load, loading sequentially", e);
+            return SpawnerStorage.super.createLoadPartitions(timings);
+        }
+        timings.addIo(System.nanoTime() - start);
+
+        // One task per world, large worlds are further split into spawner_id ranges.
+        // IDs start with a hex digit, so ranges are cut on the first character.
+        List<Callable<Map<String, SpawnerData>>> tasks = new ArrayList<>();
+        for (Map.Entry<String, Integer> world : worldCounts.entrySet()) {
+            int slices = Math.min(ID_RANGE_BOUNDS.length, Math.max(1, (world.getValue() + LOAD_PARTITION_SIZE - 1) / LOAD_PARTITION_SIZE));
+            for (int i = 0; i < slices; i++) {
+                String lower = i == 0 ? "" : ID_RANGE_BOUNDS[i * ID_RANGE_BOUNDS.length / slices];
+                String upper = i == slices - 1 ? null : ID_RANGE_BOUNDS[(i + 1) * ID_RANGE_BOUNDS.length / slices];
+                tasks.add(() -> loadPartition(world.getKey(), lower, upper, timings));
+            }
+        }
+        return tasks;
+    }
+
+    private Map<String, SpawnerData> loadPartition(String worldName, String lowerId, String upperId,
+                                                   SpawnerLoadTimings timings) throws SQLException {
+        Map<String, SpawnerData> loaded = new HashMap<>();
+        long decodeNanos = 0;
+
+        String sql = upperId != null ? SELECT_ID_RANGE_SQL + " AND spawner_id < ?" : SELECT_ID_RANGE_SQL;
+        long start = System.nanoTime();
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, serverName);
+            stmt.setString(2, worldName);
+            stmt.setString(3, lowerId);
+            if (upperId != null) {
+                stmt.setString(4, upperId);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    long decodeStart = System.nanoTime();
+                    loadRow(rs, loaded);
+                    decodeNanos += System.nanoTime() - decodeStart;
+                }
+            }
+        }
+        // Everything except decoding is connection checkout, query and row fetching
+        timings.addIo(System.nanoTime() - start - decodeNanos);
+        timings.addDecode(decodeNanos, loaded.size());
+        return loaded;
+    }
+
+    @Override
+    public List<SpawnerStub> loadAllStubs() {
+        List<SpawnerStub> stubs = new ArrayList<>();
+
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_STUBS_SQL)) {
+
+            stmt.setString(1, serverName);
+
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
                     String spawnerId = rs.getString("spawner_id");
                     try {
-                        SpawnerData spawner = loadSpawnerFromResultSet(rs);
-                        loadedSpawners.put(spawnerId, spawner);
-
-                        // Cache location for WorldEventHandler
-                        if (spawner == null) {
-                            String worldName = rs.getString("world_name");
-                            int x = rs.getInt("loc_x");
-                            int y = rs.getInt("loc_y");
-                            int z = rs.getInt("loc_z");
-                            locationCache.put(spawnerId, String.format("%s,%d,%d,%d", worldName, x, y, z));
-                        }
-                    } catch (Exception e) {
-                        plugin.debug("Error loading spawner " + spawnerId + ": " + e.getMessage());
-                        loadedSpawners.put(spawnerId, null);
+                        stubs.add(new SpawnerStub(spawnerId, rs.getString("world_name"),
+                                rs.getInt("loc_x"), rs.getInt("loc_y"), rs.getInt("loc_z"),
+                                EntityType.valueOf(rs.getString("entity_type")),
+                                Math.max(1, rs.getInt("stack_size"))));
+                    } catch (IllegalArgumentException e) {
+                        plugin.debug("Skipping stub for spawner " + spawnerId + ": " + e.getMessage());
                     }
                 }
             }
 
         } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error loading spawners from database", e);
+            logger.log(Level.SEVERE, "Error loading spawner stubs from database", e);
         }
 
-        return loadedSpawners;
+        return stubs;
     }
 
     @Override
@@ -494,11 +933,12 @@ public class SpawnerDatabaseHandler implements SpawnerStorage {
         }
 
         // Load inventory
-        String inventoryData = rs.getString("inventory_data");
+        byte[] inventoryData = rs.getBytes("inventory_data");
         VirtualInventory virtualInv = new VirtualInventory(spawner.getMaxSpawnerLootSlots());
-        if (inventoryData != null && !inventoryData.isEmpty()) {
+        if (inventoryData != null && inventoryData.length > 0) {
             try {
-                loadInventoryFromJson(inventoryData, virtualInv);
+                // One bulk insert instead of one addItems call per max-size stack
+                virtualInv.addItems(InventoryCodec.decode(inventoryData));
             } catch (Exception e) {
                 logger.warning("Error loading inventory for spawner " + spawnerId + ": " + e.getMessage());
             }
@@ -540,25 +980,22 @@ public class SpawnerDatabaseHandler implements SpawnerStorage {
         // Perform synchronous flush on shutdown
         if (!dirtySpawners.isEmpty() || !deletedSpawners.isEmpty()) {
             try {
-                isSaving = true;
+                isSaving.set(true);
                 logger.info("Saving " + dirtySpawners.size() + " spawners to database on shutdown...");
 
-                if (!dirtySpawners.isEmpty()) {
-                    saveSpawnerBatch(new HashSet<>(dirtySpawners));
-                }
+                runFlushPipeline(new FlushRun(true, shutdownTimeoutMillis));
 
-                if (!deletedSpawners.isEmpty()) {
-                    deleteSpawnerBatch(new HashSet<>(deletedSpawners));
+                if (!dirtySpawners.isEmpty() || !deletedSpawners.isEmpty()) {
+                    logger.severe("Failed to save " + (dirtySpawners.size() + deletedSpawners.size())
+                            + " spawner changes to database on shutdown.");
+                } else {
+                    logger.info("Database shutdown save completed.");
                 }
 
-                dirtySpawners.clear();
-                deletedSpawners.clear();
-                logger.info("Database shutdown save completed.");
-
             } catch (Exception e) {
                 logger.log(Level.SEVERE, "Error during database shutdown flush", e);
             } finally {
-                isSaving = false;
+                isSaving.set(false);
             }
         }
 
@@ -590,109 +1027,6 @@ public class SpawnerDatabaseHandler implements SpawnerStorage {
         }
     }
 
-    private String serializeInventory(VirtualInventory virtualInv) {
-        if (virtualInv == null) {
-            return null;
-        }
-
-        Map<VirtualInventory.ItemSignature, Long> items = virtualInv.getConsolidatedItems();
-        if (items.isEmpty()) {
-            return null;
-        }
-
-        // Use existing ItemStackSerializer format, then join with a delimiter
-        List<String> serializedItems = ItemStackSerializer.serializeInventory(items);
-        if (serializedItems.isEmpty()) {
-            return null;
-        }
-
-        // Use a JSON-like array format that's easy to parse
-        // Format: ["item1:count","item2;damage:count:count",...]
-        StringBuilder sb = new StringBuilder();
-        sb.append("[");
-        for (int i = 0; i < serializedItems.size(); i++) {
-            if (i > 0) sb.append(",");
-            // Escape any quotes in the string and wrap in quotes
-            sb.append("\"").append(serializedItems.get(i).replace("\"", "\\\"")).append("\"");
-        }
-        sb.append("]");
-        return sb.toString();
-    }
-
-    private void loadInventoryFromJson(String jsonData, VirtualInventory virtualInv) {
-        if (jsonData == null || jsonData.isEmpty()) return;
-
-        // Parse our simple JSON array format
-        // Format: ["item1:count","item2;damage:count:count",...]
-        if (!jsonData.startsWith("[") || !jsonData.endsWith("]")) {
-            logger.warning("Invalid inventory JSON format: " + jsonData);
-            return;
-        }
-
-        String content = jsonData.substring(1, jsonData.length() - 1);
-        if (content.isEmpty()) return;
-
-        List<String> items = new ArrayList<>();
-        StringBuilder current = new StringBuilder();
-        boolean inQuotes = false;
-        boolean escaped = false;
-
-        for (char c : content.toCharArray()) {
-            if (escaped) {
-                current.append(c);
-                escaped = false;
-                continue;
-            }
-
-            if (c == '\\') {
-                escaped = true;
-                continue;
-            }
-
-            if (c == '"') {
-                inQuotes = !inQuotes;
-                continue;
-            }
-
-            if (c == ',' && !inQuotes) {
-                if (current.length() > 0) {
-                    items.add(current.toString());
-                    current = new StringBuilder();
-                }
-                continue;
-            }
-
-            current.append(c);
-        }
-
-        if (current.length() > 0) {
-            items.add(current.toString());
-        }
-
-        if (items.isEmpty()) return;
-
-        // Use existing ItemStackSerializer to deserialize
-        try {
-            Map<ItemStack, Integer> deserializedItems = ItemStackSerializer.deserializeInventory(items);
-            for (Map.Entry<ItemStack, Integer> entry : deserializedItems.entrySet()) {
-                ItemStack item = entry.getKey();
-                int amount = entry.getValue();
-
-                if (item != null && amount > 0) {
-                    while (amount > 0) {
-                        int batchSize = Math.min(amount, item.getMaxStackSize());
-                        ItemStack batch = item.clone();
-                        batch.setAmount(batchSize);
-                        virtualInv.addItems(Collections.singletonList(batch));
-                        amount -= batchSize;
-                    }
-                }
-            }
-        } catch (Exception e) {
-            logger.warning("Error deserializing inventory data: " + e.getMessage());
-        }
-    }
-
     // ============== Cross-Server Query Methods ==============
 
     /**
@@ -704,425 +1038,18 @@ public class SpawnerDatabaseHandler implements SpawnerStorage {
     }
 
     /**
-     * Asynchronously get all distinct server names from the database.
-     * @param callback Consumer to receive the list of server names on the main thread
-     */
-    public void getDistinctServerNamesAsync(Consumer<List<String>> callback) {
-        Scheduler.runTaskAsync(() -> {
-            List<String> servers = new ArrayList<>();
-            String sql = "SELECT DISTINCT server_name FROM smart_spawners ORDER BY server_name";
-
-            try (Connection conn = databaseManager.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql);
-                 ResultSet rs = stmt.executeQuery()) {
-
-                while (rs.next()) {
-                    servers.add(rs.getString("server_name"));
-                }
-
-            } catch (SQLException e) {
-                logger.log(Level.SEVERE, "Error fetching server names from database", e);
-            }
-
-            // Return to main thread
-            Scheduler.runTask(() -> callback.accept(servers));
-        });
-    }
-
-    /**
-     * Asynchronously get world names with spawner counts for a specific server.
-     * @param targetServer The server name to query
-     * @param callback Consumer to receive map of world name -> spawner count
-     */
-    public void getWorldsForServerAsync(String targetServer, Consumer<Map<String, Integer>> callback) {
-        Scheduler.runTaskAsync(() -> {
-            Map<String, Integer> worlds = new LinkedHashMap<>();
-            String sql = "SELECT world_name, COUNT(*) as count FROM smart_spawners WHERE server_name = ? GROUP BY world_name ORDER BY world_name";
-
-            try (Connection conn = databaseManager.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-                stmt.setString(1, targetServer);
-
-                try (ResultSet rs = stmt.executeQuery()) {
-                    while (rs.next()) {
-                        worlds.put(rs.getString("world_name"), rs.getInt("count"));
-                    }
-                }
-
-            } catch (SQLException e) {
-                logger.log(Level.SEVERE, "Error fetching worlds for server " + targetServer, e);
-            }
-
-            Scheduler.runTask(() -> callback.accept(worlds));
-        });
-    }
-
-    /**
-     * Asynchronously get total stacked spawner count for a server/world.
-     * @param targetServer The server name
-     * @param worldName The world name
-     * @param callback Consumer to receive total stack count
-     */
-    public void getTotalStacksForWorldAsync(String targetServer, String worldName, Consumer<Integer> callback) {
-        Scheduler.runTaskAsync(() -> {
-            int total = 0;
-            String sql = "SELECT SUM(stack_size) as total FROM smart_spawners WHERE server_name = ? AND world_name = ?";
-
-            try (Connection conn = databaseManager.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-                stmt.setString(1, targetServer);
-                stmt.setString(2, worldName);
-
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        total = rs.getInt("total");
-                    }
-                }
-
-            } catch (SQLException e) {
-                logger.log(Level.SEVERE, "Error fetching stack total for " + targetServer + "/" + worldName, e);
-            }
-
-            final int finalTotal = total;
-            Scheduler.runTask(() -> callback.accept(finalTotal));
-        });
-    }
-
-    /**
-     * Asynchronously get spawner data for a specific server and world.
-     * Returns CrossServerSpawnerData objects that don't require Bukkit Location objects.
-     * @param targetServer The server name to query
-     * @param worldName The world name to query
-     * @param callback Consumer to receive list of spawner data
-     */
-    public void getCrossServerSpawnersAsync(String targetServer, String worldName, Consumer<List<CrossServerSpawnerData>> callback) {
-        Scheduler.runTaskAsync(() -> {
-            List<CrossServerSpawnerData> spawners = new ArrayList<>();
-            String sql = """
-                SELECT spawner_id, server_name, world_name, loc_x, loc_y, loc_z,
-                       entity_type, stack_size, spawner_stop, last_interacted_player,
-                       spawner_exp, inventory_data
-                FROM smart_spawners
-                WHERE server_name = ? AND world_name = ?
-                ORDER BY stack_size DESC
-                """;
-
-            try (Connection conn = databaseManager.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-                stmt.setString(1, targetServer);
-                stmt.setString(2, worldName);
-
-                try (ResultSet rs = stmt.executeQuery()) {
-                    while (rs.next()) {
-                        String spawnerId = rs.getString("spawner_id");
-                        String server = rs.getString("server_name");
-                        String world = rs.getString("world_name");
-                        int x = rs.getInt("loc_x");
-                        int y = rs.getInt("loc_y");
-                        int z = rs.getInt("loc_z");
-
-                        EntityType entityType;
-                        try {
-                            entityType = EntityType.valueOf(rs.getString("entity_type"));
-                        } catch (IllegalArgumentException e) {
-                            entityType = EntityType.PIG; // Fallback
-                        }
-
-                        int stackSize = rs.getInt("stack_size");
-                        boolean active = !rs.getBoolean("spawner_stop");
-                        String lastPlayer = rs.getString("last_interacted_player");
-                        long storedExp = rs.getLong("spawner_exp");
-
-                        // Estimate total items from inventory data
-                        long totalItems = estimateItemCount(rs.getString("inventory_data"));
-
-                        spawners.add(new CrossServerSpawnerData(
-                                spawnerId, server, world, x, y, z,
-                                entityType, stackSize, active, lastPlayer,
-                                storedExp, totalItems
-                        ));
-                    }
-                }
-
-            } catch (SQLException e) {
-                logger.log(Level.SEVERE, "Error fetching spawners for " + targetServer + "/" + worldName, e);
-            }
-
-            Scheduler.runTask(() -> callback.accept(spawners));
-        });
-    }
-
-    /**
-     * Get spawner count for a specific server.
-     * @param targetServer The server name
-     * @param callback Consumer to receive the count
+     * Get the metrics of the chunked flush pipeline.
+     * @return Flush metrics
      */
-    public void getSpawnerCountForServerAsync(String targetServer, Consumer<Integer> callback) {
-        Scheduler.runTaskAsync(() -> {
-            int count = 0;
-            String sql = "SELECT COUNT(*) as count FROM smart_spawners WHERE server_name = ?";
-
-            try (Connection conn = databaseManager.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-                stmt.setString(1, targetServer);
-
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        count = rs.getInt("count");
-                    }
-                }
-
-            } catch (SQLException e) {
-                logger.log(Level.SEVERE, "Error fetching spawner count for " + targetServer, e);
-            }
-
-            final int finalCount = count;
-            Scheduler.runTask(() -> callback.accept(finalCount));
-        });
+    public DatabaseFlushMetrics getFlushMetrics() {
+        return flushMetrics;
     }
 
     /**
-     * Asynchronously get spawner data for a specific server and world with filter and sort.
-     * @param targetServer The server name to query
-     * @param worldName The world name to query
-     * @param filter Filter option (ALL, ACTIVE, INACTIVE)
-     * @param sort Sort option (DEFAULT, STACK_SIZE_DESC, STACK_SIZE_ASC)
-     * @param callback Consumer to receive list of spawner data
+     * Get the queries behind the cross-server spawner list.
+     * @return Cross-server query service
      */
-    public void getCrossServerSpawnersAsync(String targetServer, String worldName,
-                                            String filter, String sort,
-                                            Consumer<List<CrossServerSpawnerData>> callback) {
-        Scheduler.runTaskAsync(() -> {
-            List<CrossServerSpawnerData> spawners = new ArrayList<>();
-
-            // Build dynamic SQL based on filter and sort
-            StringBuilder sql = new StringBuilder("""
-                SELECT spawner_id, server_name, world_name, loc_x, loc_y, loc_z,
-                       entity_type, stack_size, spawner_stop, last_interacted_player,
-                       spawner_exp, inventory_data
-                FROM smart_spawners
-                WHERE server_name = ? AND world_name = ?
-                """);
-
-            // Add filter condition
-            if ("ACTIVE".equalsIgnoreCase(filter)) {
-                sql.append(" AND spawner_stop = FALSE");
-            } else if ("INACTIVE".equalsIgnoreCase(filter)) {
-                sql.append(" AND spawner_stop = TRUE");
-            }
-
-            // Add sort order
-            if ("STACK_SIZE_ASC".equalsIgnoreCase(sort)) {
-                sql.append(" ORDER BY stack_size ASC");
-            } else if ("STACK_SIZE_DESC".equalsIgnoreCase(sort)) {
-                sql.append(" ORDER BY stack_size DESC");
-            } else {
-                sql.append(" ORDER BY spawner_id ASC"); // DEFAULT sort
-            }
-
-            try (Connection conn = databaseManager.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
-
-                stmt.setString(1, targetServer);
-                stmt.setString(2, worldName);
-
-                try (ResultSet rs = stmt.executeQuery()) {
-                    while (rs.next()) {
-                        String spawnerId = rs.getString("spawner_id");
-                        String server = rs.getString("server_name");
-                        String world = rs.getString("world_name");
-                        int x = rs.getInt("loc_x");
-                        int y = rs.getInt("loc_y");
-                        int z = rs.getInt("loc_z");
-
-                        EntityType entityType;
-                        try {
-                            entityType = EntityType.valueOf(rs.getString("entity_type"));
-                        } catch (IllegalArgumentException e) {
-                            entityType = EntityType.PIG; // Fallback
-                        }
-
-                        int stackSize = rs.getInt("stack_size");
-                        boolean active = !rs.getBoolean("spawner_stop");
-                        String lastPlayer = rs.getString("last_interacted_player");
-                        long storedExp = rs.getLong("spawner_exp");
-                        long totalItems = estimateItemCount(rs.getString("inventory_data"));
-
-                        spawners.add(new CrossServerSpawnerData(
-                                spawnerId, server, world, x, y, z,
-                                entityType, stackSize, active, lastPlayer,
-                                storedExp, totalItems
-                        ));
-                    }
-                }
-
-            } catch (SQLException e) {
-                logger.log(Level.SEVERE, "Error fetching spawners for " + targetServer + "/" + worldName, e);
-            }
-
-            Scheduler.runTask(() -> callback.accept(spawners));
-        });
-    }
-
-    /**
-     * Asynchronously get a single spawner's data from a remote server.
-     * @param targetServer The server name
-     * @param spawnerId The spawner ID
-     * @param callback Consumer to receive the spawner data (null if not found)
-     */
-    public void getRemoteSpawnerByIdAsync(String targetServer, String spawnerId,
-                                          Consumer<CrossServerSpawnerData> callback) {
-        Scheduler.runTaskAsync(() -> {
-            CrossServerSpawnerData spawnerData = null;
-            String sql = """
-                SELECT spawner_id, server_name, world_name, loc_x, loc_y, loc_z,
-                       entity_type, stack_size, spawner_stop, last_interacted_player,
-                       spawner_exp, inventory_data
-                FROM smart_spawners
-                WHERE server_name = ? AND spawner_id = ?
-                """;
-
-            try (Connection conn = databaseManager.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-                stmt.setString(1, targetServer);
-                stmt.setString(2, spawnerId);
-
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        String world = rs.getString("world_name");
-                        int x = rs.getInt("loc_x");
-                        int y = rs.getInt("loc_y");
-                        int z = rs.getInt("loc_z");
-
-                        EntityType entityType;
-                        try {
-                            entityType = EntityType.valueOf(rs.getString("entity_type"));
-                        } catch (IllegalArgumentException e) {
-                            entityType = EntityType.PIG;
-                        }
-
-                        int stackSize = rs.getInt("stack_size");
-                        boolean active = !rs.getBoolean("spawner_stop");
-                        String lastPlayer = rs.getString("last_interacted_player");
-                        long storedExp = rs.getLong("spawner_exp");
-                        long totalItems = estimateItemCount(rs.getString("inventory_data"));
-
-                        spawnerData = new CrossServerSpawnerData(
-                                spawnerId, targetServer, world, x, y, z,
-                                entityType, stackSize, active, lastPlayer,
-                                storedExp, totalItems
-                        );
-                    }
-                }
-
-            } catch (SQLException e) {
-                logger.log(Level.SEVERE, "Error fetching remote spawner " + spawnerId + " from " + targetServer, e);
-            }
-
-            final CrossServerSpawnerData result = spawnerData;
-            Scheduler.runTask(() -> callback.accept(result));
-        });
-    }
-
-    /**
-     * Asynchronously update stack size for a remote spawner.
-     * @param targetServer The server name
-     * @param spawnerId The spawner ID
-     * @param newStackSize The new stack size
-     * @param callback Consumer to receive success status
-     */
-    public void updateRemoteSpawnerStackSizeAsync(String targetServer, String spawnerId,
-                                                   int newStackSize, Consumer<Boolean> callback) {
-        Scheduler.runTaskAsync(() -> {
-            boolean success = false;
-            String sql = "UPDATE smart_spawners SET stack_size = ?, updated_at = CURRENT_TIMESTAMP WHERE server_name = ? AND spawner_id = ?";
-
-            try (Connection conn = databaseManager.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-                stmt.setInt(1, newStackSize);
-                stmt.setString(2, targetServer);
-                stmt.setString(3, spawnerId);
-
-                int affected = stmt.executeUpdate();
-                success = affected > 0;
-
-                if (success) {
-                    plugin.debug("Updated remote spawner " + spawnerId + " on " + targetServer + " to stack size " + newStackSize);
-                }
-
-            } catch (SQLException e) {
-                logger.log(Level.SEVERE, "Error updating remote spawner stack size", e);
-            }
-
-            final boolean result = success;
-            Scheduler.runTask(() -> callback.accept(result));
-        });
-    }
-
-    /**
-     * Asynchronously delete a remote spawner from the database.
-     * Note: This only removes the database record. The physical block on the target server
-     * will remain until that server refreshes its cache.
-     * @param targetServer The server name
-     * @param spawnerId The spawner ID
-     * @param callback Consumer to receive success status
-     */
-    public void deleteRemoteSpawnerAsync(String targetServer, String spawnerId,
-                                          Consumer<Boolean> callback) {
-        Scheduler.runTaskAsync(() -> {
-            boolean success = false;
-            String sql = "DELETE FROM smart_spawners WHERE server_name = ? AND spawner_id = ?";
-
-            try (Connection conn = databaseManager.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-                stmt.setString(1, targetServer);
-                stmt.setString(2, spawnerId);
-
-                int affected = stmt.executeUpdate();
-                success = affected > 0;
-
-                if (success) {
-                    logger.info("Deleted remote spawner " + spawnerId + " from " + targetServer + " database record");
-                }
-
-            } catch (SQLException e) {
-                logger.log(Level.SEVERE, "Error deleting remote spawner", e);
-            }
-
-            final boolean result = success;
-            Scheduler.runTask(() -> callback.accept(result));
-        });
-    }
-
-    /**
-     * Estimate total item count from inventory JSON data.
-     */
-    private long estimateItemCount(String inventoryData) {
-        if (inventoryData == null || inventoryData.isEmpty()) {
-            return 0;
-        }
-
-        long total = 0;
-        // Simple regex to find numbers after colons (item counts)
-        // Format: ["ITEM:count","ITEM:count",...]
-        try {
-            String[] parts = inventoryData.split(":");
-            for (int i = 1; i < parts.length; i++) {
-                String numPart = parts[i].replaceAll("[^0-9]", " ").trim().split(" ")[0];
-                if (!numPart.isEmpty()) {
-                    total += Long.parseLong(numPart);
-                }
-            }
-        } catch (Exception e) {
-            // Ignore parsing errors
-        }
-        return total;
+    public CrossServerQueryService getCrossServerQueries() {
+        return crossServerQueries;
     }
 }
@@ -0,0 +1,175 @@
+package github.nighter.smartspawner.spawner.data.database;
+
+import github.nighter.smartspawner.SmartSpawner;
+import github.nighter.smartspawner.spawner.data.binary.BinarySnapshotMigration;
+import github.nighter.smartspawner.spawner.data.binary.SpawnerRecord;
+import github.nighter.smartspawner.spawner.properties.VirtualInventory;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Handles one-time migration from the SQLite database to the binary snapshot, when a server
+ * switches from SQLITE to BINARY storage. Only this server's rows are converted.
+ * After successful migration, the SQLite file is renamed to spawners.db.migrated
+ * to prevent re-migration.
+ */
+public class SqliteToBinaryMigration {
+    private final SmartSpawner plugin;
+    private final Logger logger;
+    private final String serverName;
+    private final String sqliteFileName;
+    private final File sqliteFile;
+
+    private static final String MIGRATED_FILE_SUFFIX = ".migrated";
+
+    private static final String SELECT_SERVER_SQLITE = """
+            SELECT spawner_id, world_name, loc_x, loc_y, loc_z, entity_type, item_spawner_material,
+                   spawner_exp, spawner_active, spawner_range, spawner_stop, spawn_delay,
+                   max_spawner_loot_slots, max_stored_exp, min_mobs, max_mobs, stack_size,
+                   max_stack_size, last_spawn_time, is_at_capacity, last_interacted_player,
+                   preferred_sort_item, filtered_items, inventory_data
+            FROM smart_spawners WHERE server_name = ?
+            """;
+
+    public SqliteToBinaryMigration(SmartSpawner plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.serverName = plugin.getConfig().getString("database.server_name", "server1");
+        this.sqliteFileName = plugin.getConfig().getString("database.sqlite.file", "spawners.db");
+        this.sqliteFile = new File(plugin.getDataFolder(), sqliteFileName);
+    }
+
+    /**
+     * Migration is needed if the SQLite database file exists, hasn't been migrated
+     * and holds spawners of this server.
+     * @return true if migration is needed
+     */
+    public boolean needsMigration() {
+        if (!sqliteFile.exists()) {
+            return false;
+        }
+
+        File migratedFile = new File(plugin.getDataFolder(), sqliteFileName + MIGRATED_FILE_SUFFIX);
+        if (migratedFile.exists()) {
+            return false;
+        }
+
+        try (Connection conn = DriverManager.getConnection(jdbcUrl());
+             PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*) FROM smart_spawners WHERE server_name = ?")) {
+            stmt.setString(1, serverName);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        } catch (SQLException e) {
+            // Table might not exist or other error
+            plugin.debug("SQLite check failed: " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Converts this server's spawners into the binary snapshot, merging them with the
+     * spawners already in it.
+     * @return true if every spawner was converted
+     */
+    public boolean migrate(BinarySnapshotMigration target) {
+        logger.info("Starting SQLite to binary snapshot migration...");
+
+        List<SpawnerRecord> records = new ArrayList<>();
+        int failedCount = 0;
+
+        try (Connection conn = DriverManager.getConnection(jdbcUrl());
+             PreparedStatement stmt = conn.prepareStatement(SELECT_SERVER_SQLITE)) {
+            stmt.setString(1, serverName);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    try {
+                        records.add(toRecord(rs));
+                    } catch (Exception e) {
+                        logger.log(Level.WARNING, "Failed to migrate spawner: " + rs.getString("spawner_id"), e);
+                        failedCount++;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Database error during SQLite to binary snapshot migration", e);
+            return false;
+        }
+
+        try {
+            target.importRecords(records, sqliteFileName);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to write the binary snapshot during SQLite migration", e);
+            return false;
+        }
+
+        logger.info("Migration completed. Total: " + (records.size() + failedCount) + ", Migrated: "
+                + records.size() + ", Failed: " + failedCount);
+
+        // Rename the SQLite file to prevent re-migration
+        if (failedCount == 0) {
+            File migratedFile = new File(plugin.getDataFolder(), sqliteFileName + MIGRATED_FILE_SUFFIX);
+            if (sqliteFile.renameTo(migratedFile)) {
+                logger.info("SQLite file renamed to " + sqliteFileName + MIGRATED_FILE_SUFFIX);
+            } else {
+                logger.warning("Failed to rename SQLite file. Manual cleanup may be required.");
+            }
+        }
+
+        return failedCount == 0;
+    }
+
+    private String jdbcUrl() {
+        return "jdbc:sqlite:" + sqliteFile.getAbsolutePath();
+    }
+
+    private static SpawnerRecord toRecord(ResultSet rs) throws SQLException {
+        List<String> filtered = new ArrayList<>();
+        String filteredItemsStr = rs.getString("filtered_items");
+        if (filteredItemsStr != null && !filteredItemsStr.isEmpty()) {
+            for (String materialName : filteredItemsStr.split(",")) {
+                filtered.add(materialName.trim());
+            }
+        }
+
+        List<SpawnerRecord.ItemEntry> items = new ArrayList<>();
+        byte[] inventoryData = rs.getBytes("inventory_data");
+        if (inventoryData != null && inventoryData.length > 0) {
+            for (Map.Entry<VirtualInventory.ItemSignature, Long> entry : InventoryCodec.decode(inventoryData).entrySet()) {
+                if (entry.getValue() > 0) {
+                    items.add(SpawnerRecord.ItemEntry.of(entry.getKey().getTemplateRef(), entry.getValue()));
+                }
+            }
+        }
+
+        return new SpawnerRecord(
+                rs.getString("spawner_id"),
+                rs.getString("world_name"), rs.getInt("loc_x"), rs.getInt("loc_y"), rs.getInt("loc_z"),
+                rs.getString("entity_type"),
+                rs.getString("item_spawner_material"),
+                Math.max(0L, rs.getLong("spawner_exp")),
+                rs.getBoolean("spawner_active"),
+                rs.getInt("spawner_range"),
+                rs.getBoolean("spawner_stop"),
+                rs.getLong("spawn_delay"),
+                rs.getInt("max_spawner_loot_slots"),
+                rs.getLong("max_stored_exp"),
+                rs.getInt("min_mobs"),
+                rs.getInt("max_mobs"),
+                rs.getInt("stack_size"),
+                rs.getInt("max_stack_size"),
+                rs.getLong("last_spawn_time"),
+                rs.getBoolean("is_at_capacity"),
+                rs.getString("last_interacted_player"),
+                rs.getString("preferred_sort_item"),
+                filtered,
+                items);
+    }
+}
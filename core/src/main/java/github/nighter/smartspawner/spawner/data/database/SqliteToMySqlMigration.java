@@ -28,8 +28,8 @@ public class SqliteToMySqlMigration {
                 spawner_range, spawner_stop, spawn_delay, max_spawner_loot_slots,
                 max_stored_exp, min_mobs, max_mobs, stack_size, max_stack_size,
                 last_spawn_time, is_at_capacity, last_interacted_player,
-                preferred_sort_item, filtered_items, inventory_data
-            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                preferred_sort_item, filtered_items, inventory_data, total_items
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
             ON DUPLICATE KEY UPDATE
                 world_name = VALUES(world_name),
                 loc_x = VALUES(loc_x),
@@ -53,7 +53,8 @@ public class SqliteToMySqlMigration {
                 last_interacted_player = VALUES(last_interacted_player),
                 preferred_sort_item = VALUES(preferred_sort_item),
                 filtered_items = VALUES(filtered_items),
-                inventory_data = VALUES(inventory_data)
+                inventory_data = VALUES(inventory_data),
+                total_items = VALUES(total_items)
             """;
 
     private static final String SELECT_ALL_SQLITE = """
@@ -179,7 +180,9 @@ public class SqliteToMySqlMigration {
                         insertStmt.setString(22, rs.getString("last_interacted_player"));
                         insertStmt.setString(23, rs.getString("preferred_sort_item"));
                         insertStmt.setString(24, rs.getString("filtered_items"));
-                        insertStmt.setString(25, rs.getString("inventory_data"));
+                        byte[] inventoryData = rs.getBytes("inventory_data");
+                        insertStmt.setBytes(25, inventoryData);
+                        insertStmt.setLong(26, InventoryCodec.countItems(inventoryData));
 
                         insertStmt.addBatch();
                         batchCount++;
@@ -1,12 +1,14 @@
 package github.nighter.smartspawner.spawner.data.database;
 
 import github.nighter.smartspawner.SmartSpawner;
+import github.nighter.smartspawner.spawner.data.SpawnerFileHandler;
+import github.nighter.smartspawner.spawner.data.SpawnerJournal;
 import github.nighter.smartspawner.spawner.data.storage.StorageMode;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.EntityType;
 import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
@@ -36,8 +38,8 @@ public class YamlToDatabaseMigration {
                 spawner_range, spawner_stop, spawn_delay, max_spawner_loot_slots,
                 max_stored_exp, min_mobs, max_mobs, stack_size, max_stack_size,
                 last_spawn_time, is_at_capacity, last_interacted_player,
-                preferred_sort_item, filtered_items, inventory_data
-            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                preferred_sort_item, filtered_items, inventory_data, total_items
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
             ON DUPLICATE KEY UPDATE
                 world_name = VALUES(world_name),
                 loc_x = VALUES(loc_x),
@@ -61,7 +63,8 @@ public class YamlToDatabaseMigration {
                 last_interacted_player = VALUES(last_interacted_player),
                 preferred_sort_item = VALUES(preferred_sort_item),
                 filtered_items = VALUES(filtered_items),
-                inventory_data = VALUES(inventory_data)
+                inventory_data = VALUES(inventory_data),
+                total_items = VALUES(total_items)
             """;
 
     // SQLite insert syntax
@@ -72,8 +75,8 @@ public class YamlToDatabaseMigration {
                 spawner_range, spawner_stop, spawn_delay, max_spawner_loot_slots,
                 max_stored_exp, min_mobs, max_mobs, stack_size, max_stack_size,
                 last_spawn_time, is_at_capacity, last_interacted_player,
-                preferred_sort_item, filtered_items, inventory_data
-            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                preferred_sort_item, filtered_items, inventory_data, total_items
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
             ON CONFLICT(server_name, spawner_id) DO UPDATE SET
                 world_name = excluded.world_name,
                 loc_x = excluded.loc_x,
@@ -97,7 +100,8 @@ public class YamlToDatabaseMigration {
                 last_interacted_player = excluded.last_interacted_player,
                 preferred_sort_item = excluded.preferred_sort_item,
                 filtered_items = excluded.filtered_items,
-                inventory_data = excluded.inventory_data
+                inventory_data = excluded.inventory_data,
+                total_items = excluded.total_items
             """;
 
     public YamlToDatabaseMigration(SmartSpawner plugin, DatabaseManager databaseManager) {
@@ -125,7 +129,7 @@ public class YamlToDatabaseMigration {
         }
 
         // Check if YAML has any spawner data
-        FileConfiguration yamlData = YamlConfiguration.loadConfiguration(yamlFile);
+        FileConfiguration yamlData = loadYamlData(yamlFile);
         ConfigurationSection spawnersSection = yamlData.getConfigurationSection("spawners");
         return spawnersSection != null && !spawnersSection.getKeys(false).isEmpty();
     }
@@ -143,7 +147,7 @@ public class YamlToDatabaseMigration {
             return true;
         }
 
-        FileConfiguration yamlData = YamlConfiguration.loadConfiguration(yamlFile);
+        FileConfiguration yamlData = loadYamlData(yamlFile);
         ConfigurationSection spawnersSection = yamlData.getConfigurationSection("spawners");
 
         if (spawnersSection == null || spawnersSection.getKeys(false).isEmpty()) {
@@ -151,6 +155,33 @@ public class YamlToDatabaseMigration {
             return true;
         }
 
+        return migrate(yamlData, () -> {
+            File migratedFile = new File(plugin.getDataFolder(), YAML_FILE_NAME + MIGRATED_FILE_SUFFIX);
+            if (yamlFile.renameTo(migratedFile)) {
+                logger.info("YAML file renamed to " + YAML_FILE_NAME + MIGRATED_FILE_SUFFIX);
+            } else {
+                logger.warning("Failed to rename YAML file. Manual cleanup may be required.");
+            }
+
+            File journalFile = new File(plugin.getDataFolder(), SpawnerFileHandler.JOURNAL_FILE_NAME);
+            if (journalFile.exists()) {
+                journalFile.renameTo(new File(plugin.getDataFolder(), SpawnerFileHandler.JOURNAL_FILE_NAME + MIGRATED_FILE_SUFFIX));
+            }
+        });
+    }
+
+    /**
+     * Migrate spawners from data in the spawners_data.yml layout, e.g. a converted binary snapshot.
+     * @param yamlData spawner data to insert
+     * @param markMigrated called once the data was migrated, to retire its source
+     * @return true if migration was successful
+     */
+    public boolean migrate(FileConfiguration yamlData, Runnable markMigrated) {
+        ConfigurationSection spawnersSection = yamlData.getConfigurationSection("spawners");
+        if (spawnersSection == null) {
+            return true;
+        }
+
         int totalSpawners = spawnersSection.getKeys(false).size();
         int migratedCount = 0;
         int failedCount = 0;
@@ -200,14 +231,9 @@ public class YamlToDatabaseMigration {
 
             logger.info("Migration completed. Migrated: " + migratedCount + ", Failed: " + failedCount);
 
-            // Rename the YAML file to prevent re-migration
+            // Mark the source as migrated to prevent re-migration
             if (failedCount == 0 || migratedCount > 0) {
-                File migratedFile = new File(plugin.getDataFolder(), YAML_FILE_NAME + MIGRATED_FILE_SUFFIX);
-                if (yamlFile.renameTo(migratedFile)) {
-                    logger.info("YAML file renamed to " + YAML_FILE_NAME + MIGRATED_FILE_SUFFIX);
-                } else {
-                    logger.warning("Failed to rename YAML file. Manual cleanup may be required.");
-                }
+                markMigrated.run();
             }
 
             return failedCount == 0;
@@ -218,6 +244,11 @@ public class YamlToDatabaseMigration {
         }
     }
 
+    private FileConfiguration loadYamlData(File yamlFile) {
+        return SpawnerJournal.loadWithJournal(yamlFile,
+                new File(plugin.getDataFolder(), SpawnerFileHandler.JOURNAL_FILE_NAME), plugin.getDATA_VERSION(), logger);
+    }
+
     private boolean migrateSpawner(PreparedStatement stmt, FileConfiguration yamlData, String spawnerId) throws SQLException {
         String path = "spawners." + spawnerId;
 
@@ -355,6 +386,8 @@ public class YamlToDatabaseMigration {
         stmt.setString(23, preferredSortItemStr);
         stmt.setString(24, filteredItemsStr);
         stmt.setString(25, inventoryJson);
+        stmt.setLong(26, inventoryJson != null
+                ? InventoryCodec.countItems(inventoryJson.getBytes(StandardCharsets.UTF_8)) : 0);
 
         return true;
     }
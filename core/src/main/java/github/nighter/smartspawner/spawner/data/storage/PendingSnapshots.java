@@ -0,0 +1,39 @@
+package github.nighter.smartspawner.spawner.data.storage;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latest state of every modified spawner, captured when it was marked and consumed by the
+ * storage writer. Marks that arrive before the next flush coalesce into the newest snapshot,
+ * which also carries the dirty fields of the ones it replaced.
+ */
+public final class PendingSnapshots {
+    private final Map<String, SpawnerSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * Records a freshly captured snapshot. It replaces any pending one for the same spawner.
+     */
+    public void put(SpawnerSnapshot snapshot) {
+        snapshots.merge(snapshot.spawnerId(), snapshot, (older, newer) -> newer.coalesce(older));
+    }
+
+    /**
+     * Hands back a snapshot whose write failed. A newer snapshot captured meanwhile wins,
+     * but keeps the dirty fields of the failed one.
+     */
+    public void restore(SpawnerSnapshot failed) {
+        snapshots.merge(failed.spawnerId(), failed, (newer, older) -> newer.coalesce(older));
+    }
+
+    /**
+     * @return the pending snapshot of a spawner, removing it, or null if there is none
+     */
+    public SpawnerSnapshot take(String spawnerId) {
+        return snapshots.remove(spawnerId);
+    }
+
+    public void remove(String spawnerId) {
+        snapshots.remove(spawnerId);
+    }
+}
@@ -0,0 +1,42 @@
+package github.nighter.smartspawner.spawner.data.storage;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-phase timings of the startup spawner load.
+ * I/O and decode time are summed over all loader threads, so with several threads
+ * they can exceed the wall-clock time of the load.
+ */
+public class SpawnerLoadTimings {
+    private final LongAdder ioNanos = new LongAdder();
+    private final LongAdder decodeNanos = new LongAdder();
+    private final LongAdder indexNanos = new LongAdder();
+    private final LongAdder hologramNanos = new LongAdder();
+    private final LongAdder decodedSpawners = new LongAdder();
+
+    public void addIo(long nanos) {
+        ioNanos.add(nanos);
+    }
+
+    public void addDecode(long nanos, int spawners) {
+        decodeNanos.add(nanos);
+        decodedSpawners.add(spawners);
+    }
+
+    public void addIndex(long nanos) {
+        indexNanos.add(nanos);
+    }
+
+    public void addHolograms(long nanos) {
+        hologramNanos.add(nanos);
+    }
+
+    public String summary(long wallNanos, int threads) {
+        return String.format("total %dms on %d threads (I/O %dms, decode %dms for %d spawners, indexing %dms, holograms %dms)",
+                wallNanos / 1_000_000, threads,
+                ioNanos.sum() / 1_000_000,
+                decodeNanos.sum() / 1_000_000, decodedSpawners.sum(),
+                indexNanos.sum() / 1_000_000,
+                hologramNanos.sum() / 1_000_000);
+    }
+}
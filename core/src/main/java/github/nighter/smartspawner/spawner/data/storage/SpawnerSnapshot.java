@@ -0,0 +1,97 @@
+package github.nighter.smartspawner.spawner.data.storage;
+
+import github.nighter.smartspawner.spawner.properties.SpawnerData;
+import github.nighter.smartspawner.spawner.properties.VirtualInventory;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.entity.EntityType;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable copy of a spawner's persisted state, taken when the spawner is marked as modified.
+ * Storage writers only read snapshots, so serialization never touches {@link SpawnerData} or its
+ * locks and can run on any thread. The inventory is the inventory's own immutable items view,
+ * so capturing a snapshot does not copy the stored items.
+ *
+ * @param dirtyFields {@link SpawnerData#DIRTY_LOOT}, {@link SpawnerData#DIRTY_STACK} and/or
+ *                    {@link SpawnerData#DIRTY_SETTINGS} changed since the last write, 0 if unknown
+ */
+public record SpawnerSnapshot(
+        String spawnerId,
+        String worldName, int x, int y, int z,
+        EntityType entityType,
+        Material itemSpawnerMaterial,
+        long spawnerExp,
+        boolean active,
+        int range,
+        boolean stopped,
+        long spawnDelay,
+        int maxSpawnerLootSlots,
+        long maxStoredExp,
+        int minMobs,
+        int maxMobs,
+        int stackSize,
+        int maxStackSize,
+        long lastSpawnTime,
+        boolean atCapacity,
+        String lastInteractedPlayer,
+        Material preferredSortItem,
+        Set<Material> filteredItems,
+        Map<VirtualInventory.ItemSignature, Long> items,
+        int dirtyFields) {
+
+    /**
+     * Captures the current state and takes the spawner's pending dirty fields.
+     * Should run on the thread that modified the spawner.
+     */
+    public static SpawnerSnapshot capture(SpawnerData spawner) {
+        Location loc = spawner.getSpawnerLocation();
+        VirtualInventory virtualInv = spawner.getVirtualInventory();
+        Set<Material> filtered = spawner.getFilteredItems();
+
+        return new SpawnerSnapshot(
+                spawner.getSpawnerId(),
+                loc.getWorld().getName(), loc.getBlockX(), loc.getBlockY(), loc.getBlockZ(),
+                spawner.getEntityType(),
+                spawner.isItemSpawner() ? spawner.getSpawnedItemMaterial() : null,
+                Math.max(0L, spawner.getSpawnerExp()),
+                spawner.getSpawnerActive(),
+                spawner.getSpawnerRange(),
+                spawner.getSpawnerStop().get(),
+                spawner.getSpawnDelay(),
+                spawner.getMaxSpawnerLootSlots(),
+                spawner.getMaxStoredExp(),
+                spawner.getMinMobs(),
+                spawner.getMaxMobs(),
+                spawner.getStackSize(),
+                spawner.getMaxStackSize(),
+                spawner.getLastSpawnTime(),
+                spawner.getIsAtCapacity(),
+                spawner.getLastInteractedPlayer(),
+                spawner.getPreferredSortItem(),
+                filtered == null || filtered.isEmpty() ? Set.of() : Set.copyOf(filtered),
+                virtualInv != null ? virtualInv.getItemsView() : Map.of(),
+                spawner.takeDirtyFields());
+    }
+
+    public String locationString() {
+        return worldName + "," + x + "," + y + "," + z;
+    }
+
+    /**
+     * @return this snapshot, additionally carrying the dirty fields of an older one it replaces
+     */
+    public SpawnerSnapshot coalesce(SpawnerSnapshot older) {
+        // Unknown fields on either side mean the whole spawner has to be written
+        int merged = dirtyFields == 0 || older.dirtyFields == 0 ? 0 : dirtyFields | older.dirtyFields;
+        if (merged == dirtyFields) {
+            return this;
+        }
+        return new SpawnerSnapshot(spawnerId, worldName, x, y, z, entityType, itemSpawnerMaterial,
+                spawnerExp, active, range, stopped, spawnDelay, maxSpawnerLootSlots, maxStoredExp,
+                minMobs, maxMobs, stackSize, maxStackSize, lastSpawnTime, atCapacity,
+                lastInteractedPlayer, preferredSortItem, filteredItems, items, merged);
+    }
+}
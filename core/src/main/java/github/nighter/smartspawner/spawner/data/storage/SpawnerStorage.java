@@ -1,8 +1,12 @@
 package github.nighter.smartspawner.spawner.data.storage;
 
+import github.nighter.smartspawner.spawner.data.SpawnerStub;
 import github.nighter.smartspawner.spawner.properties.SpawnerData;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 /**
  * Interface defining storage operations for spawner data.
@@ -30,6 +34,45 @@ public interface SpawnerStorage {
      */
     Map<String, SpawnerData> loadAllSpawnersRaw();
 
+    /**
+     * Split loading all spawners into independent tasks, typically one per world, that the
+     * startup loader runs on a worker pool. Each task returns its spawners the same way as
+     * {@link #loadAllSpawnersRaw()}. Tasks must not touch the SpawnerManager indexes.
+     * The default is a single task wrapping {@link #loadAllSpawnersRaw()}.
+     * @param timings receives I/O and decode times
+     * @return load tasks
+     */
+    default List<Callable<Map<String, SpawnerData>>> createLoadPartitions(SpawnerLoadTimings timings) {
+        return List.of(() -> {
+            long start = System.nanoTime();
+            Map<String, SpawnerData> loaded = loadAllSpawnersRaw();
+            timings.addDecode(System.nanoTime() - start, loaded.size());
+            return loaded;
+        });
+    }
+
+    /**
+     * Split per-world groups into slices of at most {@code maxSize} entries,
+     * so one very large world still spreads over several load tasks.
+     */
+    static <T> List<List<T>> partitionByWorld(Map<String, List<T>> byWorld, int maxSize) {
+        List<List<T>> partitions = new ArrayList<>();
+        for (List<T> worldEntries : byWorld.values()) {
+            for (int from = 0; from < worldEntries.size(); from += maxSize) {
+                partitions.add(worldEntries.subList(from, Math.min(worldEntries.size(), from + maxSize)));
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * Load the lightweight stub of every stored spawner, without decoding inventories.
+     * Used by lazy loading, which hydrates full spawners per chunk.
+     * Stubs are returned for all worlds, loaded or not.
+     * @return stubs of all stored spawners
+     */
+    List<SpawnerStub> loadAllStubs();
+
     /**
      * Load a specific spawner by ID.
      * @param spawnerId The spawner ID to load
@@ -61,6 +104,14 @@ public interface SpawnerStorage {
      */
     void flushChanges();
 
+    /**
+     * Check whether a spawner has changes that have not been written yet.
+     * Lazy loading keeps evicted spawners reachable until this returns false.
+     * @param spawnerId The spawner ID
+     * @return true if the spawner is queued or a flush is in progress
+     */
+    boolean hasPendingChanges(String spawnerId);
+
     /**
      * Get the raw location string for a spawner.
      * Used by WorldEventHandler for pending spawner loading.
@@ -22,5 +22,12 @@ public enum StorageMode {
      * Local file-based database, no external server required.
      * Good for single-server setups wanting database performance without MariaDB.
      */
-    SQLITE
+    SQLITE,
+
+    /**
+     * Binary snapshot storage.
+     * Spawner data is stored in spawners_data.bin, a compact fixed-width record format
+     * that loads much faster than YAML on servers with many spawners.
+     */
+    BINARY
 }
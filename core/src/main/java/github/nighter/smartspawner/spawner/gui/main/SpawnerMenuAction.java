@@ -316,14 +316,13 @@ public class SpawnerMenuAction implements Listener {
         }
 
         spawner.setSpawnerExp(0);
-        plugin.getSpawnerManager().markSpawnerModified(spawner.getSpawnerId());
-        spawnerGuiViewManager.updateSpawnerMenuViewers(spawner);
-
         if (spawner.getSpawnerExp() < spawner.getMaxStoredExp()) {
             if (spawner.getIsAtCapacity()) {
                 spawner.setIsAtCapacity(false);
             }
         }
+        plugin.getSpawnerManager().markSpawnerModified(spawner, SpawnerData.DIRTY_LOOT);
+        spawnerGuiViewManager.updateSpawnerMenuViewers(spawner);
 
         sendExpCollectionMessage(player, initialExp, expUsedForMending);
         return true;
@@ -370,7 +369,13 @@ public class SpawnerMenuAction implements Listener {
 
         // Reset spawner exp and update menu
         spawner.setSpawnerExp(0);
-        plugin.getSpawnerManager().markSpawnerModified(spawner.getSpawnerId());
+        // Update spawner capacity status
+        if (spawner.getSpawnerExp() < spawner.getMaxStoredExp()) {
+            if (spawner.getIsAtCapacity()) {
+                spawner.setIsAtCapacity(false);
+            }
+        }
+        plugin.getSpawnerManager().markSpawnerModified(spawner, SpawnerData.DIRTY_LOOT);
         
         // Check if player is Bedrock and use appropriate menu
         if (isBedrockPlayer(player)) {
@@ -387,13 +392,6 @@ public class SpawnerMenuAction implements Listener {
         // Update all viewers instead of just current player
         spawnerGuiViewManager.updateSpawnerMenuViewers(spawner);
 
-        // Update spawner capacity status
-        if (spawner.getSpawnerExp() < spawner.getMaxStoredExp()) {
-            if (spawner.getIsAtCapacity()) {
-                spawner.setIsAtCapacity(false);
-            }
-        }
-
         // Send appropriate message based on exp distribution
         sendExpCollectionMessage(player, initialExp, expUsedForMending);
     }
@@ -255,7 +255,7 @@ public class SpawnerMenuUI {
         }
         List<Component> lootComponents = Collections.emptyList();
         if (usedPlaceholders.contains("loot_items")) {
-            Map<VirtualInventory.ItemSignature, Long> storedItems = virtualInventory.getConsolidatedItems();
+            Map<VirtualInventory.ItemSignature, Long> storedItems = virtualInventory.getItemsView();
             lootComponents = buildLootItemComponents(spawner.getEntityType(), storedItems);
         }
 
@@ -164,7 +164,7 @@ public class SpawnerSellConfirmUI {
 
     private ItemStack createSpawnerInfoButton(Player player, SpawnerData spawner, Map<String, String> placeholders) {
         // Build loot item components for {loot_items} placeholder
-        Map<VirtualInventory.ItemSignature, Long> storedItems = spawner.getVirtualInventory().getConsolidatedItems();
+        Map<VirtualInventory.ItemSignature, Long> storedItems = spawner.getVirtualInventory().getItemsView();
         List<Component> lootComponents = buildSellInfoLootComponents(spawner, storedItems);
 
         // Prepare the meta modifier consumer
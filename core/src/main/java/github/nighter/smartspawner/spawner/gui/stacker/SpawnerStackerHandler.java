@@ -356,7 +356,7 @@ public class SpawnerStackerHandler implements Listener {
 
             // Update stack size first (after capacity check, so it's safe)
             spawner.setStackSize(finalTargetSize);
-            spawnerManager.markSpawnerModified(spawner.getSpawnerId());
+            spawnerManager.markSpawnerModified(spawner, SpawnerData.DIRTY_STACK | SpawnerData.DIRTY_LOOT);
 
             // Give spawners to player after decreasing stack
             if (spawner.isItemSpawner()) {
@@ -443,7 +443,7 @@ public class SpawnerStackerHandler implements Listener {
         spawner.setStackSize(currentSize + actualChange);
 
         // Mark spawner as modified for database save
-        spawnerManager.markSpawnerModified(spawner.getSpawnerId());
+        spawnerManager.markSpawnerModified(spawner, SpawnerData.DIRTY_STACK | SpawnerData.DIRTY_LOOT);
 
         // Notify if max stack reached
         if (actualChange < changeAmount) {
@@ -508,7 +508,7 @@ public class SpawnerStackerHandler implements Listener {
 
         // Update stack size after removing from inventory
         spawner.setStackSize(currentSize + actualChange);
-        spawnerManager.markSpawnerModified(spawner.getSpawnerId());
+        spawnerManager.markSpawnerModified(spawner, SpawnerData.DIRTY_STACK | SpawnerData.DIRTY_LOOT);
 
         player.playSound(player.getLocation(), STACK_SOUND, SOUND_VOLUME, SOUND_PITCH);
     }
@@ -554,7 +554,7 @@ public class SpawnerStackerHandler implements Listener {
 
             // Update stack size first (after capacity check, so it's safe)
             spawner.setStackSize(finalNewStackSize);
-            spawnerManager.markSpawnerModified(spawner.getSpawnerId());
+            spawnerManager.markSpawnerModified(spawner, SpawnerData.DIRTY_STACK | SpawnerData.DIRTY_LOOT);
 
             // Give spawners to player after decreasing stack
             if (spawner.isItemSpawner()) {
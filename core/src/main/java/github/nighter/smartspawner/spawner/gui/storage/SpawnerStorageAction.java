@@ -622,7 +622,7 @@ public class SpawnerStorageAction implements Listener {
     private void openMainMenu(Player player, SpawnerData spawner) {
         player.playSound(player.getLocation(), Sound.UI_BUTTON_CLICK, 1.0f, 1.0f);
         if (spawner.isStorageDirty()){
-            spawnerManager.markSpawnerModified(spawner.getSpawnerId());
+            spawnerManager.markSpawnerModified(spawner, SpawnerData.DIRTY_LOOT);
             spawner.clearStorageDirty();
         }
 
@@ -707,7 +707,7 @@ public class SpawnerStorageAction implements Listener {
 
         // Mark spawner as modified to save the preference
         spawner.markStorageDirty();
-        spawnerManager.queueSpawnerForSaving(spawner.getSpawnerId());
+        spawnerManager.markSpawnerModified(spawner, SpawnerData.DIRTY_SETTINGS);
 
         // Re-sort VirtualInventory
         spawner.getVirtualInventory().sortItems(nextSort);
@@ -931,7 +931,7 @@ public class SpawnerStorageAction implements Listener {
 
         SpawnerData spawner = holder.getSpawnerData();
         if (spawner.isStorageDirty()){
-            plugin.getSpawnerManager().markSpawnerModified(spawner.getSpawnerId());
+            plugin.getSpawnerManager().markSpawnerModified(spawner, SpawnerData.DIRTY_LOOT);
             spawner.clearStorageDirty();
         }
     }
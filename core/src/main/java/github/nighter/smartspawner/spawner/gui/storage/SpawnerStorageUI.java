@@ -287,27 +287,17 @@ public class SpawnerStorageUI {
     private void addPageItems(Map<Integer, ItemStack> updates, Set<Integer> slotsToEmpty,
                               SpawnerData spawner, int page) {
         try {
-            // Get display items directly from VirtualInventory (source of truth)
-            VirtualInventory virtualInv = spawner.getVirtualInventory();
-            Map<Integer, ItemStack> displayItems = virtualInv.getDisplayInventory();
-
-            if (displayItems.isEmpty()) {
-                return;
-            }
-
             // Calculate start index for current page
             int startIndex = (page - 1) * StoragePageHolder.MAX_ITEMS_PER_PAGE;
 
-            // Add items for this page
-            for (Map.Entry<Integer, ItemStack> entry : displayItems.entrySet()) {
-                int globalIndex = entry.getKey();
+            // Build only this page's items directly from VirtualInventory (source of truth)
+            VirtualInventory virtualInv = spawner.getVirtualInventory();
+            Map<Integer, ItemStack> pageItems = virtualInv.getDisplayRange(startIndex, StoragePageHolder.MAX_ITEMS_PER_PAGE);
 
-                // Check if item belongs on this page
-                if (globalIndex >= startIndex && globalIndex < startIndex + StoragePageHolder.MAX_ITEMS_PER_PAGE) {
-                    int displaySlot = globalIndex - startIndex;
-                    updates.put(displaySlot, entry.getValue());
-                    slotsToEmpty.remove(displaySlot);
-                }
+            for (Map.Entry<Integer, ItemStack> entry : pageItems.entrySet()) {
+                int displaySlot = entry.getKey() - startIndex;
+                updates.put(displaySlot, entry.getValue());
+                slotsToEmpty.remove(displaySlot);
             }
         } finally {
             spawner.getInventoryLock().unlock();
@@ -536,7 +526,7 @@ public class SpawnerStorageUI {
     }
 
     private ItemStack createStorageSpawnerInfoButton(SpawnerData spawner, Material material) {
-        Map<VirtualInventory.ItemSignature, Long> storedItems = spawner.getVirtualInventory().getConsolidatedItems();
+        Map<VirtualInventory.ItemSignature, Long> storedItems = spawner.getVirtualInventory().getItemsView();
         List<Component> lootComponents = buildStorageInfoLootComponents(spawner, storedItems);
 
         Map<String, String> placeholders = new HashMap<>();
@@ -263,7 +263,7 @@ public class FilterConfigUI implements Listener {
         }
         
         var spawnerManager = plugin.getSpawnerManager();
-        SpawnerData current = spawnerManager.getSpawnerById(spawner.getSpawnerId());
+        SpawnerData current = spawnerManager.getLoadedSpawnerById(spawner.getSpawnerId());
         return current != null && current == spawner;
     }
 
@@ -289,6 +289,7 @@ public class FilterConfigUI implements Listener {
 
         // Toggle filter status
         boolean wasFiltered = spawner.toggleItemFilter(itemType);
+        plugin.getSpawnerManager().markSpawnerModified(spawner, SpawnerData.DIRTY_SETTINGS);
 
         // Play sound based on action result
         Sound sound = wasFiltered ? Sound.BLOCK_NOTE_BLOCK_PLING : Sound.UI_BUTTON_CLICK;
@@ -3,10 +3,10 @@ package github.nighter.smartspawner.spawner.gui.synchronization.utils;
 import github.nighter.smartspawner.SmartSpawner;
 import github.nighter.smartspawner.Scheduler;
 import github.nighter.smartspawner.spawner.properties.SpawnerData;
+import github.nighter.smartspawner.spawner.properties.VirtualInventory;
 import org.bukkit.Location;
-import org.bukkit.inventory.ItemStack;
 
-import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -116,7 +116,7 @@ public final class LootPreGenerationHelper {
                                 }
 
                                 if (spawner.hasPreGeneratedLoot()) {
-                                    List<ItemStack> items = spawner.getAndClearPreGeneratedItems();
+                                    Map<VirtualInventory.ItemSignature, Long> items = spawner.getAndClearPreGeneratedItems();
                                     long exp = spawner.getAndClearPreGeneratedExperience();
 
                                     // Add the loot with scheduled spawn time for accurate timer reset
@@ -83,8 +83,13 @@ public class SpawnerClickManager implements Listener {
         Player player = event.getPlayer();
         Block block = event.getClickedBlock();
 
-        SpawnerData spawner = spawnerManager.getSpawnerByLocation(block.getLocation());
+        SpawnerData spawner = spawnerManager.getLoadedSpawnerByLocation(block.getLocation());
         if (spawner == null) {
+            if (spawnerManager.isSpawnerLoading(block.getLocation())) {
+                // Stored smart spawner, don't let vanilla handle it while its data loads
+                spawnerManager.hydrateAsync(block.getLocation());
+                event.setCancelled(true);
+            }
             return;
         }
 
@@ -114,7 +114,13 @@ public class SpawnerBreakListener implements Listener {
             return;
         }
 
-        final SpawnerData spawner = spawnerManager.getSpawnerByLocation(location);
+        final SpawnerData spawner = spawnerManager.getLoadedSpawnerByLocation(location);
+        if (spawner == null && spawnerManager.isSpawnerLoading(location)) {
+            // Stored smart spawner, load its data so the player can retry in a moment
+            spawnerManager.hydrateAsync(location);
+            event.setCancelled(true);
+            return;
+        }
 
         if (!naturalBreakable) {
             if (spawner == null) {
@@ -164,7 +170,7 @@ public class SpawnerBreakListener implements Listener {
 
         try {
             // Re-verify spawner still exists after acquiring lock
-            SpawnerData currentSpawner = spawnerManager.getSpawnerByLocation(location);
+            SpawnerData currentSpawner = spawnerManager.getLoadedSpawnerByLocation(location);
             if (currentSpawner == null || !currentSpawner.getSpawnerId().equals(spawner.getSpawnerId())) {
                 // Spawner was removed/changed by another operation
                 return;
@@ -329,7 +335,7 @@ public class SpawnerBreakListener implements Listener {
         if (result.isFullyRemoved()) {
             cleanupSpawner(spawnerBlock, spawner);
         } else {
-            spawnerManager.markSpawnerModified(spawner.getSpawnerId());
+            spawnerManager.markSpawnerModified(spawner, SpawnerData.DIRTY_STACK | SpawnerData.DIRTY_LOOT);
         }
 
         if (directToInventory) {
@@ -520,7 +526,7 @@ public class SpawnerBreakListener implements Listener {
             return;
         }
 
-        SpawnerData spawner = spawnerManager.getSpawnerByLocation(block.getLocation());
+        SpawnerData spawner = spawnerManager.getLoadedSpawnerByLocation(block.getLocation());
         if (spawner != null) {
             messageService.sendMessage(player, "spawner_break_warning");
         }
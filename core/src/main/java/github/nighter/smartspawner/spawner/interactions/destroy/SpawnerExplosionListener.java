@@ -68,7 +68,7 @@ public class SpawnerExplosionListener implements Listener {
             Material type = block.getType();
 
             if (type == Material.SPAWNER) {
-                SpawnerData spawnerData = spawnerManager.getSpawnerByLocation(block.getLocation());
+                SpawnerData spawnerData = spawnerManager.getLoadedSpawnerByLocation(block.getLocation());
 
                 if (spawnerData != null) {
                     if (protectSpawners) {
@@ -88,6 +88,10 @@ public class SpawnerExplosionListener implements Listener {
                         spawnerManager.removeSpawner(spawnerId);
                         spawnerManager.markSpawnerDeleted(spawnerId);
                     }
+                } else if (spawnerManager.isSpawnerLoading(block.getLocation())) {
+                    // A stored smart spawner survives until its data is loaded
+                    spawnerManager.hydrateAsync(block.getLocation());
+                    it.remove();
                 } else if (protectNatural) {
                     it.remove();
                 }
@@ -108,8 +112,7 @@ public class SpawnerExplosionListener implements Listener {
                 for (int z = -protectionRadius; z <= protectionRadius; z++) {
                     Block nearbyBlock = anchorBlock.getRelative(x, y, z);
                     if (nearbyBlock.getType() == Material.SPAWNER) {
-                        SpawnerData spawnerData = spawnerManager.getSpawnerByLocation(nearbyBlock.getLocation());
-                        if (spawnerData != null) {
+                        if (spawnerManager.hasSpawnerAt(nearbyBlock.getLocation())) {
                             return true;
                         }
                     }
@@ -70,6 +70,12 @@ public class SpawnerPlaceListener implements Listener {
             return;
         }
 
+        // A stored spawner is still registered here, its block was replaced without an event
+        if (spawnerManager.isSpawnerLoading(block.getLocation())) {
+            event.setCancelled(true);
+            return;
+        }
+
         if (!(meta instanceof BlockStateMeta blockMeta)) {
             event.setCancelled(true);
             return;
@@ -278,7 +284,7 @@ public class SpawnerPlaceListener implements Listener {
 
     private void createSmartSpawner(Block block, Player player, EntityType entityType, int stackSize) {
         // Check if a spawner already exists at this location (prevent duplicates/ghost spawners)
-        SpawnerData existingSpawner = spawnerManager.getSpawnerByLocation(block.getLocation());
+        SpawnerData existingSpawner = spawnerManager.getLoadedSpawnerByLocation(block.getLocation());
         if (existingSpawner != null) {
             plugin.debug("Spawner already exists at " + block.getLocation() + " with ID " + existingSpawner.getSpawnerId());
             // Update the existing spawner instead of creating a duplicate
@@ -287,10 +293,11 @@ public class SpawnerPlaceListener implements Listener {
                 // Same type - add to stack
                 int newStackSize = existingSpawner.getStackSize() + stackSize;
                 existingSpawner.setStackSize(Math.min(newStackSize, existingSpawner.getMaxStackSize()));
-                spawnerManager.queueSpawnerForSaving(existingSpawner.getSpawnerId());
+                spawnerManager.markSpawnerModified(existingSpawner, SpawnerData.DIRTY_STACK | SpawnerData.DIRTY_LOOT);
                 messageService.sendMessage(player, "spawner_stacked");
             } else {
                 // Different type - just activate it
+                spawnerManager.markSpawnerModified(existingSpawner, SpawnerData.DIRTY_SETTINGS);
                 messageService.sendMessage(player, "spawner_activated");
             }
             return;
@@ -322,7 +329,7 @@ public class SpawnerPlaceListener implements Listener {
 
     private void createSmartItemSpawner(Block block, Player player, Material itemMaterial, int stackSize) {
         // Check if a spawner already exists at this location (prevent duplicates/ghost spawners)
-        SpawnerData existingSpawner = spawnerManager.getSpawnerByLocation(block.getLocation());
+        SpawnerData existingSpawner = spawnerManager.getLoadedSpawnerByLocation(block.getLocation());
         if (existingSpawner != null) {
             plugin.debug("Item spawner already exists at " + block.getLocation() + " with ID " + existingSpawner.getSpawnerId());
             // Update the existing spawner instead of creating a duplicate
@@ -331,10 +338,11 @@ public class SpawnerPlaceListener implements Listener {
                 // Same item type - add to stack
                 int newStackSize = existingSpawner.getStackSize() + stackSize;
                 existingSpawner.setStackSize(Math.min(newStackSize, existingSpawner.getMaxStackSize()));
-                spawnerManager.queueSpawnerForSaving(existingSpawner.getSpawnerId());
+                spawnerManager.markSpawnerModified(existingSpawner, SpawnerData.DIRTY_STACK | SpawnerData.DIRTY_LOOT);
                 messageService.sendMessage(player, "spawner_stacked");
             } else {
                 // Different type - just activate it
+                spawnerManager.markSpawnerModified(existingSpawner, SpawnerData.DIRTY_SETTINGS);
                 messageService.sendMessage(player, "spawner_activated");
             }
             return;
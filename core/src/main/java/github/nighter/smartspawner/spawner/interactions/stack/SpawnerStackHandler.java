@@ -213,9 +213,6 @@ public class SpawnerStackHandler {
         // Update spawner data
         targetSpawner.setStackSize(newStack);
 
-        // Mark spawner as modified for database save
-        spawnerManager.markSpawnerModified(targetSpawner.getSpawnerId());
-
         if (targetSpawner.getIsAtCapacity()) {
             targetSpawner.setIsAtCapacity(false);
         }
@@ -223,6 +220,9 @@ public class SpawnerStackHandler {
         // Track player interaction for last interaction field
         targetSpawner.updateLastInteractedPlayer(player.getName());
 
+        // Mark spawner as modified for database save, after every change above
+        spawnerManager.markSpawnerModified(targetSpawner, SpawnerData.DIRTY_STACK | SpawnerData.DIRTY_LOOT | SpawnerData.DIRTY_SETTINGS);
+
         // Update player's inventory
         updatePlayerInventory(player, itemInHand, amountToStack);
 
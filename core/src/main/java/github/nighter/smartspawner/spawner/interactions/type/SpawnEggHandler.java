@@ -97,6 +97,7 @@ public class SpawnEggHandler {
         // Update spawner data
         spawnerData.setEntityType(newType);
         spawnerData.updateLastInteractedPlayer(player.getName());
+        plugin.getSpawnerManager().markSpawnerModified(spawnerData, SpawnerData.DIRTY_SETTINGS);
 
         // Update physical spawner
         spawner.setSpawnedType(newType);
@@ -0,0 +1,64 @@
+package github.nighter.smartspawner.spawner.lootgen;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters for batched loot application, used to confirm how many scheduler
+ * tasks each loot batch costs compared to one task chain per spawner.
+ */
+public class LootBatchMetrics {
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong spawners = new AtomicLong();
+    private final AtomicLong regionTasks = new AtomicLong();
+    private final AtomicLong busyRetries = new AtomicLong();
+    private volatile int lastBatchSize;
+    private volatile int lastTaskCount;
+
+    void recordBatch(int batchSize, int taskCount) {
+        batches.incrementAndGet();
+        spawners.addAndGet(batchSize);
+        regionTasks.addAndGet(taskCount);
+        this.lastBatchSize = batchSize;
+        this.lastTaskCount = taskCount;
+    }
+
+    void recordBusyRetry() {
+        busyRetries.incrementAndGet();
+    }
+
+    public long getTotalBatches() {
+        return batches.get();
+    }
+
+    public long getTotalSpawners() {
+        return spawners.get();
+    }
+
+    public long getTotalRegionTasks() {
+        return regionTasks.get();
+    }
+
+    public int getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    public int getLastTaskCount() {
+        return lastTaskCount;
+    }
+
+    public long getTotalBusyRetries() {
+        return busyRetries.get();
+    }
+
+    public double getAverageBatchSize() {
+        long count = batches.get();
+        return count == 0 ? 0.0 : (double) spawners.get() / count;
+    }
+
+    public String summary() {
+        return String.format("batches=%d, spawners=%d (avg %.1f per batch), region tasks=%d, "
+                        + "last batch=%d spawners in %d tasks, busy retries=%d",
+                getTotalBatches(), getTotalSpawners(), getAverageBatchSize(), getTotalRegionTasks(),
+                getLastBatchSize(), getLastTaskCount(), getTotalBusyRetries());
+    }
+}
@@ -1,8 +1,8 @@
 package github.nighter.smartspawner.spawner.lootgen;
 
-import org.bukkit.inventory.ItemStack;
+import github.nighter.smartspawner.spawner.properties.VirtualInventory;
 
-import java.util.List;
+import java.util.Map;
 
-public record LootResult(List<ItemStack> items, long experience) {
+public record LootResult(Map<VirtualInventory.ItemSignature, Long> items, long experience) {
 }
\ No newline at end of file
@@ -3,7 +3,7 @@ package github.nighter.smartspawner.spawner.lootgen;
 import org.bukkit.Location;
 import java.util.UUID;
 
-record PlayerRangeWrapper(UUID worldUID, double x, double y, double z, boolean spawnConditions) {
+record PlayerRangeWrapper(UUID playerUID, UUID worldUID, double x, double y, double z, boolean spawnConditions) {
 
     double distanceSquared(Location loc2) {
         double dx = this.x - loc2.getX();
@@ -11,4 +11,17 @@ record PlayerRangeWrapper(UUID worldUID, double x, double y, double z, boolean s
         double dz = this.z - loc2.getZ();
         return dx * dx + dy * dy + dz * dz;
     }
-}
\ No newline at end of file
+
+    /**
+     * Whether this snapshot would produce the same range results as another one,
+     * i.e. same world, same exact position and same eligibility.
+     * Any movement counts, since even a sub-block step can cross a range boundary.
+     */
+    boolean sameRangeState(PlayerRangeWrapper other) {
+        return spawnConditions == other.spawnConditions
+                && worldUID.equals(other.worldUID)
+                && x == other.x
+                && y == other.y
+                && z == other.z;
+    }
+}
@@ -1,52 +1,83 @@
 package github.nighter.smartspawner.spawner.lootgen;
 
+import github.nighter.smartspawner.spawner.data.SpawnerSpatialIndex;
 import github.nighter.smartspawner.spawner.properties.SpawnerData;
 import org.bukkit.Location;
-import org.bukkit.World;
 
-import java.util.List;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 import java.util.UUID;
 
 class RangeMath {
-    private final List<SpawnerData> spawners;
+    private final SpawnerSpatialIndex spatialIndex;
     private final PlayerRangeWrapper[] rangePlayers;
 
-    public RangeMath(PlayerRangeWrapper[] players, List<SpawnerData> spawners) {
-        this.spawners = spawners;
+    public RangeMath(PlayerRangeWrapper[] players, SpawnerSpatialIndex spatialIndex) {
+        this.spatialIndex = spatialIndex;
         this.rangePlayers = players;
     }
 
-    public boolean[] getActiveSpawners() {
-        final boolean[] activeSpawners = new boolean[spawners.size()];
-        boolean playerFound;
+    /**
+     * Collects every spawner that has at least one eligible player inside its range.
+     * Only the chunk cells that can intersect a player's reach are visited, so the cost
+     * scales with the spawners near players instead of all loaded spawners.
+     *
+     * @return identity set of spawners that should be running
+     */
+    public Set<SpawnerData> getActiveSpawners() {
+        final Set<SpawnerData> activeSpawners = Collections.newSetFromMap(new IdentityHashMap<>());
+        final int maxRange = spatialIndex.getMaxRange();
 
-        for (int i = 0; i < spawners.size(); i++) {
-            SpawnerData s = spawners.get(i);
-            final Location spawnerLoc = s.getSpawnerLocation();
-            if (spawnerLoc == null) continue;
+        for (PlayerRangeWrapper p : rangePlayers) {
+            if (!p.spawnConditions()) continue;
+            if (!spatialIndex.hasWorld(p.worldUID())) continue;
 
-            final World locWorld = spawnerLoc.getWorld();
-            if (locWorld == null) continue;
+            final int minChunkX = (int) Math.floor(p.x() - maxRange) >> 4;
+            final int maxChunkX = (int) Math.floor(p.x() + maxRange) >> 4;
+            final int minChunkZ = (int) Math.floor(p.z() - maxRange) >> 4;
+            final int maxChunkZ = (int) Math.floor(p.z() + maxRange) >> 4;
 
-            final UUID worldUID = locWorld.getUID();
-            final double rangeSq = s.getSpawnerRange() * s.getSpawnerRange();
+            for (int cx = minChunkX; cx <= maxChunkX; cx++) {
+                for (int cz = minChunkZ; cz <= maxChunkZ; cz++) {
+                    for (SpawnerData s : spatialIndex.getSpawnersInChunk(p.worldUID(), cx, cz)) {
+                        if (activeSpawners.contains(s)) continue;
 
-            playerFound = false;
+                        final Location spawnerLoc = s.getSpawnerLocation();
+                        if (spawnerLoc == null) continue;
 
-            for (PlayerRangeWrapper p : rangePlayers) {
-                if (!p.spawnConditions()) continue;
-                if (!worldUID.equals(p.worldUID())) continue;
-
-                if (p.distanceSquared(spawnerLoc) <= rangeSq) {
-                    playerFound = true;
-                    break;
+                        final double rangeSq = s.getSpawnerRange() * s.getSpawnerRange();
+                        if (p.distanceSquared(spawnerLoc) <= rangeSq) {
+                            activeSpawners.add(s);
+                        }
+                    }
                 }
             }
-
-            activeSpawners[i] = playerFound;
         }
 
         return activeSpawners;
     }
 
+    /**
+     * Checks a single spawner against every eligible player.
+     * Used by incremental passes where only a handful of spawners need re-evaluation.
+     */
+    public boolean isInRange(SpawnerData s) {
+        final Location spawnerLoc = s.getSpawnerLocation();
+        if (spawnerLoc == null || spawnerLoc.getWorld() == null) return false;
+
+        final UUID worldUID = spawnerLoc.getWorld().getUID();
+        final double rangeSq = s.getSpawnerRange() * s.getSpawnerRange();
+
+        for (PlayerRangeWrapper p : rangePlayers) {
+            if (!p.spawnConditions()) continue;
+            if (!worldUID.equals(p.worldUID())) continue;
+
+            if (p.distanceSquared(spawnerLoc) <= rangeSq) {
+                return true;
+            }
+        }
+        return false;
+    }
+
 }
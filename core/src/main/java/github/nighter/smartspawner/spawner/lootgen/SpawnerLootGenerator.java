@@ -1,30 +1,52 @@
 package github.nighter.smartspawner.spawner.lootgen;
 
 import github.nighter.smartspawner.SmartSpawner;
+import github.nighter.smartspawner.extras.HopperService;
 import github.nighter.smartspawner.spawner.gui.synchronization.SpawnerGuiViewManager;
 import github.nighter.smartspawner.spawner.properties.SpawnerData;
 import github.nighter.smartspawner.spawner.data.SpawnerManager;
+import github.nighter.smartspawner.spawner.data.SpawnerSpatialIndex;
 import github.nighter.smartspawner.spawner.properties.VirtualInventory;
 import github.nighter.smartspawner.Scheduler;
-import github.nighter.smartspawner.spawner.lootgen.loot.LootItem;
+import github.nighter.smartspawner.spawner.lootgen.loot.CompiledLootTable;
+import github.nighter.smartspawner.utils.ChunkUtil;
 
 import org.bukkit.*;
-import org.bukkit.inventory.ItemStack;
 
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class SpawnerLootGenerator {
     private final SmartSpawner plugin;
     private final SpawnerGuiViewManager spawnerGuiViewManager;
     private final SpawnerManager spawnerManager;
-    private final Random random;
+    private final SpawnerLootScheduler lootScheduler;
+    private final LootBatchMetrics batchMetrics = new LootBatchMetrics();
+    // Batch statistics are logged to the console every interval, 0 disables the report
+    private volatile long batchReportIntervalMillis;
+    private final AtomicLong nextBatchReport = new AtomicLong();
 
     public SpawnerLootGenerator(SmartSpawner plugin) {
         this.plugin = plugin;
         this.spawnerGuiViewManager = plugin.getSpawnerGuiViewManager();
         this.spawnerManager = plugin.getSpawnerManager();
-        this.random = new Random();
+        this.lootScheduler = new SpawnerLootScheduler();
+        loadConfig();
+    }
+
+    public void loadConfig() {
+        int minutes = plugin.getConfig().getInt("performance.loot_batches.report_interval", 0);
+        this.batchReportIntervalMillis = Math.max(0, minutes) * 60_000L;
+        this.nextBatchReport.set(System.currentTimeMillis() + batchReportIntervalMillis);
+    }
+
+    public SpawnerLootScheduler getLootScheduler() {
+        return lootScheduler;
+    }
+
+    public LootBatchMetrics getBatchMetrics() {
+        return batchMetrics;
     }
 
     public void spawnLootToSpawner(SpawnerData spawner) {
@@ -60,21 +82,22 @@ public class SpawnerLootGenerator {
             final long spawnTime;
             final int minMobs;
             final int maxMobs;
-            final AtomicInteger usedSlots;
-            final AtomicInteger maxSlots;
+            final int usedSlots;
+            final int maxSlots;
             
             try {
                 // Timing is now managed by SpawnerRangeChecker (timer) and SpawnerGuiViewManager (spawn trigger)
                 // No need for time check here since spawn is only called when timer expires
                 
                 // Get exact inventory slot usage
-                usedSlots = new AtomicInteger(spawner.getVirtualInventory().getUsedSlots());
-                maxSlots = new AtomicInteger(spawner.getMaxSpawnerLootSlots());
+                usedSlots = spawner.getVirtualInventory().getUsedSlots();
+                maxSlots = spawner.getMaxSpawnerLootSlots();
 
                 // Check if both inventory and exp are full, only then skip loot generation
-                if (usedSlots.get() >= maxSlots.get() && spawner.getSpawnerExp() >= spawner.getMaxStoredExp()) {
+                if (usedSlots >= maxSlots && spawner.getSpawnerExp() >= spawner.getMaxStoredExp()) {
                     if (!spawner.getIsAtCapacity()) {
                         spawner.setIsAtCapacity(true);
+                        spawnerManager.markSpawnerModified(spawner, SpawnerData.DIRTY_LOOT);
                     }
                     return; // Skip generation if both exp and inventory are full
                 }
@@ -99,206 +122,339 @@ public class SpawnerLootGenerator {
                 }
 
                 // Switch back to main thread for Bukkit API calls using location-aware scheduling
-                Scheduler.runLocationTask(spawner.getSpawnerLocation(), () -> {
-                    // Re-acquire the lock for the update phase
-                    // This ensures the spawner hasn't been modified (like stack size changes)
-                    // between our async calculations and now
-                    boolean updateLockAcquired = spawner.getLootGenerationLock().tryLock();
-                    if (!updateLockAcquired) {
-                        // Lock is held, stack size is changing, skip this update
-                        return;
-                    }
+                Scheduler.runLocationTask(spawner.getSpawnerLocation(), () -> applyLoot(spawner, loot, spawnTime));
+            });
+        } finally {
+            spawner.getLootGenerationLock().unlock();
+        }
+    }
 
-                    try {
-                        // Modified approach: Handle items and exp separately
-                        boolean changed = false;
+    /**
+     * Generates and applies loot for every spawner whose cycle expired in the same range check pass.
+     * <p>
+     * Loot for the whole batch is generated in a single async job, then applied with one
+     * region task per chunk instead of one async task and one or two location tasks per spawner.
+     * Spawners in the same chunk always share a region, so one task can safely update all of them.
+     *
+     * @param dueSpawners spawners whose loot cycle is due
+     */
+    public void spawnLootBatch(List<SpawnerData> dueSpawners) {
+        if (dueSpawners.isEmpty()) {
+            return;
+        }
 
-                        // Process experience if there's any to add and not at max
-                        if (loot.experience() > 0 && spawner.getSpawnerExp() < spawner.getMaxStoredExp()) {
-                            long currentExp = spawner.getSpawnerExp();
-                            long maxExp = spawner.getMaxStoredExp();
-                            long newExpLong = (long) currentExp + loot.experience();
-                            long newExp = Math.min(newExpLong, maxExp);
+        final long spawnTime = System.currentTimeMillis();
 
-                            if (newExp != currentExp) {
-                                spawner.setSpawnerExp(newExp);
-                                changed = true;
-                            }
-                        }
+        Scheduler.runTaskAsync(() -> {
+            Map<SpawnerSpatialIndex.ChunkRef, List<PendingLoot>> lootByChunk = new LinkedHashMap<>();
 
-                        // Re-check max slots as it could have changed
-                        maxSlots.set(spawner.getMaxSpawnerLootSlots());
-                        usedSlots.set(spawner.getVirtualInventory().getUsedSlots());
+            for (SpawnerData spawner : dueSpawners) {
+                PendingLoot pending = generateDueLoot(spawner);
+                if (pending == null) {
+                    continue;
+                }
 
-                        // Process items if there are any to add and inventory isn't completely full
-                        if (!loot.items().isEmpty() && usedSlots.get() < maxSlots.get()) {
-                            List<ItemStack> itemsToAdd = new ArrayList<>(loot.items());
+                Location loc = spawner.getSpawnerLocation();
+                if (loc == null || loc.getWorld() == null) {
+                    continue;
+                }
 
-                            // Get exact calculation of slots with the new items
-                            int totalRequiredSlots = calculateRequiredSlots(itemsToAdd, spawner.getVirtualInventory());
+                SpawnerSpatialIndex.ChunkRef chunk = new SpawnerSpatialIndex.ChunkRef(loc.getWorld().getUID(),
+                        ChunkUtil.getChunkKey(loc.getBlockX() >> 4, loc.getBlockZ() >> 4));
+                lootByChunk.computeIfAbsent(chunk, k -> new ArrayList<>()).add(pending);
+            }
 
-                            // If we'll exceed the limit, limit the items we're adding
-                            if (totalRequiredSlots > maxSlots.get()) {
-                                itemsToAdd = limitItemsToAvailableSlots(itemsToAdd, spawner);
-                            }
+            for (List<PendingLoot> chunkLoot : lootByChunk.values()) {
+                Scheduler.runLocationTask(chunkLoot.getFirst().spawner().getSpawnerLocation(), () -> {
+                    for (PendingLoot pending : chunkLoot) {
+                        applyDueLoot(pending, spawnTime);
+                    }
+                });
+            }
 
-                            if (!itemsToAdd.isEmpty()) {
-                                spawner.addItemsAndUpdateSellValue(itemsToAdd);
-                                changed = true;
-                            }
-                        }
+            batchMetrics.recordBatch(dueSpawners.size(), lootByChunk.size());
+            plugin.debug("Loot batch: " + dueSpawners.size() + " due spawners, "
+                    + lootByChunk.size() + " region tasks");
+            reportBatchMetrics();
+        });
+    }
 
-                        if (!changed) {
-                            return;
-                        }
+    private void reportBatchMetrics() {
+        long interval = batchReportIntervalMillis;
+        if (interval <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long due = nextBatchReport.get();
+        if (now >= due && nextBatchReport.compareAndSet(due, now + interval)) {
+            plugin.getLogger().info("Loot batches: " + batchMetrics.summary());
+        }
+    }
 
-                        // Update spawn time only after successful loot addition
-                        // This prevents skipped spawns when the lock fails
-                        // Must acquire dataLock to safely update lastSpawnTime
-                        boolean updateDataLockAcquired = spawner.getDataLock().tryLock();
-                        if (updateDataLockAcquired) {
-                            try {
-                                spawner.setLastSpawnTime(spawnTime);
-                            } finally {
-                                spawner.getDataLock().unlock();
-                            }
-                        }
+    /**
+     * Loot of one due spawner. Pre-generated loot stays stored on the spawner until it was
+     * added, so a cycle that is skipped on the region thread doesn't lose it.
+     */
+    private record PendingLoot(SpawnerData spawner, LootResult loot, boolean preGenerated) {
+    }
 
-                        // Check if spawner is now at capacity and update status if needed
-                        spawner.updateCapacityStatus();
+    /**
+     * Produces the loot for one due spawner of a batch, preferring loot that was
+     * pre-generated for the GUI timer. Runs on the batch's async thread.
+     * A spawner that is busy is retried on the next range check pass.
+     *
+     * @return the loot to apply, or null if the spawner should be skipped this cycle
+     */
+    private PendingLoot generateDueLoot(SpawnerData spawner) {
+        // Skip loot generation while a sell is in progress to avoid inventory conflicts
+        if (spawner.isSelling()) {
+            retryNextPass(spawner);
+            return null;
+        }
+
+        LootResult preGenerated = spawner.peekPreGeneratedLoot();
+        if (preGenerated != null) {
+            return new PendingLoot(spawner, preGenerated, true);
+        }
+
+        // Don't wait on a busy spawner here, it would stall the whole batch
+        if (!spawner.getLootGenerationLock().tryLock()) {
+            retryNextPass(spawner);
+            return null;
+        }
 
-                        // Handle GUI updates in batches
-                        handleGuiUpdates(spawner);
+        try {
+            if (!spawner.getDataLock().tryLock()) {
+                retryNextPass(spawner);
+                return null;
+            }
 
-                        // Mark for saving only once
-                        spawnerManager.markSpawnerModified(spawner.getSpawnerId());
-                    } finally {
-                        spawner.getLootGenerationLock().unlock();
+            final int minMobs;
+            final int maxMobs;
+            final boolean itemStorageFull;
+            try {
+                itemStorageFull = spawner.getVirtualInventory().getUsedSlots() >= spawner.getMaxSpawnerLootSlots();
+                if (itemStorageFull && spawner.getSpawnerExp() >= spawner.getMaxStoredExp()) {
+                    if (!spawner.getIsAtCapacity()) {
+                        spawner.setIsAtCapacity(true);
+                        spawnerManager.markSpawnerModified(spawner, SpawnerData.DIRTY_LOOT);
                     }
-                });
-            });
+                    return null; // Skip generation if both exp and inventory are full
+                }
+                minMobs = spawner.getMinMobs();
+                maxMobs = spawner.getMaxMobs();
+            } finally {
+                spawner.getDataLock().unlock();
+            }
+
+            LootResult loot = itemStorageFull
+                    ? generateExperienceOnlyLoot(minMobs, maxMobs, spawner)
+                    : generateLoot(minMobs, maxMobs, spawner);
+            if (loot.items().isEmpty() && loot.experience() == 0) {
+                return null;
+            }
+            return new PendingLoot(spawner, loot, false);
         } finally {
             spawner.getLootGenerationLock().unlock();
         }
     }
 
-    public LootResult generateLoot(int minMobs, int maxMobs, SpawnerData spawner) {
+    /**
+     * The range check already re-armed the spawner a full cycle ahead; move that up to the
+     * next pass, as the range check does for a spawner whose lock is busy.
+     */
+    private void retryNextPass(SpawnerData spawner) {
+        batchMetrics.recordBusyRetry();
+        lootScheduler.schedule(spawner, System.currentTimeMillis() + SpawnerRangeChecker.CHECK_INTERVAL * 50L);
+    }
 
-        int mobCount = random.nextInt(maxMobs - minMobs + 1) + minMobs;
-        long totalExperienceLong = (long) spawner.getEntityExperienceValue() * mobCount;
-        long totalExperience = Math.min(totalExperienceLong, Long.MAX_VALUE);
+    /**
+     * Applies batch loot to a due spawner. Must run on the spawner's region thread.
+     */
+    private void applyDueLoot(PendingLoot pending, long spawnTime) {
+        SpawnerData spawner = pending.spawner();
 
-        // Get valid items from the spawner's EntityLootConfig
-        List<LootItem> validItems =  spawner.getValidLootItems();
+        // Final check before spawning
+        if (!spawner.getSpawnerActive() || spawner.getSpawnerStop().get()) {
+            spawner.clearPreGeneratedLoot();
+            return;
+        }
 
-        if (validItems.isEmpty()) {
-            return new LootResult(Collections.emptyList(), totalExperience);
+        // Loot was already added early by the GUI timer (for smooth UX), don't spawn twice
+        long timeSinceLastSpawn = System.currentTimeMillis() - spawner.getLastSpawnTime();
+        if (timeSinceLastSpawn < SpawnerLootScheduler.getCycleDelay(spawner) - 100) { // 100ms tolerance
+            if (spawnerGuiViewManager.hasViewers(spawner)) {
+                spawnerGuiViewManager.updateSpawnerMenuViewers(spawner);
+            }
+            return;
         }
 
-        // Use a Map to consolidate identical drops instead of List
-        Map<ItemStack, Integer> consolidatedLoot = new HashMap<>();
+        if (applyLoot(spawner, pending.loot(), spawnTime) && pending.preGenerated()) {
+            spawner.clearPreGeneratedLoot(pending.loot());
+        }
+    }
+
+    /**
+     * Adds generated loot to a spawner, updates its timer and schedules persistence.
+     * Must run on the spawner's region thread.
+     *
+     * @return true if the loot was added
+     */
+    private boolean applyLoot(SpawnerData spawner, LootResult loot, long spawnTime) {
+        // Re-acquire the lock for the update phase
+        // This ensures the spawner hasn't been modified (like stack size changes)
+        // between our async calculations and now
+        boolean updateLockAcquired = spawner.getLootGenerationLock().tryLock();
+        if (!updateLockAcquired) {
+            // Lock is held, stack size is changing, skip this update
+            return false;
+        }
 
-        // Process mobs in batch rather than individually
-        for (LootItem lootItem : validItems) {
-            // Calculate the probability for the entire mob batch at once
-            int successfulDrops = 0;
+        try {
+            if (!addLootWithinLimits(spawner, loot)) {
+                return false;
+            }
 
-            // Calculate binomial distribution - how many mobs will drop this item
-            for (int i = 0; i < mobCount; i++) {
-                if (random.nextDouble() * 100 <= lootItem.chance()) {
-                    successfulDrops++;
+            // Update spawn time only after successful loot addition
+            // This prevents skipped spawns when the lock fails
+            // Must acquire dataLock to safely update lastSpawnTime
+            boolean updateDataLockAcquired = spawner.getDataLock().tryLock();
+            if (updateDataLockAcquired) {
+                try {
+                    spawner.setLastSpawnTime(spawnTime);
+                    lootScheduler.rearm(spawner, spawnTime);
+                } finally {
+                    spawner.getDataLock().unlock();
                 }
             }
 
-            if (successfulDrops > 0) {
-                // Create item just once per loot type
-                ItemStack prototype = lootItem.createItemStack(random);
-                if (prototype != null) {
-                    // Total amount across all mobs
-                    int totalAmount = 0;
-                    for (int i = 0; i < successfulDrops; i++) {
-                        totalAmount += lootItem.generateAmount(random);
-                    }
+            // Check if spawner is now at capacity and update status if needed
+            spawner.updateCapacityStatus();
 
-                    if (totalAmount > 0) {
-                        // Add to consolidated map
-                        consolidatedLoot.merge(prototype, totalAmount, (a, b) -> a + b);
-                    }
-                }
+            // Already on the region thread, particles can be spawned directly
+            handleGuiUpdates(spawner, true);
+
+            // Mark for saving only once
+            spawnerManager.markSpawnerModified(spawner, SpawnerData.DIRTY_LOOT);
+            return true;
+        } finally {
+            spawner.getLootGenerationLock().unlock();
+        }
+    }
+
+    /**
+     * Adds loot to a spawner, clamping experience to the exp cap and items to the free slots.
+     * The caller must hold the spawner's loot generation lock.
+     *
+     * @return true if anything was added
+     */
+    private boolean addLootWithinLimits(SpawnerData spawner, LootResult loot) {
+        // Modified approach: Handle items and exp separately
+        boolean changed = false;
+
+        // Process experience if there's any to add and not at max
+        if (loot.experience() > 0 && spawner.getSpawnerExp() < spawner.getMaxStoredExp()) {
+            long currentExp = spawner.getSpawnerExp();
+            long maxExp = spawner.getMaxStoredExp();
+            long newExpLong = (long) currentExp + loot.experience();
+            long newExp = Math.min(newExpLong, maxExp);
+
+            if (newExp != currentExp) {
+                spawner.setSpawnerExp(newExp);
+                changed = true;
             }
         }
 
-        // Convert consolidated map to item stacks
-        List<ItemStack> finalLoot = new ArrayList<>(consolidatedLoot.size());
-        for (Map.Entry<ItemStack, Integer> entry : consolidatedLoot.entrySet()) {
-            ItemStack item = entry.getKey().clone();
-            item.setAmount(Math.min(entry.getValue(), item.getMaxStackSize()));
-            finalLoot.add(item);
-
-            // Handle amounts exceeding max stack size
-            int remaining = entry.getValue() - item.getMaxStackSize();
-            while (remaining > 0) {
-                ItemStack extraStack = item.clone();
-                extraStack.setAmount(Math.min(remaining, item.getMaxStackSize()));
-                finalLoot.add(extraStack);
-                remaining -= extraStack.getAmount();
+        // Re-check max slots as it could have changed
+        int maxSlots = spawner.getMaxSpawnerLootSlots();
+        int usedSlots = spawner.getVirtualInventory().getUsedSlots();
+
+        // Process items if there are any to add and inventory isn't completely full
+        if (!loot.items().isEmpty() && usedSlots < maxSlots) {
+            Map<VirtualInventory.ItemSignature, Long> itemsToAdd = loot.items();
+
+            // Get exact calculation of slots with the new items
+            int totalRequiredSlots = calculateRequiredSlots(itemsToAdd, spawner.getVirtualInventory());
+
+            // If we'll exceed the limit, limit the items we're adding
+            if (totalRequiredSlots > maxSlots) {
+                itemsToAdd = limitItemsToAvailableSlots(itemsToAdd, spawner);
+            }
+
+            if (!itemsToAdd.isEmpty()) {
+                spawner.addItemsAndUpdateSellValue(itemsToAdd);
+                wakeHopper(spawner);
+                changed = true;
             }
         }
 
+        return changed;
+    }
+
+    public LootResult generateLoot(int minMobs, int maxMobs, SpawnerData spawner) {
+        // Per-thread generator: loot is rolled concurrently on async workers
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        int mobCount = random.nextInt(maxMobs - minMobs + 1) + minMobs;
+        long totalExperienceLong = (long) spawner.getEntityExperienceValue() * mobCount;
+        long totalExperience = Math.min(totalExperienceLong, Long.MAX_VALUE);
+
+        // Roll the precompiled loot table, filtered items are skipped by material
+        CompiledLootTable lootTable = spawner.getLootTable();
+        CompiledLootTable.LootDraw draw = lootTable.sample(random, mobCount, spawner.getFilteredItems());
+
+        if (draw.size() == 0) {
+            return new LootResult(Collections.emptyMap(), totalExperience);
+        }
+
+        // Two loot entries may resolve to the same signature, so amounts are merged
+        Map<VirtualInventory.ItemSignature, Long> finalLoot = new HashMap<>();
+        for (int i = 0; i < draw.size(); i++) {
+            finalLoot.merge(lootTable.getSignature(draw.signatureIndexes()[i]), draw.amounts()[i], Long::sum);
+        }
+
         return new LootResult(finalLoot, totalExperience);
     }
 
-    private List<ItemStack> limitItemsToAvailableSlots(List<ItemStack> items, SpawnerData spawner) {
+    private Map<VirtualInventory.ItemSignature, Long> limitItemsToAvailableSlots(
+            Map<VirtualInventory.ItemSignature, Long> items, SpawnerData spawner) {
         VirtualInventory currentInventory = spawner.getVirtualInventory();
         int maxSlots = spawner.getMaxSpawnerLootSlots();
 
-        // If already full, return empty list
+        // If already full, return empty map
         if (currentInventory.getUsedSlots() >= maxSlots) {
-            return Collections.emptyList();
+            return Collections.emptyMap();
         }
 
-        // Create a simulation inventory
-        Map<VirtualInventory.ItemSignature, Long> simulatedInventory = new HashMap<>(currentInventory.getConsolidatedItems());
-        List<ItemStack> acceptedItems = new ArrayList<>();
+        // Simulate against the current contents; each signature appears once in items,
+        // so its stored amount never changes during the simulation
+        VirtualInventory.ItemsView storedItems = currentInventory.getItemsView();
+        int usedSlots = storedItems.getUsedSlots();
+        Map<VirtualInventory.ItemSignature, Long> acceptedItems = new HashMap<>();
 
         // Sort items by priority (you can change this sorting strategy)
-        items.sort(Comparator.comparing(item -> item.getType().name()));
+        List<Map.Entry<VirtualInventory.ItemSignature, Long>> sortedItems = new ArrayList<>(items.entrySet());
+        sortedItems.sort(Comparator.comparing(entry -> entry.getKey().getMaterialName()));
 
-        for (ItemStack item : items) {
-            if (item == null || item.getAmount() <= 0) continue;
+        for (Map.Entry<VirtualInventory.ItemSignature, Long> entry : sortedItems) {
+            VirtualInventory.ItemSignature sig = entry.getKey();
+            long amount = entry.getValue();
+            if (amount <= 0) continue;
 
-            // Add to simulation and check slot count
-            Map<VirtualInventory.ItemSignature, Long> tempSimulation = new HashMap<>(simulatedInventory);
-            // Use cached signature to avoid excessive cloning
-            VirtualInventory.ItemSignature sig = VirtualInventory.getSignature(item);
-            tempSimulation.merge(sig, (long) item.getAmount(), (a, b) -> a + b);
-
-            // Calculate slots needed
-            int slotsNeeded = calculateSlots(tempSimulation);
+            int maxStackSize = sig.getMaxStackSize();
+            long currentAmount = storedItems.getAmount(sig);
+            int currentSlots = slotsFor(currentAmount, maxStackSize);
+            int slotsNeeded = usedSlots - currentSlots + slotsFor(currentAmount + amount, maxStackSize);
 
             // If we still have room, accept this item
             if (slotsNeeded <= maxSlots) {
-                acceptedItems.add(item);
-                simulatedInventory = tempSimulation; // Update simulation
+                acceptedItems.put(sig, amount);
+                usedSlots = slotsNeeded;
             } else {
-                // Try to accept a partial amount of this item
-                int maxStackSize = item.getMaxStackSize();
-                long currentAmount = simulatedInventory.getOrDefault(sig, 0L);
-
-                // Calculate how many we can add without exceeding slot limit
-                int remainingSlots = maxSlots - calculateSlots(simulatedInventory);
-                if (remainingSlots > 0) {
-                    // Maximum items we can add in the remaining slots
-                    long maxAddAmount = (long) remainingSlots * maxStackSize - (currentAmount % maxStackSize);
-                    if (maxAddAmount > 0) {
-                        // Create a partial item
-                        ItemStack partialItem = item.clone();
-                        partialItem.setAmount((int) Math.min(maxAddAmount, item.getAmount()));
-                        acceptedItems.add(partialItem);
-
-                        // Update simulation
-                        simulatedInventory.merge(sig, (long) partialItem.getAmount(), (a, b) -> a + b);
-                    }
+                // Accept what fits in the free slots plus the room left in this item's own stacks
+                long maxAddAmount = (long) (maxSlots - usedSlots + currentSlots) * maxStackSize - currentAmount;
+                if (maxAddAmount > 0) {
+                    acceptedItems.put(sig, Math.min(maxAddAmount, amount));
                 }
 
                 // We've filled all slots, stop processing
@@ -309,38 +465,35 @@ public class SpawnerLootGenerator {
         return acceptedItems;
     }
 
-    private int calculateSlots(Map<VirtualInventory.ItemSignature, Long> items) {
-        // Use a more efficient calculation approach
-        return items.entrySet().stream()
-                .mapToInt(entry -> {
-                    long amount = entry.getValue();
-                    int maxStackSize = entry.getKey().getTemplateRef().getMaxStackSize();
-                    // Use integer division with ceiling function
-                    return (int) ((amount + maxStackSize - 1) / maxStackSize);
-                })
-                .sum();
-    }
-
-    private int calculateRequiredSlots(List<ItemStack> items, VirtualInventory inventory) {
-        // Create a temporary map to simulate how items would stack
-        Map<VirtualInventory.ItemSignature, Long> simulatedItems = new HashMap<>();
-
-        // First, get existing items if we need to account for them
-        if (inventory != null) {
-            simulatedItems.putAll(inventory.getConsolidatedItems());
+    /**
+     * Arms the hopper below the spawner so it starts draining the new loot.
+     */
+    private void wakeHopper(SpawnerData spawner) {
+        HopperService hopperService = plugin.getHopperService();
+        if (hopperService != null) {
+            hopperService.wake(spawner.getSpawnerLocation());
         }
+    }
 
-        // Add the new items to our simulation
-        for (ItemStack item : items) {
-            if (item == null || item.getAmount() <= 0) continue;
+    private static int slotsFor(long amount, int maxStackSize) {
+        // Use integer division with ceiling function
+        return (int) ((amount + maxStackSize - 1) / maxStackSize);
+    }
 
-            // Use cached signature to avoid excessive cloning
-            VirtualInventory.ItemSignature sig = VirtualInventory.getSignature(item);
-            simulatedItems.merge(sig, (long) item.getAmount(), (a, b) -> a + b);
+    private int calculateRequiredSlots(Map<VirtualInventory.ItemSignature, Long> items, VirtualInventory inventory) {
+        VirtualInventory.ItemsView storedItems = inventory.getItemsView();
+        int slots = storedItems.getUsedSlots();
+
+        // Adjust the current slot count by the slot delta of every added signature
+        for (Map.Entry<VirtualInventory.ItemSignature, Long> entry : items.entrySet()) {
+            if (entry.getValue() <= 0) continue;
+            VirtualInventory.ItemSignature sig = entry.getKey();
+            int maxStackSize = sig.getMaxStackSize();
+            long currentAmount = storedItems.getAmount(sig);
+            slots += slotsFor(currentAmount + entry.getValue(), maxStackSize) - slotsFor(currentAmount, maxStackSize);
         }
 
-        // Calculate exact slots needed
-        return calculateSlots(simulatedItems);
+        return slots;
     }
 
     /**
@@ -353,7 +506,7 @@ public class SpawnerLootGenerator {
      *
      * This guarantees that VirtualInventory remains the single source of truth.
      */
-    private void handleGuiUpdates(SpawnerData spawner) {
+    private void handleGuiUpdates(SpawnerData spawner, boolean onRegionThread) {
         // Dispatch GUI updates to all viewers
         // Storage operations will be blocked until lootGenerationLock is released
         spawnerGuiViewManager.updateSpawnerMenuViewers(spawner);
@@ -363,9 +516,14 @@ public class SpawnerLootGenerator {
             Location loc = spawner.getSpawnerLocation();
             World world = loc.getWorld();
             if (world != null) {
-                Scheduler.runLocationTask(loc, () -> world.spawnParticle(Particle.HAPPY_VILLAGER,
+                Runnable particles = () -> world.spawnParticle(Particle.HAPPY_VILLAGER,
                         loc.clone().add(0.5, 0.5, 0.5),
-                        10, 0.3, 0.3, 0.3, 0));
+                        10, 0.3, 0.3, 0.3, 0);
+                if (onRegionThread) {
+                    particles.run();
+                } else {
+                    Scheduler.runLocationTask(loc, particles);
+                }
             }
         }
 
@@ -391,19 +549,19 @@ public class SpawnerLootGenerator {
      */
     public void preGenerateLoot(SpawnerData spawner, LootGenerationCallback callback) {
         if (!spawner.getLootGenerationLock().tryLock()) {
-            callback.onLootGenerated(Collections.emptyList(), 0);
+            callback.onLootGenerated(Collections.emptyMap(), 0);
             return;
         }
 
         try {
             try {
                 if (!spawner.getDataLock().tryLock(50, java.util.concurrent.TimeUnit.MILLISECONDS)) {
-                    callback.onLootGenerated(Collections.emptyList(), 0);
+                    callback.onLootGenerated(Collections.emptyMap(), 0);
                     return;
                 }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
-                callback.onLootGenerated(Collections.emptyList(), 0);
+                callback.onLootGenerated(Collections.emptyMap(), 0);
                 return;
             }
 
@@ -418,7 +576,7 @@ public class SpawnerLootGenerator {
                 boolean atCapacity = itemStorageFull && spawner.getSpawnerExp() >= spawner.getMaxStoredExp();
                 
                 if (atCapacity) {
-                    callback.onLootGenerated(Collections.emptyList(), 0);
+                    callback.onLootGenerated(Collections.emptyMap(), 0);
                     return;
                 }
 
@@ -437,7 +595,7 @@ public class SpawnerLootGenerator {
                 }
 
                 callback.onLootGenerated(
-                        loot.items() != null ? new ArrayList<>(loot.items()) : Collections.emptyList(),
+                        loot.items() != null ? new HashMap<>(loot.items()) : Collections.emptyMap(),
                         loot.experience()
                 );
             });
@@ -447,10 +605,10 @@ public class SpawnerLootGenerator {
     }
 
     private LootResult generateExperienceOnlyLoot(int minMobs, int maxMobs, SpawnerData spawner) {
-        int mobCount = random.nextInt(maxMobs - minMobs + 1) + minMobs;
+        int mobCount = ThreadLocalRandom.current().nextInt(maxMobs - minMobs + 1) + minMobs;
         long totalExperienceLong = (long) spawner.getEntityExperienceValue() * mobCount;
         long totalExperience = Math.min(totalExperienceLong, Long.MAX_VALUE);
-        return new LootResult(Collections.emptyList(), totalExperience);
+        return new LootResult(Collections.emptyMap(), totalExperience);
     }
     
     /**
@@ -468,10 +626,10 @@ public class SpawnerLootGenerator {
      * <p><b>Thread Safety:</b> All Bukkit API calls are scheduled on main thread via Scheduler.runLocationTask
      * 
      * @param spawner The spawner to add loot to
-     * @param items Pre-generated items list
+     * @param items Pre-generated item amounts
      * @param experience Pre-generated experience amount
      */
-    public void addPreGeneratedLoot(SpawnerData spawner, List<ItemStack> items, long experience) {
+    public void addPreGeneratedLoot(SpawnerData spawner, Map<VirtualInventory.ItemSignature, Long> items, long experience) {
         addPreGeneratedLoot(spawner, items, experience, System.currentTimeMillis());
     }
 
@@ -480,11 +638,12 @@ public class SpawnerLootGenerator {
      * Used for early loot addition to prevent timer stutter.
      *
      * @param spawner The spawner to add loot to
-     * @param items Pre-generated items list
+     * @param items Pre-generated item amounts
      * @param experience Pre-generated experience amount
      * @param spawnTime The spawn time to set (for timer accuracy)
      */
-    public void addPreGeneratedLoot(SpawnerData spawner, List<ItemStack> items, long experience, long spawnTime) {
+    public void addPreGeneratedLoot(SpawnerData spawner, Map<VirtualInventory.ItemSignature, Long> items,
+                                    long experience, long spawnTime) {
         if ((items == null || items.isEmpty()) && experience == 0) {
             return;
         }
@@ -537,29 +696,21 @@ public class SpawnerLootGenerator {
                     }
 
                     if (items != null && !items.isEmpty()) {
-                        List<ItemStack> validItems = new ArrayList<>();
-                        for (ItemStack item : items) {
-                            if (item != null && item.getType() != Material.AIR) {
-                                validItems.add(item.clone());
-                            }
-                        }
-
-                        if (!validItems.isEmpty()) {
-                            int usedSlots = spawner.getVirtualInventory().getUsedSlots();
-                            int maxSlots = spawner.getMaxSpawnerLootSlots();
+                        int usedSlots = spawner.getVirtualInventory().getUsedSlots();
+                        int maxSlots = spawner.getMaxSpawnerLootSlots();
 
-                            if (usedSlots < maxSlots) {
-                                List<ItemStack> itemsToAdd = validItems;
+                        if (usedSlots < maxSlots) {
+                            Map<VirtualInventory.ItemSignature, Long> itemsToAdd = items;
 
-                                int totalRequiredSlots = calculateRequiredSlots(itemsToAdd, spawner.getVirtualInventory());
-                                if (totalRequiredSlots > maxSlots) {
-                                    itemsToAdd = limitItemsToAvailableSlots(itemsToAdd, spawner);
-                                }
+                            int totalRequiredSlots = calculateRequiredSlots(itemsToAdd, spawner.getVirtualInventory());
+                            if (totalRequiredSlots > maxSlots) {
+                                itemsToAdd = limitItemsToAvailableSlots(itemsToAdd, spawner);
+                            }
 
-                                if (!itemsToAdd.isEmpty()) {
-                                    spawner.addItemsAndUpdateSellValue(itemsToAdd);
-                                    changed = true;
-                                }
+                            if (!itemsToAdd.isEmpty()) {
+                                spawner.addItemsAndUpdateSellValue(itemsToAdd);
+                                wakeHopper(spawner);
+                                changed = true;
                             }
                         }
                     }
@@ -571,14 +722,15 @@ public class SpawnerLootGenerator {
                     if (spawner.getDataLock().tryLock()) {
                         try {
                             spawner.setLastSpawnTime(spawnTime);
+                            lootScheduler.rearm(spawner, spawnTime);
                         } finally {
                             spawner.getDataLock().unlock();
                         }
                     }
 
                     spawner.updateCapacityStatus();
-                    handleGuiUpdates(spawner);
-                    spawnerManager.markSpawnerModified(spawner.getSpawnerId());
+                    handleGuiUpdates(spawner, false);
+                    spawnerManager.markSpawnerModified(spawner, SpawnerData.DIRTY_LOOT);
                 });
             } finally {
                 spawner.getLootGenerationLock().unlock();
@@ -595,9 +747,9 @@ public class SpawnerLootGenerator {
         /**
          * Called when loot generation completes.
          * 
-         * @param items Generated items list (never null, may be empty)
+         * @param items Generated item amounts (never null, may be empty)
          * @param experience Generated experience amount
          */
-        void onLootGenerated(List<ItemStack> items, long experience);
+        void onLootGenerated(Map<VirtualInventory.ItemSignature, Long> items, long experience);
     }
 }
\ No newline at end of file
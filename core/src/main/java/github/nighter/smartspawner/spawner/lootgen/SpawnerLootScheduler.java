@@ -0,0 +1,126 @@
+package github.nighter.smartspawner.spawner.lootgen;
+
+import github.nighter.smartspawner.spawner.properties.SpawnerData;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Min-heap of running spawners keyed by the time their next loot cycle is due.
+ * <p>
+ * Spawners are armed when they activate and re-armed whenever loot is added, so each
+ * range check pass only touches the spawners whose cycle actually expired instead of
+ * polling every running spawner. Re-arming and cancelling leave the previous heap entry
+ * in place; stale entries are recognised by their due time and skipped when they surface,
+ * and the heap is rebuilt from the armed spawners once stale entries outnumber them.
+ */
+public class SpawnerLootScheduler {
+    // Heaps smaller than this are never rebuilt, their stale entries drain on their own
+    private static final int MIN_COMPACT_SIZE = 1024;
+
+    private final PriorityQueue<ScheduledLoot> queue =
+            new PriorityQueue<>(Comparator.comparingLong(ScheduledLoot::dueTime));
+    // Current due time per armed spawner, the source of truth for heap entries
+    private final Map<SpawnerData, Long> dueTimes = new IdentityHashMap<>();
+
+    private record ScheduledLoot(long dueTime, SpawnerData spawner) {
+    }
+
+    /**
+     * Calculates the loot cycle length of a spawner in milliseconds, caching it on the spawner.
+     */
+    public static long getCycleDelay(SpawnerData spawner) {
+        long cachedDelay = spawner.getCachedSpawnDelay();
+        if (cachedDelay == 0) {
+            cachedDelay = (spawner.getSpawnDelay() + 20L) * 50L; // Convert ticks to milliseconds
+            spawner.setCachedSpawnDelay(cachedDelay);
+        }
+        return cachedDelay;
+    }
+
+    /**
+     * Arms (or re-arms) a spawner to be due at the given time, replacing any earlier schedule.
+     */
+    public synchronized void schedule(SpawnerData spawner, long dueTime) {
+        Long previous = dueTimes.put(spawner, dueTime);
+        if (previous == null || previous != dueTime) {
+            queue.add(new ScheduledLoot(dueTime, spawner));
+            compactIfStale();
+        }
+    }
+
+    /**
+     * Re-arms a spawner for one full cycle after the given spawn time.
+     */
+    public void rearm(SpawnerData spawner, long lastSpawnTime) {
+        schedule(spawner, lastSpawnTime + getCycleDelay(spawner));
+    }
+
+    /**
+     * Moves an armed spawner to one cycle of its current delay after its last spawn.
+     * Called after the spawn delay changed; spawners that are not armed stay unarmed.
+     */
+    public synchronized void reschedule(SpawnerData spawner) {
+        if (dueTimes.containsKey(spawner)) {
+            schedule(spawner, spawner.getLastSpawnTime() + getCycleDelay(spawner));
+        }
+    }
+
+    public synchronized void cancel(SpawnerData spawner) {
+        if (dueTimes.remove(spawner) != null) {
+            compactIfStale();
+        }
+    }
+
+    /**
+     * Drops stale heap entries once they are the majority, so cancelled spawners are not
+     * kept alive by the heap and re-arming cannot grow it without bound.
+     */
+    private void compactIfStale() {
+        if (queue.size() <= MIN_COMPACT_SIZE || queue.size() <= dueTimes.size() * 2) {
+            return;
+        }
+        queue.clear();
+        for (Map.Entry<SpawnerData, Long> entry : dueTimes.entrySet()) {
+            queue.add(new ScheduledLoot(entry.getValue(), entry.getKey()));
+        }
+    }
+
+    public synchronized boolean isScheduled(SpawnerData spawner) {
+        return dueTimes.containsKey(spawner);
+    }
+
+    /**
+     * Removes and returns every spawner whose cycle is due at the given time.
+     * Returned spawners are no longer armed; callers re-arm them once handled.
+     *
+     * @param now current time in milliseconds
+     * @return due spawners, in due-time order
+     */
+    public synchronized List<SpawnerData> pollDue(long now) {
+        List<SpawnerData> due = new ArrayList<>();
+        ScheduledLoot head;
+        while ((head = queue.peek()) != null && head.dueTime() <= now) {
+            queue.poll();
+            Long current = dueTimes.get(head.spawner());
+            if (current != null && current == head.dueTime()) {
+                dueTimes.remove(head.spawner());
+                due.add(head.spawner());
+            }
+        }
+        return due;
+    }
+
+    public synchronized int size() {
+        return dueTimes.size();
+    }
+
+    public synchronized void clear() {
+        queue.clear();
+        dueTimes.clear();
+    }
+}
@@ -2,31 +2,53 @@ package github.nighter.smartspawner.spawner.lootgen;
 
 import github.nighter.smartspawner.SmartSpawner;
 import github.nighter.smartspawner.spawner.data.SpawnerManager;
+import github.nighter.smartspawner.spawner.data.SpawnerSpatialIndex;
 import github.nighter.smartspawner.spawner.properties.SpawnerData;
 import github.nighter.smartspawner.Scheduler;
+import github.nighter.smartspawner.utils.ChunkUtil;
 import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
-import org.bukkit.inventory.ItemStack;
 
 import java.util.*;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 public class SpawnerRangeChecker {
-    private static final long CHECK_INTERVAL = 20L; // 1 second in ticks
+    static final long CHECK_INTERVAL = 20L; // 1 second in ticks
     private final SmartSpawner plugin;
     private final SpawnerManager spawnerManager;
     private final ExecutorService executor;
 
+    // Incremental mode settings
+    private volatile boolean incrementalMode;
+    private volatile int fullScanInterval;
+    private volatile boolean fullScanRequested = true;
+
+    // State below is only touched from the range check thread
+    private Map<UUID, PlayerRangeWrapper> lastPlayerStates = new HashMap<>();
+    private int passesSinceFullScan;
+
+    private final SpawnerLootScheduler lootScheduler;
+
     public SpawnerRangeChecker(SmartSpawner plugin) {
         this.plugin = plugin;
         this.spawnerManager = plugin.getSpawnerManager();
+        this.lootScheduler = plugin.getSpawnerLootGenerator().getLootScheduler();
         this.executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "SmartSpawner-RangeCheck"));
+        loadConfig();
         initializeRangeCheckTask();
     }
 
+    public void loadConfig() {
+        this.incrementalMode = plugin.getConfig().getBoolean("performance.range_check.incremental", true);
+        int interval = plugin.getConfig().getInt("performance.range_check.full_scan_interval", 60);
+        this.fullScanInterval = interval > 0 ? interval : Integer.MAX_VALUE;
+        // Start from a full scan so the running set matches the new settings
+        this.fullScanRequested = true;
+    }
+
     private void initializeRangeCheckTask() {
         // Using the global scheduler, but only for coordinating region-specific checks
         Scheduler.runTaskTimer(this::scheduleRegionSpecificCheck, CHECK_INTERVAL, CHECK_INTERVAL);
@@ -36,41 +58,150 @@ public class SpawnerRangeChecker {
         PlayerRangeWrapper[] rangePlayers = getRangePlayers();
 
         this.executor.execute(() -> {
-            final List<SpawnerData> allSpawners = spawnerManager.getAllSpawners();
-
-            final RangeMath rangeCheck = new RangeMath(rangePlayers, allSpawners);
-            final boolean[] spawnersPlayerFound = rangeCheck.getActiveSpawners();
-
-            for (int i = 0; i < spawnersPlayerFound.length; i++) {
-                final boolean expectedStop = !spawnersPlayerFound[i];
-                final SpawnerData sd = allSpawners.get(i);
-                final String spawnerId = sd.getSpawnerId();
-
-                // Atomically update spawner stop flag only if it has changed
-                if (sd.getSpawnerStop().compareAndSet(!expectedStop, expectedStop)) {
-                    // Schedule main-thread task for actual state change
-                    Scheduler.runLocationTask(sd.getSpawnerLocation(), () -> {
-                        if (!isSpawnerValid(sd)) {
-                            cleanupRemovedSpawner(spawnerId);
-                            return;
-                        }
-
-                        // Double-check atomic boolean before applying
-                        if (sd.getSpawnerStop().get() == expectedStop) {
-                            handleSpawnerStateChange(sd, expectedStop);
-                        }
-                    });
-                } else {
-                    // Spawner state hasn't changed, but check if it's time to spawn loot
-                    // Only process active spawners that are not stopped
-                    if (sd.getSpawnerActive() && !sd.getSpawnerStop().get()) {
-                        checkAndSpawnLoot(sd);
-                    }
-                }
+            if (!incrementalMode || fullScanRequested || ++passesSinceFullScan >= fullScanInterval) {
+                runFullScan(rangePlayers);
+            } else {
+                runIncrementalScan(rangePlayers);
             }
+            processDueSpawners();
         });
     }
 
+    /**
+     * Re-evaluates every loaded spawner. Used when incremental mode is disabled and
+     * periodically as a safety net for state changes that bypass the spatial index.
+     */
+    private void runFullScan(PlayerRangeWrapper[] rangePlayers) {
+        fullScanRequested = false;
+        passesSinceFullScan = 0;
+        final SpawnerSpatialIndex spatialIndex = spawnerManager.getSpatialIndex();
+        final List<SpawnerData> allSpawners = spawnerManager.getAllSpawners();
+
+        // Everything is re-evaluated below, so pending chunk changes are already covered
+        while (spatialIndex.pollDirtyChunk() != null) {
+            // drain
+        }
+        rememberPlayerStates(rangePlayers);
+
+        final RangeMath rangeCheck = new RangeMath(rangePlayers, spatialIndex);
+        final Set<SpawnerData> inRangeSpawners = rangeCheck.getActiveSpawners();
+
+        for (final SpawnerData sd : allSpawners) {
+            applyRangeResult(sd, inRangeSpawners.contains(sd));
+        }
+    }
+
+    /**
+     * Re-evaluates only spawners in chunks that a moving player could have entered or
+     * left, plus chunks whose spawners were added or removed. When no player moved and
+     * no spawner changed, the pass does no range work at all.
+     */
+    private void runIncrementalScan(PlayerRangeWrapper[] rangePlayers) {
+        final SpawnerSpatialIndex spatialIndex = spawnerManager.getSpatialIndex();
+        final Map<UUID, Set<Long>> dirtyChunks = new HashMap<>();
+
+        SpawnerSpatialIndex.ChunkRef changed;
+        while ((changed = spatialIndex.pollDirtyChunk()) != null) {
+            dirtyChunks.computeIfAbsent(changed.worldUID(), k -> new HashSet<>()).add(changed.chunkKey());
+        }
+
+        final int maxRange = spatialIndex.getMaxRange();
+        final Map<UUID, PlayerRangeWrapper> previousStates = lastPlayerStates;
+        final Map<UUID, PlayerRangeWrapper> currentStates = new HashMap<>(rangePlayers.length);
+        for (PlayerRangeWrapper p : rangePlayers) {
+            currentStates.put(p.playerUID(), p);
+            PlayerRangeWrapper previous = previousStates.get(p.playerUID());
+            if (previous == null || !previous.sameRangeState(p)) {
+                markChunksAround(previous, maxRange, dirtyChunks);
+                markChunksAround(p, maxRange, dirtyChunks);
+            }
+        }
+        for (PlayerRangeWrapper previous : previousStates.values()) {
+            if (!currentStates.containsKey(previous.playerUID())) {
+                markChunksAround(previous, maxRange, dirtyChunks);
+            }
+        }
+        lastPlayerStates = currentStates;
+
+        if (dirtyChunks.isEmpty()) {
+            return;
+        }
+
+        final RangeMath rangeCheck = new RangeMath(rangePlayers, spatialIndex);
+        for (Map.Entry<UUID, Set<Long>> world : dirtyChunks.entrySet()) {
+            for (long chunkKey : world.getValue()) {
+                for (SpawnerData sd : spatialIndex.getSpawnersInChunk(world.getKey(), chunkKey)) {
+                    applyRangeResult(sd, rangeCheck.isInRange(sd));
+                }
+            }
+        }
+    }
+
+    private void applyRangeResult(SpawnerData sd, boolean inRange) {
+        final boolean expectedStop = !inRange;
+        final String spawnerId = sd.getSpawnerId();
+
+        // Atomically update spawner stop flag only if it has changed
+        if (sd.getSpawnerStop().compareAndSet(!expectedStop, expectedStop)) {
+            // Schedule main-thread task for actual state change
+            Scheduler.runLocationTask(sd.getSpawnerLocation(), () -> {
+                if (!isSpawnerValid(sd)) {
+                    cleanupRemovedSpawner(spawnerId);
+                    return;
+                }
+
+                // Double-check atomic boolean before applying
+                if (sd.getSpawnerStop().get() == expectedStop) {
+                    handleSpawnerStateChange(sd, expectedStop);
+                }
+            });
+        } else if (sd.getSpawnerActive() && !sd.getSpawnerStop().get() && !lootScheduler.isScheduled(sd)) {
+            // Already running (e.g. restored from storage) but never armed
+            lootScheduler.rearm(sd, sd.getLastSpawnTime());
+        }
+    }
+
+    /**
+     * Handles the spawners whose loot cycle expired since the last pass and hands the
+     * ones ready to spawn to the loot generator as a single batch.
+     * Spawners that were removed or stopped meanwhile are dropped; they get re-armed
+     * on their next activation.
+     */
+    private void processDueSpawners() {
+        final List<SpawnerData> readySpawners = new ArrayList<>();
+        for (SpawnerData sd : lootScheduler.pollDue(System.currentTimeMillis())) {
+            if (spawnerManager.getLoadedSpawnerById(sd.getSpawnerId()) != sd) continue;
+            if (sd.getSpawnerActive() && !sd.getSpawnerStop().get() && checkLootDue(sd)) {
+                readySpawners.add(sd);
+            }
+        }
+        plugin.getSpawnerLootGenerator().spawnLootBatch(readySpawners);
+    }
+
+    private void markChunksAround(PlayerRangeWrapper p, int range, Map<UUID, Set<Long>> dirtyChunks) {
+        if (p == null) return;
+
+        final int minChunkX = (int) Math.floor(p.x() - range) >> 4;
+        final int maxChunkX = (int) Math.floor(p.x() + range) >> 4;
+        final int minChunkZ = (int) Math.floor(p.z() - range) >> 4;
+        final int maxChunkZ = (int) Math.floor(p.z() + range) >> 4;
+
+        Set<Long> chunks = dirtyChunks.computeIfAbsent(p.worldUID(), k -> new HashSet<>());
+        for (int cx = minChunkX; cx <= maxChunkX; cx++) {
+            for (int cz = minChunkZ; cz <= maxChunkZ; cz++) {
+                chunks.add(ChunkUtil.getChunkKey(cx, cz));
+            }
+        }
+    }
+
+    private void rememberPlayerStates(PlayerRangeWrapper[] rangePlayers) {
+        final Map<UUID, PlayerRangeWrapper> states = new HashMap<>(rangePlayers.length);
+        for (PlayerRangeWrapper p : rangePlayers) {
+            states.put(p.playerUID(), p);
+        }
+        lastPlayerStates = states;
+    }
+
     private PlayerRangeWrapper[] getRangePlayers() {
         final Player[] onlinePlayers = Bukkit.getOnlinePlayers().toArray(new Player[0]);
         final PlayerRangeWrapper[] rangePlayers = new PlayerRangeWrapper[onlinePlayers.length];
@@ -82,7 +213,7 @@ public class SpawnerRangeChecker {
                     && p.getGameMode() != GameMode.SPECTATOR;
 
             // Store data in wrapper for faster access
-            rangePlayers[i++] = new PlayerRangeWrapper(p.getWorld().getUID(),
+            rangePlayers[i++] = new PlayerRangeWrapper(p.getUniqueId(), p.getWorld().getUID(),
                     p.getX(), p.getY(), p.getZ(),
                     conditions
             );
@@ -93,7 +224,7 @@ public class SpawnerRangeChecker {
 
     private boolean isSpawnerValid(SpawnerData spawner) {
         // Check 1: Still in manager?
-        SpawnerData current = spawnerManager.getSpawnerById(spawner.getSpawnerId());
+        SpawnerData current = spawnerManager.getLoadedSpawnerById(spawner.getSpawnerId());
         if (current == null) {
             return false;
         }
@@ -110,7 +241,7 @@ public class SpawnerRangeChecker {
 
     private void cleanupRemovedSpawner(String spawnerId) {
         // Clear any pre-generated loot when spawner is removed
-        SpawnerData spawner = spawnerManager.getSpawnerById(spawnerId);
+        SpawnerData spawner = spawnerManager.getLoadedSpawnerById(spawnerId);
         if (spawner != null) {
             spawner.clearPreGeneratedLoot();
         }
@@ -123,6 +254,9 @@ public class SpawnerRangeChecker {
             deactivateSpawner(spawner);
         }
 
+        // The stop flag is stored with the settings, the restarted countdown with the loot
+        spawnerManager.markSpawnerModified(spawner, SpawnerData.DIRTY_SETTINGS | SpawnerData.DIRTY_LOOT);
+
         // Force GUI update when spawner state changes
         if (plugin.getSpawnerGuiViewManager().hasViewers(spawner)) {
             plugin.getSpawnerGuiViewManager().forceStateChangeUpdate(spawner);
@@ -140,6 +274,7 @@ public class SpawnerRangeChecker {
         // Set lastSpawnTime to current time to start countdown immediately
         long currentTime = System.currentTimeMillis();
         spawner.setLastSpawnTime(currentTime);
+        lootScheduler.rearm(spawner, currentTime);
 
         // Immediately update any open GUIs to show the countdown
         if (plugin.getSpawnerGuiViewManager().hasViewers(spawner)) {
@@ -150,86 +285,62 @@ public class SpawnerRangeChecker {
     public void deactivateSpawner(SpawnerData spawner) {
         // Clear any pre-generated loot when deactivating
         spawner.clearPreGeneratedLoot();
+        lootScheduler.cancel(spawner);
     }
 
     /**
-     * Checks if a spawner should spawn loot based on its timer and spawns if needed.
-     * This runs independently of GUI updates to ensure loot spawns even when no one is viewing.
+     * Checks if a spawner's loot cycle has really expired.
+     * Only called for spawners popped from the loot scheduler, and always leaves the
+     * spawner re-armed for its next check.
      *
      * @param spawner The spawner to check
+     * @return true if loot should be spawned for this spawner now
      */
-    private void checkAndSpawnLoot(SpawnerData spawner) {
+    private boolean checkLootDue(SpawnerData spawner) {
         // Calculate spawn delay
-        long cachedDelay = spawner.getCachedSpawnDelay();
-        if (cachedDelay == 0) {
-            cachedDelay = (spawner.getSpawnDelay() + 20L) * 50L; // Convert ticks to milliseconds
-            spawner.setCachedSpawnDelay(cachedDelay);
-        }
-
-        final long finalCachedDelay = cachedDelay; // Make effectively final for lambda
+        long cachedDelay = SpawnerLootScheduler.getCycleDelay(spawner);
 
         long currentTime = System.currentTimeMillis();
         long lastSpawnTime = spawner.getLastSpawnTime();
-        long timeElapsed = currentTime - lastSpawnTime;
-
-        // Check if it's time to spawn loot
-        if (timeElapsed >= cachedDelay) {
-            // Try to acquire lock with short timeout to avoid blocking
-            try {
-                if (spawner.getDataLock().tryLock(50, java.util.concurrent.TimeUnit.MILLISECONDS)) {
-                    try {
-                        // Double-check time and state after acquiring lock
-                        currentTime = System.currentTimeMillis();
-                        lastSpawnTime = spawner.getLastSpawnTime();
-                        timeElapsed = currentTime - lastSpawnTime;
-
-                        if (timeElapsed >= cachedDelay && spawner.getSpawnerActive() && !spawner.getSpawnerStop().get()) {
-                            Location spawnerLocation = spawner.getSpawnerLocation();
-                            if (spawnerLocation != null) {
-                                // Schedule loot spawning on the correct region thread
-                                Scheduler.runLocationTask(spawnerLocation, () -> {
-                                    // Final check before spawning
-                                    if (!spawner.getSpawnerActive() || spawner.getSpawnerStop().get()) {
-                                        spawner.clearPreGeneratedLoot();
-                                        return;
-                                    }
-
-                                    // Check if loot was already added early (for smooth UX)
-                                    // If so, just update the timer without spawning again
-                                    long timeSinceLastSpawn = System.currentTimeMillis() - spawner.getLastSpawnTime();
-                                    if (timeSinceLastSpawn < finalCachedDelay - 100) { // 100ms tolerance
-                                        // Loot was already added early, just update GUI
-                                        if (plugin.getSpawnerGuiViewManager().hasViewers(spawner)) {
-                                            plugin.getSpawnerGuiViewManager().updateSpawnerMenuViewers(spawner);
-                                        }
-                                        return;
-                                    }
-
-                                    // Spawn loot (pre-generated if available, otherwise generate new)
-                                    if (spawner.hasPreGeneratedLoot()) {
-                                        List<ItemStack> items = spawner.getAndClearPreGeneratedItems();
-                                        long exp = spawner.getAndClearPreGeneratedExperience();
-                                        plugin.getSpawnerLootGenerator().addPreGeneratedLoot(spawner, items, exp);
-                                    } else {
-                                        plugin.getSpawnerLootGenerator().spawnLootToSpawner(spawner);
-                                    }
-
-                                    // Update last spawn time is handled by addPreGeneratedLoot/spawnLootToSpawner
-
-                                    // Update any open GUIs to show the new loot
-                                    if (plugin.getSpawnerGuiViewManager().hasViewers(spawner)) {
-                                        plugin.getSpawnerGuiViewManager().updateSpawnerMenuViewers(spawner);
-                                    }
-                                });
-                            }
-                        }
-                    } finally {
-                        spawner.getDataLock().unlock();
-                    }
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+
+        // Timer was reset since the spawner was armed (e.g. stack change), wait for the new due time
+        if (currentTime - lastSpawnTime < cachedDelay) {
+            lootScheduler.rearm(spawner, lastSpawnTime);
+            return false;
+        }
+
+        // Try to acquire lock with short timeout to avoid blocking
+        try {
+            if (!spawner.getDataLock().tryLock(50, java.util.concurrent.TimeUnit.MILLISECONDS)) {
+                // Lock busy, retry on the next pass
+                lootScheduler.schedule(spawner, currentTime + CHECK_INTERVAL * 50L);
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        try {
+            // Double-check time and state after acquiring lock
+            currentTime = System.currentTimeMillis();
+            lastSpawnTime = spawner.getLastSpawnTime();
+
+            if (!spawner.getSpawnerActive() || spawner.getSpawnerStop().get()) {
+                return false; // Re-armed on next activation
+            }
+
+            if (currentTime - lastSpawnTime < cachedDelay) {
+                lootScheduler.rearm(spawner, lastSpawnTime);
+                return false;
             }
+
+            // Fallback schedule in case this cycle adds nothing (e.g. storage full);
+            // a successful spawn re-arms from the new lastSpawnTime instead
+            lootScheduler.rearm(spawner, currentTime);
+            return spawner.getSpawnerLocation() != null;
+        } finally {
+            spawner.getDataLock().unlock();
         }
     }
 
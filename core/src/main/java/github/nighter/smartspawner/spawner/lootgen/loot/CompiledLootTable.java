@@ -0,0 +1,166 @@
+package github.nighter.smartspawner.spawner.lootgen.loot;
+
+import github.nighter.smartspawner.spawner.properties.VirtualInventory;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.Damageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+
+/**
+ * Immutable, pre-resolved form of an {@link EntityLootConfig} item list.
+ * <p>
+ * Built once when the loot config is parsed so loot generation never has to create
+ * {@link ItemStack}s or hash item meta: every drop resolves to an index into a fixed
+ * array of {@link VirtualInventory.ItemSignature} prototypes. Items with a random
+ * durability range are reduced to a small pool of precomputed damage variants.
+ */
+public final class CompiledLootTable {
+    // Upper bound on precomputed damage variants per durability-randomised item
+    static final int DURABILITY_VARIANTS = 8;
+
+    public static final CompiledLootTable EMPTY = compile(List.of());
+
+    private final Material[] materials;
+    private final double[] chances;
+    private final int[] minAmounts;
+    private final int[] maxAmounts;
+    // Signatures of item i are stored at indexes variantOffsets[i] until variantOffsets[i + 1]
+    private final int[] variantOffsets;
+    private final VirtualInventory.ItemSignature[] signatures;
+
+    /**
+     * Result of rolling the table once: {@code size} pairs of signature index and amount.
+     */
+    public record LootDraw(int[] signatureIndexes, long[] amounts, int size) {
+    }
+
+    // Package-private so tests can build a table without creating item stacks
+    CompiledLootTable(Material[] materials, double[] chances, int[] minAmounts, int[] maxAmounts,
+                      int[] variantOffsets, VirtualInventory.ItemSignature[] signatures) {
+        this.materials = materials;
+        this.chances = chances;
+        this.minAmounts = minAmounts;
+        this.maxAmounts = maxAmounts;
+        this.variantOffsets = variantOffsets;
+        this.signatures = signatures;
+    }
+
+    /**
+     * Compiles loot items into a table. Items whose material is unavailable on this
+     * server version are left out.
+     */
+    public static CompiledLootTable compile(List<LootItem> lootItems) {
+        List<LootItem> available = new ArrayList<>(lootItems.size());
+        for (LootItem item : lootItems) {
+            if (item.isAvailable()) {
+                available.add(item);
+            }
+        }
+
+        int count = available.size();
+        Material[] materials = new Material[count];
+        double[] chances = new double[count];
+        int[] minAmounts = new int[count];
+        int[] maxAmounts = new int[count];
+        int[] variantOffsets = new int[count + 1];
+        List<VirtualInventory.ItemSignature> signatures = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            LootItem item = available.get(i);
+            materials[i] = item.material();
+            chances[i] = item.chance() / 100.0;
+            minAmounts[i] = item.minAmount();
+            maxAmounts[i] = item.maxAmount();
+
+            variantOffsets[i] = signatures.size();
+            for (ItemStack variant : createVariants(item)) {
+                signatures.add(new VirtualInventory.ItemSignature(variant).intern());
+            }
+        }
+        variantOffsets[count] = signatures.size();
+
+        return new CompiledLootTable(materials, chances, minAmounts, maxAmounts, variantOffsets,
+                signatures.toArray(new VirtualInventory.ItemSignature[0]));
+    }
+
+    private static List<ItemStack> createVariants(LootItem item) {
+        ItemStack base = item.createItemStack((Integer) null);
+        if (!item.hasDurabilityRange() || !(base.getItemMeta() instanceof Damageable)) {
+            return List.of(base);
+        }
+
+        int min = item.minDurability();
+        int max = Math.max(min, item.maxDurability());
+        int width = max - min + 1;
+        int variantCount = Math.min(width, DURABILITY_VARIANTS);
+
+        List<ItemStack> variants = new ArrayList<>(variantCount);
+        for (int v = 0; v < variantCount; v++) {
+            // Spread the pool evenly over the configured range, including both ends
+            int damage = variantCount == 1 ? min
+                    : min + (int) Math.round((double) v * (width - 1) / (variantCount - 1));
+            variants.add(item.createItemStack(damage));
+        }
+        return variants;
+    }
+
+    /**
+     * Rolls every item of the table for a batch of mobs.
+     * All drops of one item in a roll share a single variant, as they did when one
+     * prototype stack was created per item.
+     *
+     * @param rng      random source, typically {@code ThreadLocalRandom.current()}
+     * @param mobCount number of mobs rolled
+     * @param excluded materials the spawner filters out
+     * @return the dropped signature indexes and their total amounts
+     */
+    public LootDraw sample(RandomGenerator rng, int mobCount, Set<Material> excluded) {
+        int count = materials.length;
+        int[] indexes = new int[count];
+        long[] amounts = new long[count];
+        int size = 0;
+
+        for (int i = 0; i < count; i++) {
+            if (!excluded.isEmpty() && excluded.contains(materials[i])) {
+                continue;
+            }
+
+            int drops = LootSampler.sampleDropCount(rng, mobCount, chances[i]);
+            if (drops <= 0) {
+                continue;
+            }
+
+            long amount = LootSampler.sampleAmountSum(rng, drops, minAmounts[i], maxAmounts[i]);
+            if (amount <= 0) {
+                continue;
+            }
+
+            int variants = variantOffsets[i + 1] - variantOffsets[i];
+            indexes[size] = variantOffsets[i] + (variants == 1 ? 0 : rng.nextInt(variants));
+            amounts[size] = amount;
+            size++;
+        }
+
+        return new LootDraw(indexes, amounts, size);
+    }
+
+    public VirtualInventory.ItemSignature getSignature(int index) {
+        return signatures[index];
+    }
+
+    /**
+     * Checks whether any item of the table can still drop with the given filter.
+     */
+    public boolean hasDroppableItems(Set<Material> excluded) {
+        for (Material material : materials) {
+            if (!excluded.contains(material)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -2,7 +2,7 @@ package github.nighter.smartspawner.spawner.lootgen.loot;
 
 import java.util.List;
 
-public record EntityLootConfig(int experience, List<LootItem> possibleItems) {
+public record EntityLootConfig(int experience, List<LootItem> possibleItems, CompiledLootTable lootTable) {
 
     public List<LootItem> getAllItems() {
         return possibleItems;
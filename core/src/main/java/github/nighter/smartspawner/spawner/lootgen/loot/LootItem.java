@@ -13,6 +13,20 @@ public record LootItem(Material material, int minAmount, int maxAmount, double c
                        Integer maxDurability, PotionType potionType, double sellPrice) {
 
     public ItemStack createItemStack(Random random) {
+        Integer damage = null;
+        if (hasDurabilityRange()) {
+            damage = random.nextInt(maxDurability - minDurability + 1) + minDurability;
+        }
+        return createItemStack(damage);
+    }
+
+    /**
+     * Creates the item with a fixed damage value instead of a random one.
+     *
+     * @param damage damage to apply to damageable items, or null for none
+     * @return the item, or null if the material is not available in this version
+     */
+    public ItemStack createItemStack(Integer damage) {
         if (material == null) {
             return null; // Material not available in this version
         }
@@ -20,11 +34,10 @@ public record LootItem(Material material, int minAmount, int maxAmount, double c
         ItemStack item = new ItemStack(material, 1);
 
         // Apply durability if needed
-        if (minDurability != null && maxDurability != null) {
+        if (damage != null) {
             ItemMeta meta = item.getItemMeta();
             if (meta instanceof Damageable) {
-                int durability = random.nextInt(maxDurability - minDurability + 1) + minDurability;
-                ((Damageable) meta).setDamage(durability);
+                ((Damageable) meta).setDamage(damage);
                 item.setItemMeta(meta);
             }
         }
@@ -41,6 +54,10 @@ public record LootItem(Material material, int minAmount, int maxAmount, double c
         return item;
     }
 
+    public boolean hasDurabilityRange() {
+        return minDurability != null && maxDurability != null;
+    }
+
     public int generateAmount(Random random) {
         return random.nextInt(maxAmount - minAmount + 1) + minAmount;
     }
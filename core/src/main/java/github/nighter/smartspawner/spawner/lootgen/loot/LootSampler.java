@@ -0,0 +1,106 @@
+package github.nighter.smartspawner.spawner.lootgen.loot;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Draws loot totals for a whole mob batch directly from their distributions
+ * instead of rolling every mob individually.
+ * <p>
+ * Stacked spawners can roll thousands of mobs per cycle, so per-mob loops cost tens of
+ * thousands of RNG calls per spawner. Drop counts are binomial and amount sums are a sum
+ * of uniform variables; both are sampled in (near) constant time without allocation.
+ */
+public final class LootSampler {
+    // Below this many trials a plain Bernoulli loop is cheaper than anything clever
+    private static final int DIRECT_TRIALS_LIMIT = 16;
+    // Variance above which the normal approximation of the binomial is accurate enough
+    private static final double NORMAL_VARIANCE_THRESHOLD = 9.0;
+    // Below this many summed values amounts are rolled one by one
+    private static final int DIRECT_SUM_LIMIT = 32;
+
+    private LootSampler() {
+    }
+
+    /**
+     * Samples how many of {@code trials} mobs drop an item with the given chance.
+     *
+     * @param rng         random source, typically {@code ThreadLocalRandom.current()}
+     * @param trials      number of mobs rolled
+     * @param probability drop chance in the range 0..1
+     * @return number of successful drops, between 0 and {@code trials}
+     */
+    public static int sampleDropCount(RandomGenerator rng, int trials, double probability) {
+        if (trials <= 0 || probability <= 0.0) return 0;
+        if (probability >= 1.0) return trials;
+
+        if (trials <= DIRECT_TRIALS_LIMIT) {
+            int successes = 0;
+            for (int i = 0; i < trials; i++) {
+                if (rng.nextDouble() < probability) {
+                    successes++;
+                }
+            }
+            return successes;
+        }
+
+        double variance = trials * probability * (1.0 - probability);
+        if (variance >= NORMAL_VARIANCE_THRESHOLD) {
+            double mean = trials * probability;
+            long sample = Math.round(mean + Math.sqrt(variance) * rng.nextGaussian());
+            return (int) Math.max(0, Math.min(trials, sample));
+        }
+
+        // Low variance means successes (or failures) are rare, count them by geometric skips
+        if (probability <= 0.5) {
+            return sampleRareSuccesses(rng, trials, probability);
+        }
+        return trials - sampleRareSuccesses(rng, trials, 1.0 - probability);
+    }
+
+    /**
+     * Exact binomial sampling by jumping straight to the next success.
+     * Expected cost is {@code trials * probability + 1} draws.
+     */
+    private static int sampleRareSuccesses(RandomGenerator rng, int trials, double probability) {
+        double logFailure = Math.log1p(-probability);
+        int successes = 0;
+        long position = 0;
+        while (true) {
+            // 1 - nextDouble() lies in (0, 1], which keeps the logarithm finite
+            position += (long) (Math.log(1.0 - rng.nextDouble()) / logFailure) + 1;
+            if (position > trials) {
+                return successes;
+            }
+            successes++;
+        }
+    }
+
+    /**
+     * Samples the sum of {@code count} independent amounts, each uniform in [min, max].
+     *
+     * @param rng   random source, typically {@code ThreadLocalRandom.current()}
+     * @param count number of drops to sum
+     * @param min   minimum amount per drop
+     * @param max   maximum amount per drop
+     * @return total amount, between {@code count * min} and {@code count * max}
+     */
+    public static long sampleAmountSum(RandomGenerator rng, int count, int min, int max) {
+        if (count <= 0) return 0;
+        if (max <= min) return (long) count * min;
+
+        int width = max - min + 1;
+        if (count <= DIRECT_SUM_LIMIT) {
+            long total = 0;
+            for (int i = 0; i < count; i++) {
+                total += min + rng.nextInt(width);
+            }
+            return total;
+        }
+
+        // Central limit theorem: the sum of uniforms is close to normal for larger counts
+        double mean = count * (min + max) / 2.0;
+        double variance = count * ((double) width * width - 1.0) / 12.0;
+        long sample = Math.round(mean + Math.sqrt(variance) * rng.nextGaussian());
+        return Math.max((long) count * min, Math.min((long) count * max, sample));
+    }
+}
@@ -1,7 +1,6 @@
 package github.nighter.smartspawner.spawner.natural;
 
 import github.nighter.smartspawner.SmartSpawner;
-import github.nighter.smartspawner.spawner.properties.SpawnerData;
 import github.nighter.smartspawner.spawner.data.SpawnerManager;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -21,9 +20,7 @@ public class NaturalSpawnerListener implements Listener {
     // Improve server performance and ram allocation for spawners
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onPreSpawnerSpawn(PreSpawnerSpawnEvent event) {
-        SpawnerData smartSpawner = spawnerManager.getSpawnerByLocation(event.getSpawnerLocation());
-
-        if (smartSpawner != null) {
+        if (spawnerManager.hasSpawnerAt(event.getSpawnerLocation())) {
             event.setCancelled(true);
             event.setShouldAbortSpawn(true);
         } else {
@@ -38,9 +35,7 @@ public class NaturalSpawnerListener implements Listener {
     public void onSpawnerSpawn(SpawnerSpawnEvent event) {
         if (event.getSpawner() == null) return;
 
-        SpawnerData smartSpawner = spawnerManager.getSpawnerByLocation(event.getSpawner().getLocation());
-
-        if (smartSpawner != null) {
+        if (spawnerManager.hasSpawnerAt(event.getSpawner().getLocation())) {
             event.setCancelled(true);
         } else {
             // This is a natural spawner - check if natural spawning is allowed
@@ -0,0 +1,132 @@
+package github.nighter.smartspawner.spawner.properties;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free lookup cache from item stacks to their {@link VirtualInventory.ItemSignature}.
+ * <p>
+ * Signatures are resolved from async loot workers, hopper ticks, sells and storage clicks at the
+ * same time, so reads must never serialise. Plain items (no meta) are looked up by material in a
+ * fixed array. Items with meta are keyed by their signature fingerprint in a
+ * {@link ConcurrentHashMap}, whose reads take no lock, and each hit is verified against the item
+ * so fingerprint collisions only cost a miss. Eviction is approximate: once the map exceeds its
+ * size limit arbitrary entries are dropped, which is cheap and keeps reads free of bookkeeping.
+ * <p>
+ * The cache never interns: it returns the interned signature when the item is a loot table
+ * item or already stored somewhere, and a plain signature otherwise, so looking up arbitrary
+ * items cannot grow the intern table. A cached plain signature is swapped for the interned
+ * one once the item gets stored.
+ */
+public final class ItemSignatureCache {
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    private final AtomicReferenceArray<VirtualInventory.ItemSignature> plainSignatures =
+            new AtomicReferenceArray<>(Material.values().length);
+    private final Map<Integer, VirtualInventory.ItemSignature> metaSignatures = new ConcurrentHashMap<>();
+    private volatile int maxSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ItemSignatureCache(int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+    }
+
+    /**
+     * Gets the signature of an item, creating and caching it on a miss.
+     *
+     * @return the interned signature if there is one, a plain signature otherwise
+     */
+    public VirtualInventory.ItemSignature get(ItemStack item) {
+        if (!item.hasItemMeta()) {
+            int ordinal = item.getType().ordinal();
+            VirtualInventory.ItemSignature cached = plainSignatures.get(ordinal);
+            if (cached != null) {
+                hits.increment();
+                if (cached.getId() >= 0) {
+                    return cached;
+                }
+                VirtualInventory.ItemSignature canonical = cached.internedOrSelf();
+                if (canonical != cached) {
+                    plainSignatures.compareAndSet(ordinal, cached, canonical);
+                }
+                return canonical;
+            }
+
+            misses.increment();
+            VirtualInventory.ItemSignature created = new VirtualInventory.ItemSignature(item).internedOrSelf();
+            plainSignatures.set(ordinal, created);
+            return created;
+        }
+
+        int fingerprint = VirtualInventory.ItemSignature.fingerprint(item);
+        VirtualInventory.ItemSignature cached = metaSignatures.get(fingerprint);
+        if (cached != null && cached.matches(item)) {
+            hits.increment();
+            if (cached.getId() >= 0) {
+                return cached;
+            }
+            VirtualInventory.ItemSignature canonical = cached.internedOrSelf();
+            if (canonical != cached) {
+                metaSignatures.replace(fingerprint, cached, canonical);
+            }
+            return canonical;
+        }
+
+        misses.increment();
+        VirtualInventory.ItemSignature created = new VirtualInventory.ItemSignature(item).internedOrSelf();
+        metaSignatures.put(fingerprint, created);
+        if (metaSignatures.size() > maxSize) {
+            evictOverflow();
+        }
+        return created;
+    }
+
+    private void evictOverflow() {
+        Iterator<Integer> keys = metaSignatures.keySet().iterator();
+        while (metaSignatures.size() > maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+        evictOverflow();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int size() {
+        int plain = 0;
+        for (int i = 0; i < plainSignatures.length(); i++) {
+            if (plainSignatures.get(i) != null) {
+                plain++;
+            }
+        }
+        return plain + metaSignatures.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+}
@@ -0,0 +1,186 @@
+package github.nighter.smartspawner.spawner.properties;
+
+import github.nighter.smartspawner.SmartSpawner;
+import github.nighter.smartspawner.hooks.economy.ItemPriceManager;
+import github.nighter.smartspawner.nms.VersionInitializer;
+import github.nighter.smartspawner.spawner.lootgen.loot.EntityLootConfig;
+import github.nighter.smartspawner.spawner.lootgen.loot.LootItem;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Unit sell prices of one loot config, indexed by interned {@link VirtualInventory.ItemSignature} id.
+ * <p>
+ * The price of a signature is resolved once, on first use, and then read from a flat array, so
+ * keeping the accumulated sell value of a spawner up to date costs one multiply-add per signature.
+ * Tables are shared by every spawner with the same loot config and are dropped as a whole by
+ * {@link #invalidateAll()} whenever prices can have changed: an {@link ItemPriceManager} reload,
+ * a price edit or a new shop integration.
+ */
+public final class SellPriceTable {
+    private static final Map<EntityLootConfig, SellPriceTable> tables = new ConcurrentHashMap<>();
+    private static volatile int generation;
+
+    private final EntityLootConfig lootConfig;
+    private final int tableGeneration;
+    // Live prices of the loot items, keyed like the items they are matched against
+    private final Map<String, Double> pricesByKey;
+    // Resolved prices by signature id, NaN until resolved
+    private volatile double[] pricesById = newPriceArray(64);
+
+    private SellPriceTable(EntityLootConfig lootConfig, int tableGeneration, Map<String, Double> pricesByKey) {
+        this.lootConfig = lootConfig;
+        this.tableGeneration = tableGeneration;
+        this.pricesByKey = pricesByKey;
+    }
+
+    /**
+     * Returns the shared table of a loot config, building it on first use.
+     */
+    public static SellPriceTable forConfig(SmartSpawner plugin, EntityLootConfig lootConfig) {
+        SellPriceTable table = tables.get(lootConfig);
+        if (table != null && table.tableGeneration == generation) {
+            return table;
+        }
+
+        SellPriceTable built = new SellPriceTable(lootConfig, generation, loadPrices(plugin, lootConfig));
+        tables.put(lootConfig, built);
+        return built;
+    }
+
+    /**
+     * Drops every table. Spawners notice on their next sell value update and recalculate.
+     */
+    public static void invalidateAll() {
+        generation++;
+        tables.clear();
+    }
+
+    /**
+     * @return true if this table was built for the given loot config and prices have not changed since
+     */
+    public boolean isCurrent(EntityLootConfig lootConfig) {
+        return this.lootConfig == lootConfig && tableGeneration == generation;
+    }
+
+    /**
+     * @return unit price of the item, 0 if it has none
+     */
+    public double getPrice(VirtualInventory.ItemSignature signature) {
+        int id = signature.getId();
+        if (id < 0) {
+            return resolve(signature);
+        }
+
+        double[] prices = pricesById;
+        if (id < prices.length) {
+            double price = prices[id];
+            if (!Double.isNaN(price)) {
+                return price;
+            }
+        }
+        return resolveAndStore(signature, id);
+    }
+
+    /**
+     * @return total price of the amounts, 0 for items without a price
+     */
+    public double getValue(Map<VirtualInventory.ItemSignature, Long> amounts) {
+        double value = 0.0;
+        for (Map.Entry<VirtualInventory.ItemSignature, Long> entry : amounts.entrySet()) {
+            value += getPrice(entry.getKey()) * entry.getValue();
+        }
+        return value;
+    }
+
+    private synchronized double resolveAndStore(VirtualInventory.ItemSignature signature, int id) {
+        double[] prices = pricesById;
+        if (id >= prices.length) {
+            double[] grown = newPriceArray(Math.max(prices.length * 2, id + 1));
+            System.arraycopy(prices, 0, grown, 0, prices.length);
+            prices = grown;
+        } else if (!Double.isNaN(prices[id])) {
+            return prices[id];
+        }
+
+        double price = resolve(signature);
+        prices[id] = price;
+        pricesById = prices;
+        return price;
+    }
+
+    private double resolve(VirtualInventory.ItemSignature signature) {
+        Double price = pricesByKey.get(createItemKey(signature.getTemplateRef()));
+        return price != null ? price : 0.0;
+    }
+
+    private static double[] newPriceArray(int length) {
+        double[] prices = new double[length];
+        Arrays.fill(prices, Double.NaN);
+        return prices;
+    }
+
+    /**
+     * Prefers live prices from ItemPriceManager to avoid startup timing issues where
+     * shop plugin prices aren't yet available when LootItem.sellPrice is baked in.
+     */
+    private static Map<String, Double> loadPrices(SmartSpawner plugin, EntityLootConfig lootConfig) {
+        ItemPriceManager priceManager = plugin.getItemPriceManager();
+        Map<String, Double> prices = new HashMap<>();
+
+        for (LootItem lootItem : lootConfig.getAllItems()) {
+            // Use live price from ItemPriceManager; fall back to baked sellPrice if unavailable
+            double price = (priceManager != null) ? priceManager.getPrice(lootItem.material()) : 0.0;
+            if (price <= 0.0) {
+                price = lootItem.sellPrice();
+            }
+            if (price > 0.0) {
+                ItemStack template = lootItem.createItemStack((Integer) null);
+                if (template != null) {
+                    prices.put(createItemKey(template), price);
+                }
+            }
+        }
+
+        return prices;
+    }
+
+    /**
+     * Creates a unique key for an item (same logic as SpawnerSellManager)
+     */
+    private static String createItemKey(ItemStack item) {
+        StringBuilder key = new StringBuilder();
+        key.append(item.getType().name());
+
+        if (!item.hasItemMeta()) {
+            return key.toString();
+        }
+        ItemMeta meta = item.getItemMeta();
+
+        // Add enchantments if present
+        if (meta.hasEnchants()) {
+            key.append("_enchants:");
+            meta.getEnchants().entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey(Comparator.comparing(enchantment -> enchantment.getKey().toString())))
+                    .forEach(entry -> key.append(entry.getKey().getKey()).append(":").append(entry.getValue()).append(","));
+        }
+
+        // Add custom model data if present
+        if (VersionInitializer.hasCustomModelData(meta)) {
+            key.append("_cmd:").append(VersionInitializer.getCustomModelDataString(meta));
+        }
+
+        // Add display name if present
+        if (meta.hasDisplayName()) {
+            key.append("_name:").append(meta.displayName());
+        }
+
+        return key.toString();
+    }
+}
@@ -2,7 +2,8 @@ package github.nighter.smartspawner.spawner.properties;
 
 import github.nighter.smartspawner.SmartSpawner;
 import github.nighter.smartspawner.commands.hologram.SpawnerHologram;
-import github.nighter.smartspawner.nms.VersionInitializer;
+import github.nighter.smartspawner.spawner.lootgen.LootResult;
+import github.nighter.smartspawner.spawner.lootgen.loot.CompiledLootTable;
 import github.nighter.smartspawner.spawner.lootgen.loot.EntityLootConfig;
 import github.nighter.smartspawner.spawner.lootgen.loot.LootItem;
 import github.nighter.smartspawner.spawner.sell.SellResult;
@@ -12,10 +13,10 @@ import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.entity.EntityType;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 
 import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
@@ -35,6 +36,8 @@ public class SpawnerData {
     private final ReentrantLock lootGenerationLock = new ReentrantLock();  // For loot spawning
     @Getter
     private final ReentrantLock dataLock = new ReentrantLock();  // For metadata changes (exp, stack size, etc.)
+    @Getter
+    private final ReentrantLock snapshotLock = new ReentrantLock();  // Orders save snapshots, never held while taking another lock
 
     // Atomic sell state – single CAS guard that replaces the old sellLock + double-lock pattern.
     // All operations that touch virtual inventory must check isSelling() before proceeding.
@@ -44,6 +47,16 @@ public class SpawnerData {
     // cleared (and spawner queued for save) when the GUI is closed or main menu is returned to.
     private final AtomicBoolean storageDirty = new AtomicBoolean(false);
 
+    // Column groups changed since the last database write, lets a flush skip unchanged columns.
+    // Exp, inventory, last spawn time and the capacity flag
+    public static final int DIRTY_LOOT = 1;
+    // Stack size and the values calculated from it
+    public static final int DIRTY_STACK = 1 << 1;
+    // Everything else: activation state, range, delay, filters, sort item, last player
+    public static final int DIRTY_SETTINGS = 1 << 2;
+    public static final int DIRTY_ALL = DIRTY_LOOT | DIRTY_STACK | DIRTY_SETTINGS;
+    private final AtomicInteger dirtyFields = new AtomicInteger(0);
+
     // Base values from config (immutable after load)
     @Getter @Setter
     private long baseMaxStoredExp;
@@ -114,6 +127,8 @@ public class SpawnerData {
 
     @Getter
     private volatile boolean sellValueDirty;
+    // Shared price table of the loot config, replaced when the config or the prices change
+    private volatile SellPriceTable sellPrices;
 
     private SpawnerHologram hologram;
     @Getter @Setter
@@ -124,13 +139,15 @@ public class SpawnerData {
     private Material preferredSortItem;
 
     // CRITICAL: Pre-generated loot storage for better UX - access must be synchronized via lootGenerationLock
-    private volatile List<ItemStack> preGeneratedItems;
+    private volatile Map<VirtualInventory.ItemSignature, Long> preGeneratedItems;
     private volatile long preGeneratedExperience;
     private volatile boolean isPreGenerating;
 
     // Cache for no-loot detection to avoid repeated expensive checks
     private volatile Boolean cachedHasNoLoot = null;
 
+    private static final ThreadLocal<Boolean> DEFER_HOLOGRAM_CREATION = ThreadLocal.withInitial(() -> false);
+
     public SpawnerData(String id, Location location, EntityType type, SmartSpawner plugin) {
         super();
         this.plugin = plugin;
@@ -239,6 +256,8 @@ public class SpawnerData {
 
     public void setSpawnDelay(long baseSpawnerDelay) {
         this.spawnDelay = baseSpawnerDelay > 0 ? baseSpawnerDelay : 500;
+        // Recalculated from the new delay on next use
+        this.cachedSpawnDelay = 0;
         if (baseSpawnerDelay <= 0) {
             plugin.getLogger().warning("Invalid spawner delay value. Setting to default: 500 ticks (25s)");
         }
@@ -252,9 +271,17 @@ public class SpawnerData {
         setSpawnDelay(delay);
     }
 
+    /**
+     * Skip hologram creation for spawners constructed on the current thread.
+     * Used by the startup loader, which creates holograms in its own phase once spawners are indexed.
+     */
+    public static void setDeferHologramCreation(boolean defer) {
+        DEFER_HOLOGRAM_CREATION.set(defer);
+    }
+
     private void initializeComponents() {
         this.virtualInventory = new VirtualInventory(maxSpawnerLootSlots);
-        if (plugin.getConfig().getBoolean("hologram.enabled", false)) {
+        if (plugin.getConfig().getBoolean("hologram.enabled", false) && !DEFER_HOLOGRAM_CREATION.get()) {
             createHologram();
         }
 
@@ -320,6 +347,8 @@ public class SpawnerData {
 
         this.stackSize = newStackSize;
         calculateStackBasedValues();
+        // Exp may be clamped and the inventory resized along with the stack
+        markFieldsDirty(DIRTY_STACK | DIRTY_LOOT);
 
         // Resize the existing virtual inventory instead of creating a new one
         virtualInventory.resize(this.maxSpawnerLootSlots);
@@ -344,6 +373,7 @@ public class SpawnerData {
 
     public void setSpawnerExp(long exp) {
         this.spawnerExp = Math.min(Math.max(0L, exp), maxStoredExp);
+        markFieldsDirty(DIRTY_LOOT);
         updateHologramData();
 
         // Invalidate GUI cache when experience changes
@@ -432,6 +462,7 @@ public class SpawnerData {
         this.lootConfig = plugin.getSpawnerSettingsConfig().getLootConfig(newType);
         // Mark sell value as dirty since entity type and prices changed
         this.sellValueDirty = true;
+        markFieldsDirty(DIRTY_SETTINGS);
         updateHologramData();
     }
 
@@ -442,6 +473,7 @@ public class SpawnerData {
         } else {
             filteredItems.add(material);
         }
+        markFieldsDirty(DIRTY_SETTINGS);
         return !wasFiltered;
     }
 
@@ -455,8 +487,16 @@ public class SpawnerData {
     }
 
     private boolean isLootItemValid(LootItem item) {
-        ItemStack example = item.createItemStack(new Random());
-        return example != null && !filteredItems.contains(example.getType());
+        return item.isAvailable() && !filteredItems.contains(item.material());
+    }
+
+    /**
+     * Gets the compiled form of this spawner's loot config used for loot generation.
+     *
+     * @return the loot table, or an empty table if no loot is configured
+     */
+    public CompiledLootTable getLootTable() {
+        return lootConfig != null ? lootConfig.lootTable() : CompiledLootTable.EMPTY;
     }
 
     public int getEntityExperienceValue() {
@@ -478,7 +518,7 @@ public class SpawnerData {
 
         // Calculate and cache the result
         boolean result = (lootConfig == null ||
-                (lootConfig.experience() == 0 && getValidLootItems().isEmpty()));
+                (lootConfig.experience() == 0 && !getLootTable().hasDroppableItems(filteredItems)));
         cachedHasNoLoot = result;
         return result;
     }
@@ -541,6 +581,21 @@ public class SpawnerData {
 
     public void updateLastInteractedPlayer(String playerName) {
         this.lastInteractedPlayer = playerName;
+        markFieldsDirty(DIRTY_SETTINGS);
+    }
+
+    /**
+     * Records which column groups changed, see {@link #DIRTY_LOOT} and friends.
+     */
+    public void markFieldsDirty(int fields) {
+        dirtyFields.accumulateAndGet(fields, (current, added) -> current | added);
+    }
+
+    /**
+     * Returns and clears the changed column groups. Used by the database flush.
+     */
+    public int takeDirtyFields() {
+        return dirtyFields.getAndSet(0);
     }
 
     /**
@@ -553,88 +608,63 @@ public class SpawnerData {
     /**
      * Updates the accumulated sell value for specific items being added
      * @param itemsAdded Map of item signatures to quantities added
-     * @param priceCache Price cache from loot config
+     * @param prices Price table of this spawner's loot config
      */
-    public void incrementSellValue(Map<VirtualInventory.ItemSignature, Long> itemsAdded,
-                                   Map<String, Double> priceCache) {
+    public void incrementSellValue(Map<VirtualInventory.ItemSignature, Long> itemsAdded, SellPriceTable prices) {
         if (itemsAdded == null || itemsAdded.isEmpty()) {
             return;
         }
 
-        double addedValue = 0.0;
-        for (Map.Entry<VirtualInventory.ItemSignature, Long> entry : itemsAdded.entrySet()) {
-            // Use getTemplateRef() to avoid cloning - we only need to read properties
-            ItemStack template = entry.getKey().getTemplateRef();
-            long amount = entry.getValue();
-            double itemPrice = findItemPrice(template, priceCache);
-            if (itemPrice > 0.0) {
-                addedValue += itemPrice * amount;
-            }
-        }
-
-        this.accumulatedSellValue += addedValue;
+        this.accumulatedSellValue += prices.getValue(itemsAdded);
         this.sellValueDirty = false;
     }
 
     /**
      * Decrements the accumulated sell value when items are removed
      * @param itemsRemoved List of items removed
-     * @param priceCache Price cache from loot config
+     * @param prices Price table of this spawner's loot config
      */
-    public void decrementSellValue(List<ItemStack> itemsRemoved, Map<String, Double> priceCache) {
+    public void decrementSellValue(List<ItemStack> itemsRemoved, SellPriceTable prices) {
         if (itemsRemoved == null || itemsRemoved.isEmpty()) {
             return;
         }
 
-        // Consolidate removed items
-        Map<VirtualInventory.ItemSignature, Long> consolidated = new java.util.HashMap<>();
+        double removedValue = 0.0;
         for (ItemStack item : itemsRemoved) {
             if (item == null || item.getAmount() <= 0) continue;
             // Use cached signature to avoid excessive cloning
-            VirtualInventory.ItemSignature sig = VirtualInventory.getSignature(item);
-            consolidated.merge(sig, (long) item.getAmount(), (a, b) -> a + b);
-        }
-
-        double removedValue = 0.0;
-        for (Map.Entry<VirtualInventory.ItemSignature, Long> entry : consolidated.entrySet()) {
-            // Use getTemplateRef() to avoid cloning - we only need to read properties
-            ItemStack template = entry.getKey().getTemplateRef();
-            long amount = entry.getValue();
-            double itemPrice = findItemPrice(template, priceCache);
-            if (itemPrice > 0.0) {
-                removedValue += itemPrice * amount;
-            }
+            removedValue += prices.getPrice(VirtualInventory.getSignature(item)) * item.getAmount();
         }
 
         this.accumulatedSellValue = Math.max(0.0, this.accumulatedSellValue - removedValue);
     }
 
+    /**
+     * Decrements the accumulated sell value by already consolidated amounts
+     * @param itemsRemoved Map of item signatures to quantities removed
+     * @param prices Price table of this spawner's loot config
+     */
+    public void decrementSellValue(Map<VirtualInventory.ItemSignature, Long> itemsRemoved, SellPriceTable prices) {
+        this.accumulatedSellValue = Math.max(0.0, this.accumulatedSellValue - prices.getValue(itemsRemoved));
+    }
+
     /**
      * Forces a full recalculation of the accumulated sell value
      * Should be called when the cache is dirty or on spawner load
      */
     public void recalculateSellValue() {
-        if (lootConfig == null) {
+        SellPriceTable prices = getSellPrices();
+        if (prices == null) {
             this.accumulatedSellValue = 0.0;
             this.sellValueDirty = false;
             return;
         }
 
-        // Get price cache
-        Map<String, Double> priceCache = createPriceCache();
-
         // Calculate from current inventory
-        Map<VirtualInventory.ItemSignature, Long> items = virtualInventory.getConsolidatedItems();
+        VirtualInventory.ItemsView items = virtualInventory.getItemsView();
         double totalValue = 0.0;
-
-        for (Map.Entry<VirtualInventory.ItemSignature, Long> entry : items.entrySet()) {
-            // Use getTemplateRef() to avoid cloning - we only need to read properties
-            ItemStack template = entry.getKey().getTemplateRef();
-            long amount = entry.getValue();
-            double itemPrice = findItemPrice(template, priceCache);
-            if (itemPrice > 0.0) {
-                totalValue += itemPrice * amount;
-            }
+        for (int i = 0; i < items.size(); i++) {
+            totalValue += prices.getPrice(items.signatureAt(i)) * items.amountAt(i);
         }
 
         this.accumulatedSellValue = totalValue;
@@ -642,114 +672,67 @@ public class SpawnerData {
     }
 
     /**
-     * Gets the price cache from loot config.
-     * Prefers live prices from ItemPriceManager to avoid startup timing issues where
-     * shop plugin prices aren't yet available when LootItem.sellPrice is baked in.
+     * Gets the price table of this spawner's loot config, or null without a loot config.
+     * Marks the sell value dirty when prices changed since the last update.
      */
-    public Map<String, Double> createPriceCache() {
-        if (lootConfig == null) {
-            return new java.util.HashMap<>();
-        }
-
-        github.nighter.smartspawner.hooks.economy.ItemPriceManager priceManager = plugin.getItemPriceManager();
-        Map<String, Double> cache = new java.util.HashMap<>();
-        java.util.List<LootItem> allLootItems = lootConfig.getAllItems();
-
-        for (LootItem lootItem : allLootItems) {
-            // Use live price from ItemPriceManager; fall back to baked sellPrice if unavailable
-            double price = (priceManager != null) ? priceManager.getPrice(lootItem.material()) : 0.0;
-            if (price <= 0.0) {
-                price = lootItem.sellPrice();
-            }
-            if (price > 0.0) {
-                ItemStack template = lootItem.createItemStack(new java.util.Random());
-                if (template != null) {
-                    String key = createItemKey(template);
-                    cache.put(key, price);
-                }
-            }
+    public SellPriceTable getSellPrices() {
+        EntityLootConfig config = lootConfig;
+        if (config == null) {
+            return null;
         }
 
-        return cache;
-    }
-
-    /**
-     * Finds item price using the cache
-     */
-    private double findItemPrice(ItemStack item, Map<String, Double> priceCache) {
-        if (item == null || priceCache == null) {
-            return 0.0;
+        SellPriceTable prices = sellPrices;
+        if (prices == null || !prices.isCurrent(config)) {
+            prices = SellPriceTable.forConfig(plugin, config);
+            this.sellPrices = prices;
+            this.sellValueDirty = true;
         }
-        String itemKey = createItemKey(item);
-        Double price = priceCache.get(itemKey);
-        return price != null ? price : 0.0;
+        return prices;
     }
 
     /**
-     * Creates a unique key for an item (same logic as SpawnerSellManager)
+     * Adds items to virtual inventory and updates accumulated sell value
+     * This is the preferred method to add items to maintain accurate sell value cache
+     * THREAD-SAFE: Uses inventoryLock to ensure atomicity
+     * @param items Items to add
      */
-    private String createItemKey(ItemStack item) {
-        if (item == null) {
-            return "null";
-        }
-
-        StringBuilder key = new StringBuilder();
-        key.append(item.getType().name());
-
-        // Add enchantments if present
-        if (item.hasItemMeta() && item.getItemMeta().hasEnchants()) {
-            key.append("_enchants:");
-            item.getItemMeta().getEnchants().entrySet().stream()
-                    .sorted(java.util.Map.Entry.comparingByKey(java.util.Comparator.comparing(enchantment -> enchantment.getKey().toString())))
-                    .forEach(entry -> key.append(entry.getKey().getKey()).append(":").append(entry.getValue()).append(","));
-        }
-
-        // Add custom model data if present
-        if (item.hasItemMeta()) {
-            ItemMeta meta = item.getItemMeta();
-            if (VersionInitializer.hasCustomModelData(meta)) {
-                key.append("_cmd:").append(VersionInitializer.getCustomModelDataString(meta));
-            }
+    public void addItemsAndUpdateSellValue(List<ItemStack> items) {
+        if (items == null || items.isEmpty()) {
+            return;
         }
 
-        // Add display name if present
-        if (item.hasItemMeta() && item.getItemMeta().hasDisplayName()) {
-            key.append("_name:").append(item.getItemMeta().displayName());
+        // Consolidate items being added for efficient price lookup
+        Map<VirtualInventory.ItemSignature, Long> itemsToAdd = new java.util.HashMap<>();
+        for (ItemStack item : items) {
+            if (item == null || item.getAmount() <= 0) continue;
+            // Use cached signature to avoid excessive cloning
+            VirtualInventory.ItemSignature sig = VirtualInventory.getSignature(item);
+            itemsToAdd.merge(sig, (long) item.getAmount(), (a, b) -> a + b);
         }
 
-        return key.toString();
+        addItemsAndUpdateSellValue(itemsToAdd);
     }
 
     /**
-     * Adds items to virtual inventory and updates accumulated sell value
-     * This is the preferred method to add items to maintain accurate sell value cache
+     * Adds consolidated item amounts to virtual inventory and updates accumulated sell value
      * THREAD-SAFE: Uses inventoryLock to ensure atomicity
-     * @param items Items to add
+     * @param itemsToAdd Amounts to add per item signature
      */
-    public void addItemsAndUpdateSellValue(List<ItemStack> items) {
-        if (items == null || items.isEmpty()) {
+    public void addItemsAndUpdateSellValue(Map<VirtualInventory.ItemSignature, Long> itemsToAdd) {
+        if (itemsToAdd == null || itemsToAdd.isEmpty()) {
             return;
         }
 
         // CRITICAL: Acquire inventoryLock to ensure VirtualInventory remains source of truth
         inventoryLock.lock();
         try {
-            // Consolidate items being added for efficient price lookup
-            Map<VirtualInventory.ItemSignature, Long> itemsToAdd = new java.util.HashMap<>();
-            for (ItemStack item : items) {
-                if (item == null || item.getAmount() <= 0) continue;
-                // Use cached signature to avoid excessive cloning
-                VirtualInventory.ItemSignature sig = VirtualInventory.getSignature(item);
-                itemsToAdd.merge(sig, (long) item.getAmount(), (a, b) -> a + b);
-            }
-
             // Add to VirtualInventory (source of truth) - this operation is atomic within the lock
-            virtualInventory.addItems(items);
+            virtualInventory.addItems(itemsToAdd);
 
             // Update sell value atomically
-            if (!sellValueDirty) {
-                Map<String, Double> priceCache = createPriceCache();
-                incrementSellValue(itemsToAdd, priceCache);
+            SellPriceTable prices = getSellPrices();
+            if (prices != null && !sellValueDirty) {
+                incrementSellValue(itemsToAdd, prices);
             }
         } finally {
             inventoryLock.unlock();
@@ -774,9 +757,9 @@ public class SpawnerData {
             boolean removed = virtualInventory.removeItems(items);
 
             // Update sell value atomically if removal was successful
-            if (removed && !sellValueDirty) {
-                Map<String, Double> priceCache = createPriceCache();
-                decrementSellValue(items, priceCache);
+            SellPriceTable prices = removed ? getSellPrices() : null;
+            if (prices != null && !sellValueDirty) {
+                decrementSellValue(items, prices);
             }
 
             return removed;
@@ -785,13 +768,37 @@ public class SpawnerData {
         }
     }
 
-    public synchronized void storePreGeneratedLoot(List<ItemStack> items, long experience) {
+    /**
+     * Removes consolidated amounts from virtual inventory and updates accumulated sell value
+     * THREAD-SAFE: Uses inventoryLock to ensure atomicity
+     * @param amounts Amounts to remove per item signature
+     * @return true if the amounts were removed, false if any of them is not available
+     */
+    public boolean removeAmountsAndUpdateSellValue(Map<VirtualInventory.ItemSignature, Long> amounts) {
+        if (amounts == null || amounts.isEmpty()) {
+            return true;
+        }
+
+        inventoryLock.lock();
+        try {
+            boolean removed = virtualInventory.removeAmounts(amounts);
+            SellPriceTable prices = removed ? getSellPrices() : null;
+            if (prices != null && !sellValueDirty) {
+                decrementSellValue(amounts, prices);
+            }
+            return removed;
+        } finally {
+            inventoryLock.unlock();
+        }
+    }
+
+    public synchronized void storePreGeneratedLoot(Map<VirtualInventory.ItemSignature, Long> items, long experience) {
         this.preGeneratedItems = items;
         this.preGeneratedExperience = experience;
     }
 
-    public synchronized List<ItemStack> getAndClearPreGeneratedItems() {
-        List<ItemStack> items = preGeneratedItems;
+    public synchronized Map<VirtualInventory.ItemSignature, Long> getAndClearPreGeneratedItems() {
+        Map<VirtualInventory.ItemSignature, Long> items = preGeneratedItems;
         preGeneratedItems = null;
         return items;
     }
@@ -802,6 +809,29 @@ public class SpawnerData {
         return exp;
     }
 
+    /**
+     * Reads the pre-generated loot without consuming it, see {@link #clearPreGeneratedLoot(LootResult)}.
+     *
+     * @return the stored loot, or null if there is none
+     */
+    public synchronized LootResult peekPreGeneratedLoot() {
+        if (!hasPreGeneratedLoot()) {
+            return null;
+        }
+        return new LootResult(preGeneratedItems != null ? preGeneratedItems : Collections.emptyMap(), preGeneratedExperience);
+    }
+
+    /**
+     * Consumes peeked pre-generated loot after it was added, unless newer loot replaced it meanwhile.
+     */
+    public synchronized void clearPreGeneratedLoot(LootResult added) {
+        boolean sameItems = preGeneratedItems == added.items() || (preGeneratedItems == null && added.items().isEmpty());
+        if (sameItems && preGeneratedExperience == added.experience()) {
+            preGeneratedItems = null;
+            preGeneratedExperience = 0;
+        }
+    }
+
     public synchronized boolean hasPreGeneratedLoot() {
         return (preGeneratedItems != null && !preGeneratedItems.isEmpty()) || preGeneratedExperience > 0;
     }
@@ -9,62 +9,139 @@ import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class VirtualInventory {
-    private final Map<ItemSignature, Long> consolidatedItems;
+    // Current contents as an immutable snapshot, replaced on every change so reads never copy
+    private volatile ItemsView contents = ItemsView.EMPTY;
     @Getter
     private int maxSlots;
-    private final Map<Integer, ItemStack> displayInventoryCache;
-    private boolean displayCacheDirty;
-    private int usedSlotsCache;
-    private long totalItemsCache;
-    private boolean metricsCacheDirty;
-    // Cache sorted entries to avoid resorting when display isn't changing
-    private List<Map.Entry<ItemSignature, Long>> sortedEntriesCache;
-    private org.bukkit.Material preferredSortMaterial;
-
-    // Add an LRU cache for expensive item operations
-    private static final int ITEM_CACHE_SIZE = 128;
-    private static final Map<ItemStack, ItemSignature> signatureCache =
-            Collections.synchronizedMap(new LinkedHashMap<ItemStack, ItemSignature>(ITEM_CACHE_SIZE, 0.75f, true) {
-                @Override
-                protected boolean removeEldestEntry(Map.Entry<ItemStack, ItemSignature> eldest) {
-                    return size() > ITEM_CACHE_SIZE;
-                }
-            });
+    // Cache sorted signatures to avoid resorting, keyed to the item types of the contents it was built from
+    private volatile SortedSignatures sortedSignaturesCache;
+    // Bumped whenever an item type is added or removed, guarded by this inventory's monitor
+    private long typesVersion;
+    // Slot layout of the current contents, rebuilt lazily after they change
+    private volatile DisplayOrder displayOrderCache;
+    private volatile org.bukkit.Material preferredSortMaterial;
+
+    // Shared lookup cache for expensive item operations, sized from performance.signature_cache
+    @Getter
+    private static final ItemSignatureCache signatureCache = new ItemSignatureCache(ItemSignatureCache.DEFAULT_MAX_SIZE);
 
     public VirtualInventory(int maxSlots) {
         this.maxSlots = maxSlots;
-        this.consolidatedItems = new ConcurrentHashMap<>();
-        this.displayInventoryCache = new HashMap<>(maxSlots); // Pre-size the map
-        this.displayCacheDirty = true;
-        this.metricsCacheDirty = true;
-        this.usedSlotsCache = 0;
-        this.totalItemsCache = 0;
-        this.sortedEntriesCache = null;
+        this.sortedSignaturesCache = null;
         this.preferredSortMaterial = null;
     }
 
     public static class ItemSignature {
+        // Intern table: one canonical signature per distinct item, addressed by a dense id.
+        // Entries are never dropped, so only loot table items and items actually stored in an
+        // inventory are interned; lookups of other items use plain signatures.
+        private static final Map<ItemSignature, ItemSignature> interned = new ConcurrentHashMap<>();
+        private static volatile ItemSignature[] signaturesById = new ItemSignature[64];
+        private static int nextId = 0;
+
         private final ItemStack template;
         private final int hashCode;
         @Getter
         private final String materialName;
+        @Getter
+        private final int maxStackSize;
+        // Dense id of an interned signature, -1 for signatures that are not interned
+        @Getter
+        private final int id;
 
         public ItemSignature(ItemStack item) {
             this.template = item.clone();
             this.template.setAmount(1);
             this.materialName = item.getType().name();
+            this.maxStackSize = template.getMaxStackSize();
             this.hashCode = calculateHashCode();
+            this.id = -1;
+        }
+
+        private ItemSignature(ItemSignature source, int id) {
+            this.template = source.template;
+            this.materialName = source.materialName;
+            this.maxStackSize = source.maxStackSize;
+            this.hashCode = source.hashCode;
+            this.id = id;
+        }
+
+        /**
+         * Returns the canonical instance of this signature, registering it on first use.
+         */
+        public ItemSignature intern() {
+            if (id >= 0) {
+                return this;
+            }
+            ItemSignature canonical = interned.get(this);
+            if (canonical != null) {
+                return canonical;
+            }
+
+            synchronized (interned) {
+                canonical = interned.get(this);
+                if (canonical == null) {
+                    int newId = nextId++;
+                    canonical = new ItemSignature(this, newId);
+                    ItemSignature[] table = signaturesById;
+                    if (newId >= table.length) {
+                        table = Arrays.copyOf(table, table.length * 2);
+                    }
+                    table[newId] = canonical;
+                    signaturesById = table;
+                    interned.put(canonical, canonical);
+                }
+                return canonical;
+            }
+        }
+
+        /**
+         * Finds the interned signature equal to this one without registering a new one.
+         *
+         * @return the canonical instance, or this signature if no equal one was interned yet
+         */
+        ItemSignature internedOrSelf() {
+            if (id >= 0) {
+                return this;
+            }
+            ItemSignature canonical = interned.get(this);
+            return canonical != null ? canonical : this;
+        }
+
+        /**
+         * Finds the id of an equal interned signature without registering a new one.
+         *
+         * @return the id, or -1 if no equal signature was interned yet
+         */
+        static int findId(ItemSignature signature) {
+            if (signature.id >= 0) {
+                return signature.id;
+            }
+            ItemSignature canonical = interned.get(signature);
+            return canonical != null ? canonical.id : -1;
+        }
+
+        public static ItemSignature byId(int id) {
+            return signaturesById[id];
         }
 
-        // Replace the current calculateHashCode() method with:
         private int calculateHashCode() {
+            return fingerprint(template);
+        }
+
+        /**
+         * Hashes the properties that decide whether two items share a signature.
+         * Equal to {@link #hashCode()} of the signature of the item, so it can key
+         * caches without creating a signature first.
+         */
+        static int fingerprint(ItemStack item) {
             // Use a faster hash algorithm and cache more item properties
-            int result = 31 * template.getType().ordinal(); // Using ordinal() instead of name() hashing
-            result = 31 * result + getItemDamage(template);
+            int result = 31 * item.getType().ordinal(); // Using ordinal() instead of name() hashing
+            result = 31 * result + getItemDamage(item);
 
             // Only access ItemMeta when needed
-            if (template.hasItemMeta()) {
-                ItemMeta meta = template.getItemMeta();
+            if (item.hasItemMeta()) {
+                ItemMeta meta = item.getItemMeta();
                 // Extract only the essential meta properties that determine similarity
                 result = 31 * result + (meta.hasDisplayName() ? meta.displayName().hashCode() : 0);
                 result = 31 * result + (meta.hasLore() ? meta.lore().hashCode() : 0);
@@ -79,8 +156,13 @@ public class VirtualInventory {
             if (!(o instanceof ItemSignature)) return false;
             ItemSignature that = (ItemSignature) o;
 
+            // Interned signatures are unique, so ids decide equality when both have one
+            if (id >= 0 && that.id >= 0) {
+                return id == that.id;
+            }
+
             // First compare cheap properties
-                if (template.getType() != that.template.getType() ||
+            if (template.getType() != that.template.getType() ||
                     getItemDamage(template) != getItemDamage(that.template)) {
                 return false;
             }
@@ -116,7 +198,21 @@ public class VirtualInventory {
             return template;
         }
 
-        private int getItemDamage(ItemStack item) {
+        /**
+         * Checks whether an item has this signature, without creating a signature for it.
+         */
+        public boolean matches(ItemStack item) {
+            if (template.getType() != item.getType()) {
+                return false;
+            }
+            boolean hasMeta = item.hasItemMeta();
+            if (template.hasItemMeta() != hasMeta) {
+                return false;
+            }
+            return !hasMeta || (getItemDamage(template) == getItemDamage(item) && template.isSimilar(item));
+        }
+
+        private static int getItemDamage(ItemStack item) {
             if (!item.hasItemMeta()) {
                 return 0;
             }
@@ -129,17 +225,119 @@ public class VirtualInventory {
 
     }
 
-    public static ItemSignature getSignature(ItemStack item) {
-        // First try to get from cache
-        ItemSignature cachedSig = signatureCache.get(item);
-        if (cachedSig != null) {
-            return cachedSig;
+    /**
+     * Immutable snapshot of stored items: parallel arrays of interned signature ids and amounts.
+     * <p>
+     * Spawners usually hold only a handful of item types, so two small primitive arrays are far
+     * lighter than a hash map and a linear scan is as fast as hashing. The snapshot doubles as a
+     * read-only {@code Map} so existing readers can use it without a defensive copy.
+     * <p>
+     * Slot usage and item totals are carried along and updated from per-signature deltas on
+     * every change, so reading them is constant time.
+     */
+    public static final class ItemsView extends AbstractMap<ItemSignature, Long> {
+        static final ItemsView EMPTY = new ItemsView(new int[0], new long[0], 0, 0L, 0L);
+
+        private final int[] ids;
+        private final long[] amounts;
+        // Exact number of stacks needed to hold every item, not capped at the inventory size
+        @Getter
+        private final int usedSlots;
+        @Getter
+        private final long totalItems;
+        // Same value for every snapshot with the same item types, see VirtualInventory#typesVersion
+        private final long typesVersion;
+
+        private ItemsView(int[] ids, long[] amounts, int usedSlots, long totalItems, long typesVersion) {
+            this.ids = ids;
+            this.amounts = amounts;
+            this.usedSlots = usedSlots;
+            this.totalItems = totalItems;
+            this.typesVersion = typesVersion;
+        }
+
+        @Override
+        public int size() {
+            return ids.length;
+        }
+
+        public ItemSignature signatureAt(int index) {
+            return ItemSignature.byId(ids[index]);
+        }
+
+        public long amountAt(int index) {
+            return amounts[index];
+        }
+
+        public long getAmount(ItemSignature signature) {
+            int index = indexOf(signature);
+            return index >= 0 ? amounts[index] : 0L;
+        }
+
+        private int indexOf(ItemSignature signature) {
+            int id = ItemSignature.findId(signature);
+            return id >= 0 ? indexOfId(id) : -1;
+        }
+
+        private int indexOfId(int id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof ItemSignature && indexOf((ItemSignature) key) >= 0;
+        }
+
+        @Override
+        public Long get(Object key) {
+            if (!(key instanceof ItemSignature)) {
+                return null;
+            }
+            int index = indexOf((ItemSignature) key);
+            return index >= 0 ? amounts[index] : null;
         }
 
-        // Create new signature and cache it
-        ItemSignature newSig = new ItemSignature(item);
-        signatureCache.put(item.clone(), newSig);
-        return newSig;
+        @Override
+        public Set<Map.Entry<ItemSignature, Long>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<ItemSignature, Long>> iterator() {
+                    return new Iterator<>() {
+                        private int index = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return index < ids.length;
+                        }
+
+                        @Override
+                        public Map.Entry<ItemSignature, Long> next() {
+                            if (index >= ids.length) {
+                                throw new NoSuchElementException();
+                            }
+                            Map.Entry<ItemSignature, Long> entry =
+                                    new AbstractMap.SimpleImmutableEntry<>(signatureAt(index), amounts[index]);
+                            index++;
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return ids.length;
+                }
+            };
+        }
+    }
+
+    public static ItemSignature getSignature(ItemStack item) {
+        return signatureCache.get(item);
     }
 
     // Add items in bulk with minimal operations
@@ -156,18 +354,47 @@ public class VirtualInventory {
             itemBatch.merge(sig, (long) item.getAmount(), (a, b) -> a + b);
         }
 
-        // Apply all changes in one operation
-        if (!itemBatch.isEmpty()) {
-            for (Map.Entry<ItemSignature, Long> entry : itemBatch.entrySet()) {
-                consolidatedItems.merge(entry.getKey(), entry.getValue(), (a, b) -> a + b);
+        addItems(itemBatch);
+    }
+
+    // Add already consolidated amounts, e.g. loot resolved from a compiled loot table
+    public synchronized void addItems(Map<ItemSignature, Long> itemBatch) {
+        if (itemBatch.isEmpty()) return;
+
+        ItemsView current = contents;
+        int[] ids = Arrays.copyOf(current.ids, current.ids.length + itemBatch.size());
+        long[] amounts = Arrays.copyOf(current.amounts, ids.length);
+        int size = current.ids.length;
+        int usedSlots = current.usedSlots;
+        long totalItems = current.totalItems;
+        boolean typesChanged = false;
+
+        // Apply all changes to the new snapshot in one pass
+        for (Map.Entry<ItemSignature, Long> entry : itemBatch.entrySet()) {
+            long amount = entry.getValue();
+            if (amount <= 0) continue;
+
+            ItemSignature sig = entry.getKey().intern();
+            int index = indexOf(ids, size, sig.getId());
+            long before = 0;
+            if (index >= 0) {
+                before = amounts[index];
+                amounts[index] += amount;
+            } else {
+                ids[size] = sig.getId();
+                amounts[size] = amount;
+                size++;
+                typesChanged = true;
             }
-            displayCacheDirty = true;
-            metricsCacheDirty = true;
-            sortedEntriesCache = null;
+            usedSlots += slotsFor(before + amount, sig.getMaxStackSize()) - slotsFor(before, sig.getMaxStackSize());
+            totalItems += amount;
         }
+
+        publish(ids, amounts, size, usedSlots, totalItems, typesChanged);
     }
+
     // Remove items in bulk with minimal operations
-    public boolean removeItems(List<ItemStack> items) {
+    public synchronized boolean removeItems(List<ItemStack> items) {
         if (items.isEmpty()) return true;
 
         Map<ItemSignature, Long> toRemove = new HashMap<>();
@@ -180,157 +407,248 @@ public class VirtualInventory {
             toRemove.merge(sig, (long) item.getAmount(), (a, b) -> a + b);
         }
 
+        return removeAmounts(toRemove);
+    }
+
+    /**
+     * Removes already consolidated amounts. Nothing is removed unless every amount is available.
+     *
+     * @return true if the amounts were removed
+     */
+    public synchronized boolean removeAmounts(Map<ItemSignature, Long> toRemove) {
         if (toRemove.isEmpty()) return true;
 
+        ItemsView current = contents;
+
         // Verify we have enough of each item
         for (Map.Entry<ItemSignature, Long> entry : toRemove.entrySet()) {
-            Long currentAmount = consolidatedItems.getOrDefault(entry.getKey(), 0L);
-            if (currentAmount < entry.getValue()) {
+            if (current.getAmount(entry.getKey()) < entry.getValue()) {
                 return false;
             }
         }
 
-        // Perform removals all at once
-        boolean updated = false;
+        // Perform removals all at once, dropping item types that run out
+        long[] amounts = current.amounts.clone();
+        int usedSlots = current.usedSlots;
+        long totalItems = current.totalItems;
         for (Map.Entry<ItemSignature, Long> entry : toRemove.entrySet()) {
-            ItemSignature sig = entry.getKey();
-            long amountToRemove = entry.getValue();
-
-            consolidatedItems.computeIfPresent(sig, (key, current) -> {
-                long newAmount = current - amountToRemove;
-                return newAmount <= 0 ? null : newAmount;
-            });
-
-            updated = true;
+            if (entry.getValue() <= 0) continue;
+
+            int index = current.indexOf(entry.getKey());
+            int maxStackSize = current.signatureAt(index).getMaxStackSize();
+            long before = amounts[index];
+            amounts[index] -= entry.getValue();
+            usedSlots += slotsFor(amounts[index], maxStackSize) - slotsFor(before, maxStackSize);
+            totalItems -= entry.getValue();
         }
 
-        if (updated) {
-            displayCacheDirty = true;
-            metricsCacheDirty = true;
-            sortedEntriesCache = null; // Invalidate sorted entries cache
+        int[] ids = current.ids.clone();
+        int size = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (amounts[i] > 0) {
+                ids[size] = ids[i];
+                amounts[size] = amounts[i];
+                size++;
+            }
         }
 
+        publish(ids, amounts, size, usedSlots, totalItems, size != ids.length);
         return true;
     }
 
-    // Optimized getDisplayInventory method
-    public Map<Integer, ItemStack> getDisplayInventory() {
-        // Return cached result if available
-        if (!displayCacheDirty) {
-            // Return a shallow copy to prevent modification of the cache
-            return Collections.unmodifiableMap(displayInventoryCache);
+    private static int indexOf(int[] ids, int size, int id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
         }
+        return -1;
+    }
 
-        // Clear the cache for a fresh rebuild but reuse the existing map
-        displayInventoryCache.clear();
+    private static int slotsFor(long amount, int maxStackSize) {
+        return (int) ((amount + maxStackSize - 1) / maxStackSize);
+    }
 
-        if (consolidatedItems.isEmpty()) {
-            displayCacheDirty = false;
-            usedSlotsCache = 0;
-            return Collections.emptyMap();
+    // Must be called while holding this inventory's monitor
+    private void publish(int[] ids, long[] amounts, int size, int usedSlots, long totalItems,
+                         boolean typesChanged) {
+        if (size != ids.length) {
+            ids = Arrays.copyOf(ids, size);
+            amounts = Arrays.copyOf(amounts, size);
+        }
+        if (typesChanged) {
+            typesVersion++;
         }
+        contents = size == 0 ? ItemsView.EMPTY : new ItemsView(ids, amounts, usedSlots, totalItems, typesVersion);
+    }
 
-        // Get and sort the items - only use cached sort result if available
-        if (sortedEntriesCache == null) {
-            sortedEntriesCache = new ArrayList<>(consolidatedItems.entrySet());
-            // Apply preferred sort if set, otherwise sort alphabetically
-            if (preferredSortMaterial != null) {
-                sortedEntriesCache.sort((e1, e2) -> {
-                    // Use getTemplateRef() to avoid cloning - we only need to read the type
-                    boolean e1Preferred = e1.getKey().getTemplateRef().getType() == preferredSortMaterial;
-                    boolean e2Preferred = e2.getKey().getTemplateRef().getType() == preferredSortMaterial;
-
-                    if (e1Preferred && !e2Preferred) return -1;
-                    if (!e1Preferred && e2Preferred) return 1;
-                    
-                    // Both preferred or both not preferred, sort by material name
-                    return e1.getKey().getMaterialName().compareTo(e2.getKey().getMaterialName());
-                });
-            } else {
-                // Use optimized comparator based on cached material name
-                sortedEntriesCache.sort(Comparator.comparing(e -> e.getKey().getMaterialName()));
-            }
+    /**
+     * Signatures of one set of item types in display order, valid for every contents snapshot
+     * with the same types version and sort preference.
+     */
+    private record SortedSignatures(long typesVersion, org.bukkit.Material preferredMaterial,
+                                    List<ItemSignature> signatures) {
+        boolean matches(ItemsView items, org.bukkit.Material preferred) {
+            return typesVersion == items.typesVersion && preferredMaterial == preferred;
         }
+    }
 
-        // Process items directly to the display inventory
-        int currentSlot = 0;
+    /**
+     * Sorted display order of one contents snapshot. {@code slotOffsets[i]} is the first display
+     * slot of {@code signatures[i]}, the last element is the total number of slots.
+     */
+    private record DisplayOrder(ItemsView items, ItemSignature[] signatures, long[] amounts, int[] slotOffsets) {
+    }
 
-        for (Map.Entry<ItemSignature, Long> entry : sortedEntriesCache) {
-            if (currentSlot >= maxSlots) break;
+    private DisplayOrder getDisplayOrder() {
+        ItemsView items = contents;
+        DisplayOrder order = displayOrderCache;
+        if (order != null && order.items() == items) {
+            return order;
+        }
 
-            ItemSignature sig = entry.getKey();
-            long totalAmount = entry.getValue();
-            ItemStack templateItem = sig.getTemplateRef();
-            int maxStackSize = templateItem.getMaxStackSize();
+        // Get and sort the items - only use cached sort result if available
+        org.bukkit.Material preferred = preferredSortMaterial;
+        SortedSignatures sorted = sortedSignaturesCache;
+        if (sorted == null || !sorted.matches(items, preferred)) {
+            sorted = new SortedSignatures(items.typesVersion, preferred, sortSignatures(items, preferred));
+            sortedSignaturesCache = sorted;
+        }
+        List<ItemSignature> sortedSignatures = sorted.signatures();
+
+        int count = sortedSignatures.size();
+        ItemSignature[] signatures = sortedSignatures.toArray(new ItemSignature[0]);
+        long[] amounts = new long[count];
+        int[] slotOffsets = new int[count + 1];
+        for (int i = 0; i < count; i++) {
+            amounts[i] = items.getAmount(signatures[i]);
+            slotOffsets[i + 1] = slotOffsets[i] + slotsFor(amounts[i], signatures[i].getMaxStackSize());
+        }
 
-            // Create as many stacks as needed for this item type
-            while (totalAmount > 0 && currentSlot < maxSlots) {
-                int stackSize = (int) Math.min(totalAmount, maxStackSize);
+        order = new DisplayOrder(items, signatures, amounts, slotOffsets);
+        displayOrderCache = order;
+        return order;
+    }
 
-                // Create the display item only once per slot
-                ItemStack displayItem = templateItem.clone();
-                displayItem.setAmount(stackSize);
+    /**
+     * Builds the display stacks for a range of storage slots only.
+     * Stacks outside the range are never created, so showing one page of a large
+     * storage costs the same as showing a small one.
+     *
+     * @param fromSlot first display slot, 0-based across all pages
+     * @param count    number of slots to build
+     * @return display stacks keyed by their display slot, in slot order
+     */
+    public Map<Integer, ItemStack> getDisplayRange(int fromSlot, int count) {
+        DisplayOrder order = getDisplayOrder();
+        int[] slotOffsets = order.slotOffsets();
+        int endSlot = (int) Math.min((long) fromSlot + count, Math.min(maxSlots, slotOffsets[slotOffsets.length - 1]));
+        if (fromSlot < 0 || fromSlot >= endSlot) {
+            return Collections.emptyMap();
+        }
 
-                // Store in cache
-                displayInventoryCache.put(currentSlot, displayItem);
+        // Find the item whose slot range contains the first requested slot
+        int index = Arrays.binarySearch(slotOffsets, fromSlot);
+        if (index < 0) {
+            index = -index - 2;
+        }
 
-                totalAmount -= stackSize;
-                currentSlot++;
+        Map<Integer, ItemStack> displayItems = new LinkedHashMap<>();
+        for (int slot = fromSlot; slot < endSlot; slot++) {
+            while (slot >= slotOffsets[index + 1]) {
+                index++;
             }
-        }
 
-        // Update cache state
-        displayCacheDirty = false;
-        usedSlotsCache = displayInventoryCache.size();
+            ItemSignature sig = order.signatures()[index];
+            int maxStackSize = sig.getMaxStackSize();
+            long remaining = order.amounts()[index] - (long) (slot - slotOffsets[index]) * maxStackSize;
 
-        // Return unmodifiable map to prevent external changes
-        return Collections.unmodifiableMap(displayInventoryCache);
+            ItemStack displayItem = sig.getTemplateRef().clone();
+            displayItem.setAmount((int) Math.min(remaining, maxStackSize));
+            displayItems.put(slot, displayItem);
+        }
+        return displayItems;
     }
 
-    public long getTotalItems() {
-        if (metricsCacheDirty) {
-            updateMetricsCache();
+    /**
+     * Amounts held by the first display slots, per signature and in display order,
+     * without building any stacks.
+     *
+     * @param count number of display slots from the start of the storage
+     */
+    public Map<ItemSignature, Long> getLeadingAmounts(int count) {
+        DisplayOrder order = getDisplayOrder();
+        Map<ItemSignature, Long> leading = new LinkedHashMap<>();
+        int slotsLeft = Math.min(count, maxSlots);
+        for (int i = 0; i < order.signatures().length && slotsLeft > 0; i++) {
+            ItemSignature sig = order.signatures()[i];
+            int slots = order.slotOffsets()[i + 1] - order.slotOffsets()[i];
+            int taken = Math.min(slots, slotsLeft);
+            leading.put(sig, Math.min(order.amounts()[i], (long) taken * sig.getMaxStackSize()));
+            slotsLeft -= taken;
         }
-        return totalItemsCache;
+        return leading;
     }
 
-    public Map<ItemSignature, Long> getConsolidatedItems() {
-        return new HashMap<>(consolidatedItems);
+    /**
+     * Builds the display stacks for every slot. Prefer {@link #getDisplayRange(int, int)}
+     * when only a page or a few stacks are needed.
+     */
+    public Map<Integer, ItemStack> getDisplayInventory() {
+        return Collections.unmodifiableMap(getDisplayRange(0, maxSlots));
     }
 
-    public int getUsedSlots() {
-        // If cache is dirty but we haven't regenerated the display inventory yet,
-        // calculate a quick estimate instead of rebuilding the whole display
-        if (displayCacheDirty) {
-            if (consolidatedItems.isEmpty()) {
-                return 0;
-            }
+    private static List<ItemSignature> sortSignatures(ItemsView items, org.bukkit.Material preferredMaterial) {
+        List<ItemSignature> signatures = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            signatures.add(items.signatureAt(i));
+        }
 
-            // Quick estimate - not perfectly accurate but avoids full rebuilds
-            int estimatedSlots = 0;
-            for (Map.Entry<ItemSignature, Long> entry : consolidatedItems.entrySet()) {
-                long amount = entry.getValue();
-                int maxStackSize = entry.getKey().getTemplateRef().getMaxStackSize();
-                estimatedSlots += (int) Math.ceil((double) amount / maxStackSize);
-                if (estimatedSlots >= maxSlots) {
-                    return maxSlots; // Cap at max slots
-                }
-            }
-            return estimatedSlots;
+        // Apply preferred sort if set, otherwise sort alphabetically
+        if (preferredMaterial != null) {
+            signatures.sort((s1, s2) -> {
+                // Use getTemplateRef() to avoid cloning - we only need to read the type
+                boolean s1Preferred = s1.getTemplateRef().getType() == preferredMaterial;
+                boolean s2Preferred = s2.getTemplateRef().getType() == preferredMaterial;
+
+                if (s1Preferred && !s2Preferred) return -1;
+                if (!s1Preferred && s2Preferred) return 1;
+
+                // Both preferred or both not preferred, sort by material name
+                return s1.getMaterialName().compareTo(s2.getMaterialName());
+            });
+        } else {
+            // Use optimized comparator based on cached material name
+            signatures.sort(Comparator.comparing(ItemSignature::getMaterialName));
         }
+        return signatures;
+    }
 
-        return usedSlotsCache;
+    public long getTotalItems() {
+        return contents.getTotalItems();
     }
 
-    private void updateMetricsCache() {
-        totalItemsCache = consolidatedItems.values().stream()
-                .mapToLong(Long::longValue)
-                .sum();
-        metricsCacheDirty = false;
+    /**
+     * Returns a mutable copy of the stored items.
+     * Prefer {@link #getItemsView()} when the result is only read.
+     */
+    public Map<ItemSignature, Long> getConsolidatedItems() {
+        return new HashMap<>(contents);
     }
 
-    public boolean isDirty() {
-        return displayCacheDirty;
+    /**
+     * Returns the current contents without copying. The view is an immutable snapshot:
+     * later changes to the inventory are not reflected in it.
+     */
+    public ItemsView getItemsView() {
+        return contents;
+    }
+
+    /**
+     * Gets the number of slots the stored items occupy, capped at the inventory size.
+     */
+    public int getUsedSlots() {
+        return Math.min(contents.getUsedSlots(), maxSlots);
     }
 
     /**
@@ -343,39 +661,19 @@ public class VirtualInventory {
         // Store the preferred material for future cache rebuilds
         this.preferredSortMaterial = preferredMaterial;
         
-        // Clear the sorted cache to force re-sorting with new preference
-        this.sortedEntriesCache = null;
+        // Clear the sorted caches to force re-sorting with new preference
+        this.sortedSignaturesCache = null;
+        this.displayOrderCache = null;
         
         // Only proceed if we have items to sort
-        if (consolidatedItems.isEmpty()) {
-            this.displayCacheDirty = true;
+        ItemsView items = contents;
+        if (items.isEmpty()) {
             return;
         }
         
-        // Generate new sorted entries with preference
-        if (preferredMaterial != null) {
-            this.sortedEntriesCache = consolidatedItems.entrySet().stream()
-                .sorted((e1, e2) -> {
-                    // Use getTemplateRef() to avoid cloning - we only need to read the type
-                    boolean e1Preferred = e1.getKey().getTemplateRef().getType() == preferredMaterial;
-                    boolean e2Preferred = e2.getKey().getTemplateRef().getType() == preferredMaterial;
-
-                    if (e1Preferred && !e2Preferred) return -1;
-                    if (!e1Preferred && e2Preferred) return 1;
-                    
-                    // Both preferred or both not preferred, sort by material name
-                    return e1.getKey().getMaterialName().compareTo(e2.getKey().getMaterialName());
-                })
-                .collect(java.util.stream.Collectors.toList());
-        } else {
-            // No preference, sort alphabetically by material name
-            this.sortedEntriesCache = consolidatedItems.entrySet().stream()
-                .sorted(Comparator.comparing(e -> e.getKey().getMaterialName()))
-                .collect(java.util.stream.Collectors.toList());
-        }
-        
-        // Mark display cache as dirty to force regeneration
-        this.displayCacheDirty = true;
+        // Generate new sorted order with preference
+        this.sortedSignaturesCache = new SortedSignatures(items.typesVersion, preferredMaterial,
+                sortSignatures(items, preferredMaterial));
     }
 
     /**
@@ -392,14 +690,11 @@ public class VirtualInventory {
 
         this.maxSlots = newMaxSlots;
 
-        // Mark caches as dirty since slot count changed
-        this.displayCacheDirty = true;
-
         // If downsizing, we may need to remove items that exceed capacity
-        if (newMaxSlots < usedSlotsCache) {
+        if (newMaxSlots < contents.getUsedSlots()) {
             // Let the display inventory rebuild handle the truncation naturally
             // Items beyond maxSlots will simply not be displayed
-            // Note: This doesn't remove items from consolidatedItems,
+            // Note: This doesn't remove items from the stored contents,
             // but they won't be accessible in the display
         }
     }
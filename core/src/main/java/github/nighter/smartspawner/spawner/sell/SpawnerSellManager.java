@@ -83,7 +83,7 @@ public class SpawnerSellManager {
         spawnerGuiViewManager.closeAllViewersInventory(spawner);
 
         // Lightweight snapshot – safe because isSelling prevents concurrent inventory changes
-        final Map<VirtualInventory.ItemSignature, Long> itemSnapshot = virtualInv.getConsolidatedItems();
+        final Map<VirtualInventory.ItemSignature, Long> itemSnapshot = virtualInv.getItemsView();
         final double accumulatedValue = spawner.getAccumulatedSellValue();
         final Location spawnerLocation = spawner.getSpawnerLocation();
 
@@ -165,7 +165,7 @@ public class SpawnerSellManager {
 
         // Invalidate GUI caches so the next open shows fresh data
         spawnerGuiViewManager.updateSpawnerMenuViewers(spawner);
-        plugin.getSpawnerManager().markSpawnerModified(spawner.getSpawnerId());
+        plugin.getSpawnerManager().markSpawnerModified(spawner, SpawnerData.DIRTY_LOOT);
 
         // Notify the player
         Map<String, String> placeholders = new HashMap<>();
@@ -189,7 +189,7 @@ public class SpawnerSellManager {
         for (Map.Entry<VirtualInventory.ItemSignature, Long> entry : consolidatedItems.entrySet()) {
             ItemStack templateRef = entry.getKey().getTemplateRef();
             long amount = entry.getValue();
-            int maxStackSize = templateRef.getMaxStackSize();
+            int maxStackSize = entry.getKey().getMaxStackSize();
 
             totalItemsSold += amount;
 
@@ -117,7 +117,7 @@ public class SpawnerLocationLockManager {
                 if (!lock.isLocked() && lock.tryLock()) {
                     try {
                         // Double-check spawner doesn't exist and block is not a spawner
-                        if (spawnerManager.getSpawnerByLocation(location) == null) {
+                        if (!spawnerManager.hasSpawnerAt(location)) {
                             iterator.remove();
                             removed++;
                         }
@@ -0,0 +1,80 @@
+package github.nighter.smartspawner.spawner.data.binary;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SpawnerSnapshotFileTest {
+
+    @TempDir
+    Path dir;
+
+    private static SpawnerRecord record(String id, int stackSize) {
+        return new SpawnerRecord(id, "world", 1, 64, 2, "ZOMBIE", null, 5L, true, 16, false, 500L,
+                45, 1000L, 1, 4, stackSize, 1000, 0L, false, "player", null, List.of("DIRT"),
+                List.of(new SpawnerRecord.ItemEntry("STONE", 0, null, 99L)));
+    }
+
+    private static Map<String, Integer> stackSizes(SpawnerSnapshotFile.Snapshot snapshot) {
+        return snapshot.records().stream()
+                .collect(Collectors.toMap(SpawnerRecord::id, SpawnerRecord::stackSize));
+    }
+
+    @Test
+    void appendedSegmentsApplyInOrder() throws IOException {
+        File file = dir.resolve("spawners_data.bin").toFile();
+        long length = SpawnerSnapshotFile.write(file, 1, List.of(record("a", 1), record("b", 2), record("c", 3)));
+        length = SpawnerSnapshotFile.append(file, length, List.of(record("b", 20), record("d", 4)), List.of("a"));
+        length = SpawnerSnapshotFile.append(file, length, List.of(record("d", 40)), List.of());
+
+        SpawnerSnapshotFile.Snapshot snapshot = SpawnerSnapshotFile.read(file);
+        assertEquals(Map.of("b", 20, "c", 3, "d", 40), stackSizes(snapshot));
+        assertEquals(length, snapshot.validLength());
+        assertEquals(length, file.length());
+    }
+
+    @Test
+    void tornSegmentIsIgnoredAndOverwritten() throws IOException {
+        File file = dir.resolve("spawners_data.bin").toFile();
+        long length = SpawnerSnapshotFile.write(file, 1, List.of(record("a", 1)));
+        length = SpawnerSnapshotFile.append(file, length, List.of(record("a", 2)), List.of());
+
+        // Segment header promising more bytes than were written
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length());
+            raf.write(new byte[]{0x53, 0x53, 0x47, 0x53, 0, 0, 0, 50, 1});
+        }
+
+        SpawnerSnapshotFile.Snapshot snapshot = SpawnerSnapshotFile.read(file);
+        assertEquals(Map.of("a", 2), stackSizes(snapshot));
+        assertEquals(length, snapshot.validLength());
+
+        long appended = SpawnerSnapshotFile.append(file, snapshot.validLength(), List.of(record("b", 3)), List.of("a"));
+        assertEquals(Map.of("b", 3), stackSizes(SpawnerSnapshotFile.read(file)));
+        assertEquals(appended, file.length());
+    }
+
+    @Test
+    void fullWriteCompactsSegments() throws IOException {
+        File file = dir.resolve("spawners_data.bin").toFile();
+        long length = SpawnerSnapshotFile.write(file, 1, List.of(record("a", 1)));
+        SpawnerSnapshotFile.append(file, length, List.of(record("b", 2)), List.of());
+
+        List<SpawnerRecord> merged = SpawnerSnapshotFile.read(file).records();
+        long compacted = SpawnerSnapshotFile.write(file, 1, merged);
+
+        SpawnerSnapshotFile.Snapshot snapshot = SpawnerSnapshotFile.read(file);
+        assertEquals(Map.of("a", 1, "b", 2), stackSizes(snapshot));
+        assertEquals(compacted, snapshot.baseLength());
+        assertEquals(compacted, snapshot.validLength());
+    }
+}
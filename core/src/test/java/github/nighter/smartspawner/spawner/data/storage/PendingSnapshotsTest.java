@@ -0,0 +1,68 @@
+package github.nighter.smartspawner.spawner.data.storage;
+
+import github.nighter.smartspawner.spawner.properties.SpawnerData;
+import org.bukkit.entity.EntityType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PendingSnapshotsTest {
+
+    private static SpawnerSnapshot snapshot(int stackSize, long exp, int dirtyFields) {
+        return new SpawnerSnapshot("spawner", "world", 1, 64, 2, EntityType.ZOMBIE, null,
+                exp, true, 16, false, 500L, 45, 1000L, 1, 4, stackSize, 1000, 0L, false,
+                null, null, Set.of(), Map.of(), dirtyFields);
+    }
+
+    @Test
+    void laterMarkWinsAndKeepsEarlierDirtyFields() {
+        PendingSnapshots pending = new PendingSnapshots();
+        pending.put(snapshot(1, 10L, SpawnerData.DIRTY_LOOT));
+        pending.put(snapshot(2, 20L, SpawnerData.DIRTY_STACK));
+
+        SpawnerSnapshot flushed = pending.take("spawner");
+        assertEquals(2, flushed.stackSize());
+        assertEquals(20L, flushed.spawnerExp());
+        assertEquals(SpawnerData.DIRTY_LOOT | SpawnerData.DIRTY_STACK, flushed.dirtyFields());
+        assertNull(pending.take("spawner"));
+    }
+
+    @Test
+    void unknownDirtyFieldsForceFullWrite() {
+        PendingSnapshots pending = new PendingSnapshots();
+        pending.put(snapshot(1, 10L, 0));
+        pending.put(snapshot(2, 20L, SpawnerData.DIRTY_LOOT));
+
+        SpawnerSnapshot flushed = pending.take("spawner");
+        assertEquals(2, flushed.stackSize());
+        assertEquals(0, flushed.dirtyFields());
+    }
+
+    @Test
+    void restoredFailedWriteDoesNotOverrideNewerMark() {
+        PendingSnapshots pending = new PendingSnapshots();
+        pending.put(snapshot(1, 10L, SpawnerData.DIRTY_LOOT));
+        SpawnerSnapshot failed = pending.take("spawner");
+
+        pending.put(snapshot(3, 30L, SpawnerData.DIRTY_SETTINGS));
+        pending.restore(failed);
+
+        SpawnerSnapshot flushed = pending.take("spawner");
+        assertEquals(3, flushed.stackSize());
+        assertEquals(30L, flushed.spawnerExp());
+        assertEquals(SpawnerData.DIRTY_LOOT | SpawnerData.DIRTY_SETTINGS, flushed.dirtyFields());
+    }
+
+    @Test
+    void restoreWithoutNewerMarkRequeuesFailedSnapshot() {
+        PendingSnapshots pending = new PendingSnapshots();
+        SpawnerSnapshot failed = snapshot(4, 40L, SpawnerData.DIRTY_STACK);
+        pending.restore(failed);
+
+        assertEquals(failed, pending.take("spawner"));
+    }
+}
@@ -0,0 +1,134 @@
+package github.nighter.smartspawner.spawner.lootgen.loot;
+
+import github.nighter.smartspawner.spawner.properties.VirtualInventory;
+import org.bukkit.Material;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompiledLootTableTest {
+
+    private static final int DRAWS = 20_000;
+
+    // Covers every sampler branch: plain loops, geometric skips for rare drops and
+    // rare misses, and the normal approximations of the drop count and the amount sum
+    private static final Material[] MATERIALS = {Material.BONE, Material.ARROW, Material.STRING, Material.GUNPOWDER};
+    private static final double[] CHANCES = {0.5, 0.02, 0.95, 1.0};
+    private static final int[] MIN_AMOUNTS = {1, 1, 0, 2};
+    private static final int[] MAX_AMOUNTS = {3, 1, 2, 2};
+
+    private static CompiledLootTable table() {
+        int[] variantOffsets = new int[MATERIALS.length + 1];
+        for (int i = 0; i <= MATERIALS.length; i++) {
+            variantOffsets[i] = i;
+        }
+        return new CompiledLootTable(MATERIALS, CHANCES, MIN_AMOUNTS, MAX_AMOUNTS, variantOffsets,
+                new VirtualInventory.ItemSignature[MATERIALS.length]);
+    }
+
+    /**
+     * Per-item totals of one draw as the generator rolled them before the table existed:
+     * one chance roll per mob and one amount roll per drop.
+     */
+    private static long[] legacyDraw(Random random, int mobCount) {
+        long[] totals = new long[MATERIALS.length];
+        for (int item = 0; item < MATERIALS.length; item++) {
+            int drops = 0;
+            for (int mob = 0; mob < mobCount; mob++) {
+                if (random.nextDouble() * 100 <= CHANCES[item] * 100) {
+                    drops++;
+                }
+            }
+            for (int drop = 0; drop < drops; drop++) {
+                totals[item] += random.nextInt(MAX_AMOUNTS[item] - MIN_AMOUNTS[item] + 1) + MIN_AMOUNTS[item];
+            }
+        }
+        return totals;
+    }
+
+    private static long[] tableDraw(CompiledLootTable table, SplittableRandom random, int mobCount) {
+        long[] totals = new long[MATERIALS.length];
+        CompiledLootTable.LootDraw draw = table.sample(random, mobCount, Set.of());
+        for (int i = 0; i < draw.size(); i++) {
+            totals[draw.signatureIndexes()[i]] += draw.amounts()[i];
+        }
+        return totals;
+    }
+
+    /**
+     * Per-item mean and variance of the amount dropped by one draw.
+     */
+    private record Moments(double[] means, double[] variances) {
+        static Moments of(long[][] draws) {
+            int items = draws[0].length;
+            double[] means = new double[items];
+            double[] variances = new double[items];
+            for (int item = 0; item < items; item++) {
+                double sum = 0.0;
+                for (long[] draw : draws) {
+                    sum += draw[item];
+                }
+                double mean = sum / draws.length;
+                double squares = 0.0;
+                for (long[] draw : draws) {
+                    squares += (draw[item] - mean) * (draw[item] - mean);
+                }
+                means[item] = mean;
+                variances[item] = squares / (draws.length - 1);
+            }
+            return new Moments(means, variances);
+        }
+    }
+
+    private static void assertSameDistribution(int mobCount, long seed) {
+        CompiledLootTable table = table();
+        Random legacyRandom = new Random(seed);
+        SplittableRandom tableRandom = new SplittableRandom(seed);
+
+        long[][] legacy = new long[DRAWS][];
+        long[][] sampled = new long[DRAWS][];
+        for (int i = 0; i < DRAWS; i++) {
+            legacy[i] = legacyDraw(legacyRandom, mobCount);
+            sampled[i] = tableDraw(table, tableRandom, mobCount);
+        }
+
+        Moments expected = Moments.of(legacy);
+        Moments actual = Moments.of(sampled);
+        for (int item = 0; item < MATERIALS.length; item++) {
+            String label = MATERIALS[item] + " with " + mobCount + " mobs";
+            double expectedVariance = expected.variances()[item];
+            double actualVariance = actual.variances()[item];
+
+            // Five standard errors of the difference of the two means
+            double meanTolerance = 5 * Math.sqrt((expectedVariance + actualVariance) / DRAWS) + 1e-9;
+            assertEquals(expected.means()[item], actual.means()[item], meanTolerance, label + " mean");
+
+            if (expectedVariance == 0.0) {
+                assertEquals(0.0, actualVariance, 1e-9, label + " variance");
+            } else {
+                double ratio = actualVariance / expectedVariance;
+                assertTrue(ratio > 0.9 && ratio < 1.1, label + " variance ratio " + ratio);
+            }
+        }
+    }
+
+    @Test
+    void smallBatchMatchesPerMobRolls() {
+        assertSameDistribution(8, 1L);
+    }
+
+    @Test
+    void mediumBatchMatchesPerMobRolls() {
+        assertSameDistribution(100, 2L);
+    }
+
+    @Test
+    void largeBatchMatchesPerMobRolls() {
+        assertSameDistribution(1000, 3L);
+    }
+}